@@ -0,0 +1,174 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.modes;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadProcessGraphTest {
+
+    private final List<String> log = Collections.synchronizedList(Lists.newArrayList());
+
+    @Test
+    public void testMainThreadProcessesRunInOrder() {
+        LoadProcessGraph graph = new LoadProcessGraph();
+        graph.add(new TestProcess("a", 3));
+        graph.add(new TestProcess("b", 1));
+        graph.add(new TestProcess("c", 2));
+
+        runToCompletion(graph);
+
+        assertEquals(Lists.newArrayList("a", "b", "c"), log);
+        assertEquals(1f, graph.getProgress());
+    }
+
+    @Test
+    public void testWorkerProcessOverlapsProcessesItDoesNotDependOn() {
+        WorkerProcess prefabs = new WorkerProcess("prefabs", EntitiesProcess.class);
+        // can only finish once the worker process after it has started
+        TestProcess graphics = new TestProcess("graphics", 1) {
+            @Override
+            public boolean step() {
+                return prefabs.thread != null && super.step();
+            }
+        };
+        TestProcess blocks = new TestProcess("blocks", 1);
+
+        LoadProcessGraph graph = new LoadProcessGraph();
+        graph.add(new EntitiesProcess());
+        graph.add(graphics);
+        graph.add(prefabs);
+        graph.add(blocks);
+
+        runToCompletion(graph);
+
+        assertEquals(4, log.size());
+        assertEquals("entities", log.get(0));
+        assertEquals("blocks", log.get(3));
+        assertNotSame(Thread.currentThread(), prefabs.thread);
+        assertTrue(graph.getTimings().contains("prefabs: "));
+    }
+
+    @Test
+    public void testWorkerFailureIsReported() {
+        WorkerProcess failing = new WorkerProcess("failing", TestProcess.class) {
+            @Override
+            public boolean step() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        LoadProcessGraph graph = new LoadProcessGraph();
+        graph.add(new TestProcess("a", 1));
+        graph.add(failing);
+        graph.add(new TestProcess("b", 1));
+
+        assertThrows(IllegalStateException.class, () -> runToCompletion(graph));
+        assertSame(failing, graph.getFailedProcess());
+        assertFalse(log.contains("b"));
+    }
+
+    private static void runToCompletion(LoadProcessGraph graph) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!graph.isFinished()) {
+            if (!graph.step()) {
+                Thread.yield();
+            }
+            if (System.nanoTime() > deadline) {
+                graph.shutdown();
+                throw new AssertionError("Loading did not finish:\n" + graph.getTimings());
+            }
+        }
+    }
+
+    private class TestProcess extends StepBasedLoadProcess {
+        private final String name;
+        private final int steps;
+
+        TestProcess(String name, int steps) {
+            this.name = name;
+            this.steps = steps;
+        }
+
+        @Override
+        public String getMessage() {
+            return name;
+        }
+
+        @Override
+        public boolean step() {
+            stepDone();
+            if (getProgress() == 1f) {
+                log.add(name);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void begin() {
+            setTotalSteps(steps);
+        }
+
+        @Override
+        public int getExpectedCost() {
+            return 1;
+        }
+    }
+
+    private class EntitiesProcess extends TestProcess {
+        EntitiesProcess() {
+            super("entities", 2);
+        }
+    }
+
+    private class WorkerProcess extends SingleStepLoadProcess {
+        private final String name;
+        private final Class<? extends LoadProcess> dependency;
+        private volatile Thread thread;
+
+        WorkerProcess(String name, Class<? extends LoadProcess> dependency) {
+            this.name = name;
+            this.dependency = dependency;
+        }
+
+        @Override
+        public String getMessage() {
+            return name;
+        }
+
+        @Override
+        public boolean step() {
+            thread = Thread.currentThread();
+            log.add(name);
+            return true;
+        }
+
+        @Override
+        public int getExpectedCost() {
+            return 1;
+        }
+
+        @Override
+        public Set<Class<? extends LoadProcess>> getDependencies() {
+            return ImmutableSet.of(dependency);
+        }
+
+        @Override
+        public boolean isMainThreadOnly() {
+            return false;
+        }
+    }
+}
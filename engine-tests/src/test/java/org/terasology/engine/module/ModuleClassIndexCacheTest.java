@@ -0,0 +1,164 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.module;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+import org.terasology.module.BaseModule;
+import org.terasology.module.Module;
+import org.terasology.module.ModuleMetadata;
+import org.terasology.naming.Name;
+import org.terasology.naming.Version;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ModuleClassIndexCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path cacheDir;
+    private Path archive;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        cacheDir = tempDir.resolve("classIndex");
+        archive = tempDir.resolve("test.jar");
+        Files.write(archive, "classes".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCachedIndexSkipsTheScan() throws IOException {
+        getIndex(new ModuleClassIndexCache(cacheDir), createModule("1.0.0"));
+
+        ModuleClassIndexCache cache = new ModuleClassIndexCache(cacheDir);
+        TestModule module = createModule("1.0.0");
+        getIndex(cache, module);
+
+        assertEquals(0, module.scans);
+        assertEquals(1, cache.getIndexesRead());
+        assertEquals(0, cache.getIndexesBuilt());
+        assertEquals(1, listIndexes().size());
+    }
+
+    @Test
+    public void testChangedArchiveRebuildsTheIndex() throws IOException {
+        getIndex(new ModuleClassIndexCache(cacheDir), createModule("1.0.0"));
+        List<Path> oldIndexes = listIndexes();
+
+        Files.write(archive, "other classes".getBytes(StandardCharsets.UTF_8));
+        assertRebuilt(createModule("1.0.0"), oldIndexes);
+    }
+
+    @Test
+    public void testChangedVersionRebuildsTheIndex() throws IOException {
+        getIndex(new ModuleClassIndexCache(cacheDir), createModule("1.0.0"));
+        List<Path> oldIndexes = listIndexes();
+
+        assertRebuilt(createModule("1.1.0"), oldIndexes);
+    }
+
+    @Test
+    public void testUnreadableIndexFallsBackToScan() throws IOException {
+        getIndex(new ModuleClassIndexCache(cacheDir), createModule("1.0.0"));
+        Path index = listIndexes().get(0);
+        Files.write(index, "not an index".getBytes(StandardCharsets.UTF_8));
+
+        ModuleClassIndexCache cache = new ModuleClassIndexCache(cacheDir);
+        TestModule module = createModule("1.0.0");
+        getIndex(cache, module);
+
+        assertEquals(1, module.scans);
+        assertEquals(0, cache.getIndexesRead());
+        assertEquals(1, cache.getIndexesBuilt());
+
+        ModuleClassIndexCache laterCache = new ModuleClassIndexCache(cacheDir);
+        getIndex(laterCache, createModule("1.0.0"));
+        assertEquals(1, laterCache.getIndexesRead());
+    }
+
+    @Test
+    public void testRefreshedModuleIsIndexedAgain() throws IOException {
+        ModuleClassIndexCache cache = new ModuleClassIndexCache(cacheDir);
+        getIndex(cache, createModule("1.0.0"));
+
+        Files.write(archive, "other classes".getBytes(StandardCharsets.UTF_8));
+        TestModule refreshed = createModule("1.0.0");
+        getIndex(cache, refreshed);
+
+        assertEquals(1, refreshed.scans);
+        assertEquals(2, cache.getIndexesBuilt());
+    }
+
+    private void assertRebuilt(TestModule module, List<Path> oldIndexes) throws IOException {
+        ModuleClassIndexCache cache = new ModuleClassIndexCache(cacheDir);
+        getIndex(cache, module);
+
+        assertEquals(1, module.scans);
+        assertEquals(1, cache.getIndexesBuilt());
+        List<Path> indexes = listIndexes();
+        assertEquals(1, indexes.size());
+        assertNotEquals(oldIndexes, indexes);
+    }
+
+    private static Reflections getIndex(ModuleClassIndexCache cache, Module module) {
+        return cache.wrap(Collections.singletonList(module)).get(0).getReflectionsFragment();
+    }
+
+    private List<Path> listIndexes() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir.resolve("test"))) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private TestModule createModule(String version) {
+        ModuleMetadata metadata = new ModuleMetadata();
+        metadata.setId(new Name("test"));
+        metadata.setVersion(new Version(version));
+        return new TestModule(archive, metadata);
+    }
+
+    private static final class TestModule extends BaseModule {
+        private int scans;
+
+        private TestModule(Path location, ModuleMetadata metadata) {
+            super(Collections.singletonList(location), metadata);
+        }
+
+        @Override
+        public ImmutableList<URL> getClasspaths() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean isOnClasspath() {
+            return false;
+        }
+
+        @Override
+        public boolean isCodeModule() {
+            return true;
+        }
+
+        @Override
+        public Reflections getReflectionsFragment() {
+            scans++;
+            return new Reflections(new ConfigurationBuilder());
+        }
+    }
+}
@@ -411,4 +411,18 @@ public void testMoveToPool() {
         assertTrue(pool2.contains(id));
         assertFalse(pool1.contains(id));
     }
+
+    @Test
+    public void testComponentsFollowEntityToOtherPool() {
+        EntityRef entity = entityManager.create(new StringComponent("test"));
+        long id = entity.getId();
+        PojoEntityPool pool = new PojoEntityPool(entityManager);
+
+        assertTrue(entityManager.moveToPool(id, pool));
+        assertTrue(entity.hasComponent(StringComponent.class));
+        assertEquals("test", entity.getComponent(StringComponent.class).value);
+        assertFalse(entity.hasComponent(IntegerComponent.class));
+        assertNull(entity.getComponent(IntegerComponent.class));
+        assertEquals(pool, entityManager.getPoolMap().get(id));
+    }
 }
@@ -15,6 +15,8 @@
  */
 package org.terasology.entitySystem;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,11 +34,15 @@
 import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.prefab.PrefabData;
 import org.terasology.entitySystem.prefab.internal.PojoPrefab;
+import org.terasology.entitySystem.stubs.EntityRefComponent;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
 import org.terasology.network.NetworkSystem;
 import org.terasology.recording.RecordAndReplayCurrentStatus;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.testUtil.ModuleManagerFactory;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -93,4 +99,37 @@ public void testRemove() {
         assertFalse(pool.contains(ref.getId()));
     }
 
+    @Test
+    public void testGetEntitiesWithAllComponents() {
+        EntityRef both = pool.create(new StringComponent("both"), new IntegerComponent(1));
+        pool.create(new StringComponent("string only"));
+        pool.create(new IntegerComponent(2));
+        for (int i = 0; i < 10; i++) {
+            pool.create(new StringComponent("string " + i));
+        }
+
+        assertEquals(Lists.newArrayList(both),
+                Lists.newArrayList(pool.getEntitiesWith(StringComponent.class, IntegerComponent.class)));
+        assertEquals(Lists.newArrayList(both),
+                Lists.newArrayList(pool.getEntitiesWith(IntegerComponent.class, StringComponent.class)));
+        assertEquals(1, pool.getCountOfEntitiesWith(new Class[]{StringComponent.class, IntegerComponent.class}));
+        assertEquals(12, Iterables.size(pool.getEntitiesWith(StringComponent.class)));
+        assertFalse(pool.getEntitiesWith(StringComponent.class, EntityRefComponent.class).iterator().hasNext());
+    }
+
+    @Test
+    public void testGetEntitiesWithAllowsChangesWhileIterating() {
+        for (int i = 0; i < 10; i++) {
+            pool.create(new StringComponent("string " + i), new IntegerComponent(i));
+        }
+
+        int count = 0;
+        for (EntityRef entity : pool.getEntitiesWith(StringComponent.class, IntegerComponent.class)) {
+            entity.removeComponent(IntegerComponent.class);
+            count++;
+        }
+        assertEquals(10, count);
+        assertFalse(pool.getEntitiesWith(StringComponent.class, IntegerComponent.class).iterator().hasNext());
+    }
+
 }
@@ -215,6 +215,55 @@ public void testEventReceiverRegistration() {
         assertEquals(1, receiver.eventList.size());
     }
 
+    @Test
+    public void testHandlerRegisteredAfterSendReceivesEvent() {
+        entity.addComponent(new StringComponent());
+        entity.send(new TestEvent());
+
+        TestEventHandler handler = new TestEventHandler();
+        eventSystem.registerEventHandler(handler);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        eventSystem.unregisterEventHandler(handler);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testHandlerSelectionFollowsComponentChanges() {
+        TestCompoundComponentEventHandler handler = new TestCompoundComponentEventHandler();
+        eventSystem.registerEventHandler(handler);
+
+        entity.addComponent(new StringComponent());
+        entity.send(new TestEvent());
+        assertEquals(0, handler.receivedList.size());
+
+        entity.addComponent(new IntegerComponent());
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+
+        entity.removeComponent(StringComponent.class);
+        entity.send(new TestEvent());
+        assertEquals(1, handler.receivedList.size());
+    }
+
+    @Test
+    public void testReceiversAreInvokedInPriorityOrder() {
+        List<Integer> order = Lists.newArrayList();
+        entity.addComponent(new StringComponent());
+        eventSystem.registerEventReceiver((TestEvent event, EntityRef target) -> order.add(EventPriority.PRIORITY_LOW),
+                TestEvent.class, EventPriority.PRIORITY_LOW);
+        eventSystem.registerEventReceiver((TestEvent event, EntityRef target) -> order.add(EventPriority.PRIORITY_CRITICAL),
+                TestEvent.class, EventPriority.PRIORITY_CRITICAL, StringComponent.class);
+        eventSystem.registerEventReceiver((TestEvent event, EntityRef target) -> order.add(EventPriority.PRIORITY_NORMAL),
+                TestEvent.class, EventPriority.PRIORITY_NORMAL);
+
+        entity.send(new TestEvent());
+        assertEquals(Lists.newArrayList(EventPriority.PRIORITY_CRITICAL, EventPriority.PRIORITY_NORMAL,
+                EventPriority.PRIORITY_LOW), order);
+    }
+
     private static class TestEvent extends AbstractConsumableEvent {
 
     }
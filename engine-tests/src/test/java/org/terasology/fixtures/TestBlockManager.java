@@ -5,6 +5,7 @@
 
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPalette;
 import org.terasology.world.block.BlockUri;
 import org.terasology.world.block.family.BlockFamily;
 
@@ -61,6 +62,11 @@ public Block getBlock(short id) {
                 .orElse(null); // yeah it is ugly :'(
     }
 
+    @Override
+    public BlockPalette getBlockPalette() {
+        return BlockPalette.of(blockList);
+    }
+
     @Override
     public Collection<BlockUri> listRegisteredBlockUris() {
         return null;
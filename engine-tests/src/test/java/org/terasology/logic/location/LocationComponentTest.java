@@ -15,6 +15,7 @@
  */
 package org.terasology.logic.location;
 
+import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +23,7 @@
 import org.terasology.TerasologyTestingEnvironment;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.math.JomlUtil;
 import org.terasology.math.TeraMath;
 import org.terasology.testUtil.TeraAssert;
@@ -280,6 +282,83 @@ public void testPositionMaintainedWhenParentDestroyed() {
         TeraAssert.assertEquals(new Vector3f(2, 0, 0), loc.getWorldPosition(new Vector3f()), 0.000001f);
     }
 
+    @Test
+    public void testCachedWorldPositionFollowsChangedGrandparent() {
+        LocationComponent grandparent = new LocationComponent();
+        EntityRef grandparentEntity = createFakeEntityWith(grandparent);
+        LocationComponent parent = new LocationComponent();
+        EntityRef parentEntity = createFakeEntityWith(parent);
+        Location.attachChild(grandparentEntity, parentEntity);
+        Location.attachChild(parentEntity, entity);
+        loc.setLocalPosition(pos1);
+        TeraAssert.assertEquals(pos1, loc.getWorldPosition(new Vector3f()), 0.000001f);
+
+        grandparent.setLocalPosition(pos2);
+        TeraAssert.assertEquals(pos1plus2, loc.getWorldPosition(new Vector3f()), 0.000001f);
+        grandparent.setLocalScale(2.0f);
+        assertEquals(2.0f, loc.getWorldScale(), 0.000001f);
+    }
+
+    @Test
+    public void testCachedWorldPositionFollowsDirectlyModifiedLocalPosition() {
+        loc.setLocalPosition(pos1);
+        TeraAssert.assertEquals(pos1, loc.getWorldPosition(new Vector3f()), 0.000001f);
+
+        loc.getLocalPosition().add(JomlUtil.from(pos2));
+        TeraAssert.assertEquals(pos1plus2, loc.getWorldPosition(new Vector3f()), 0.000001f);
+    }
+
+    @Test
+    public void testCachedWorldPositionFollowsReplacedGrandparent() {
+        LocationComponent grandparent = new LocationComponent();
+        EntityRef grandparentEntity = createFakeEntityWith(grandparent);
+        LocationComponent parent = new LocationComponent();
+        EntityRef parentEntity = createFakeEntityWith(parent);
+        Location.attachChild(grandparentEntity, parentEntity);
+        Location.attachChild(parentEntity, entity);
+        grandparent.setLocalPosition(pos2);
+        loc.setLocalPosition(pos1);
+        TeraAssert.assertEquals(pos1plus2, loc.getWorldPosition(new Vector3f()), 0.000001f);
+
+        // saving a copy of the component replaces the instance the cached transforms were computed from
+        LocationComponent replacement = new LocationComponent();
+        replacement.setLocalPosition(pos1);
+        replacement.children.add(parentEntity);
+        when(grandparentEntity.getComponent(LocationComponent.class)).thenReturn(replacement);
+        new LocationHierarchySystem().onLocationChanged(OnChangedComponent.newInstance(), grandparentEntity);
+
+        TeraAssert.assertEquals(new Vector3f(2, 4, 6), loc.getWorldPosition(new Vector3f()), 0.000001f);
+    }
+
+    @Test
+    public void testCachedWorldPositionFollowsRemovedParentLocation() {
+        LocationComponent parent = new LocationComponent();
+        EntityRef parentEntity = createFakeEntityWith(parent);
+        Location.attachChild(parentEntity, entity);
+        parent.setLocalPosition(pos2);
+        loc.setLocalPosition(pos1);
+        TeraAssert.assertEquals(pos1plus2, loc.getWorldPosition(new Vector3f()), 0.000001f);
+
+        new LocationHierarchySystem().onLocationRemoved(BeforeRemoveComponent.newInstance(), parentEntity);
+        when(parentEntity.getComponent(LocationComponent.class)).thenReturn(null);
+        when(parentEntity.exists()).thenReturn(false);
+
+        TeraAssert.assertEquals(pos1, loc.getWorldPosition(new Vector3f()), 0.000001f);
+    }
+
+    @Test
+    public void testWorldTransformCombinesWorldPositionRotationAndScale() {
+        LocationComponent parent = giveParent();
+        loc.setLocalPosition(pos1);
+        parent.setLocalScale(2.0f);
+        parent.setLocalPosition(pos2);
+        parent.setLocalRotation(yawRotation);
+
+        Matrix4f transform = loc.getWorldTransform(new Matrix4f());
+        TeraAssert.assertEquals(new Vector3f(8, 7, 2), transform.getTranslation(new Vector3f()), 0.00001f);
+        TeraAssert.assertEquals(yawRotation, transform.getNormalizedRotation(new Quaternionf()), 0.0001f);
+        assertEquals(2.0f, transform.getScale(new Vector3f()).x, 0.00001f);
+    }
 
     private LocationComponent giveParent() {
         LocationComponent parent = new LocationComponent();
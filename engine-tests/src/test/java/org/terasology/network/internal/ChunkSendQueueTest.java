@@ -0,0 +1,64 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.world.chunks.Chunk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ChunkSendQueueTest {
+
+    private ChunkSendQueue queue;
+
+    @BeforeEach
+    public void setup() {
+        queue = new ChunkSendQueue();
+        queue.add(new Vector3i(2, 1, 1), mock(Chunk.class));
+        queue.add(new Vector3i(0, 0, 0), mock(Chunk.class));
+        queue.add(new Vector3i(-2, 0, 1), mock(Chunk.class));
+        queue.add(new Vector3i(0, 0, 1), mock(Chunk.class));
+    }
+
+    @Test
+    public void testCloserChunksComeFirst() {
+        queue.setViewer(new Vector3i(), new Vector3f());
+
+        assertEquals(Lists.newArrayList(new Vector3i(0, 0, 0), new Vector3i(0, 0, 1), new Vector3i(-2, 0, 1),
+                new Vector3i(2, 1, 1)), queue.getOrder());
+    }
+
+    @Test
+    public void testChunksInViewDirectionComeFirst() {
+        queue.setViewer(new Vector3i(), new Vector3f(1, 0, 0));
+
+        assertEquals(Lists.newArrayList(new Vector3i(0, 0, 0), new Vector3i(0, 0, 1), new Vector3i(2, 1, 1),
+                new Vector3i(-2, 0, 1)), queue.getOrder());
+    }
+
+    @Test
+    public void testOrderFollowsViewer() {
+        queue.setViewer(new Vector3i(), new Vector3f());
+        queue.getOrder();
+        queue.setViewer(new Vector3i(4, 0, 0), new Vector3f());
+
+        assertEquals(new Vector3i(2, 1, 1), queue.getOrder().get(0));
+    }
+
+    @Test
+    public void testRemovedChunksLeaveTheOrder() {
+        queue.setViewer(new Vector3i(), new Vector3f());
+        assertTrue(queue.remove(new Vector3i(0, 0, 0)));
+        assertFalse(queue.remove(new Vector3i(0, 0, 0)));
+
+        assertEquals(3, queue.size());
+        assertEquals(new Vector3i(0, 0, 1), queue.getOrder().get(0));
+    }
+}
@@ -0,0 +1,83 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.network.NetworkComponent;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EntityDeltaCacheTest {
+
+    private static final Set<Class<? extends Component>> NONE = Collections.emptySet();
+
+    private NetworkEntitySerializer entitySerializer;
+    private EntityDeltaCache cache;
+    private EntityRef entity;
+
+    @BeforeEach
+    public void setup() {
+        entitySerializer = mock(NetworkEntitySerializer.class);
+        when(entitySerializer.serialize(any(EntityRef.class), anyBoolean(), any()))
+                .thenAnswer(invocation -> EntityData.PackedEntity.newBuilder());
+        when(entitySerializer.serialize(any(EntityRef.class), anySet(), anySet(), anySet(), any()))
+                .thenAnswer(invocation -> EntityData.PackedEntity.newBuilder().build());
+        cache = new EntityDeltaCache(entitySerializer);
+        entity = mock(EntityRef.class);
+    }
+
+    @Test
+    public void testInitialIsSerializedOncePerOwnership() {
+        EntityData.PackedEntity first = cache.getInitial(1, entity, false);
+        assertSame(first, cache.getInitial(1, entity, false));
+        cache.getInitial(1, entity, true);
+        cache.getInitial(1, entity, true);
+
+        verify(entitySerializer, times(2)).serialize(eq(entity), eq(true), any());
+    }
+
+    @Test
+    public void testUpdateIsSharedBetweenClientsWithSameChanges() {
+        Set<Class<? extends Component>> changed = ImmutableSet.of(LocationComponent.class);
+        EntityData.PackedEntity first = cache.getUpdate(1, entity, false, NONE, changed, NONE);
+        assertSame(first, cache.getUpdate(1, entity, false, NONE, ImmutableSet.of(LocationComponent.class), NONE));
+        cache.getUpdate(1, entity, false, NONE, ImmutableSet.of(LocationComponent.class, NetworkComponent.class), NONE);
+        cache.getUpdate(1, entity, true, NONE, changed, NONE);
+
+        verify(entitySerializer, times(3)).serialize(eq(entity), anySet(), anySet(), anySet(), any());
+    }
+
+    @Test
+    public void testInvalidateAndClearDropCachedEntities() {
+        Set<Class<? extends Component>> changed = ImmutableSet.of(LocationComponent.class);
+        cache.getInitial(1, entity, false);
+        cache.getUpdate(1, entity, false, NONE, changed, NONE);
+        cache.invalidate(1);
+        cache.getInitial(1, entity, false);
+        cache.getUpdate(1, entity, false, NONE, changed, NONE);
+        cache.clear();
+        cache.getInitial(1, entity, false);
+        cache.getUpdate(1, entity, false, NONE, changed, NONE);
+
+        verify(entitySerializer, times(3)).serialize(eq(entity), eq(true), any());
+        verify(entitySerializer, times(3)).serialize(eq(entity), anySet(), anySet(), anySet(), any());
+    }
+}
@@ -0,0 +1,124 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableList;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NetworkCompressionTest {
+
+    private static final InetSocketAddress LOCAL = new InetSocketAddress("127.0.0.1", 25777);
+    private static final InetSocketAddress REMOTE = new InetSocketAddress("8.8.8.8", 25777);
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (NetworkCompression mode : NetworkCompression.values()) {
+            CompressionEncoder encoder = new CompressionEncoder(mode);
+            CompressionDecoder decoder = new CompressionDecoder(mode);
+            for (int i = 0; i < 20; i++) {
+                byte[] message = createMessage(i, 16 + i * 200);
+                ChannelBuffer decoded = decoder.decompress(encoder.compress(ChannelBuffers.wrappedBuffer(message)));
+                assertArrayEquals(message, toArray(decoded), mode.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testSmallFramesAreNotCompressed() {
+        for (NetworkCompression mode : NetworkCompression.values()) {
+            byte[] message = createMessage(0, CompressionEncoder.MIN_COMPRESSED_SIZE - 1);
+            ChannelBuffer frame = new CompressionEncoder(mode).compress(ChannelBuffers.wrappedBuffer(message));
+            assertEquals(CompressionEncoder.RAW, frame.getByte(0));
+            assertEquals(message.length + 1, frame.readableBytes());
+        }
+    }
+
+    @Test
+    public void testCompression() {
+        byte[] message = createMessage(0, 16 * 1024);
+        for (NetworkCompression mode : new NetworkCompression[]{NetworkCompression.FAST, NetworkCompression.HIGH_RATIO}) {
+            ChannelBuffer frame = new CompressionEncoder(mode).compress(ChannelBuffers.wrappedBuffer(message));
+            assertTrue(frame.readableBytes() < message.length / 2, mode.toString());
+        }
+    }
+
+    @Test
+    public void testFramesThatDoNotShrinkAreSentRaw() throws IOException {
+        for (NetworkCompression mode : new NetworkCompression[]{NetworkCompression.FAST, NetworkCompression.HIGH_RATIO}) {
+            CompressionEncoder encoder = new CompressionEncoder(mode);
+            CompressionDecoder decoder = new CompressionDecoder(mode);
+            for (int i = 0; i < 6; i++) {
+                // the compressible frames in between check that the deflate stream is still in step
+                byte[] message = i % 2 == 0 ? createNoise(i, 4096) : createMessage(i, 4096);
+                ChannelBuffer frame = encoder.compress(ChannelBuffers.wrappedBuffer(message));
+                if (i % 2 == 0) {
+                    assertNotEquals(CompressionEncoder.COMPRESSED, frame.getByte(0), mode.toString());
+                    assertEquals(message.length + 1, frame.readableBytes(), mode.toString());
+                }
+                assertArrayEquals(message, toArray(decoder.decompress(frame)), mode.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testCorruptFrameIsRejected() {
+        CompressionDecoder decoder = new CompressionDecoder(NetworkCompression.FAST);
+        ChannelBuffer frame = ChannelBuffers.wrappedBuffer(new byte[]{CompressionEncoder.COMPRESSED, 0, 0, 1, 0, 42});
+        assertThrows(IOException.class, () -> decoder.decompress(frame));
+    }
+
+    @Test
+    public void testChoice() {
+        ImmutableList<NetworkCompression> all = ImmutableList.copyOf(NetworkCompression.values());
+        assertEquals(NetworkCompression.NONE, NetworkCompression.choose(all, NetworkCompression.FAST, LOCAL));
+        assertEquals(NetworkCompression.HIGH_RATIO, NetworkCompression.choose(all, NetworkCompression.HIGH_RATIO, REMOTE));
+        assertEquals(NetworkCompression.FAST,
+                NetworkCompression.choose(ImmutableList.of(NetworkCompression.FAST), NetworkCompression.HIGH_RATIO, LOCAL));
+        assertNull(NetworkCompression.choose(Collections.emptyList(), NetworkCompression.FAST, REMOTE));
+    }
+
+    @Test
+    public void testHandshakeField() {
+        assertEquals(ImmutableList.of(NetworkCompression.HIGH_RATIO, NetworkCompression.NONE),
+                NetworkCompression.fromHandshakeField(
+                        NetworkCompression.toHandshakeField(NetworkCompression.HIGH_RATIO, NetworkCompression.NONE)));
+    }
+
+    /**
+     * Repeating field ids and values with some noise, similar to serialized entity updates.
+     */
+    private static byte[] createMessage(long seed, int length) {
+        Random random = new Random(seed);
+        byte[] message = new byte[length];
+        for (int i = 0; i < length; i++) {
+            message[i] = (byte) (random.nextInt(32) == 0 ? random.nextInt() : i % 16);
+        }
+        return message;
+    }
+
+    private static byte[] createNoise(long seed, int length) {
+        byte[] noise = new byte[length];
+        new Random(seed).nextBytes(noise);
+        return noise;
+    }
+
+    private static byte[] toArray(ChannelBuffer buffer) {
+        byte[] result = new byte[buffer.readableBytes()];
+        buffer.readBytes(result);
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.network.ClientComponent;
+import org.terasology.rendering.world.viewDistance.ViewDistance;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NetworkRelevanceManagerTest {
+
+    private NetworkRelevanceManager relevanceManager;
+    private NetClient client;
+    private LocationComponent characterLocation;
+
+    @BeforeEach
+    public void setup() {
+        relevanceManager = new NetworkRelevanceManager();
+        characterLocation = new LocationComponent();
+        client = createClient(characterLocation);
+        relevanceManager.addClient(client);
+    }
+
+    @Test
+    public void testEntityWithoutLocationIsAlwaysRelevant() {
+        relevanceManager.addEntity(1, createEntity((LocationComponent) null));
+        verify(client).setNetInitial(1);
+
+        NetClient otherClient = mock(NetClient.class);
+        relevanceManager.addClient(otherClient);
+        verify(otherClient).setNetInitial(1);
+    }
+
+    @Test
+    public void testOnlyNearbyEntitiesAreRelevant() {
+        relevanceManager.addEntity(1, createEntity(new Vector3f(10, 0, 10)));
+        relevanceManager.addEntity(2, createEntity(new Vector3f(1000, 0, 10)));
+        relevanceManager.update();
+
+        verify(client).setNetInitial(1);
+        verify(client, never()).setNetInitial(2);
+    }
+
+    @Test
+    public void testEntityLeavesWithHysteresis() {
+        LocationComponent location = new LocationComponent();
+        EntityRef entity = createEntity(location);
+        relevanceManager.addEntity(1, entity);
+        relevanceManager.update();
+        verify(client).setNetInitial(1);
+
+        // NEAR covers 4 chunks in each horizontal direction, the entity is in the fifth chunk now
+        location.setWorldPosition(new Vector3f(5 * 32 + 1, 0, 0));
+        relevanceManager.entityChanged(1);
+        relevanceManager.update();
+        verify(client, never()).setNetRemoved(1);
+
+        location.setWorldPosition(new Vector3f(6 * 32 + 1, 0, 0));
+        relevanceManager.entityChanged(1);
+        relevanceManager.update();
+        verify(client).setNetRemoved(1);
+
+        location.setWorldPosition(new Vector3f(5 * 32 + 1, 0, 0));
+        relevanceManager.entityChanged(1);
+        relevanceManager.update();
+        verify(client, times(1)).setNetInitial(1);
+    }
+
+    @Test
+    public void testClientMovingAwayRemovesEntity() {
+        relevanceManager.addEntity(1, createEntity(new Vector3f(10, 0, 10)));
+        relevanceManager.update();
+        verify(client).setNetInitial(1);
+
+        characterLocation.setWorldPosition(new Vector3f(1000, 0, 10));
+        relevanceManager.update();
+        verify(client).setNetRemoved(1);
+    }
+
+    @Test
+    public void testAddedEntityIsOnlySentToNearbyClients() {
+        LocationComponent farLocation = new LocationComponent();
+        farLocation.setWorldPosition(new Vector3f(1000, 0, 10));
+        NetClient farClient = createClient(farLocation);
+        relevanceManager.addClient(farClient);
+        characterLocation.setWorldPosition(new Vector3f(10, 0, 10));
+
+        relevanceManager.addEntity(1, createEntity(new Vector3f(10, 0, 10)));
+        relevanceManager.addEntity(2, createEntity(new Vector3f(1000, 0, 10)));
+
+        verify(client).setNetInitial(1);
+        verify(client, never()).setNetInitial(2);
+        verify(farClient).setNetInitial(2);
+        verify(farClient, never()).setNetInitial(1);
+    }
+
+    @Test
+    public void testRemovedEntityIsOnlyRemovedFromClientsItWasSentTo() {
+        relevanceManager.addEntity(1, createEntity(new Vector3f(1000, 0, 10)));
+        relevanceManager.update();
+        relevanceManager.removeEntity(1);
+
+        verify(client, never()).setNetRemoved(1);
+    }
+
+    private NetClient createClient(LocationComponent location) {
+        EntityRef character = mock(EntityRef.class);
+        when(character.getComponent(LocationComponent.class)).thenReturn(location);
+        ClientComponent clientComponent = new ClientComponent();
+        clientComponent.character = character;
+        EntityRef clientEntity = mock(EntityRef.class);
+        when(clientEntity.getComponent(ClientComponent.class)).thenReturn(clientComponent);
+
+        NetClient netClient = mock(NetClient.class);
+        when(netClient.getEntity()).thenReturn(clientEntity);
+        when(netClient.getViewDistance()).thenReturn(ViewDistance.NEAR);
+        return netClient;
+    }
+
+    private EntityRef createEntity(Vector3f position) {
+        LocationComponent location = null;
+        if (position != null) {
+            location = new LocationComponent();
+            location.setWorldPosition(position);
+        }
+        return createEntity(location);
+    }
+
+    private EntityRef createEntity(LocationComponent location) {
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.getOwner()).thenReturn(EntityRef.NULL);
+        when(entity.getComponent(LocationComponent.class)).thenReturn(location);
+        return entity;
+    }
+}
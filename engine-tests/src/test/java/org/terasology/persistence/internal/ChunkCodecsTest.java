@@ -0,0 +1,148 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkCodecsTest {
+
+    private Path dictionaryFile;
+    private ChunkCodecs codecs;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        dictionaryFile = Files.createTempDirectory("chunkCodecs").resolve("chunks.dict");
+        codecs = new ChunkCodecs(dictionaryFile);
+    }
+
+    @Test
+    public void testDefaultCodec() {
+        assertEquals(ChunkCodecs.DEFAULT_CODEC, codecs.getWriteCodec().getName());
+        codecs.setWriteCodec("unknown");
+        assertEquals(ChunkCodecs.DEFAULT_CODEC, codecs.getWriteCodec().getName());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (String name : new String[]{GzipChunkCodec.NAME, Lz4ChunkCodec.NAME, DeflateChunkCodec.NAME}) {
+            codecs.setWriteCodec(name);
+            for (int i = 0; i < 10; i++) {
+                byte[] data = createChunkLikeData(i);
+                assertArrayEquals(data, codecs.decode(codecs.encode(data)), name);
+            }
+        }
+    }
+
+    @Test
+    public void testLegacyGzipIsReadable() throws IOException {
+        byte[] data = createChunkLikeData(0);
+        byte[] legacy = new GzipChunkCodec().compress(data);
+
+        codecs.setWriteCodec(Lz4ChunkCodec.NAME);
+        assertArrayEquals(data, codecs.decode(legacy));
+    }
+
+    @Test
+    public void testLz4CompressesRepetitiveData() {
+        byte[] data = createChunkLikeData(0);
+        assertTrue(new Lz4ChunkCodec().compress(data).length < data.length / 4);
+    }
+
+    @Test
+    public void testCorruptDataIsRejected() {
+        codecs.setWriteCodec(Lz4ChunkCodec.NAME);
+        byte[] encoded = codecs.encode(createChunkLikeData(0));
+        byte[] truncated = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        assertThrows(IOException.class, () -> codecs.decode(truncated));
+        assertThrows(IOException.class, () -> codecs.decode(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    public void testDictionaryIsTrainedAndStored() throws IOException {
+        codecs.setWriteCodec(DeflateChunkCodec.NAME);
+        DeflateChunkCodec codec = (DeflateChunkCodec) codecs.getWriteCodec();
+        byte[] withoutDictionary = codecs.encode(createChunkLikeData(0));
+        for (int i = 0; codec.getDictionary() == null; i++) {
+            codecs.encode(createChunkLikeData(i));
+        }
+        assertTrue(Files.isRegularFile(dictionaryFile));
+
+        byte[] data = createChunkLikeData(1000);
+        byte[] withDictionary = codecs.encode(data);
+
+        ChunkCodecs reloaded = new ChunkCodecs(dictionaryFile);
+        assertArrayEquals(data, reloaded.decode(withDictionary));
+        assertArrayEquals(createChunkLikeData(0), reloaded.decode(withoutDictionary));
+    }
+
+    @Test
+    public void testUnknownDictionaryIsRejected() throws IOException {
+        codecs.setWriteCodec(DeflateChunkCodec.NAME);
+        DeflateChunkCodec codec = (DeflateChunkCodec) codecs.getWriteCodec();
+        for (int i = 0; codec.getDictionary() == null; i++) {
+            codecs.encode(createChunkLikeData(i));
+        }
+        byte[] withDictionary = codecs.encode(createChunkLikeData(0));
+
+        ChunkCodecs withoutDictionary = new ChunkCodecs(null);
+        assertNull(((DeflateChunkCodec) withoutDictionary.getCodec(DeflateChunkCodec.NAME)).getDictionary());
+        assertThrows(IOException.class, () -> withoutDictionary.decode(withDictionary));
+    }
+
+    @Test
+    public void testTrainerPrefersCommonSegments() {
+        byte[] common = new byte[64];
+        new Random(1).nextBytes(common);
+        List<byte[]> samples = Lists.newArrayList();
+        for (int i = 0; i < 8; i++) {
+            byte[] sample = new byte[256];
+            new Random(i + 2).nextBytes(sample);
+            System.arraycopy(common, 0, sample, 100, common.length);
+            samples.add(sample);
+        }
+        // room for two segments only, far less than a single sample
+        int dictionarySize = 2 * ChunkDictionaryTrainer.SEGMENT_LENGTH;
+        byte[] dictionary = ChunkDictionaryTrainer.train(samples, dictionarySize);
+
+        assertEquals(dictionarySize, dictionary.length);
+        for (int offset = 0; offset < dictionary.length; offset += ChunkDictionaryTrainer.SEGMENT_LENGTH) {
+            byte[] segment = Arrays.copyOfRange(dictionary, offset, offset + ChunkDictionaryTrainer.SEGMENT_LENGTH);
+            assertTrue(Bytes.indexOf(common, segment) >= 0, "segment at " + offset + " is not part of the common bytes");
+        }
+    }
+
+    /**
+     * Runs of a few block ids with some noise, similar to run length encoded terrain.
+     */
+    private static byte[] createChunkLikeData(long seed) {
+        Random random = new Random(seed);
+        byte[] data = new byte[16 * 1024];
+        int i = 0;
+        while (i < data.length) {
+            int run = 1 + random.nextInt(64);
+            byte value = (byte) random.nextInt(6);
+            for (int j = 0; j < run && i < data.length; j++) {
+                data[i++] = value;
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,130 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.ImmutableMap;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RegionFilesTest {
+
+    private StoragePathProvider storagePathProvider;
+    private RegionFiles regionFiles;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        storagePathProvider = new StoragePathProvider(Files.createTempDirectory("regionFiles"));
+        regionFiles = new RegionFiles(storagePathProvider, false);
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        regionFiles.close();
+    }
+
+    @Test
+    public void testMissingChunk() throws IOException {
+        assertNull(regionFiles.read(new Vector3i(1, 2, 3)));
+        assertFalse(Files.exists(storagePathProvider.getRegionPath(new Vector3i(0, 0, 0))));
+    }
+
+    @Test
+    public void testChunksSurviveReopening() throws IOException {
+        Vector3i[] positions = {new Vector3i(0, 0, 0), new Vector3i(-1, 5, 17), new Vector3i(15, -16, 3)};
+        for (int i = 0; i < positions.length; i++) {
+            regionFiles.write(positions[i], createData(i, 1000 * (i + 1)));
+        }
+        regionFiles.close();
+
+        RegionFiles reopened = new RegionFiles(storagePathProvider, true);
+        for (int i = 0; i < positions.length; i++) {
+            assertArrayEquals(createData(i, 1000 * (i + 1)), reopened.read(positions[i]));
+        }
+        assertNull(reopened.read(new Vector3i(1, 0, 0)));
+        reopened.close();
+    }
+
+    @Test
+    public void testChunksGetOverwritten() throws IOException {
+        Vector3i pos = new Vector3i(2, 0, 2);
+        Vector3i neighbour = new Vector3i(3, 0, 2);
+        regionFiles.write(pos, createData(1, 100));
+        regionFiles.write(neighbour, createData(2, 5000));
+
+        regionFiles.write(pos, createData(3, 50));
+        assertArrayEquals(createData(3, 50), regionFiles.read(pos));
+        // needs more sectors than it has, so it gets moved
+        regionFiles.write(pos, createData(4, 3 * RegionFile.SECTOR_SIZE));
+        assertArrayEquals(createData(4, 3 * RegionFile.SECTOR_SIZE), regionFiles.read(pos));
+        assertArrayEquals(createData(2, 5000), regionFiles.read(neighbour));
+    }
+
+    @Test
+    public void testFreedSectorsGetReused() throws IOException {
+        Vector3i pos = new Vector3i(0, 0, 0);
+        Path regionPath = storagePathProvider.getRegionPath(storagePathProvider.getRegionPosition(pos));
+        regionFiles.write(pos, createData(1, RegionFile.SECTOR_SIZE));
+        regionFiles.write(new Vector3i(1, 0, 0), createData(2, RegionFile.SECTOR_SIZE));
+        regionFiles.write(pos, createData(3, 2 * RegionFile.SECTOR_SIZE));
+        regionFiles.flush();
+        long size = Files.size(regionPath);
+
+        // fits into the sector pos used before
+        regionFiles.write(new Vector3i(2, 0, 0), createData(4, RegionFile.SECTOR_SIZE));
+        regionFiles.flush();
+        assertEquals(size, Files.size(regionPath));
+    }
+
+    @Test
+    public void testMigrationFromChunkZips() throws IOException {
+        Vector3i pos = new Vector3i(1, 2, 3);
+        Vector3i loosePos = new Vector3i(-4, 0, 4);
+        Files.createDirectories(storagePathProvider.getWorldPath());
+        Path zipPath = storagePathProvider.getChunkZipPath(storagePathProvider.getChunkZipPosition(pos));
+        try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + zipPath.toUri()),
+                ImmutableMap.of("create", "true"))) {
+            Files.write(zip.getPath(storagePathProvider.getChunkFilename(pos)), createData(1, 2000));
+        }
+        Files.write(storagePathProvider.getChunkPath(loosePos), createData(2, 300));
+
+        assertEquals(2, regionFiles.migrate());
+
+        assertFalse(Files.exists(zipPath));
+        assertFalse(Files.exists(storagePathProvider.getChunkPath(loosePos)));
+        assertArrayEquals(createData(1, 2000), regionFiles.read(pos));
+        assertArrayEquals(createData(2, 300), regionFiles.read(loosePos));
+        assertEquals(0, regionFiles.migrate());
+    }
+
+    @Test
+    public void testChunkFilename() {
+        Vector3i pos = new Vector3i(-3, 0, 12);
+        assertEquals(pos, storagePathProvider.getChunkPositionFromFilename(storagePathProvider.getChunkFilename(pos)));
+        assertNull(storagePathProvider.getChunkPositionFromFilename("1.2.3.chunks.zip"));
+        assertNull(storagePathProvider.getChunkPositionFromFilename("a.2.3.chunk"));
+        assertTrue(RegionFile.getIndex(new Vector3i(-1, 0, 0)) == RegionFile.REGION_DIM - 1);
+    }
+
+    private static byte[] createData(int value, int length) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) value);
+        data[length - 1] = (byte) (value + 1);
+        return data;
+    }
+}
@@ -31,6 +31,8 @@
 import org.terasology.TerasologyTestingEnvironment;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.engine.paths.PathManager;
@@ -295,6 +297,145 @@ public void testStoreAndRestoreChunkStore() {
         assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
     }
 
+    @Test
+    public void testChunkSurvivesStorageSaveAndRestoreInRegions() throws Exception {
+        Chunk chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.setBlock(0, 4, 2, testBlock2);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        when(chunkProvider.getChunk(Matchers.any(org.terasology.math.geom.Vector3i.class))).thenReturn(chunk);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setChunkStorageFormat(ChunkStorageFormat.REGIONS);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, ChunkStorageFormat.REGIONS, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(JomlUtil.from(CHUNK_POS));
+        assertNotNull(restored);
+        assertEquals(CHUNK_POS, restored.getChunkPosition());
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
+    }
+
+    @Test
+    public void testZipSaveIsMigratedToRegions() throws Exception {
+        Chunk chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        when(chunkProvider.getChunk(Matchers.any(org.terasology.math.geom.Vector3i.class))).thenReturn(chunk);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setStoreChunksInZips(true);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, ChunkStorageFormat.REGIONS, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
+        newSM.checkAndRepairSaveIfNecessary();
+        newSM.loadGlobalStore();
+
+        StoragePathProvider storagePathProvider = new StoragePathProvider(savePath);
+        assertFalse(Files.exists(storagePathProvider.getChunkZipPath(
+                storagePathProvider.getChunkZipPosition(CHUNK_POS))));
+        ChunkStore restored = newSM.loadChunkStore(JomlUtil.from(CHUNK_POS));
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+    }
+
+    @Test
+    public void testIncrementalAutoSaveSpreadsChangedChunks() throws Exception {
+        ChunkImpl chunk = new ChunkImpl(new org.terasology.math.geom.Vector3i(10, 2, 3), blockManager,
+                extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkImpl otherChunk = new ChunkImpl(new org.terasology.math.geom.Vector3i(11, 2, 3), blockManager,
+                extraDataManager);
+        otherChunk.setBlock(0, 0, 0, testBlock2);
+        otherChunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.<Chunk>asList(chunk, otherChunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+        SystemConfig systemConfig = context.get(Config.class).getSystem();
+        systemConfig.setIncrementalSaving(true);
+        systemConfig.setChunksPerIncrementalSave(1);
+        systemConfig.setMaxSecondsBetweenSaves(0);
+
+        // the first update schedules the auto save, the second one starts it
+        esm.update();
+        esm.update();
+        assertEquals(1, esm.getSaveMetrics().getPendingChunks());
+
+        for (int i = 0; i < 500 && (esm.isSaving() || otherChunk.hasUnsavedChanges() || chunk.hasUnsavedChanges());
+             i++) {
+            Thread.sleep(10);
+            esm.update();
+        }
+        assertFalse(chunk.hasUnsavedChanges());
+        assertFalse(otherChunk.hasUnsavedChanges());
+        esm.finishSavingAndShutdown();
+        assertEquals(0, esm.getSaveMetrics().getPendingChunks());
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        newSM.loadGlobalStore();
+
+        assertEquals(testBlock, newSM.loadChunkStore(chunk.getPosition()).getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, newSM.loadChunkStore(otherChunk.getPosition()).getChunk().getBlock(0, 0, 0));
+    }
+
+    @Test
+    public void testChunksAreOnlySavedOnceWritten() throws Exception {
+        ChunkImpl chunk = new ChunkImpl(new org.terasology.math.geom.Vector3i(10, 2, 3), blockManager,
+                extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkImpl otherChunk = new ChunkImpl(new org.terasology.math.geom.Vector3i(11, 2, 3), blockManager,
+                extraDataManager);
+        otherChunk.setBlock(0, 0, 0, testBlock2);
+        otherChunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.<Chunk>asList(chunk, otherChunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+        SystemConfig systemConfig = context.get(Config.class).getSystem();
+        systemConfig.setIncrementalSaving(true);
+        systemConfig.setChunksPerIncrementalSave(10);
+        systemConfig.setMaxSecondsBetweenSaves(0);
+
+        esm.update();
+        esm.update();
+        assertTrue(chunk.hasUnsavedChanges());
+        assertTrue(otherChunk.hasUnsavedChanges());
+
+        // a change after the snapshot is not part of the save
+        chunk.setBlock(1, 0, 0, testBlock2);
+        for (int i = 0; i < 500 && esm.isSaving(); i++) {
+            Thread.sleep(10);
+        }
+        esm.update();
+        assertTrue(chunk.hasUnsavedChanges());
+        assertFalse(otherChunk.hasUnsavedChanges());
+        esm.finishSavingAndShutdown();
+    }
+
     @Test
     public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         Chunk chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
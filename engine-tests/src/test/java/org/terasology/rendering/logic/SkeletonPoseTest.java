@@ -0,0 +1,183 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.logic;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.Location;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.BaseQuat4f;
+import org.terasology.math.geom.BaseVector3f;
+import org.terasology.math.geom.Matrix4f;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.rendering.assets.animation.MeshAnimation;
+import org.terasology.rendering.assets.animation.MeshAnimationFrame;
+import org.terasology.rendering.assets.skeletalmesh.Bone;
+import org.terasology.rendering.assets.skeletalmesh.SkeletalMesh;
+import org.terasology.testUtil.TeraAssert;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SkeletonPoseTest {
+
+    private static final Vector3f[] TEST_POINTS = {
+            new Vector3f(0, 0, 0), new Vector3f(1, 0, 0), new Vector3f(0, 1, 0), new Vector3f(0, 0, 1)
+    };
+
+    private final List<Bone> bones = Lists.newArrayList();
+    private final Map<String, EntityRef> boneEntities = Maps.newHashMap();
+    private EntityRef skeletonEntity;
+    private SkeletalMesh mesh;
+
+    @BeforeEach
+    public void setup() {
+        skeletonEntity = createEntity();
+        // root - arm - hand, and a head next to the arm
+        Bone root = addBone("root", null, new Quat4f(new Vector3f(0, 1, 0), (float) Math.PI / 2), new Vector3f(1, 0, 0), 1);
+        Bone arm = addBone("arm", root, new Quat4f(new Vector3f(1, 0, 0), (float) Math.PI / 4), new Vector3f(0, 2, 0), 2);
+        addBone("hand", arm, new Quat4f(new Vector3f(0, 0, 1), (float) Math.PI / 6), new Vector3f(0, 0, 3), 1);
+        addBone("head", root, new Quat4f(Quat4f.IDENTITY), new Vector3f(0, 1, 0), 1);
+
+        mesh = mock(SkeletalMesh.class);
+        when(mesh.getBones()).thenReturn(bones);
+        for (Bone bone : bones) {
+            when(mesh.getBone(bone.getName())).thenReturn(bone);
+        }
+    }
+
+    @Test
+    public void testSkinningTransformsMatchBoneEntityTransforms() {
+        assertSkinningTransformsMatchBoneEntities(new SkeletonPose(mesh, boneEntities));
+    }
+
+    @Test
+    public void testSampledFramesMatchInterpolatedBoneEntities() {
+        // in another order than the mesh, without the head and with a bone the mesh does not have
+        List<String> animationBones = Arrays.asList("hand", "tail", "root", "arm");
+        MeshAnimation animation = mock(MeshAnimation.class);
+        when(animation.getBoneCount()).thenReturn(animationBones.size());
+        for (int i = 0; i < animationBones.size(); i++) {
+            when(animation.getBoneName(i)).thenReturn(animationBones.get(i));
+        }
+        MeshAnimationFrame frameA = createFrame(0);
+        MeshAnimationFrame frameB = createFrame(1);
+        float interpolation = 0.25f;
+
+        SkeletonPose pose = new SkeletonPose(mesh, boneEntities);
+        pose.setFrames(animation, frameA, frameB, interpolation);
+        pose.sample();
+
+        // how the bone entities used to be posed
+        for (int i = 0; i < animationBones.size(); i++) {
+            EntityRef boneEntity = boneEntities.get(animationBones.get(i));
+            if (boneEntity == null) {
+                continue;
+            }
+            LocationComponent location = boneEntity.getComponent(LocationComponent.class);
+            location.setLocalPosition(BaseVector3f.lerp(frameA.getPosition(i), frameB.getPosition(i), interpolation));
+            Quat4f rotation = BaseQuat4f.interpolate(frameA.getRotation(i), frameB.getRotation(i), interpolation);
+            rotation.normalize();
+            location.setLocalRotation(rotation);
+            location.setLocalScale(BaseVector3f.lerp(frameA.getBoneScale(i), frameB.getBoneScale(i), interpolation).x);
+        }
+        assertSkinningTransformsMatchBoneEntities(pose);
+    }
+
+    @Test
+    public void testOnlyObservedBonesAndTheirParentsAreWritten() {
+        EntityRef arm = boneEntities.get("arm");
+        EntityRef heldItem = createEntity();
+        Location.attachChild(arm, heldItem, new Vector3f(), new Quat4f(Quat4f.IDENTITY));
+        SkeletonPose pose = new SkeletonPose(mesh, boneEntities);
+        clearInvocations(boneEntities.values().toArray());
+
+        pose.writeObservedBones();
+
+        verify(arm).saveComponent(any(LocationComponent.class));
+        verify(boneEntities.get("root")).saveComponent(any(LocationComponent.class));
+        verify(boneEntities.get("hand"), never()).saveComponent(any(LocationComponent.class));
+        verify(boneEntities.get("head"), never()).saveComponent(any(LocationComponent.class));
+    }
+
+    @Test
+    public void testNothingIsWrittenWithoutObservedBones() {
+        SkeletonPose pose = new SkeletonPose(mesh, boneEntities);
+        clearInvocations(boneEntities.values().toArray());
+
+        pose.writeObservedBones();
+
+        for (EntityRef boneEntity : boneEntities.values()) {
+            verify(boneEntity, never()).saveComponent(any(LocationComponent.class));
+        }
+    }
+
+    private void assertSkinningTransformsMatchBoneEntities(SkeletonPose pose) {
+        for (Bone bone : bones) {
+            // how the skinning transforms used to be computed from the bone entities
+            Matrix4f expected = new Matrix4f(Matrix4f.IDENTITY);
+            boneEntities.get(bone.getName()).getComponent(LocationComponent.class).getRelativeTransform(expected, skeletonEntity);
+            expected.mul(bone.getInverseBindMatrix());
+
+            Matrix4f actual = pose.getSkinningTransforms().get(bone.getIndex());
+            for (Vector3f point : TEST_POINTS) {
+                TeraAssert.assertEquals(expected.transformPoint(new Vector3f(point)),
+                        actual.transformPoint(new Vector3f(point)), 0.0001f);
+            }
+        }
+    }
+
+    /**
+     * @param variant 0 or 1, each bone turns a little further about its own axis in the second frame
+     */
+    private static MeshAnimationFrame createFrame(int variant) {
+        List<Vector3f> positions = Lists.newArrayList();
+        List<Quat4f> rotations = Lists.newArrayList();
+        List<Vector3f> scales = Lists.newArrayList();
+        for (int i = 0; i < 4; i++) {
+            positions.add(new Vector3f(i + variant, 1 - variant, 2 * variant));
+            Vector3f axis = new Vector3f(i % 2, 1, i % 3);
+            axis.normalize();
+            rotations.add(new Quat4f(axis, 0.2f * i + 0.6f * variant));
+            scales.add(new Vector3f(1 + variant, 1 + variant, 1 + variant));
+        }
+        return new MeshAnimationFrame(positions, rotations, scales);
+    }
+
+    private Bone addBone(String name, Bone parent, Quat4f rotation, Vector3f position, float scale) {
+        Bone bone = new Bone(bones.size(), name, new Matrix4f(rotation, position, scale));
+        // any invertible matrix will do, it only has to differ between the bones
+        bone.setInverseBindMatrix(new Matrix4f(new Quat4f(new Vector3f(1, 1, 0), 0.3f * bones.size()),
+                new Vector3f(-bones.size(), 1, 2), 1));
+        EntityRef parentEntity = skeletonEntity;
+        if (parent != null) {
+            parent.addChild(bone);
+            parentEntity = boneEntities.get(parent.getName());
+        }
+        bones.add(bone);
+
+        EntityRef boneEntity = createEntity();
+        Location.attachChild(parentEntity, boneEntity, bone.getLocalPosition(), bone.getLocalRotation(), bone.getLocalScale().x);
+        boneEntities.put(name, boneEntity);
+        return bone;
+    }
+
+    private static EntityRef createEntity() {
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.getComponent(LocationComponent.class)).thenReturn(new LocationComponent());
+        when(entity.exists()).thenReturn(true);
+        return entity;
+    }
+}
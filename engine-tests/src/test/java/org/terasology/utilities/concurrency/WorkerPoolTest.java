@@ -0,0 +1,58 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.utilities.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkerPoolTest {
+
+    private WorkerPool pool = new WorkerPool("Test-Pool", 2, Thread.NORM_PRIORITY);
+
+    @AfterEach
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testResize() {
+        pool.resize(4);
+        assertEquals(4, pool.getThreadCount());
+        pool.resize(1);
+        assertEquals(1, pool.getThreadCount());
+        assertThrows(IllegalArgumentException.class, () -> pool.resize(0));
+    }
+
+    @Test
+    public void testBusyTime() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        pool.execute(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+        assertTrue(pool.getBusyTime(TimeUnit.MILLISECONDS) >= 50);
+        assertEquals(0, pool.getQueueDepth());
+    }
+
+    @Test
+    public void testDefaultThreadsUseAvailableProcessors() {
+        assertEquals(31, WorkerPoolType.CHUNK_PROCESSING.getDefaultThreads(32));
+        assertEquals(16, WorkerPoolType.CHUNK_MESHING.getDefaultThreads(32));
+        assertEquals(1, WorkerPoolType.CHUNK_PROCESSING.getDefaultThreads(1));
+        assertEquals(1, WorkerPoolType.CHUNK_MESHING.getDefaultThreads(1));
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.utilities.procedural;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NoiseBatchTest {
+
+    private static final Rect2i AREA = Rect2i.createFromMinAndSize(-13, 7, 37, 21);
+    private static final Region3i REGION = Region3i.createFromMinAndSize(new Vector3i(-5, -9, 30), new Vector3i(11, 7, 13));
+
+    @Test
+    public void testSimplexMatchesPointNoise() {
+        assertMatches(new SimplexNoise(42), 0);
+        assertMatches(new SimplexNoise(42, 100), 0);
+    }
+
+    @Test
+    public void testPerlinMatchesPointNoise() {
+        assertMatches(new PerlinNoise(42), 0);
+        assertMatches(new PerlinNoise(42, 100), 0);
+    }
+
+    @Test
+    public void testBrownianMatchesPointNoise() {
+        // the octaves are summed in a different order, so the values may differ by rounding
+        assertMatches(new BrownianNoise(new SimplexNoise(7), 5), 1e-4f);
+        assertMatches(new BrownianNoise(new PerlinNoise(7), 3), 1e-4f);
+    }
+
+    @Test
+    public void testDefaultLayout() {
+        Noise noise = new AbstractNoise() {
+            @Override
+            public float noise(float x, float y, float z) {
+                return x + 100 * y + 10000 * z;
+            }
+        };
+        float[] area = new float[6];
+        noise.noise(Rect2i.createFromMinAndSize(1, 2, 3, 2), area);
+        assertEquals(201f, area[0]);
+        assertEquals(203f, area[2]);
+        assertEquals(301f, area[3]);
+
+        float[] region = new float[8];
+        noise.noise(Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(2, 2, 2)), region);
+        assertEquals(1f, region[1]);
+        assertEquals(100f, region[2]);
+        assertEquals(10000f, region[4]);
+        assertEquals(10101f, region[7]);
+    }
+
+    @Test
+    public void testTooSmallOutputIsRejected() {
+        Noise noise = new SimplexNoise(0);
+        assertThrows(IllegalArgumentException.class, () -> noise.noise(AREA, new float[AREA.sizeX() * AREA.sizeY() - 1]));
+        assertThrows(IllegalArgumentException.class, () -> noise.noise(REGION, new float[REGION.sizeX() - 1]));
+    }
+
+    private static void assertMatches(Noise noise, float delta) {
+        float[] area = new float[AREA.sizeX() * AREA.sizeY()];
+        noise.noise(AREA, 0.031f, 0.057f, area);
+        int index = 0;
+        for (int y = AREA.minY(); y <= AREA.maxY(); y++) {
+            for (int x = AREA.minX(); x <= AREA.maxX(); x++) {
+                assertEquals(noise.noise(x * 0.031f, y * 0.057f), area[index++], delta);
+            }
+        }
+
+        float[] region = new float[REGION.sizeX() * REGION.sizeY() * REGION.sizeZ()];
+        noise.noise(REGION, 0.043f, 0.019f, 0.071f, region);
+        index = 0;
+        for (int z = REGION.minZ(); z <= REGION.maxZ(); z++) {
+            for (int y = REGION.minY(); y <= REGION.maxY(); y++) {
+                for (int x = REGION.minX(); x <= REGION.maxX(); x++) {
+                    assertEquals(noise.noise(x * 0.043f, y * 0.019f, z * 0.071f), region[index++], delta);
+                }
+            }
+        }
+    }
+}
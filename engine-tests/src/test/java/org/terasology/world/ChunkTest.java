@@ -25,6 +25,7 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPalette;
 import org.terasology.world.block.BlockUri;
 import org.terasology.world.block.family.SymmetricFamily;
 import org.terasology.world.block.internal.BlockManagerImpl;
@@ -38,6 +39,7 @@
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class ChunkTest extends TerasologyTestingEnvironment {
 
@@ -71,6 +73,27 @@ public void testChangeBlock() {
         assertEquals(solid, chunk.getBlock(new Vector3i(1, 2, 3)));
     }
 
+    @Test
+    public void testBlockPaletteContainsRegisteredBlocks() {
+        BlockPalette palette = blockManager.getBlockPalette();
+        assertEquals(solid, palette.get(solid.getId()));
+        assertNull(palette.get((short) palette.size()));
+    }
+
+    @Test
+    public void testChangeBlockAfterPaletteWasUsed() {
+        chunk.getBlock(1, 2, 3);
+        BlockFamilyDefinitionData dirtData = new BlockFamilyDefinitionData();
+        dirtData.getBaseSection().setDisplayName("Dirt");
+        dirtData.getBaseSection().setShape(CoreRegistry.get(AssetManager.class).getAsset("engine:cube", BlockShape.class).get());
+        dirtData.setBlockFamily(SymmetricFamily.class);
+        CoreRegistry.get(AssetManager.class).loadAsset(new ResourceUrn("engine:dirt"), dirtData, BlockFamilyDefinition.class);
+        Block dirt = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:dirt")));
+
+        chunk.setBlock(new Vector3i(1, 2, 3), dirt);
+        assertEquals(dirt, chunk.getBlock(new Vector3i(1, 2, 3)));
+    }
+
     @Test
     public void testGetAabb() {
         assertEquals(new Vector3f(0, 0, 0), chunk.getAABB().getMin());
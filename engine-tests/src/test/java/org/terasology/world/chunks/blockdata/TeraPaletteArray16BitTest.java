@@ -0,0 +1,160 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TeraPaletteArray16BitTest {
+
+    private static final int SIZE_X = 16;
+    private static final int SIZE_Y = 32;
+    private static final int SIZE_Z = 8;
+
+    @Test
+    public void testNewArrayIsEmpty() {
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+
+        assertEquals(1, array.getBitsPerElement());
+        assertEquals(0, array.get(3, 7, 5));
+    }
+
+    @Test
+    public void testPromotesWhenPaletteOverflows() {
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        TeraDenseArray16Bit expected = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        int[] bitsAfter = {1, 1, 2, 2, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4, 4};
+
+        for (int value = 1; value <= 300; value++) {
+            int x = value % SIZE_X;
+            int y = value / SIZE_X;
+            int z = value % SIZE_Z;
+            assertEquals(expected.set(x, y, z, value * 7), array.set(x, y, z, value * 7));
+            if (value < bitsAfter.length) {
+                assertEquals(bitsAfter[value], array.getBitsPerElement());
+            }
+        }
+
+        assertEquals(16, array.getBitsPerElement());
+        assertSameContent(expected, array);
+    }
+
+    @Test
+    public void testNegativeValues() {
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        array.set(1, 2, 3, -5);
+        array.set(2, 2, 3, Short.MIN_VALUE);
+
+        assertEquals(-5, array.get(1, 2, 3));
+        assertEquals(Short.MIN_VALUE, array.get(2, 2, 3));
+        assertEquals(0, array.get(3, 2, 3));
+    }
+
+    @Test
+    public void testPackDenseData() {
+        TeraDenseArray16Bit dense = createTerrain();
+        short[] data = new short[SIZE_X * SIZE_Y * SIZE_Z];
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    data[(y * SIZE_Z + z) * SIZE_X + x] = (short) dense.get(x, y, z);
+                }
+            }
+        }
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, data);
+
+        assertEquals(4, TeraPaletteArray16Bit.countDistinctValues(data, 256));
+        assertEquals(2, array.getBitsPerElement());
+        assertSameContent(dense, array);
+        assertTrue(array.getEstimatedMemoryConsumptionInBytes() * 7 < dense.getEstimatedMemoryConsumptionInBytes());
+    }
+
+    @Test
+    public void testFill() {
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, new short[]{4, 9}, 2);
+        array.fill(SIZE_X * SIZE_Z, 3 * SIZE_X * SIZE_Z + 5, 9);
+        array.fill(0, 1, 12);
+
+        assertEquals(12, array.get(0, 0, 0));
+        assertEquals(4, array.get(1, 0, 0));
+        assertEquals(9, array.get(0, 1, 0));
+        assertEquals(9, array.get(4, 3, 0));
+        assertEquals(4, array.get(5, 3, 0));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(createTerrain());
+        TeraArray copy = array.copy();
+        array.set(1, 1, 1, 42);
+
+        assertEquals(42, array.get(1, 1, 1));
+        assertEquals(1, copy.get(1, 1, 1));
+    }
+
+    @Test
+    public void testDeflateDropsUnusedValues() {
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(createTerrain());
+        for (int value = 10; value < 30; value++) {
+            array.set(0, 0, 0, value);
+        }
+        array.set(0, 0, 0, 1);
+        assertEquals(8, array.getBitsPerElement());
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+
+        assertEquals(2, ((TeraPaletteArray16Bit) deflated).getBitsPerElement());
+        assertSameContent(array, deflated);
+        assertSame(deflated, new TeraStandardDeflator().deflate(deflated));
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        Random random = new Random(1);
+        TeraPaletteArray16Bit array = new TeraPaletteArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int i = 0; i < 500; i++) {
+            array.set(random.nextInt(SIZE_X), random.nextInt(SIZE_Y), random.nextInt(SIZE_Z), random.nextInt(20) - 10);
+        }
+        TeraPaletteArray16Bit.SerializationHandler handler = new TeraPaletteArray16Bit.SerializationHandler();
+
+        ByteBuffer buffer = handler.serialize(array);
+        assertEquals(handler.computeMinimumBufferSize(array), buffer.position());
+        buffer.flip();
+        TeraPaletteArray16Bit deserialized = handler.deserialize(buffer);
+
+        assertEquals(array.getBitsPerElement(), deserialized.getBitsPerElement());
+        assertSameContent(array, deserialized);
+        deserialized.set(0, 0, 0, 1000);
+        assertEquals(1000, deserialized.get(0, 0, 0));
+    }
+
+    private static TeraDenseArray16Bit createTerrain() {
+        TeraDenseArray16Bit blocks = new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z);
+        for (int x = 0; x < SIZE_X; x++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                int height = 16 + (int) (3 * Math.sin(x * 0.3) + 2 * Math.cos(z * 0.4));
+                for (int y = 0; y <= height; y++) {
+                    blocks.set(x, y, z, y == height ? 3 : y > height - 3 ? 2 : 1);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static void assertSameContent(TeraArray expected, TeraArray actual) {
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    assertEquals(expected.get(x, y, z), actual.get(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.internal;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ChunkSerializerTest {
+
+    private static final int DENSE_SIZE = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z * 2;
+
+    private final BlockManager blockManager = mock(BlockManager.class);
+    private final ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+
+    @Test
+    public void testTerrainRoundTrip() {
+        EntityData.ChunkStore store = encode(createTerrain());
+        Chunk chunk = ChunkSerializer.decode(store, blockManager, extraDataManager);
+
+        assertEquals(store.getBlockData(), reencode(chunk).getBlockData());
+    }
+
+    @Test
+    public void testNoiseRoundTrip() {
+        EntityData.ChunkStore store = encode(createNoise());
+        Chunk chunk = ChunkSerializer.decode(store, blockManager, extraDataManager);
+
+        assertEquals(store.getBlockData(), reencode(chunk).getBlockData());
+    }
+
+    @Test
+    public void testEmptyRoundTrip() {
+        EntityData.ChunkStore store = encode(new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z));
+        Chunk chunk = ChunkSerializer.decode(store, blockManager, extraDataManager);
+
+        assertEquals(0, store.getBlockData().getRunLengthsCount());
+        assertEquals(store.getBlockData(), reencode(chunk).getBlockData());
+    }
+
+    @Test
+    public void testUniformLayersAreNotInflated() {
+        Chunk terrain = ChunkSerializer.decode(encode(createTerrain()), blockManager, extraDataManager);
+        Chunk noise = ChunkSerializer.decode(encode(createNoise()), blockManager, extraDataManager);
+
+        // only the layers around the surface of the terrain need rows of their own
+        assertTrue(terrain.getEstimatedMemoryConsumptionInBytes() < noise.getEstimatedMemoryConsumptionInBytes() - DENSE_SIZE / 2);
+    }
+
+    @Test
+    public void testFewDistinctBlocksArePacked() {
+        EntityData.ChunkStore store = encode(createNoise(4));
+        Chunk fewBlocks = ChunkSerializer.decode(store, blockManager, extraDataManager);
+        Chunk noise = ChunkSerializer.decode(encode(createNoise()), blockManager, extraDataManager);
+
+        // two bits per block instead of sixteen
+        assertTrue(fewBlocks.getEstimatedMemoryConsumptionInBytes() < noise.getEstimatedMemoryConsumptionInBytes() - DENSE_SIZE * 3 / 4);
+        assertEquals(store.getBlockData(), reencode(fewBlocks).getBlockData());
+    }
+
+    @Test
+    public void testRunsExceedingTheChunkAreRejected() {
+        EntityData.ChunkStore store = EntityData.ChunkStore.newBuilder().setX(0).setY(0).setZ(0)
+                .setBlockData(EntityData.RunLengthEncoding16.newBuilder().addRunLengths(DENSE_SIZE).addValues(1))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> ChunkSerializer.decode(store, blockManager, extraDataManager));
+    }
+
+    private static EntityData.ChunkStore encode(TeraArray blocks) {
+        return ChunkSerializer.encode(new Vector3i(1, 0, 2), blocks, new TeraArray[0]).build();
+    }
+
+    private static EntityData.ChunkStore reencode(Chunk chunk) {
+        return ((ChunkImpl) chunk).copyForEncoding().get().build();
+    }
+
+    private static TeraArray createTerrain() {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                int height = 30 + (int) (3 * Math.sin(x * 0.3) + 2 * Math.cos(z * 0.4));
+                for (int y = 0; y <= height; y++) {
+                    blocks.set(x, y, z, y == height ? 3 : y > height - 3 ? 2 : 1);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * @return blocks with too many distinct ids for a palette
+     */
+    private static TeraArray createNoise() {
+        return createNoise(1024);
+    }
+
+    private static TeraArray createNoise(int distinctBlocks) {
+        Random random = new Random(0);
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    blocks.set(x, y, z, random.nextInt(distinctBlocks));
+                }
+            }
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,154 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.fixtures.TestBlockManager;
+import org.terasology.fixtures.TestStorageManager;
+import org.terasology.fixtures.TestWorldGenerator;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.generation.EntityBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ChunkPregeneratorTest {
+
+    private static final Region3i REGION = Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(2, 1, 2));
+
+    @TempDir
+    Path tempDir;
+
+    private Path progressFile;
+    private BlockManager blockManager;
+    private Set<Vector3i> storedChunks;
+    private Set<Vector3i> generatedChunks;
+    private Set<Vector3i> failingChunks;
+    private ChunkPregenerator pregenerator;
+
+    @BeforeEach
+    public void setup() {
+        progressFile = tempDir.resolve("pregeneration.json");
+        Block air = new Block();
+        air.setId((short) 1);
+        air.setUri(BlockManager.AIR_ID);
+        air.setEntity(mock(EntityRef.class));
+        blockManager = new TestBlockManager(air);
+        storedChunks = Sets.newConcurrentHashSet();
+        generatedChunks = Sets.newConcurrentHashSet();
+        failingChunks = Sets.newConcurrentHashSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pregenerator != null) {
+            pregenerator.cancel();
+        }
+    }
+
+    @Test
+    public void testStoresEveryChunkOfTheRegion() throws IOException {
+        runPregeneration();
+
+        assertEquals(Sets.newHashSet(REGION.iterator()), storedChunks);
+        assertTrue(readProgress().contains("\"completed\":4"));
+    }
+
+    @Test
+    public void testResumesAfterTheSavedChunks() {
+        writeProgress(REGION, 2);
+
+        runPregeneration();
+
+        // the first two chunks of the region are those with z = 0
+        assertEquals(Sets.newHashSet(new Vector3i(0, 0, 1), new Vector3i(1, 0, 1)), generatedChunks);
+        assertEquals(generatedChunks, storedChunks);
+    }
+
+    @Test
+    public void testIgnoresProgressOfAnotherRegion() {
+        writeProgress(Region3i.createFromMinAndSize(new Vector3i(5, 0, 5), new Vector3i(2, 1, 2)), 2);
+
+        runPregeneration();
+
+        assertEquals(Sets.newHashSet(REGION.iterator()), generatedChunks);
+    }
+
+    @Test
+    public void testFailedChunkDoesNotStallTheRun() {
+        Vector3i failing = new Vector3i(1, 0, 0);
+        failingChunks.add(failing);
+
+        runPregeneration();
+
+        Set<Vector3i> expected = Sets.newHashSet(REGION.iterator());
+        expected.remove(failing);
+        assertEquals(expected, storedChunks);
+        assertFalse(storedChunks.contains(failing));
+    }
+
+    private void runPregeneration() {
+        TestStorageManager storageManager = new TestStorageManager() {
+            @Override
+            public void deactivateChunk(Chunk chunk) {
+                storedChunks.add(chunk.getPosition());
+            }
+        };
+        TestWorldGenerator generator = new TestWorldGenerator(blockManager) {
+            @Override
+            public void createChunk(CoreChunk chunk, EntityBuffer buffer) {
+                Vector3i pos = chunk.getPosition();
+                if (failingChunks.contains(pos)) {
+                    throw new IllegalStateException("Broken generator at " + pos);
+                }
+                generatedChunks.add(pos);
+                super.createChunk(chunk, buffer);
+            }
+        };
+        pregenerator = new ChunkPregenerator(REGION, progressFile, storageManager, generator, blockManager,
+                new ExtraBlockDataManager(), mock(EntityManager.class), pos -> false);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!pregenerator.isDone()) {
+            assertTrue(System.nanoTime() < deadline, () -> "Pregeneration stalled: " + pregenerator.getStatus());
+            pregenerator.update();
+            Thread.yield();
+        }
+    }
+
+    private void writeProgress(Region3i region, int completed) {
+        String json = String.format("{\"min\":{\"x\":%d,\"y\":%d,\"z\":%d},"
+                        + "\"max\":{\"x\":%d,\"y\":%d,\"z\":%d},\"completed\":%d}",
+                region.minX(), region.minY(), region.minZ(), region.maxX(), region.maxY(), region.maxZ(), completed);
+        try {
+            Files.write(progressFile, json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String readProgress() throws IOException {
+        return new String(Files.readAllBytes(progressFile), StandardCharsets.UTF_8).replace(" ", "");
+    }
+}
@@ -162,6 +162,49 @@ void multiRequirementsChunksWillGeneratedSuccess() throws ExecutionException, In
                 "Chunk after processing must have equals position, probably pipeline lost you chunk");
     }
 
+    /**
+     * Imagine that we have task, which requires neighbors passed previous stage. Waiting chunk must be woken when
+     * neighbors reach required stage.
+     */
+    @Test
+    void multiRequirementsChunksWillReachStageSuccess() throws ExecutionException, InterruptedException,
+            TimeoutException {
+        org.terasology.math.geom.Vector3i positionToGenerate = new org.terasology.math.geom.Vector3i(0, 0, 0);
+        Map<Vector3i, Chunk> chunkToGenerate =
+                getNearChunkPositions(JomlUtil.from(positionToGenerate))
+                        .stream()
+                        .filter((p) -> !p.equals(JomlUtil.from(positionToGenerate))) //remove central chunk.
+                        .map(this::createChunkAt)
+                        .collect(Collectors.toMap(
+                                (chunk) -> chunk.getPosition(new Vector3i()),
+                                Function.identity()
+                        ));
+
+        pipeline = new ChunkProcessingPipeline((p) -> null, (o1, o2) -> 0);
+        pipeline.addStage(ChunkTaskProvider.create("first single task", (c) -> c));
+        pipeline.addStage(ChunkTaskProvider.createMulti(
+                "flat merging task",
+                (chunks) -> chunks.stream()
+                        .filter((c) -> c.getPosition().equals(positionToGenerate)).findFirst() // return central chunk.
+                        .get(),
+                this::getNearChunkPositions));
+
+        Chunk chunk = createChunkAt(positionToGenerate);
+        Future<Chunk> chunkFuture = pipeline.invokeGeneratorTask(new Vector3i(0, 0, 0), () -> chunk);
+
+        Thread.sleep(1_000); // sleep 1 second. and check future.
+        Assertions.assertFalse(chunkFuture.isDone(), "Chunk must be not generated, because ChunkTask have not exists " +
+                "neighbors in requirements");
+
+        chunkToGenerate.forEach((position, neighborChunk) -> pipeline.invokeGeneratorTask(position,
+                () -> neighborChunk));
+
+        Chunk chunkAfterProcessing = chunkFuture.get(1, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(chunkAfterProcessing.getPosition(new Vector3i()), chunk.getPosition(new Vector3i()),
+                "Chunk after processing must have equals position, probably pipeline lost you chunk");
+    }
+
     @Test
     void emulateEntityMoving() throws InterruptedException {
         final AtomicReference<Vector3ic> position = new AtomicReference<>();
@@ -0,0 +1,230 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.generation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+import org.terasology.world.generation.facets.base.BaseFieldFacet2D;
+import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ColumnFacetCacheTest {
+
+    private Context context = new ContextImpl();
+    private HeightProvider heightProvider;
+    private DensityProvider densityProvider;
+    private RecordingRasterizer rasterizer;
+    private WorldImpl world;
+
+    @BeforeEach
+    public void setup() {
+        heightProvider = new HeightProvider();
+        densityProvider = new DensityProvider();
+        rasterizer = new RecordingRasterizer();
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(heightProvider);
+        worldBuilder.addProvider(densityProvider);
+        worldBuilder.addProvider(new CaveDepthProvider());
+        worldBuilder.addRasterizer(rasterizer);
+        world = (WorldImpl) worldBuilder.build();
+    }
+
+    @Test
+    public void testOnlyPure2DFacetsAreCached() {
+        ColumnFacetCache cache = world.getColumnFacetCache();
+
+        assertTrue(cache.isCached(HeightFacet.class));
+        assertTrue(cache.isCached(heightProvider));
+        assertFalse(cache.isCached(DensityFacet.class));
+        assertFalse(cache.isCached(densityProvider));
+        // derived from a 3D facet, so it may differ between the chunks of a column
+        assertFalse(cache.isCached(CaveDepthFacet.class));
+    }
+
+    @Test
+    public void testColumnSharesHeightFacet() {
+        for (int y = 0; y < 3; y++) {
+            world.rasterizeChunk(chunkAt(0, y, 0), null);
+        }
+
+        assertEquals(1, heightProvider.calls);
+        assertEquals(3, densityProvider.calls);
+        assertSame(rasterizer.heightFacets.get(0), rasterizer.heightFacets.get(2));
+        assertEquals(1, world.getColumnFacetCache().getMissCount());
+        assertEquals(2, world.getColumnFacetCache().getHitCount());
+    }
+
+    @Test
+    public void testProviderWithSeveralOutputsRunsOncePerColumn() {
+        SurfaceProvider surfaceProvider = new SurfaceProvider();
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.addProvider(surfaceProvider);
+        worldBuilder.addRasterizer(new SurfaceRasterizer());
+        WorldImpl surfaceWorld = (WorldImpl) worldBuilder.build();
+
+        for (int y = 0; y < 3; y++) {
+            surfaceWorld.rasterizeChunk(chunkAt(0, y, 0), null);
+        }
+
+        assertEquals(1, surfaceProvider.calls);
+        assertEquals(1, surfaceWorld.getColumnFacetCache().getMissCount());
+        assertEquals(2, surfaceWorld.getColumnFacetCache().getHitCount());
+    }
+
+    @Test
+    public void testColumnsHaveTheirOwnFacets() {
+        world.rasterizeChunk(chunkAt(0, 0, 0), null);
+        world.rasterizeChunk(chunkAt(1, 0, 0), null);
+        world.rasterizeChunk(chunkAt(0, 0, 1), null);
+
+        assertEquals(3, heightProvider.calls);
+        assertNotSame(rasterizer.heightFacets.get(0), rasterizer.heightFacets.get(1));
+        // the border required by the density facet is part of the shared facet
+        assertEquals(3, rasterizer.heightFacets.get(1).getWorldRegion().minX());
+    }
+
+    @Test
+    public void testPreviewsAreNotCached() {
+        world.getWorldData(chunkAt(0, 0, 0).getRegion()).getFacet(HeightFacet.class);
+        world.getWorldData(chunkAt(0, 1, 0).getRegion()).getFacet(HeightFacet.class);
+
+        assertEquals(2, heightProvider.calls);
+        assertEquals(0, world.getColumnFacetCache().size());
+    }
+
+    @Test
+    public void testInitializeClearsCache() {
+        world.rasterizeChunk(chunkAt(0, 0, 0), null);
+        world.initialize();
+        world.rasterizeChunk(chunkAt(0, 1, 0), null);
+
+        assertEquals(2, heightProvider.calls);
+    }
+
+    private static CoreChunk chunkAt(int x, int y, int z) {
+        CoreChunk chunk = mock(CoreChunk.class);
+        when(chunk.getRegion()).thenReturn(Region3i.createFromMinAndSize(new Vector3i(x * 4, y * 4, z * 4), new Vector3i(4, 4, 4)));
+        return chunk;
+    }
+
+    public static class HeightFacet extends BaseFieldFacet2D {
+        public HeightFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DensityFacet extends BaseFacet3D {
+        public DensityFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class CaveDepthFacet extends BaseFacet2D {
+        public CaveDepthFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class SlopeFacet extends BaseFieldFacet2D {
+        public SlopeFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class MoistureFacet extends BaseFieldFacet2D {
+        public MoistureFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(HeightFacet.class)
+    public static class HeightProvider implements FacetProvider {
+        private int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(HeightFacet.class, new HeightFacet(region.getRegion(), region.getBorderForFacet(HeightFacet.class)));
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    @Requires(@Facet(value = HeightFacet.class, border = @FacetBorder(sides = 1)))
+    public static class DensityProvider implements FacetProvider {
+        private int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(DensityFacet.class, new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class)));
+        }
+    }
+
+    @Produces(CaveDepthFacet.class)
+    @Requires(@Facet(DensityFacet.class))
+    public static class CaveDepthProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(CaveDepthFacet.class, new CaveDepthFacet(region.getRegion(), region.getBorderForFacet(CaveDepthFacet.class)));
+        }
+    }
+
+    @Produces({SlopeFacet.class, MoistureFacet.class})
+    public static class SurfaceProvider implements FacetProvider {
+        private int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(SlopeFacet.class, new SlopeFacet(region.getRegion(), region.getBorderForFacet(SlopeFacet.class)));
+            region.setRegionFacet(MoistureFacet.class, new MoistureFacet(region.getRegion(), region.getBorderForFacet(MoistureFacet.class)));
+        }
+    }
+
+    private static class SurfaceRasterizer implements WorldRasterizer {
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void generateChunk(CoreChunk chunk, Region chunkRegion) {
+            chunkRegion.getFacet(SlopeFacet.class);
+            chunkRegion.getFacet(MoistureFacet.class);
+        }
+    }
+
+    private static class RecordingRasterizer implements WorldRasterizer {
+        private final List<HeightFacet> heightFacets = new ArrayList<>();
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void generateChunk(CoreChunk chunk, Region chunkRegion) {
+            chunkRegion.getFacet(DensityFacet.class);
+            heightFacets.add(chunkRegion.getFacet(HeightFacet.class));
+        }
+    }
+}
@@ -39,6 +39,8 @@
 import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.propagation.light.InternalLightProcessor;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class InternalLightGeneratorTest extends TerasologyTestingEnvironment {
@@ -203,4 +205,27 @@ public void testLightPropagation() {
         }
     }
 
+    @Test
+    public void testParallelLightingMatchesSequentialLighting() {
+        Chunk parallel = new ChunkImpl(0, 0, 0, blockManager, extraDataManager);
+        Chunk sequential = new ChunkImpl(0, 0, 0, blockManager, extraDataManager);
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int x = random.nextInt(ChunkConstants.SIZE_X);
+            int y = random.nextInt(ChunkConstants.SIZE_Y);
+            int z = random.nextInt(ChunkConstants.SIZE_Z);
+            Block block = random.nextInt(10) == 0 ? fullLight : solidBlock;
+            parallel.setBlock(x, y, z, block);
+            sequential.setBlock(x, y, z, block);
+        }
+
+        InternalLightProcessor.generateInternalLighting(parallel);
+        InternalLightProcessor.generateInternalLightingSequentially(sequential);
+
+        for (Vector3i pos : Region3i.createFromMinAndSize(Vector3i.zero(), new Vector3i(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z))) {
+            assertEquals(sequential.getSunlightRegen(pos), parallel.getSunlightRegen(pos));
+            assertEquals(sequential.getSunlight(pos), parallel.getSunlight(pos));
+            assertEquals(sequential.getLight(pos), parallel.getLight(pos));
+        }
+    }
 }
@@ -0,0 +1,109 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.propagation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PositionQueueTest {
+
+    private final Deque<long[]> pool = new ArrayDeque<>();
+    private final PositionQueue queue = new PositionQueue(pool);
+
+    @Test
+    public void testPackRoundTrip() {
+        int[] values = {0, 1, -1, 31, 32, -33, 1_000_000, -1_000_000};
+        for (int x : values) {
+            for (int y : values) {
+                for (int z : values) {
+                    long packed = PositionQueue.pack(x, y, z);
+                    assertEquals(x, PositionQueue.unpackX(packed));
+                    assertEquals(y, PositionQueue.unpackY(packed));
+                    assertEquals(z, PositionQueue.unpackZ(packed));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFirstInFirstOut() {
+        assertTrue(queue.add(5, 6, 7));
+        assertTrue(queue.add(-40, 100, 3));
+        assertTrue(queue.add(0, -1, 0));
+        assertEquals(3, queue.size());
+
+        assertPolled(5, 6, 7);
+        assertPolled(-40, 100, 3);
+        assertPolled(0, -1, 0);
+        assertTrue(queue.isEmpty());
+        assertThrows(NoSuchElementException.class, queue::poll);
+    }
+
+    @Test
+    public void testPositionsAreQueuedOnce() {
+        assertTrue(queue.add(1, 2, 3));
+        assertTrue(queue.add(33, 2, 3));
+        assertFalse(queue.add(1, 2, 3));
+        assertEquals(2, queue.size());
+
+        assertPolled(1, 2, 3);
+        assertTrue(queue.add(1, 2, 3));
+        assertPolled(33, 2, 3);
+        assertPolled(1, 2, 3);
+    }
+
+    @Test
+    public void testRemove() {
+        queue.add(1, 1, 1);
+        queue.add(2, 2, 2);
+        queue.add(3, 3, 3);
+
+        assertTrue(queue.remove(2, 2, 2));
+        assertFalse(queue.remove(2, 2, 2));
+        assertFalse(queue.remove(500, 2, 2));
+        assertEquals(2, queue.size());
+
+        assertPolled(1, 1, 1);
+        assertPolled(3, 3, 3);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testBitmapsAreReturnedCleared() {
+        for (int x = -100; x < 100; x += 7) {
+            queue.add(x, x, x);
+        }
+        queue.poll();
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertFalse(pool.isEmpty());
+        for (long[] bitmap : pool) {
+            for (long word : bitmap) {
+                assertEquals(0, word);
+            }
+        }
+
+        PositionQueue other = new PositionQueue(pool);
+        assertTrue(other.add(-100, -100, -100));
+        assertPolled(other, -100, -100, -100);
+    }
+
+    private void assertPolled(int x, int y, int z) {
+        assertPolled(queue, x, y, z);
+    }
+
+    private static void assertPolled(PositionQueue queue, int x, int y, int z) {
+        long position = queue.poll();
+        assertEquals(x, PositionQueue.unpackX(position));
+        assertEquals(y, PositionQueue.unpackY(position));
+        assertEquals(z, PositionQueue.unpackZ(position));
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.terasology.benchmark;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Arrays;
 
 /**
@@ -23,6 +25,8 @@
  */
 public abstract class AbstractBenchmark implements Benchmark {
 
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
     private String title;
     private int warmupRepetitions;
     private int[] reps;
@@ -66,4 +70,14 @@ public void postrun() {
     @Override
     public void finish(boolean aborted) {
     }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or -1 if the JVM does not measure them
+     */
+    protected static long getAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
 }
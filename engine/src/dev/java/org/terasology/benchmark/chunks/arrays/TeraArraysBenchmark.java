@@ -18,7 +18,9 @@
 import org.terasology.benchmark.Benchmarks;
 import org.terasology.benchmark.Benchmark;
 import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray16Bit;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -58,6 +60,11 @@ public static void main(String[] args) {
         benchmarks.add(new BenchmarkTeraArraySerializeToStreamViaByteArray(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
         benchmarks.add(new BenchmarkTeraArraySerializeToStreamViaChannel(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
 
+        benchmarks.add(new BenchmarkTeraArrayRead(new TeraDenseArray16Bit(32, 64, 32)));
+        benchmarks.add(new BenchmarkTeraArrayRead(new TeraPaletteArray16Bit(32, 64, 32)));
+        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraDenseArray16Bit(32, 64, 32)));
+        benchmarks.add(new BenchmarkTeraArrayWrite(new TeraPaletteArray16Bit(32, 64, 32)));
+
 //        benchmarks.add(new BenchmarkTeraArrayDeserializeFromBuffer(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
 //
 //
@@ -0,0 +1,282 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.lighting;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Side;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.BlockFamily;
+import org.terasology.world.block.family.BlockPlacementData;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.pipeline.ChunkProcessingPipeline;
+import org.terasology.world.chunks.pipeline.stages.ChunkTaskProvider;
+import org.terasology.world.propagation.light.InternalLightProcessor;
+import org.terasology.world.propagation.light.LightMerger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Pushes a cube of freshly generated terrain chunks through the lighting stages of the chunk pipeline, the way the
+ * chunk providers set them up, and reports how long it takes until the chunks are ready to be rendered.
+ * <p>
+ * Every run lights freshly generated copies of the same terrain; generating them is not part of the measured time.
+ * Chunks on the faces of the cube lack neighbours, so they are lit but not merged. The internal lighting either forks
+ * the columns of a chunk into the common pool or processes them in the pipeline thread, to compare the two.
+ */
+public class BenchmarkTimeToRenderable extends AbstractBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkTimeToRenderable.class);
+
+    private final int extent;
+    private final boolean parallelColumns;
+    private final Map<Vector3ic, Chunk> chunkCache = Maps.newConcurrentMap();
+    private final LightMerger lightMerger = new LightMerger();
+
+    private BlockManager blockManager;
+    private Block air;
+    private Block stone;
+    private Block torch;
+    private ExtraBlockDataManager extraDataManager;
+    private ChunkProcessingPipeline pipeline;
+    private long renderableNanos;
+    private long renderableChunks;
+    private long litBlocks;
+
+    public BenchmarkTimeToRenderable(int extent, boolean parallelColumns) {
+        super("Time to renderable, " + extent * extent * extent + " chunks, "
+                + (parallelColumns ? "columns forked" : "columns in the pipeline thread"), 2, new int[]{5});
+        this.extent = extent;
+        this.parallelColumns = parallelColumns;
+    }
+
+    @Override
+    public void setup() {
+        BenchmarkBlockManager benchmarkBlockManager = new BenchmarkBlockManager();
+        air = benchmarkBlockManager.register(BlockManager.AIR_ID, 0, true, (byte) 0);
+        stone = benchmarkBlockManager.register(new BlockUri(new ResourceUrn("benchmark:stone")), 1, false, (byte) 0);
+        torch = benchmarkBlockManager.register(new BlockUri(new ResourceUrn("benchmark:torch")), 2, true,
+                ChunkConstants.MAX_LIGHT);
+        blockManager = benchmarkBlockManager;
+        extraDataManager = new ExtraBlockDataManager();
+
+        pipeline = new ChunkProcessingPipeline(chunkCache::get, (o1, o2) -> 0);
+        pipeline.addStage(ChunkTaskProvider.create("Chunk generate internal lightning", (Chunk chunk) -> {
+            if (parallelColumns) {
+                InternalLightProcessor.generateInternalLighting(chunk);
+            } else {
+                InternalLightProcessor.generateInternalLightingSequentially(chunk);
+            }
+        }))
+                .addStage(ChunkTaskProvider.create("Chunk deflate", Chunk::deflate))
+                .addStage(ChunkTaskProvider.createMulti("Light merging",
+                        chunks -> {
+                            Chunk[] localChunks = chunks.toArray(new Chunk[0]);
+                            return localChunks.length == 1 ? localChunks[0] : lightMerger.merge(localChunks);
+                        },
+                        this::getNeighbours))
+                .addStage(ChunkTaskProvider.create("Chunk ready", (Chunk chunk) -> {
+                    chunk.markReady();
+                    chunkCache.put(chunk.getPosition(new Vector3i()), chunk);
+                }));
+    }
+
+    @Override
+    public void prerun() {
+        renderableNanos = 0;
+        renderableChunks = 0;
+    }
+
+    @Override
+    public void run() {
+        chunkCache.clear();
+        List<Chunk> chunks = Lists.newArrayListWithCapacity(extent * extent * extent);
+        for (int x = 0; x < extent; x++) {
+            for (int y = 0; y < extent; y++) {
+                for (int z = 0; z < extent; z++) {
+                    chunks.add(generate(x, y, z));
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        List<Future<Chunk>> futures = Lists.newArrayListWithCapacity(chunks.size());
+        for (Chunk chunk : chunks) {
+            futures.add(pipeline.invokeGeneratorTask(chunk.getPosition(new Vector3i()), () -> chunk));
+        }
+        try {
+            for (Future<Chunk> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Chunk processing failed", e);
+        }
+        renderableNanos += System.nanoTime() - start;
+        renderableChunks += chunks.size();
+
+        Chunk center = chunkCache.get(new Vector3i(extent / 2));
+        litBlocks = 0;
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    if (center.getSunlight(x, y, z) > 0 || center.getLight(x, y, z) > 0) {
+                        litBlocks++;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void postrun() {
+        if (renderableChunks > 0) {
+            logger.info("{}: {} us per chunk until renderable", getTitle(), renderableNanos / renderableChunks / 1000);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        pipeline.shutdown();
+        chunkCache.clear();
+        if (!aborted && litBlocks == 0) {
+            throw new IllegalStateException("The center chunk is dark");
+        }
+    }
+
+    /**
+     * Generates hilly terrain with caves and the odd torch, the same for every run.
+     */
+    private Chunk generate(int chunkX, int chunkY, int chunkZ) {
+        Chunk chunk = new ChunkImpl(chunkX, chunkY, chunkZ, blockManager, extraDataManager);
+        FastRandom random = new FastRandom((chunkX * 31L + chunkY) * 31L + chunkZ);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                int worldX = chunkX * ChunkConstants.SIZE_X + x;
+                int worldZ = chunkZ * ChunkConstants.SIZE_Z + z;
+                int height = extent * ChunkConstants.SIZE_Y / 2
+                        + (int) (12 * Math.sin(worldX * 0.05) + 8 * Math.cos(worldZ * 0.07));
+                for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                    int worldY = chunkY * ChunkConstants.SIZE_Y + y;
+                    if (worldY > height || random.nextFloat() < 0.1f) {
+                        chunk.setBlock(x, y, z, air);
+                    } else if (random.nextFloat() < 0.001f) {
+                        chunk.setBlock(x, y, z, torch);
+                    } else {
+                        chunk.setBlock(x, y, z, stone);
+                    }
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private Set<Vector3ic> getNeighbours(Vector3ic pos) {
+        Set<Vector3ic> neighbours = Sets.newLinkedHashSet();
+        if (pos.x() == 0 || pos.y() == 0 || pos.z() == 0
+                || pos.x() == extent - 1 || pos.y() == extent - 1 || pos.z() == extent - 1) {
+            neighbours.add(new Vector3i(pos));
+            return neighbours;
+        }
+        for (int x = pos.x() - 1; x <= pos.x() + 1; x++) {
+            for (int y = pos.y() - 1; y <= pos.y() + 1; y++) {
+                for (int z = pos.z() - 1; z <= pos.z() + 1; z++) {
+                    neighbours.add(new Vector3i(x, y, z));
+                }
+            }
+        }
+        return neighbours;
+    }
+
+    private static final class BenchmarkBlockManager extends BlockManagerImpl {
+
+        BenchmarkBlockManager() {
+            super(new NullWorldAtlas(), null);
+        }
+
+        Block register(BlockUri uri, int id, boolean translucent, byte luminance) {
+            Block block = new Block();
+            block.setUri(uri);
+            block.setId((short) id);
+            block.setTranslucent(translucent);
+            block.setLuminance(luminance);
+            for (Side side : Side.getAllSides()) {
+                block.setFullSide(side, !translucent);
+            }
+            registerFamily(new SingleBlockFamily(block));
+            return block;
+        }
+    }
+
+    private static final class SingleBlockFamily implements BlockFamily {
+        private final Block block;
+
+        SingleBlockFamily(Block block) {
+            this.block = block;
+            block.setBlockFamily(this);
+        }
+
+        @Override
+        public BlockUri getURI() {
+            return block.getURI();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return block.getURI().toString();
+        }
+
+        @Override
+        public Block getBlockForPlacement(BlockPlacementData data) {
+            return block;
+        }
+
+        @Override
+        public Block getBlockForPlacement(org.terasology.math.geom.Vector3i location, Side attachmentSide, Side direction) {
+            return block;
+        }
+
+        @Override
+        public Block getArchetypeBlock() {
+            return block;
+        }
+
+        @Override
+        public Block getBlockFor(BlockUri blockUri) {
+            return block.getURI().equals(blockUri) ? block : null;
+        }
+
+        @Override
+        public Iterable<Block> getBlocks() {
+            return ImmutableList.of(block);
+        }
+
+        @Override
+        public Iterable<String> getCategories() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean hasCategory(String category) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.lighting;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * ChunkLightingBenchmark measures how long freshly generated chunks take to be lit and merged with their neighbours.
+ */
+public final class ChunkLightingBenchmark {
+
+    private ChunkLightingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        benchmarks.add(new BenchmarkTimeToRenderable(5, false));
+        benchmarks.add(new BenchmarkTimeToRenderable(5, true));
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
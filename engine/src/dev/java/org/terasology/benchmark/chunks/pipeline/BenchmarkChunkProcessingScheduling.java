@@ -0,0 +1,139 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.chunks.pipeline;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.JomlUtil;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.pipeline.ChunkProcessingPipeline;
+import org.terasology.world.chunks.pipeline.stages.ChunkTaskProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes a cube of chunks through a pipeline with a neighbour-dependent stage, like light merging, and reports the
+ * CPU time the reactor thread spent per completed chunk.
+ */
+public class BenchmarkChunkProcessingScheduling extends AbstractBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkChunkProcessingScheduling.class);
+    private static final String REACTOR_THREAD_NAME = "Chunk-Processing-Reactor";
+
+    private final int extent;
+    private final Map<Vector3ic, Chunk> generated = Maps.newHashMap();
+    private final Map<Vector3ic, Chunk> chunkCache = Maps.newConcurrentMap();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private ChunkProcessingPipeline pipeline;
+    private long reactorThreadId = -1;
+    private long reactorCpuTime;
+    private long completedChunks;
+
+    public BenchmarkChunkProcessingScheduling(int extent) {
+        super("Chunk pipeline scheduling, " + extent * extent * extent + " chunks in flight", 2, new int[]{5});
+        this.extent = extent;
+    }
+
+    @Override
+    public void setup() {
+        ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+        for (int x = 0; x < extent; x++) {
+            for (int y = 0; y < extent; y++) {
+                for (int z = 0; z < extent; z++) {
+                    Vector3i pos = new Vector3i(x, y, z);
+                    generated.put(pos, new ChunkImpl(JomlUtil.from(pos), null, extraDataManager));
+                }
+            }
+        }
+
+        Set<Long> existingThreads = Thread.getAllStackTraces().keySet().stream()
+                .map(Thread::getId)
+                .collect(Collectors.toSet());
+        pipeline = new ChunkProcessingPipeline(chunkCache::get, (o1, o2) -> 0);
+        pipeline.addStage(ChunkTaskProvider.create("Chunk generate internal lightning", (c) -> c))
+                .addStage(ChunkTaskProvider.createMulti("Light merging",
+                        chunks -> chunks.iterator().next(),
+                        this::getNeighbours))
+                .addStage(ChunkTaskProvider.create("Chunk ready", (Chunk c) -> {
+                    chunkCache.put(c.getPosition(new Vector3i()), c);
+                }));
+        reactorThreadId = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> REACTOR_THREAD_NAME.equals(thread.getName()))
+                .map(Thread::getId)
+                .filter(id -> !existingThreads.contains(id))
+                .findFirst()
+                .orElse(-1L);
+    }
+
+    @Override
+    public void prerun() {
+        reactorCpuTime = 0;
+        completedChunks = 0;
+    }
+
+    @Override
+    public void run() {
+        chunkCache.clear();
+        long cpuBefore = getReactorCpuTime();
+        List<Future<Chunk>> futures = Lists.newArrayListWithCapacity(generated.size());
+        for (Map.Entry<Vector3ic, Chunk> entry : generated.entrySet()) {
+            futures.add(pipeline.invokeGeneratorTask(new Vector3i(entry.getKey()), entry::getValue));
+        }
+        try {
+            for (Future<Chunk> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Chunk processing failed", e);
+        }
+        reactorCpuTime += getReactorCpuTime() - cpuBefore;
+        completedChunks += futures.size();
+    }
+
+    @Override
+    public void postrun() {
+        if (reactorThreadId != -1 && completedChunks > 0) {
+            logger.info("{}: reactor CPU {} us per completed chunk", getTitle(),
+                    reactorCpuTime / completedChunks / 1000);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        pipeline.shutdown();
+        generated.clear();
+        chunkCache.clear();
+    }
+
+    private long getReactorCpuTime() {
+        return reactorThreadId != -1 ? threadMXBean.getThreadCpuTime(reactorThreadId) : 0;
+    }
+
+    private Set<Vector3ic> getNeighbours(Vector3ic pos) {
+        Set<Vector3ic> neighbours = Sets.newLinkedHashSet();
+        for (int x = Math.max(0, pos.x() - 1); x <= Math.min(extent - 1, pos.x() + 1); x++) {
+            for (int y = Math.max(0, pos.y() - 1); y <= Math.min(extent - 1, pos.y() + 1); y++) {
+                for (int z = Math.max(0, pos.z() - 1); z <= Math.min(extent - 1, pos.z() + 1); z++) {
+                    neighbours.add(new Vector3i(x, y, z));
+                }
+            }
+        }
+        return neighbours;
+    }
+}
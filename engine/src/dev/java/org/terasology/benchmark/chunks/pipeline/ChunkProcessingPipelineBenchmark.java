@@ -0,0 +1,32 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.benchmark.chunks.pipeline;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * ChunkProcessingPipelineBenchmark runs the chunk pipeline scheduling benchmark with a growing number of chunks in
+ * flight. Reactor CPU time per completed chunk should stay flat.
+ */
+public final class ChunkProcessingPipelineBenchmark {
+
+    private ChunkProcessingPipelineBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        benchmarks.add(new BenchmarkChunkProcessingScheduling(4));
+        benchmarks.add(new BenchmarkChunkProcessingScheduling(6));
+        benchmarks.add(new BenchmarkChunkProcessingScheduling(8));
+        benchmarks.add(new BenchmarkChunkProcessingScheduling(10));
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,243 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.tessellation;
+
+import com.google.common.collect.ImmutableList;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.assets.mesh.Mesh;
+import org.terasology.rendering.primitives.BlockMeshGenerator;
+import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.rendering.primitives.ChunkVertexFlag;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.BlockFamily;
+import org.terasology.world.block.family.BlockPlacementData;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tessellates a chunk of hilly terrain with its neighbours, the way the renderer does when a chunk becomes ready.
+ * <p>
+ * The blocks use a simple cube mesh generator which, like the real one, looks up the neighbour block of every side, so
+ * the benchmark is dominated by block lookups and the lighting pass over the generated vertices. Each mesh is disposed
+ * right away, which hands its vertex data back for reuse like an upload would, and the bytes allocated per mesh are
+ * reported where the JVM can measure them.
+ */
+public class BenchmarkChunkMeshGeneration extends AbstractBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkChunkMeshGeneration.class);
+
+    private ChunkViewCoreImpl chunkView;
+    private ChunkTessellator tessellator;
+    private int vertexCount;
+    private long allocatedBytes;
+    private long meshCount;
+
+    public BenchmarkChunkMeshGeneration() {
+        super("ChunkTessellator.generateMesh of a terrain chunk", 10, new int[]{100});
+    }
+
+    @Override
+    public void setup() {
+        BenchmarkBlockManager blockManager = new BenchmarkBlockManager();
+        Block air = blockManager.register(BlockManager.AIR_ID, 0, null);
+        CubeMeshGenerator meshGenerator = new CubeMeshGenerator();
+        Block stone = blockManager.register(new BlockUri(new ResourceUrn("benchmark:stone")), 1, meshGenerator);
+        Block dirt = blockManager.register(new BlockUri(new ResourceUrn("benchmark:dirt")), 2, meshGenerator);
+        Block grass = blockManager.register(new BlockUri(new ResourceUrn("benchmark:grass")), 3, meshGenerator);
+
+        ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+        Region3i region = Region3i.createFromCenterExtents(new Vector3i(), ChunkConstants.LOCAL_REGION_EXTENTS);
+        Chunk[] chunks = new Chunk[region.sizeX() * region.sizeY() * region.sizeZ()];
+        FastRandom random = new FastRandom(0L);
+        for (Vector3i chunkPos : region) {
+            Chunk chunk = new ChunkImpl(chunkPos, blockManager, extraDataManager);
+            Vector3i worldOffset = chunk.getChunkWorldOffset();
+            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    int worldX = worldOffset.x + x;
+                    int worldZ = worldOffset.z + z;
+                    int height = 24 + (int) (6 * Math.sin(worldX * 0.2) + 4 * Math.cos(worldZ * 0.15));
+                    for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                        int worldY = worldOffset.y + y;
+                        if (worldY > height || worldY < height - 3 && random.nextFloat() < 0.05f) {
+                            chunk.setBlock(x, y, z, air);
+                        } else if (worldY == height) {
+                            chunk.setBlock(x, y, z, grass);
+                        } else if (worldY > height - 4) {
+                            chunk.setBlock(x, y, z, dirt);
+                        } else {
+                            chunk.setBlock(x, y, z, stone);
+                        }
+                    }
+                }
+            }
+            chunks[TeraMath.calculate3DArrayIndex(chunkPos.x - region.minX(), chunkPos.y - region.minY(),
+                    chunkPos.z - region.minZ(), region.size())] = chunk;
+        }
+        chunkView = new ChunkViewCoreImpl(chunks, region, Vector3i.one(), air);
+        tessellator = new ChunkTessellator(new GLBufferPool(false));
+    }
+
+    @Override
+    public void prerun() {
+        allocatedBytes = 0;
+        meshCount = 0;
+    }
+
+    @Override
+    public void run() {
+        long allocatedBefore = getAllocatedBytes();
+        ChunkMesh mesh = tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+        vertexCount = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE).vertexCount;
+        mesh.dispose();
+        allocatedBytes += getAllocatedBytes() - allocatedBefore;
+        meshCount++;
+    }
+
+    @Override
+    public void postrun() {
+        if (meshCount > 0 && getAllocatedBytes() >= 0) {
+            logger.info("{}: {} KiB allocated per mesh", getTitle(), allocatedBytes / meshCount / 1024);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && vertexCount == 0) {
+            throw new IllegalStateException("The chunk mesh is empty");
+        }
+    }
+
+    private static final class BenchmarkBlockManager extends BlockManagerImpl {
+
+        BenchmarkBlockManager() {
+            super(new NullWorldAtlas(), null);
+        }
+
+        Block register(BlockUri uri, int id, BlockMeshGenerator meshGenerator) {
+            Block block = new Block();
+            block.setUri(uri);
+            block.setId((short) id);
+            block.setMeshGenerator(meshGenerator);
+            registerFamily(new SingleBlockFamily(block));
+            return block;
+        }
+    }
+
+    /**
+     * Adds a quad for every side of the block that faces air.
+     */
+    private static final class CubeMeshGenerator implements BlockMeshGenerator {
+        private final Map<Side, BlockMeshPart> faces = new EnumMap<>(Side.class);
+
+        CubeMeshGenerator() {
+            for (Side side : Side.getAllSides()) {
+                Vector3f normal = new Vector3f(side.direction());
+                Vector3f u = new Vector3f(normal.y, normal.z, normal.x).mul(0.5f);
+                Vector3f v = new Vector3f(normal).cross(u);
+                Vector3f center = new Vector3f(normal).mul(0.5f);
+                Vector3f[] vertices = {
+                        new Vector3f(center).sub(u).sub(v),
+                        new Vector3f(center).add(u).sub(v),
+                        new Vector3f(center).add(u).add(v),
+                        new Vector3f(center).sub(u).add(v)};
+                Vector3f[] normals = {normal, normal, normal, normal};
+                Vector2f[] texCoords = {new Vector2f(0, 0), new Vector2f(1, 0), new Vector2f(1, 1), new Vector2f(0, 1)};
+                faces.put(side, new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3}));
+            }
+        }
+
+        @Override
+        public void generateChunkMesh(ChunkView view, ChunkMesh mesh, int x, int y, int z) {
+            for (Map.Entry<Side, BlockMeshPart> face : faces.entrySet()) {
+                Side side = face.getKey();
+                Block neighbour = view.getBlock(x + side.direction().x(), y + side.direction().y(), z + side.direction().z());
+                if (neighbour.getMeshGenerator() == null) {
+                    face.getValue().appendTo(mesh, x, y, z, ChunkMesh.RenderType.OPAQUE, ChunkVertexFlag.NORMAL);
+                }
+            }
+        }
+
+        @Override
+        public Mesh getStandaloneMesh() {
+            return null;
+        }
+    }
+
+    private static final class SingleBlockFamily implements BlockFamily {
+        private final Block block;
+
+        SingleBlockFamily(Block block) {
+            this.block = block;
+            block.setBlockFamily(this);
+        }
+
+        @Override
+        public BlockUri getURI() {
+            return block.getURI();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return block.getURI().toString();
+        }
+
+        @Override
+        public Block getBlockForPlacement(BlockPlacementData data) {
+            return block;
+        }
+
+        @Override
+        public Block getBlockForPlacement(Vector3i location, Side attachmentSide, Side direction) {
+            return block;
+        }
+
+        @Override
+        public Block getArchetypeBlock() {
+            return block;
+        }
+
+        @Override
+        public Block getBlockFor(BlockUri blockUri) {
+            return block.getURI().equals(blockUri) ? block : null;
+        }
+
+        @Override
+        public Iterable<Block> getBlocks() {
+            return ImmutableList.of(block);
+        }
+
+        @Override
+        public Iterable<String> getCategories() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean hasCategory(String category) {
+            return false;
+        }
+    }
+}
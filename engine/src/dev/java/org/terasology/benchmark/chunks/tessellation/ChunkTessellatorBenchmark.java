@@ -0,0 +1,27 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.tessellation;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * ChunkTessellatorBenchmark measures the generation of chunk meshes.
+ */
+public final class ChunkTessellatorBenchmark {
+
+    private ChunkTessellatorBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        benchmarks.add(new BenchmarkChunkMeshGeneration());
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
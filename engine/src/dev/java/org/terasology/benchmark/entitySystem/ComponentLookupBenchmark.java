@@ -0,0 +1,81 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.entitySystem;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.rendering.logic.MeshComponent;
+import org.terasology.utilities.random.FastRandom;
+
+/**
+ * Looks up a component of each of 100k entities and checks whether they have another one, like systems do when they
+ * go through the entities they are interested in. Reports the bytes allocated per lookup, which should be none.
+ */
+public class ComponentLookupBenchmark extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComponentLookupBenchmark.class);
+    private static final int ENTITY_COUNT = 100_000;
+
+    private EntityRef[] entities;
+    private int entitiesWithMesh;
+    private long allocatedBytes;
+    private long lookups;
+
+    public ComponentLookupBenchmark() {
+        super("Get and has component of " + ENTITY_COUNT + " entities", 100, new int[]{1000});
+    }
+
+    @Override
+    public void setup() {
+        FastRandom rand = new FastRandom(0L);
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entities = new EntityRef[ENTITY_COUNT];
+        entitiesWithMesh = 0;
+        for (int i = 0; i < ENTITY_COUNT; ++i) {
+            if (rand.nextFloat() < 0.5f) {
+                entities[i] = entityManager.create(new LocationComponent(), new MeshComponent());
+                entitiesWithMesh++;
+            } else {
+                entities[i] = entityManager.create(new LocationComponent());
+            }
+        }
+    }
+
+    @Override
+    public void prerun() {
+        allocatedBytes = 0;
+        lookups = 0;
+    }
+
+    @Override
+    public void run() {
+        long allocatedBefore = getAllocatedBytes();
+        int found = 0;
+        int withMesh = 0;
+        for (EntityRef entity : entities) {
+            if (entity.getComponent(LocationComponent.class) != null) {
+                found++;
+            }
+            if (entity.hasComponent(MeshComponent.class)) {
+                withMesh++;
+            }
+        }
+        allocatedBytes += getAllocatedBytes() - allocatedBefore;
+        lookups += 2L * entities.length;
+        if (found != ENTITY_COUNT || withMesh != entitiesWithMesh) {
+            throw new IllegalStateException("Expected " + ENTITY_COUNT + " locations and " + entitiesWithMesh
+                    + " meshes, found " + found + " and " + withMesh);
+        }
+    }
+
+    @Override
+    public void postrun() {
+        if (lookups > 0 && getAllocatedBytes() >= 0) {
+            logger.info("{}: {} bytes allocated per lookup", getTitle(), (double) allocatedBytes / lookups);
+        }
+    }
+}
@@ -40,6 +40,9 @@ public static void main(String[] args) {
         benchmarks.add(new EntityCreateBenchmark());
         benchmarks.add(new IterateSingleComponentBenchmark());
         benchmarks.add(new IterateMultipleComponentBenchmark());
+        benchmarks.add(new IterateRareComponentBenchmark());
+        benchmarks.add(new ComponentLookupBenchmark());
+        benchmarks.add(new EventSendBenchmark());
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
@@ -0,0 +1,79 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.event.AbstractConsumableEvent;
+import org.terasology.entitySystem.event.EventPriority;
+import org.terasology.entitySystem.event.internal.EventSystemImpl;
+import org.terasology.entitySystem.metadata.EventLibrary;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.recording.EventCatcher;
+import org.terasology.recording.RecordAndReplayCurrentStatus;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ReflectFactory;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+import org.terasology.rendering.logic.LightComponent;
+import org.terasology.rendering.logic.LightFadeComponent;
+import org.terasology.rendering.logic.MeshComponent;
+
+/**
+ * Sends events to an entity that has handlers registered for a mix of components and priorities, which measures the
+ * handler selection and dispatch of the event system.
+ */
+public class EventSendBenchmark extends AbstractBenchmark {
+
+    private static final int EVENTS_PER_RUN = 10_000;
+
+    private EventSystemImpl eventSystem;
+    private EntityRef entity;
+    private int received;
+
+    public EventSendBenchmark() {
+        super("Send " + EVENTS_PER_RUN + " events to an entity with several handlers", 100, new int[]{1000});
+    }
+
+    @Override
+    public void setup() {
+        ReflectFactory reflectFactory = new ReflectionReflectFactory();
+        EventLibrary eventLibrary = new EventLibrary(null, reflectFactory, new CopyStrategyLibrary(reflectFactory));
+        // Only event receivers are registered, which do not need a network system
+        eventSystem = new EventSystemImpl(eventLibrary, null, new EventCatcher(null, null), new RecordAndReplayCurrentStatus());
+
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entity = entityManager.create(new LocationComponent(), new MeshComponent(), new LightComponent());
+
+        int[] priorities = {EventPriority.PRIORITY_LOW, EventPriority.PRIORITY_NORMAL, EventPriority.PRIORITY_HIGH};
+        Class<? extends Component>[] components = new Class[]{LocationComponent.class, MeshComponent.class,
+                LightComponent.class, LightFadeComponent.class};
+        for (int priority : priorities) {
+            eventSystem.registerEventReceiver((BenchmarkEvent event, EntityRef target) -> received++, BenchmarkEvent.class, priority);
+            for (Class<? extends Component> component : components) {
+                eventSystem.registerEventReceiver((BenchmarkEvent event, EntityRef target) -> received++,
+                        BenchmarkEvent.class, priority, component);
+                eventSystem.registerEventReceiver((BenchmarkEvent event, EntityRef target) -> received++,
+                        BenchmarkEvent.class, priority, LocationComponent.class, component);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < EVENTS_PER_RUN; i++) {
+            eventSystem.send(entity, new BenchmarkEvent());
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && received == 0) {
+            throw new IllegalStateException("No event was received");
+        }
+    }
+
+    public static class BenchmarkEvent extends AbstractConsumableEvent {
+    }
+}
@@ -0,0 +1,57 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.rendering.logic.LightComponent;
+import org.terasology.rendering.logic.LightFadeComponent;
+import org.terasology.rendering.logic.MeshComponent;
+import org.terasology.utilities.random.FastRandom;
+
+/**
+ * Queries a component combination that only a handful of 100k entities have, as systems like the light fade system
+ * do every frame.
+ */
+public class IterateRareComponentBenchmark extends AbstractBenchmark {
+
+    private static final int ENTITY_COUNT = 100_000;
+    private static final int RARE_ENTITY_COUNT = 3;
+
+    private PojoEntityManager entityManager;
+
+    public IterateRareComponentBenchmark() {
+        super("Iterate " + RARE_ENTITY_COUNT + " of " + ENTITY_COUNT + " entities by a rare component", 1000,
+                new int[]{10000});
+    }
+
+    @Override
+    public void setup() {
+        FastRandom rand = new FastRandom(0L);
+        entityManager = new PojoEntityManager();
+        for (int i = 0; i < ENTITY_COUNT; ++i) {
+            if (rand.nextFloat() < 0.5f) {
+                entityManager.create(new LocationComponent(), new MeshComponent());
+            } else {
+                entityManager.create(new LocationComponent());
+            }
+        }
+        for (int i = 0; i < RARE_ENTITY_COUNT; ++i) {
+            entityManager.create(new LocationComponent(), new LightComponent(), new LightFadeComponent());
+        }
+    }
+
+    @Override
+    public void run() {
+        int count = 0;
+        for (EntityRef entity : entityManager.getEntitiesWith(LightFadeComponent.class, LightComponent.class)) {
+            entity.getComponent(LightComponent.class);
+            count++;
+        }
+        if (count != RARE_ENTITY_COUNT) {
+            throw new IllegalStateException("Expected " + RARE_ENTITY_COUNT + " entities, found " + count);
+        }
+    }
+}
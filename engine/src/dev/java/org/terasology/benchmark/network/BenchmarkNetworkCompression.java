@@ -0,0 +1,156 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.network;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.internal.CompressionDecoder;
+import org.terasology.network.internal.CompressionEncoder;
+import org.terasology.network.internal.NetworkCompression;
+import org.terasology.protobuf.EntityData;
+import org.terasology.protobuf.NetData;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Sends the messages of a client joining a server through the encoder and decoder of one {@link NetworkCompression},
+ * and reports the compression ratio and the CPU time per MB of messages.
+ * <p>
+ * The messages are a replay of what the server sends to a client walking around after joining: every tick moves some
+ * entities, and every few ticks a couple of chunks of hilly terrain arrive.
+ */
+public class BenchmarkNetworkCompression extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkNetworkCompression.class);
+    private static final int TICKS = 400;
+    private static final int MOVING_ENTITIES = 12;
+    private static final int CHUNK_TICK_INTERVAL = 5;
+    private static final int CHUNKS = 80;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final NetworkCompression mode;
+    private final List<byte[]> messages = Lists.newArrayList();
+    private long messageBytes;
+
+    private long compressedBytes;
+    private long encodeCpuNanos;
+    private long decodeCpuNanos;
+    private int streams;
+
+    public BenchmarkNetworkCompression(NetworkCompression mode) {
+        super("Network compression " + mode.getConfigName(), 5, new int[]{10, 20});
+        this.mode = mode;
+    }
+
+    @Override
+    public void setup() {
+        FastRandom random = new FastRandom(0L);
+        float[] positions = new float[MOVING_ENTITIES * 3];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = random.nextFloat(-64, 64);
+        }
+        int chunk = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            NetData.NetMessage.Builder message = NetData.NetMessage.newBuilder().setTime(tick * 50L);
+            for (int i = 0; i < MOVING_ENTITIES; i++) {
+                EntityData.Value.Builder position = EntityData.Value.newBuilder();
+                for (int j = 0; j < 3; j++) {
+                    positions[i * 3 + j] += random.nextFloat(-0.2f, 0.2f);
+                    position.addFloat(positions[i * 3 + j]);
+                }
+                EntityData.PackedEntity.Builder entity = EntityData.PackedEntity.newBuilder()
+                        .addComponentId(7)
+                        .setComponentFieldCounts(ByteString.copyFrom(new byte[]{2}))
+                        .setFieldIds(ByteString.copyFrom(new byte[]{1, 2}))
+                        .addFieldValue(position)
+                        .addFieldValue(EntityData.Value.newBuilder().addFloat(0).addFloat(random.nextFloat()).addFloat(0).addFloat(1));
+                message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setNetId(100 + i).setEntity(entity));
+            }
+            if (tick % CHUNK_TICK_INTERVAL == 0 && chunk < CHUNKS) {
+                for (int i = 0; i < 2; i++, chunk++) {
+                    Vector3i pos = new Vector3i(chunk % 9, 0, chunk / 9);
+                    message.addChunkInfo(ChunkSerializer.encode(pos, generate(pos), new TeraArray[0]));
+                }
+            }
+            byte[] bytes = message.build().toByteArray();
+            messages.add(bytes);
+            messageBytes += bytes.length;
+        }
+    }
+
+    @Override
+    public void prerun() {
+        compressedBytes = 0;
+        encodeCpuNanos = 0;
+        decodeCpuNanos = 0;
+        streams = 0;
+    }
+
+    @Override
+    public void run() {
+        CompressionEncoder encoder = new CompressionEncoder(mode);
+        CompressionDecoder decoder = new CompressionDecoder(mode);
+        List<ChannelBuffer> frames = Lists.newArrayListWithCapacity(messages.size());
+
+        long start = threadMXBean.getCurrentThreadCpuTime();
+        for (byte[] message : messages) {
+            frames.add(encoder.compress(ChannelBuffers.wrappedBuffer(message)));
+        }
+        long encoded = threadMXBean.getCurrentThreadCpuTime();
+        try {
+            for (ChannelBuffer frame : frames) {
+                compressedBytes += frame.readableBytes();
+                decoder.decompress(frame);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long decoded = threadMXBean.getCurrentThreadCpuTime();
+
+        encodeCpuNanos += encoded - start;
+        decodeCpuNanos += decoded - encoded;
+        streams++;
+    }
+
+    @Override
+    public void postrun() {
+        if (streams == 0) {
+            return;
+        }
+        double megabytes = (double) messageBytes * streams / (1024 * 1024);
+        logger.info("{}: ratio {}, encode {} ms CPU per MB, decode {} ms CPU per MB", getTitle(),
+                String.format("%.3f", (double) compressedBytes / (messageBytes * streams)),
+                String.format("%.2f", encodeCpuNanos / 1e6 / megabytes),
+                String.format("%.2f", decodeCpuNanos / 1e6 / megabytes));
+    }
+
+    private static TeraArray generate(Vector3i chunkPos) {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                int worldX = chunkPos.x * ChunkConstants.SIZE_X + x;
+                int worldZ = chunkPos.z * ChunkConstants.SIZE_Z + z;
+                int height = 32 + (int) (8 * Math.sin(worldX * 0.1) + 6 * Math.cos(worldZ * 0.13));
+                for (int y = 0; y <= height && y < ChunkConstants.SIZE_Y; y++) {
+                    blocks.set(x, y, z, y == height ? 3 : y > height - 4 ? 2 : 1);
+                }
+            }
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,30 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.network;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.network.internal.NetworkCompression;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * NetworkCompressionBenchmark compares the CPU time and compression ratio of the network compression modes.
+ */
+public final class NetworkCompressionBenchmark {
+
+    private NetworkCompressionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        for (NetworkCompression mode : NetworkCompression.values()) {
+            benchmarks.add(new BenchmarkNetworkCompression(mode));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
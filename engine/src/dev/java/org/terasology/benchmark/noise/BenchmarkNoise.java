@@ -0,0 +1,84 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.noise;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.Noise;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Samples a noise over the area and the region of a chunk, either position by position or with the batch methods of
+ * {@link Noise}, and reports the samples per second of CPU time.
+ */
+public class BenchmarkNoise extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkNoise.class);
+    private static final Rect2i AREA = Rect2i.createFromMinAndSize(-32, 96, 32, 32);
+    private static final Region3i REGION = Region3i.createFromMinAndSize(new Vector3i(-32, 0, 96), new Vector3i(32, 64, 32));
+    private static final float SCALE = 0.01f;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Noise noise;
+    private final boolean batched;
+    private final float[] area = new float[AREA.sizeX() * AREA.sizeY()];
+    private final float[] region = new float[REGION.sizeX() * REGION.sizeY() * REGION.sizeZ()];
+
+    private long cpuNanos;
+    private long samples;
+    private float sum;
+
+    public BenchmarkNoise(String name, Noise noise, boolean batched) {
+        super(name + (batched ? " batched" : " per position"), 20, new int[]{50, 100});
+        this.noise = noise;
+        this.batched = batched;
+    }
+
+    @Override
+    public void prerun() {
+        cpuNanos = 0;
+        samples = 0;
+    }
+
+    @Override
+    public void run() {
+        long start = threadMXBean.getCurrentThreadCpuTime();
+        if (batched) {
+            noise.noise(AREA, SCALE, SCALE, area);
+            noise.noise(REGION, SCALE, SCALE, SCALE, region);
+        } else {
+            int index = 0;
+            for (int y = AREA.minY(); y <= AREA.maxY(); y++) {
+                for (int x = AREA.minX(); x <= AREA.maxX(); x++) {
+                    area[index++] = noise.noise(x * SCALE, y * SCALE);
+                }
+            }
+            index = 0;
+            for (int z = REGION.minZ(); z <= REGION.maxZ(); z++) {
+                for (int y = REGION.minY(); y <= REGION.maxY(); y++) {
+                    for (int x = REGION.minX(); x <= REGION.maxX(); x++) {
+                        region[index++] = noise.noise(x * SCALE, y * SCALE, z * SCALE);
+                    }
+                }
+            }
+        }
+        cpuNanos += threadMXBean.getCurrentThreadCpuTime() - start;
+        samples += area.length + region.length;
+        // keeps the results alive
+        sum += area[area.length - 1] + region[region.length - 1];
+    }
+
+    @Override
+    public void postrun() {
+        if (cpuNanos > 0) {
+            logger.info("{}: {} million samples per CPU second ({})", getTitle(),
+                    String.format("%.2f", samples * 1e3 / cpuNanos), sum);
+        }
+    }
+}
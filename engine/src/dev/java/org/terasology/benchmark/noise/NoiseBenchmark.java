@@ -0,0 +1,34 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * NoiseBenchmark compares sampling the noise implementations position by position with their batch methods.
+ */
+public final class NoiseBenchmark {
+
+    private NoiseBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        for (boolean batched : new boolean[]{false, true}) {
+            benchmarks.add(new BenchmarkNoise("Simplex", new SimplexNoise(0), batched));
+            benchmarks.add(new BenchmarkNoise("Perlin", new PerlinNoise(0), batched));
+            benchmarks.add(new BenchmarkNoise("Brownian simplex", new BrownianNoise(new SimplexNoise(0), 6), batched));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,136 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.internal.ChunkCodecs;
+import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Compresses ("save") or decompresses ("load") the chunks of a generated test world with one {@link
+ * org.terasology.persistence.internal.ChunkCodec}, and reports the total compressed size.
+ */
+public class BenchmarkChunkCodec extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkChunkCodec.class);
+    private static final short AIR = 0;
+    private static final short STONE = 1;
+    private static final short DIRT = 2;
+    private static final short GRASS = 3;
+    private static final short WATER = 4;
+    private static final short ORE = 5;
+    private static final int SEA_LEVEL = 28;
+
+    private final String codecName;
+    private final boolean load;
+    private final int worldSize;
+    private final List<byte[]> chunkStores = Lists.newArrayList();
+    private final List<byte[]> encodedChunks = Lists.newArrayList();
+    private ChunkCodecs codecs;
+
+    /**
+     * @param load      if true decompression is measured, otherwise compression
+     * @param worldSize the world consists of worldSize x worldSize chunk columns
+     */
+    public BenchmarkChunkCodec(String codecName, boolean load, int worldSize) {
+        super("Chunk codec " + codecName + ", " + (load ? "load " : "save ") + worldSize * worldSize + " chunks",
+                5, new int[]{10, 20});
+        this.codecName = codecName;
+        this.load = load;
+        this.worldSize = worldSize;
+    }
+
+    @Override
+    public void setup() {
+        SimplexNoise heightNoise = new SimplexNoise(42);
+        SimplexNoise oreNoise = new SimplexNoise(43);
+        for (int x = 0; x < worldSize; x++) {
+            for (int z = 0; z < worldSize; z++) {
+                Vector3i pos = new Vector3i(x, 0, z);
+                TeraArray blocks = generate(pos, heightNoise, oreNoise);
+                chunkStores.add(ChunkSerializer.encode(pos, blocks, new TeraArray[0])
+                        .setStore(EntityData.EntityStore.getDefaultInstance())
+                        .build().toByteArray());
+            }
+        }
+        try {
+            codecs = new ChunkCodecs(Files.createTempDirectory("chunkCodecBenchmark").resolve("chunks.dict"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        codecs.setWriteCodec(codecName);
+        // the first pass trains the dictionary of codecs that use one
+        chunkStores.forEach(codecs::encode);
+
+        long uncompressed = 0;
+        long compressed = 0;
+        for (byte[] chunkStore : chunkStores) {
+            byte[] encoded = codecs.encode(chunkStore);
+            encodedChunks.add(encoded);
+            uncompressed += chunkStore.length;
+            compressed += encoded.length;
+        }
+        logger.info("{}: {} bytes compressed to {} bytes ({} bytes per chunk)", codecName, uncompressed, compressed,
+                compressed / chunkStores.size());
+    }
+
+    @Override
+    public void run() {
+        if (load) {
+            try {
+                for (byte[] encoded : encodedChunks) {
+                    codecs.decode(encoded);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            for (byte[] chunkStore : chunkStores) {
+                codecs.encode(chunkStore);
+            }
+        }
+    }
+
+    /**
+     * Rolling hills of grass and dirt on stone with ore veins, and water up to the sea level.
+     */
+    private static TeraArray generate(Vector3i chunkPos, SimplexNoise heightNoise, SimplexNoise oreNoise) {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                float worldX = chunkPos.x * ChunkConstants.SIZE_X + x;
+                float worldZ = chunkPos.z * ChunkConstants.SIZE_Z + z;
+                int height = 32 + (int) (heightNoise.noise(worldX / 64f, worldZ / 64f) * 16
+                        + heightNoise.noise(worldX / 16f, worldZ / 16f) * 4);
+                for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                    short block;
+                    if (y < height - 3) {
+                        block = oreNoise.noise(worldX / 8f, y / 8f, worldZ / 8f) > 0.6f ? ORE : STONE;
+                    } else if (y < height) {
+                        block = DIRT;
+                    } else if (y == height) {
+                        block = height < SEA_LEVEL ? DIRT : GRASS;
+                    } else {
+                        block = y <= SEA_LEVEL ? WATER : AIR;
+                    }
+                    blocks.set(x, y, z, block);
+                }
+            }
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,36 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.persistence;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.persistence.internal.DeflateChunkCodec;
+import org.terasology.persistence.internal.GzipChunkCodec;
+import org.terasology.persistence.internal.Lz4ChunkCodec;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * ChunkCodecsBenchmark compares save time, load time and stored size of the chunk codecs against the GZIP
+ * compression that was used before.
+ */
+public final class ChunkCodecsBenchmark {
+
+    private static final int WORLD_SIZE = 16;
+
+    private ChunkCodecsBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = new LinkedList<>();
+
+        for (String codec : new String[]{GzipChunkCodec.NAME, Lz4ChunkCodec.NAME, DeflateChunkCodec.NAME}) {
+            benchmarks.add(new BenchmarkChunkCodec(codec, false, WORLD_SIZE));
+            benchmarks.add(new BenchmarkChunkCodec(codec, true, WORLD_SIZE));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,208 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.propagation;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.propagation.BatchPropagator;
+import org.terasology.world.propagation.BlockChange;
+import org.terasology.world.propagation.PropagatorWorldView;
+import org.terasology.world.propagation.StandardBatchPropagator;
+import org.terasology.world.propagation.light.LightPropagationRules;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Digs through the wall between a cavern lit by torches and a dark one, so the light floods the dark cavern, and walls
+ * the breach up again, which takes the light back out. Reports the time and the bytes allocated per breach.
+ * <p>
+ * The world is kept in plain arrays, so the measurement is dominated by the {@link StandardBatchPropagator} itself.
+ */
+public class BenchmarkCavernBreach extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkCavernBreach.class);
+    private static final int SIZE_X = 128;
+    private static final int SIZE_Y = 64;
+    private static final int SIZE_Z = 64;
+    private static final int WALL_MIN_X = 60;
+    private static final int WALL_MAX_X = 63;
+    private static final int BREACH_SIZE = 16;
+    private static final int TORCH_SPACING = 6;
+
+    private Block stone;
+    private Block air;
+    private ArrayWorldView world;
+    private BatchPropagator propagator;
+    private final List<BlockChange> breach = Lists.newArrayList();
+    private final List<BlockChange> repair = Lists.newArrayList();
+
+    private long allocatedBytes;
+    private long breaches;
+    private int litBlocks;
+
+    public BenchmarkCavernBreach() {
+        super("StandardBatchPropagator breaching a lit cavern", 20, new int[]{100, 200});
+    }
+
+    @Override
+    public void setup() {
+        stone = new Block();
+        stone.setTranslucent(false);
+        for (Side side : Side.getAllSides()) {
+            stone.setFullSide(side, true);
+        }
+        air = new Block();
+        air.setTranslucent(true);
+        Block torch = new Block();
+        torch.setTranslucent(true);
+        torch.setLuminance(ChunkConstants.MAX_LIGHT);
+
+        world = new ArrayWorldView(stone);
+        for (int x = 1; x < SIZE_X - 1; x++) {
+            for (int y = 1; y < SIZE_Y - 1; y++) {
+                for (int z = 1; z < SIZE_Z - 1; z++) {
+                    if (x < WALL_MIN_X || x > WALL_MAX_X) {
+                        world.setBlockAt(x, y, z, air);
+                    }
+                }
+            }
+        }
+        propagator = new StandardBatchPropagator(new LightPropagationRules(), world);
+
+        List<BlockChange> torches = Lists.newArrayList();
+        for (int x = TORCH_SPACING; x < WALL_MIN_X; x += TORCH_SPACING) {
+            for (int y = TORCH_SPACING; y < SIZE_Y - 1; y += TORCH_SPACING) {
+                for (int z = TORCH_SPACING; z < SIZE_Z - 1; z += TORCH_SPACING) {
+                    world.setBlockAt(x, y, z, torch);
+                    torches.add(new BlockChange(new org.joml.Vector3i(x, y, z), air, torch));
+                }
+            }
+        }
+        propagator.process(torches);
+
+        int minY = (SIZE_Y - BREACH_SIZE) / 2;
+        int minZ = (SIZE_Z - BREACH_SIZE) / 2;
+        for (int x = WALL_MIN_X; x <= WALL_MAX_X; x++) {
+            for (int y = minY; y < minY + BREACH_SIZE; y++) {
+                for (int z = minZ; z < minZ + BREACH_SIZE; z++) {
+                    breach.add(new BlockChange(new org.joml.Vector3i(x, y, z), stone, air));
+                    repair.add(new BlockChange(new org.joml.Vector3i(x, y, z), air, stone));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void prerun() {
+        allocatedBytes = 0;
+        breaches = 0;
+    }
+
+    @Override
+    public void run() {
+        long allocatedBefore = getAllocatedBytes();
+        apply(breach);
+        propagator.process(breach);
+        litBlocks = world.countLitBlocks(WALL_MAX_X + 1);
+        apply(repair);
+        propagator.process(repair);
+        allocatedBytes += getAllocatedBytes() - allocatedBefore;
+        breaches++;
+    }
+
+    @Override
+    public void postrun() {
+        if (breaches > 0 && getAllocatedBytes() >= 0) {
+            logger.info("{}: {} KiB allocated per breach, {} blocks lit behind the wall", getTitle(),
+                    allocatedBytes / breaches / 1024, litBlocks);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && (litBlocks == 0 || world.countLitBlocks(WALL_MAX_X + 1) != 0)) {
+            throw new IllegalStateException("The light did not flood the dark cavern and recede again");
+        }
+    }
+
+    private void apply(List<BlockChange> changes) {
+        for (BlockChange change : changes) {
+            world.setBlockAt(change.getPosition().x(), change.getPosition().y(), change.getPosition().z(), change.getTo());
+        }
+    }
+
+    /**
+     * A world of a fixed size starting at the origin, with everything outside of it unavailable.
+     */
+    private static final class ArrayWorldView implements PropagatorWorldView {
+        private final byte[] light = new byte[SIZE_X * SIZE_Y * SIZE_Z];
+        private final Block[] blocks = new Block[light.length];
+
+        ArrayWorldView(Block fill) {
+            Arrays.fill(blocks, fill);
+        }
+
+        @Override
+        public byte getValueAt(Vector3i pos) {
+            return getValueAt(pos.x, pos.y, pos.z);
+        }
+
+        @Override
+        public byte getValueAt(int x, int y, int z) {
+            return contains(x, y, z) ? light[index(x, y, z)] : UNAVAILABLE;
+        }
+
+        @Override
+        public void setValueAt(Vector3i pos, byte value) {
+            setValueAt(pos.x, pos.y, pos.z, value);
+        }
+
+        @Override
+        public void setValueAt(int x, int y, int z, byte value) {
+            light[index(x, y, z)] = value;
+        }
+
+        @Override
+        public Block getBlockAt(Vector3i pos) {
+            return getBlockAt(pos.x, pos.y, pos.z);
+        }
+
+        @Override
+        public Block getBlockAt(int x, int y, int z) {
+            return contains(x, y, z) ? blocks[index(x, y, z)] : null;
+        }
+
+        void setBlockAt(int x, int y, int z, Block block) {
+            blocks[index(x, y, z)] = block;
+        }
+
+        int countLitBlocks(int minX) {
+            int count = 0;
+            for (int x = minX; x < SIZE_X; x++) {
+                for (int y = 0; y < SIZE_Y; y++) {
+                    for (int z = 0; z < SIZE_Z; z++) {
+                        if (light[index(x, y, z)] > 0) {
+                            count++;
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        private static boolean contains(int x, int y, int z) {
+            return x >= 0 && x < SIZE_X && y >= 0 && y < SIZE_Y && z >= 0 && z < SIZE_Z;
+        }
+
+        private static int index(int x, int y, int z) {
+            return x + SIZE_X * (y + SIZE_Y * z);
+        }
+    }
+}
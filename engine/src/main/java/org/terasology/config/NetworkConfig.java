@@ -49,6 +49,11 @@ public class NetworkConfig {
      */
     private String masterServer = "meta.terasology.org";
 
+    /**
+     * The compression of the messages sent to clients outside of the local network
+     */
+    private String compression;
+
     public void clear() {
         servers.clear();
     }
@@ -96,4 +101,15 @@ public String getMasterServer() {
     public void setMasterServer(String masterServer) {
         this.masterServer = masterServer;
     }
+
+    /**
+     * @return the config name of the {@link org.terasology.network.internal.NetworkCompression} offered to clients
+     */
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
 }
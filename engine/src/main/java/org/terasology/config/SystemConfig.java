@@ -16,6 +16,8 @@
 
 package org.terasology.config;
 
+import org.terasology.persistence.internal.ChunkStorageFormat;
+
 import java.util.Locale;
 import java.util.Locale.Category;
 
@@ -27,10 +29,16 @@ public class SystemConfig {
     private int maxThreads;
     private int maxSecondsBetweenSaves;
     private int maxUnloadedChunksPercentageTillSave;
+    private boolean incrementalSaving;
+    private int chunksPerIncrementalSave;
     private boolean debugEnabled;
     private boolean monitoringEnabled;
     private boolean writeSaveGamesEnabled;
     private long chunkGenerationFailTimeoutInMs;
+    private int chunkProcessingThreads;
+    private int chunkMeshingThreads;
+    private String chunkCodec;
+    private ChunkStorageFormat chunkStorageFormat;
     private String locale;
 
     public long getDayNightLengthInMs() {
@@ -65,6 +73,28 @@ public void setMaxUnloadedChunksPercentageTillSave(int maxUnloadedChunksPercenta
         this.maxUnloadedChunksPercentageTillSave = maxUnloadedChunksPercentageTillSave;
     }
 
+    /**
+     * @return whether auto saves spread the changed chunks over several smaller save transactions
+     */
+    public boolean isIncrementalSaving() {
+        return incrementalSaving;
+    }
+
+    public void setIncrementalSaving(boolean incrementalSaving) {
+        this.incrementalSaving = incrementalSaving;
+    }
+
+    /**
+     * @return the maximum number of loaded chunks with changed blocks per transaction of an incremental auto save
+     */
+    public int getChunksPerIncrementalSave() {
+        return chunksPerIncrementalSave;
+    }
+
+    public void setChunksPerIncrementalSave(int chunksPerIncrementalSave) {
+        this.chunksPerIncrementalSave = chunksPerIncrementalSave;
+    }
+
     public boolean isDebugEnabled() {
         return debugEnabled;
     }
@@ -101,6 +131,47 @@ public void setChunkGenerationFailTimeoutInMs(long chunkGenerationFailTimeoutInM
         this.chunkGenerationFailTimeoutInMs = chunkGenerationFailTimeoutInMs;
     }
 
+    /**
+     * @return the number of chunk generation threads, zero or less to size from the available processors
+     */
+    public int getChunkProcessingThreads() {
+        return chunkProcessingThreads;
+    }
+
+    public void setChunkProcessingThreads(int chunkProcessingThreads) {
+        this.chunkProcessingThreads = chunkProcessingThreads;
+    }
+
+    /**
+     * @return the number of chunk meshing threads, zero or less to size from the available processors
+     */
+    public int getChunkMeshingThreads() {
+        return chunkMeshingThreads;
+    }
+
+    public void setChunkMeshingThreads(int chunkMeshingThreads) {
+        this.chunkMeshingThreads = chunkMeshingThreads;
+    }
+
+    /**
+     * @return the name of the {@link org.terasology.persistence.internal.ChunkCodec} used to store chunks
+     */
+    public String getChunkCodec() {
+        return chunkCodec;
+    }
+
+    public void setChunkCodec(String chunkCodec) {
+        this.chunkCodec = chunkCodec;
+    }
+
+    public ChunkStorageFormat getChunkStorageFormat() {
+        return chunkStorageFormat;
+    }
+
+    public void setChunkStorageFormat(ChunkStorageFormat chunkStorageFormat) {
+        this.chunkStorageFormat = chunkStorageFormat;
+    }
+
     public Locale getLocale() {
         if (locale == null) {
             setLocale(Locale.getDefault(Category.DISPLAY));
@@ -16,6 +16,8 @@
 
 package org.terasology.engine.modes;
 
+import java.util.Set;
+
 /**
  */
 public interface LoadProcess {
@@ -46,4 +48,23 @@ public interface LoadProcess {
      * @return A relative cost for this process. A small process would have a cost of 1, a large process a bigger cost.
      */
     int getExpectedCost();
+
+    /**
+     * @return The types of the processes that have to finish before this one begins, or null if it has to wait for
+     * every process added before it. Only processes added before this one are considered.
+     */
+    default Set<Class<? extends LoadProcess>> getDependencies() {
+        return null;
+    }
+
+    /**
+     * A process that does not touch OpenGL, the entity system or the world may run on a worker thread instead, as
+     * soon as its dependencies are finished. Assets that need the display are still created on the main thread, as
+     * their loaders hand that work over to the {@link org.terasology.engine.GameThread}.
+     *
+     * @return Whether the process has to run on the main thread
+     */
+    default boolean isMainThreadOnly() {
+        return true;
+    }
 }
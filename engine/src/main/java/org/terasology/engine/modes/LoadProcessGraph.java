@@ -0,0 +1,266 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.modes;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The load processes of a game and the order they have to run in.
+ * <p>
+ * Each process waits for the processes it depends on, see {@link LoadProcess#getDependencies()}. The processes that
+ * have to run on the main thread are stepped by {@link #step()}, one at a time. The others are started on a worker
+ * thread as soon as they are ready, and run there until they are done. Nothing here ever waits for a worker, as the
+ * workers may themselves wait for the main thread to create an asset.
+ */
+final class LoadProcessGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadProcessGraph.class);
+
+    private final List<Node> nodes = Lists.newArrayList();
+    private int totalCost;
+
+    private Node current;
+    private Node failed;
+    private ExecutorService executor;
+    private long startTime;
+
+    /**
+     * Adds a process, which depends on the processes added before it.
+     */
+    void add(LoadProcess process) {
+        Node node = new Node(process);
+        Set<Class<? extends LoadProcess>> dependencies = process.getDependencies();
+        for (Node earlier : nodes) {
+            if (dependencies == null || dependencies.stream().anyMatch(type -> type.isInstance(earlier.process))) {
+                node.dependencies.add(earlier);
+            }
+        }
+        nodes.add(node);
+        totalCost += process.getExpectedCost();
+    }
+
+    /**
+     * Starts the processes that are ready, and runs a single step of the main thread process.
+     *
+     * @return Whether a step was run, false if only worker threads have something to do
+     * @throws RuntimeException if a process failed, see {@link #getFailedProcess()}
+     */
+    boolean step() {
+        if (startTime == 0) {
+            startTime = System.nanoTime();
+        }
+        checkWorkers();
+        startReadyProcesses();
+        if (current == null) {
+            return false;
+        }
+        long stepStart = System.nanoTime();
+        try {
+            if (current.state == State.WAITING) {
+                current.state = State.RUNNING;
+                logger.debug(current.process.getMessage());
+                current.process.begin();
+            }
+            if (current.process.step()) {
+                current.state = State.DONE;
+            }
+        } catch (RuntimeException e) {
+            current.state = State.FAILED;
+            failed = current;
+            throw e;
+        } finally {
+            current.nanos += System.nanoTime() - stepStart;
+        }
+        if (current.state == State.DONE) {
+            finished(current);
+            current = null;
+        }
+        return true;
+    }
+
+    private void checkWorkers() {
+        for (Node node : nodes) {
+            if (node.state == State.FAILED && node.failure != null) {
+                failed = node;
+                Throwables.throwIfUnchecked(node.failure);
+                throw new RuntimeException(node.failure);
+            }
+            if (node.state == State.DONE && !node.reported) {
+                finished(node);
+            }
+        }
+    }
+
+    private void startReadyProcesses() {
+        for (Node node : nodes) {
+            if (node.state != State.WAITING || !node.isReady()) {
+                continue;
+            }
+            if (!node.process.isMainThreadOnly()) {
+                node.state = State.RUNNING;
+                getExecutor().execute(node::runToCompletion);
+            } else if (current == null) {
+                current = node;
+            }
+        }
+    }
+
+    private void finished(Node node) {
+        node.reported = true;
+        logger.debug("{} took {} ms", node.process.getMessage(), node.getMillis());
+        if (nodes.stream().allMatch(other -> other.reported)) {
+            logger.info("Loading took {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            shutdown();
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                    new ThreadFactoryBuilder().setNameFormat("Loading-%d").setDaemon(true).build());
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the worker threads, interrupting the processes still running on them.
+     */
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    boolean isFinished() {
+        return nodes.stream().allMatch(node -> node.state == State.DONE);
+    }
+
+    /**
+     * @return The process that is running on the main thread, or null if there is none at the moment
+     */
+    LoadProcess getCurrentProcess() {
+        return current != null ? current.process : null;
+    }
+
+    /**
+     * @return The process that failed, or null if none did
+     */
+    LoadProcess getFailedProcess() {
+        return failed != null ? failed.process : null;
+    }
+
+    /**
+     * @return The message of the process running on the main thread, or else of one running on a worker
+     */
+    String getMessage() {
+        if (current != null) {
+            return current.process.getMessage();
+        }
+        return nodes.stream()
+                .filter(node -> node.state == State.RUNNING)
+                .map(node -> node.process.getMessage())
+                .findFirst().orElse("");
+    }
+
+    /**
+     * @return The progress of all the processes, weighted by their expected cost, between 0f and 1f inclusive
+     */
+    float getProgress() {
+        if (totalCost == 0) {
+            return 1;
+        }
+        float progress = 0;
+        for (Node node : nodes) {
+            if (node.state == State.DONE) {
+                progress += node.process.getExpectedCost();
+            } else if (node.state == State.RUNNING) {
+                progress += node.process.getExpectedCost() * node.process.getProgress();
+            }
+        }
+        return progress / totalCost;
+    }
+
+    /**
+     * @return A line for each process that has begun, with the time spent on it so far
+     */
+    String getTimings() {
+        StringBuilder timings = new StringBuilder();
+        for (Node node : nodes) {
+            if (node.state == State.WAITING) {
+                continue;
+            }
+            if (timings.length() > 0) {
+                timings.append('\n');
+            }
+            timings.append(node.process.getMessage()).append(": ");
+            if (node.state == State.DONE) {
+                timings.append(node.getMillis()).append(" ms");
+            } else {
+                timings.append(node.state == State.FAILED ? "failed" : "...");
+            }
+        }
+        return timings.toString();
+    }
+
+    private enum State {
+        WAITING,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private static final class Node {
+        private final LoadProcess process;
+        private final List<Node> dependencies = Lists.newArrayList();
+
+        /* Written by the worker running the process */
+        private volatile State state = State.WAITING;
+        private volatile long nanos;
+        private volatile Throwable failure;
+
+        /* Whether the main thread has seen that the process is done */
+        private boolean reported;
+
+        private Node(LoadProcess process) {
+            this.process = process;
+        }
+
+        private boolean isReady() {
+            return dependencies.stream().allMatch(node -> node.state == State.DONE);
+        }
+
+        private long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        private void runToCompletion() {
+            long start = System.nanoTime();
+            try {
+                logger.debug(process.getMessage());
+                process.begin();
+                while (!process.step()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                }
+                nanos = System.nanoTime() - start;
+                state = State.DONE;
+            } catch (Throwable e) {
+                nanos = System.nanoTime() - start;
+                failure = e;
+                state = State.FAILED;
+            }
+        }
+    }
+}
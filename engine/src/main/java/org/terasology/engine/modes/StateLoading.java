@@ -4,7 +4,6 @@
 package org.terasology.engine.modes;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Queues;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
@@ -58,8 +57,6 @@
 import org.terasology.rendering.nui.layers.mainMenu.loadingScreen.LoadingScreen;
 import org.terasology.world.chunks.event.OnChunkLoaded;
 
-import java.util.Queue;
-
 public class StateLoading implements GameState {
 
     private static final Logger logger = LoggerFactory.getLogger(StateLoading.class);
@@ -67,8 +64,7 @@ public class StateLoading implements GameState {
     private Context context;
     private GameManifest gameManifest;
     private NetworkMode netMode;
-    private Queue<LoadProcess> loadProcesses = Queues.newArrayDeque();
-    private LoadProcess current;
+    private LoadProcessGraph loadProcesses = new LoadProcessGraph();
     private JoinStatus joinStatus;
 
     private NUIManager nuiManager;
@@ -77,9 +73,6 @@ public class StateLoading implements GameState {
 
     private Config config;
 
-    private int progress;
-    private int maxProgress;
-
     private boolean chunkGenerationStarted;
     private long timeLastChunkGenerated;
 
@@ -126,15 +119,8 @@ public void init(GameEngine engine) {
                 break;
         }
 
-        progress = 0;
-        maxProgress = 0;
-        for (LoadProcess process : loadProcesses) {
-            maxProgress += process.getExpectedCost();
-        }
-
-        popStep();
         loadingScreen = nuiManager.pushScreen("engine:loadingScreen", LoadingScreen.class);
-        loadingScreen.updateStatus(current.getMessage(), current.getProgress());
+        loadingScreen.updateStatus(loadProcesses.getMessage(), loadProcesses.getProgress());
 
         chunkGenerationStarted = false;
     }
@@ -205,20 +191,9 @@ private void initHost() {
         loadProcesses.add(new PrepareWorld(context));
     }
 
-    private void popStep() {
-        if (current != null) {
-            progress += current.getExpectedCost();
-        }
-        current = null;
-        if (!loadProcesses.isEmpty()) {
-            current = loadProcesses.remove();
-            logger.debug(current.getMessage());
-            current.begin();
-        }
-    }
-
     @Override
     public void dispose(boolean shuttingDown) {
+        loadProcesses.shutdown();
         EngineTime time = (EngineTime) context.get(Time.class);
         time.setPaused(false);
     }
@@ -232,31 +207,33 @@ public void update(float delta) {
         GameEngine gameEngine = context.get(GameEngine.class);
         EngineTime time = (EngineTime) context.get(Time.class);
         long startTime = time.getRealTimeInMs();
-        while (current != null && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
+        while (!loadProcesses.isFinished() && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
             try {
-                if (current.step()) {
-                    popStep();
+                if (!loadProcesses.step()) {
+                    // the processes left to run are running on worker threads, or waiting for them
+                    break;
                 }
             } catch (Exception e) {
-                logger.error("Error while loading {}", current, e);
+                LoadProcess failed = loadProcesses.getFailedProcess();
+                logger.error("Error while loading {}", failed, e);
                 String errorMessage = String.format("Failed to load game. There was an error during \"%s\".",
-                        current == null ? "the last part" : current.getMessage());
+                        failed == null ? "the last part" : failed.getMessage());
                 gameEngine.changeState(new StateMainMenu(errorMessage));
                 CrashReporter.report(e, LoggingContext.getLoggingPath());
                 return;
             }
         }
-        if (current == null) {
+        if (loadProcesses.isFinished()) {
             nuiManager.closeScreen(loadingScreen);
             nuiManager.setHUDVisible(true);
             context.get(GameEngine.class).changeState(new StateIngame(gameManifest, context));
         } else {
-            float progressValue = (progress + current.getExpectedCost() * current.getProgress()) / maxProgress;
-            loadingScreen.updateStatus(current.getMessage(), progressValue);
+            loadingScreen.updateStatus(loadProcesses.getMessage(), loadProcesses.getProgress());
+            loadingScreen.updateTimings(loadProcesses.getTimings());
             nuiManager.update(delta);
 
             // chunk generation begins at the AwaitCharacterSpawn step
-            if (current instanceof AwaitCharacterSpawn && !chunkGenerationStarted) {
+            if (loadProcesses.getCurrentProcess() instanceof AwaitCharacterSpawn && !chunkGenerationStarted) {
                 chunkGenerationStarted = true;
                 // in case no chunks generate, this should be set for a basis
                 timeLastChunkGenerated = time.getRealTimeInMs();
@@ -0,0 +1,200 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.module;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.reflections.Reflections;
+import org.reflections.serializers.XmlSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.module.BaseModule;
+import org.terasology.module.Module;
+import org.terasology.module.PathModule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the class index of each code module on disk, so the classes of a module are only scanned for their
+ * annotations and super types the first time it is loaded, or after it changed.
+ * <p>
+ * The index of a module is stored per module id, under its version and a checksum of its files. When either of them
+ * changes, the module is scanned again and the index it replaces is deleted. Modules loaded from a directory are left
+ * alone, they are the ones in development and change all the time.
+ */
+class ModuleClassIndexCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModuleClassIndexCache.class);
+    private static final String INDEX_EXTENSION = ".xml";
+
+    private final Path cacheDirectory;
+    private final XmlSerializer serializer = new XmlSerializer();
+    private final Map<Module, IndexedModule> indexedModules = Maps.newHashMap();
+
+    private int indexesRead;
+    private int indexesBuilt;
+
+    ModuleClassIndexCache(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @return The modules, with the code modules replaced by ones that take their class index from the cache
+     */
+    List<Module> wrap(Iterable<Module> modules) {
+        ImmutableList.Builder<Module> result = ImmutableList.builder();
+        for (Module module : modules) {
+            if (module.isCodeModule() && !(module instanceof PathModule)) {
+                IndexedModule indexed = indexedModules.get(module);
+                // modules are equal by id and version, while refreshing the registry creates new ones for changed files
+                if (indexed == null || indexed.module != module) {
+                    indexed = new IndexedModule(module);
+                    indexedModules.put(module, indexed);
+                }
+                result.add(indexed);
+            } else {
+                result.add(module);
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * @return How many class indexes were read from the cache so far
+     */
+    int getIndexesRead() {
+        return indexesRead;
+    }
+
+    /**
+     * @return How many class indexes had to be built by scanning a module so far
+     */
+    int getIndexesBuilt() {
+        return indexesBuilt;
+    }
+
+    private Reflections getIndex(Module module) {
+        Path indexFile;
+        try {
+            String fileName = module.getVersion() + "-" + checksum(module) + INDEX_EXTENSION;
+            indexFile = cacheDirectory.resolve(module.getId().toString()).resolve(fileName);
+        } catch (IOException e) {
+            logger.warn("Failed to compute the checksum of module {}, scanning its classes", module, e);
+            return module.getReflectionsFragment();
+        }
+
+        if (Files.isRegularFile(indexFile)) {
+            try (InputStream stream = Files.newInputStream(indexFile)) {
+                Reflections index = serializer.read(stream);
+                indexesRead++;
+                return index;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to read the class index of module {}, scanning its classes", module, e);
+            }
+        }
+
+        Reflections index = module.getReflectionsFragment();
+        indexesBuilt++;
+        save(index, indexFile);
+        return index;
+    }
+
+    private void save(Reflections index, Path indexFile) {
+        Path directory = indexFile.getParent();
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, "index", ".tmp");
+            serializer.save(index, tempFile.toString());
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to save the class index to {}", indexFile, e);
+            return;
+        }
+        // the other indexes are of older versions or builds of the module
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!file.equals(indexFile)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to remove outdated class indexes from {}", directory, e);
+        }
+    }
+
+    /**
+     * Archives are hashed by content. Directories, as the engine has them when run from the classes it was built to,
+     * are hashed by the names, sizes and modification times of their files.
+     */
+    private static String checksum(Module module) throws IOException {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (Path location : module.getLocations()) {
+            if (Files.isDirectory(location)) {
+                List<Path> files;
+                try (Stream<Path> stream = Files.walk(location)) {
+                    files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+                for (Path file : files) {
+                    hasher.putString(location.relativize(file).toString(), StandardCharsets.UTF_8);
+                    hasher.putLong(Files.size(file));
+                    hasher.putLong(Files.getLastModifiedTime(file).toMillis());
+                }
+            } else if (Files.isRegularFile(location)) {
+                hasher.putBytes(com.google.common.io.Files.asByteSource(location.toFile()).hash(Hashing.murmur3_128()).asBytes());
+            } else {
+                hasher.putString(location.toString(), StandardCharsets.UTF_8);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * A module that is otherwise the module it wraps, taking its class index from the cache.
+     */
+    private final class IndexedModule extends BaseModule {
+
+        private final Module module;
+        private Reflections index;
+
+        private IndexedModule(Module module) {
+            super(module.getLocations(), module.getMetadata());
+            this.module = module;
+        }
+
+        @Override
+        public ImmutableList<URL> getClasspaths() {
+            return module.getClasspaths();
+        }
+
+        @Override
+        public boolean isOnClasspath() {
+            return module.isOnClasspath();
+        }
+
+        @Override
+        public boolean isCodeModule() {
+            return module.isCodeModule();
+        }
+
+        @Override
+        public Reflections getReflectionsFragment() {
+            if (index == null) {
+                index = getIndex(module);
+            }
+            return index;
+        }
+    }
+}
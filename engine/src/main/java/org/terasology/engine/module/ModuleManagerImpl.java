@@ -15,6 +15,7 @@
  */
 package org.terasology.engine.module;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +60,7 @@
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class ModuleManagerImpl implements ModuleManager {
@@ -70,6 +72,7 @@ public class ModuleManagerImpl implements ModuleManager {
     private ModuleEnvironment environment;
     private ModuleMetadataJsonAdapter metadataReader;
     private ModuleInstallManager installManager;
+    private ModuleClassIndexCache classIndexCache;
 
     public ModuleManagerImpl(String masterServerAddress) {
         this(masterServerAddress, Collections.emptyList());
@@ -118,6 +121,11 @@ public ModuleManagerImpl(String masterServerAddress, List<Class<?>> classesOnCla
 
         registry.stream().filter(mod -> mod != engineModule).forEach(mod -> mod.getMetadata().getDependencies().add(engineDep));
 
+        Path cachePath = PathManager.getInstance().getCachePath();
+        if (cachePath != null) {
+            classIndexCache = new ModuleClassIndexCache(cachePath.resolve("classIndex"));
+        }
+
         setupSandbox();
         loadEnvironment(Sets.newHashSet(engineModule), true);
         installManager = new ModuleInstallManager(this, masterServerAddress);
@@ -224,12 +232,26 @@ public ModuleEnvironment getEnvironment() {
     public ModuleEnvironment loadEnvironment(Set<Module> modules, boolean asPrimary) {
         Set<Module> finalModules = Sets.newLinkedHashSet(modules);
         finalModules.addAll(registry.stream().filter(Module::isOnClasspath).collect(Collectors.toList()));
+        Set<Module> environmentModules = finalModules;
+        int indexesRead = 0;
+        int indexesBuilt = 0;
+        if (classIndexCache != null) {
+            environmentModules = Sets.newLinkedHashSet(classIndexCache.wrap(finalModules));
+            indexesRead = classIndexCache.getIndexesRead();
+            indexesBuilt = classIndexCache.getIndexesBuilt();
+        }
+        Stopwatch stopwatch = Stopwatch.createStarted();
         ModuleEnvironment newEnvironment;
         boolean permissiveSecurityEnabled = Boolean.parseBoolean(System.getProperty(SystemConfig.PERMISSIVE_SECURITY_ENABLED_PROPERTY));
         if (permissiveSecurityEnabled) {
-            newEnvironment = new ModuleEnvironment(finalModules, wrappingPermissionProviderFactory, Collections.<BytecodeInjector>emptyList());
+            newEnvironment = new ModuleEnvironment(environmentModules, wrappingPermissionProviderFactory, Collections.<BytecodeInjector>emptyList());
         } else {
-            newEnvironment = new ModuleEnvironment(finalModules, permissionProviderFactory, Collections.<BytecodeInjector>emptyList());
+            newEnvironment = new ModuleEnvironment(environmentModules, permissionProviderFactory, Collections.<BytecodeInjector>emptyList());
+        }
+        if (classIndexCache != null) {
+            logger.info("Loaded the environment of {} modules in {} ms, {} class indexes read from cache and {} built",
+                    finalModules.size(), stopwatch.elapsed(TimeUnit.MILLISECONDS),
+                    classIndexCache.getIndexesRead() - indexesRead, classIndexCache.getIndexesBuilt() - indexesBuilt);
         }
         if (asPrimary) {
             environment = newEnvironment;
@@ -17,13 +17,16 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
 import org.terasology.context.Context;
+import org.terasology.engine.GameEngine;
 import org.terasology.engine.subsystem.EngineSubsystem;
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
 import org.terasology.utilities.concurrency.ShutdownTask;
 import org.terasology.utilities.concurrency.Task;
 import org.terasology.utilities.concurrency.TaskMaster;
+import org.terasology.utilities.concurrency.WorkerPools;
 
 import java.util.concurrent.RejectedExecutionException;
 
@@ -88,9 +91,15 @@ public void preInitialise(Context rootContext) {
         rootContext.put(ThreadManager.class, this);
     }
 
+    @Override
+    public void initialise(GameEngine engine, Context rootContext) {
+        WorkerPools.configure(rootContext.get(Config.class).getSystem());
+    }
+
     @Override
     public void shutdown() {
         commonThreadPool.shutdown(new ShutdownTask(), true);
+        WorkerPools.shutdown();
     }
 
 
@@ -16,7 +16,6 @@
 package org.terasology.entitySystem.entity.internal;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.TLongObjectMap;
@@ -25,18 +24,34 @@
 import gnu.trove.set.hash.TLongHashSet;
 import org.terasology.entitySystem.Component;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A table for storing entities and components. Focused on allowing iteration across a components of a given type
- *
+ * <p>
+ * Every component class is given a small slot number the first time any table sees it, and the entity maps of a table
+ * are kept in an array indexed by these slots. Looking up a component therefore neither hashes the class nor allocates.
  */
 public class ComponentTable {
-    private Map<Class<?>, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+    private static final ClassValue<Integer> SLOTS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_SLOT.getAndIncrement();
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private static final TLongObjectMap<Component>[] NO_MAPS = new TLongObjectMap[0];
+
+    /* Replaced instead of modified when a map is added, so readers always see a consistent array */
+    private volatile TLongObjectMap<Component>[] store = NO_MAPS;
 
     public <T extends Component> T get(long entityId, Class<T> componentClass) {
-        TLongObjectMap<Component> entityMap = store.get(componentClass);
+        TLongObjectMap<Component> entityMap = getEntityMap(componentClass);
         if (entityMap != null) {
             return componentClass.cast(entityMap.get(entityId));
         }
@@ -44,10 +59,9 @@ public <T extends Component> T get(long entityId, Class<T> componentClass) {
     }
 
     public Component put(long entityId, Component component) {
-        TLongObjectMap<Component> entityMap = store.get(component.getClass());
+        TLongObjectMap<Component> entityMap = getEntityMap(component.getClass());
         if (entityMap == null) {
-            entityMap = new TLongObjectHashMap<>();
-            store.put(component.getClass(), entityMap);
+            entityMap = createEntityMap(component.getClass());
         }
         return entityMap.put(entityId, component);
     }
@@ -58,7 +72,7 @@ public Component put(long entityId, Component component) {
      *         Returns null if no component could be removed.
      */
     public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
-        TLongObjectMap<Component> entityMap = store.get(componentClass);
+        TLongObjectMap<Component> entityMap = getEntityMap(componentClass);
         if (entityMap != null) {
             return entityMap.remove(entityId);
         }
@@ -68,8 +82,8 @@ public <T extends Component> Component remove(long entityId, Class<T> componentC
 
     public List<Component> removeAndReturnComponentsOf(long entityId) {
         List<Component> componentList = Lists.newArrayList();
-        for (TLongObjectMap<Component> entityMap : store.values()) {
-            Component component = entityMap.remove(entityId);
+        for (TLongObjectMap<Component> entityMap : store) {
+            Component component = entityMap != null ? entityMap.remove(entityId) : null;
             if (component != null) {
                 componentList.add(component);
             }
@@ -78,17 +92,19 @@ public List<Component> removeAndReturnComponentsOf(long entityId) {
     }
 
     public void remove(long entityId) {
-        for (TLongObjectMap<Component> entityMap : store.values()) {
-            entityMap.remove(entityId);
+        for (TLongObjectMap<Component> entityMap : store) {
+            if (entityMap != null) {
+                entityMap.remove(entityId);
+            }
         }
     }
 
-    public void clear() {
-        store.clear();
+    public synchronized void clear() {
+        store = NO_MAPS;
     }
 
     public int getComponentCount(Class<? extends Component> componentClass) {
-        TLongObjectMap<Component> map = store.get(componentClass);
+        TLongObjectMap<Component> map = getEntityMap(componentClass);
         return (map == null) ? 0 : map.size();
     }
 
@@ -109,8 +125,8 @@ public Iterable<Component> iterateComponents(long entityId) {
      */
     public List<Component> getComponentsInNewList(long entityId) {
         List<Component> components = Lists.newArrayList();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            Component comp = componentMap.get(entityId);
+        for (TLongObjectMap<Component> componentMap : store) {
+            Component comp = componentMap != null ? componentMap.get(entityId) : null;
             if (comp != null) {
                 components.add(comp);
             }
@@ -119,7 +135,7 @@ public List<Component> getComponentsInNewList(long entityId) {
     }
 
     public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> componentClass) {
-        TLongObjectMap<T> entityMap = (TLongObjectMap<T>) store.get(componentClass);
+        TLongObjectMap<T> entityMap = (TLongObjectMap<T>) getEntityMap(componentClass);
         if (entityMap != null) {
             return entityMap.iterator();
         }
@@ -135,18 +151,119 @@ public <T extends Component> TLongObjectIterator<T> componentIterator(Class<T> c
      */
     public TLongIterator entityIdIterator() {
         TLongSet idSet = new TLongHashSet();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            idSet.addAll(componentMap.keys());
+        for (TLongObjectMap<Component> componentMap : store) {
+            if (componentMap != null) {
+                idSet.addAll(componentMap.keys());
+            }
         }
         return idSet.iterator();
     }
 
+    /**
+     * Produces an iterator over the ids of all entities that have all of the given components.
+     * <br><br>
+     * The ids of the component with the fewest entities get copied, and the other components are checked while
+     * iterating. The cost of a query therefore depends on the rarest of the given components rather than the total
+     * number of entities, and components may be added or removed while iterating.
+     *
+     * @param componentClasses at least one component class
+     * @return An iterator over the matching entity ids.
+     */
+    @SafeVarargs
+    public final TLongIterator entityIdIterator(Class<? extends Component>... componentClasses) {
+        TLongObjectMap<Component> smallestMap = null;
+        for (Class<? extends Component> componentClass : componentClasses) {
+            TLongObjectMap<Component> entityMap = getEntityMap(componentClass);
+            if (entityMap == null || entityMap.isEmpty()) {
+                return new TLongHashSet().iterator();
+            }
+            if (smallestMap == null || entityMap.size() < smallestMap.size()) {
+                smallestMap = entityMap;
+            }
+        }
+        if (smallestMap == null) {
+            return entityIdIterator();
+        }
+        return new MatchingEntityIdIterator(smallestMap.keys(), componentClasses);
+    }
+
     public int numEntities() {
         TLongSet idSet = new TLongHashSet();
-        for (TLongObjectMap<Component> componentMap : store.values()) {
-            idSet.addAll(componentMap.keys());
+        for (TLongObjectMap<Component> componentMap : store) {
+            if (componentMap != null) {
+                idSet.addAll(componentMap.keys());
+            }
         }
         return idSet.size();
     }
 
+    private TLongObjectMap<Component> getEntityMap(Class<?> componentClass) {
+        int slot = SLOTS.get(componentClass);
+        TLongObjectMap<Component>[] maps = store;
+        return slot < maps.length ? maps[slot] : null;
+    }
+
+    private synchronized TLongObjectMap<Component> createEntityMap(Class<?> componentClass) {
+        int slot = SLOTS.get(componentClass);
+        TLongObjectMap<Component>[] maps = store;
+        if (slot < maps.length && maps[slot] != null) {
+            return maps[slot];
+        }
+        maps = Arrays.copyOf(maps, Math.max(maps.length, slot + 1));
+        maps[slot] = new TLongObjectHashMap<>();
+        store = maps;
+        return maps[slot];
+    }
+
+    /**
+     * Iterates over a copy of entity ids, skipping those which lack one of the components at the time they are reached.
+     */
+    private final class MatchingEntityIdIterator implements TLongIterator {
+        private final long[] ids;
+        private final Class<? extends Component>[] componentClasses;
+        private int nextIndex = -1;
+
+        private MatchingEntityIdIterator(long[] ids, Class<? extends Component>[] componentClasses) {
+            this.ids = ids;
+            this.componentClasses = componentClasses;
+            findNext();
+        }
+
+        private void findNext() {
+            nextIndex++;
+            while (nextIndex < ids.length && !hasAllComponents(ids[nextIndex])) {
+                nextIndex++;
+            }
+        }
+
+        private boolean hasAllComponents(long entityId) {
+            for (Class<? extends Component> componentClass : componentClasses) {
+                TLongObjectMap<Component> entityMap = getEntityMap(componentClass);
+                if (entityMap == null || !entityMap.containsKey(entityId)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < ids.length;
+        }
+
+        @Override
+        public long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long entityId = ids[nextIndex];
+            findNext();
+            return entityId;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
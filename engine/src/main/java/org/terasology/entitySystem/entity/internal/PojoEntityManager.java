@@ -18,10 +18,11 @@
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.set.TLongSet;
 import gnu.trove.set.hash.TLongHashSet;
 import org.joml.Quaternionfc;
@@ -56,6 +57,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
 
 import static org.terasology.entitySystem.entity.internal.EntityScope.SECTOR;
 
@@ -69,7 +71,12 @@ public class PojoEntityManager implements EngineEntityManager {
 
     private EngineEntityPool globalPool = new PojoEntityPool(this);
     private PojoSectorManager sectorManager = new PojoSectorManager(this);
-    private Map<Long, EngineEntityPool> poolMap = new MapMaker().initialCapacity(1000).makeMap();
+    /*
+     * Entities are restored and generated by the chunk pipeline workers too. Writes take the lock, lookups read
+     * optimistically and only take the lock if a write happened meanwhile, see getAssignedPool.
+     */
+    private final TLongObjectMap<EngineEntityPool> poolMap = new TLongObjectHashMap<>(1000);
+    private final StampedLock poolMapLock = new StampedLock();
     private List<EngineEntityPool> worldPools = Lists.newArrayList();
     private Map<EngineEntityPool, Long> poolCounts = new HashMap<EngineEntityPool, Long>();
 
@@ -349,9 +356,22 @@ public Map<WorldInfo, EngineEntityPool> getWorldPoolsMap() {
         return worldManager.getWorldPoolMap();
     }
 
+    /**
+     * @return a copy of the pool each entity is assigned to, keyed by entity id
+     */
     @Override
     public Map<Long, EngineEntityPool> getPoolMap() {
-        return poolMap;
+        long stamp = poolMapLock.readLock();
+        try {
+            Map<Long, EngineEntityPool> copy = Maps.newHashMapWithExpectedSize(poolMap.size());
+            poolMap.forEachEntry((id, pool) -> {
+                copy.put(id, pool);
+                return true;
+            });
+            return copy;
+        } finally {
+            poolMapLock.unlockRead(stamp);
+        }
     }
 
     @Override
@@ -480,6 +500,11 @@ public void setNextId(long id) {
      */
     @Override
     public boolean hasComponent(long entityId, Class<? extends Component> componentClass) {
+        EngineEntityPool pool = getAssignedPool(entityId);
+        if (pool != null) {
+            return pool.getComponentStore().get(entityId, componentClass) != null;
+        }
+        // the components of an entity may be stored before it gets assigned to its pool
         return globalPool.getComponentStore().get(entityId, componentClass) != null
                 || getCurrentWorldPool().getComponentStore().get(entityId, componentClass) != null
                 || sectorManager.hasComponent(entityId, componentClass);
@@ -534,9 +559,12 @@ protected void notifyComponentRemovalAndEntityDestruction(long entityId, EntityR
      */
     @Override
     public <T extends Component> T getComponent(long entityId, Class<T> componentClass) {
-        return getPool(entityId)
-                .map(pool -> pool.getComponentStore().get(entityId, componentClass))
-                .orElse(null);
+        EngineEntityPool pool = getAssignedPool(entityId);
+        if (pool == null) {
+            logMissingPool(entityId);
+            return null;
+        }
+        return pool.getComponentStore().get(entityId, componentClass);
     }
 
     /**
@@ -631,18 +659,48 @@ public void saveComponent(long entityId, Component component) {
      */
 
     public Optional<EngineEntityPool> getPool(long id) {
-        Optional<EngineEntityPool> pool = Optional.ofNullable(poolMap.get(id));
-        if (!pool.isPresent()) {
-            if (id != NULL_ID) {
-                if (isExistingEntity(id)) {
-                    // TODO: Entity pools assignment is not needed as of now, can be enabled later on when necessary.
-                    // logger.error("Entity {} doesn't have an assigned pool", id);
-                } else {
-                    logger.error("Entity {} doesn't exist", id);
-                }
+        EngineEntityPool pool = getAssignedPool(id);
+        if (pool == null) {
+            logMissingPool(id);
+        }
+        return Optional.ofNullable(pool);
+    }
+
+    /**
+     * Looks the pool up without taking the lock, unless the pool map was written to during the lookup.
+     *
+     * @return the pool the entity is assigned to, or null if it isn't assigned to any
+     */
+    private EngineEntityPool getAssignedPool(long id) {
+        long stamp = poolMapLock.tryOptimisticRead();
+        try {
+            EngineEntityPool pool = poolMap.get(id);
+            if (poolMapLock.validate(stamp)) {
+                return pool;
+            }
+        } catch (RuntimeException e) {
+            // a write during the lookup may leave the arrays of the map inconsistent for a moment
+            if (poolMapLock.validate(stamp)) {
+                throw e;
+            }
+        }
+        stamp = poolMapLock.readLock();
+        try {
+            return poolMap.get(id);
+        } finally {
+            poolMapLock.unlockRead(stamp);
+        }
+    }
+
+    private void logMissingPool(long id) {
+        if (id != NULL_ID) {
+            if (isExistingEntity(id)) {
+                // TODO: Entity pools assignment is not needed as of now, can be enabled later on when necessary.
+                // logger.error("Entity {} doesn't have an assigned pool", id);
+            } else {
+                logger.error("Entity {} doesn't exist", id);
             }
         }
-        return pool;
     }
 
     /**
@@ -658,13 +716,18 @@ public Optional<EngineEntityPool> getPool(long id) {
      */
     @Override
     public void assignToPool(long entityId, EngineEntityPool pool) {
-        if (poolMap.get(entityId) != pool) {
-            poolMap.put(entityId, pool);
-            if (!poolCounts.containsKey(pool)) {
-                poolCounts.put(pool, 1L);
-            } else {
-                poolCounts.put(pool, poolCounts.get(pool) + 1L);
+        long stamp = poolMapLock.writeLock();
+        try {
+            if (poolMap.get(entityId) != pool) {
+                poolMap.put(entityId, pool);
+                if (!poolCounts.containsKey(pool)) {
+                    poolCounts.put(pool, 1L);
+                } else {
+                    poolCounts.put(pool, poolCounts.get(pool) + 1L);
+                }
             }
+        } finally {
+            poolMapLock.unlockWrite(stamp);
         }
     }
 
@@ -679,7 +742,12 @@ public void assignToPool(long entityId, EngineEntityPool pool) {
      * @param id the id of the entity to remove the assignment for
      */
     protected void unassignPool(long id) {
-        poolMap.remove(id);
+        long stamp = poolMapLock.writeLock();
+        try {
+            poolMap.remove(id);
+        } finally {
+            poolMapLock.unlockWrite(stamp);
+        }
     }
 
     @Override
@@ -15,8 +15,8 @@
  */
 package org.terasology.entitySystem.entity.internal;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
+import gnu.trove.iterator.TLongIterator;
 import org.joml.Quaternionfc;
 import org.joml.Vector3fc;
 import org.slf4j.Logger;
@@ -315,12 +315,11 @@ public EntityRef getEntity(long entityId) {
     @SafeVarargs
     @Override
     public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... componentClasses) {
-        return () -> entityStore.keySet().stream()
-                //Keep entities which have all of the required components
-                .filter(id -> Arrays.stream(componentClasses)
-                        .allMatch(component -> componentStore.get(id, component) != null))
-                .map(id -> getEntity(id))
-                .iterator();
+        if (componentClasses.length == 0) {
+            return () -> entityStore.keySet().stream().map(id -> getEntity(id)).iterator();
+        }
+        // starts at the rarest component instead of going through all entities
+        return () -> new EntityIterator(componentStore.entityIdIterator(componentClasses), this);
     }
 
     @Override
@@ -331,7 +330,13 @@ public int getCountOfEntitiesWith(Class<? extends Component>[] componentClasses)
             case 1:
                 return componentStore.getComponentCount(componentClasses[0]);
             default:
-                return Lists.newArrayList(getEntitiesWith(componentClasses)).size();
+                TLongIterator ids = componentStore.entityIdIterator(componentClasses);
+                int count = 0;
+                while (ids.hasNext()) {
+                    ids.next();
+                    count++;
+                }
+                return count;
         }
     }
 
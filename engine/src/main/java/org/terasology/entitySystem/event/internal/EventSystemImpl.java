@@ -80,6 +80,10 @@ public class EventSystemImpl implements EventSystem {
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
 
+    // Priority sorted handlers, built on first use and dropped whenever the handlers or events change
+    private Map<Class<? extends Event>, EventHandlerTable> handlerTables = Maps.newHashMap();
+    private Map<Class<? extends Event>, Map<Class<? extends Component>, EventHandlerInfo[]>> componentHandlerTables = Maps.newHashMap();
+
     // Event metadata
     private BiMap<SimpleUri, Class<? extends Event>> eventIdMap = HashBiMap.create();
     private SetMultimap<Class<? extends Event>, Class<? extends Event>> childEvents = HashMultimap.create();
@@ -116,6 +120,7 @@ public void process() {
     @Override
     public void registerEvent(SimpleUri uri, Class<? extends Event> eventType) {
         eventIdMap.put(uri, eventType);
+        invalidateHandlerTables();
         logger.debug("Registering event {}", eventType.getSimpleName());
         for (Class parent : ReflectionUtils.getAllSuperTypes(eventType, Predicates.assignableFrom(Event.class))) {
             if (!AbstractConsumableEvent.class.equals(parent) && !Event.class.equals(parent)) {
@@ -201,6 +206,7 @@ public void unregisterEventHandler(ComponentSystem handler) {
                 eventHandlerIterator.remove();
             }
         }
+        invalidateHandlerTables();
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<? extends Component>> components) {
@@ -217,6 +223,7 @@ private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handl
                 }
             }
         }
+        invalidateHandlerTables();
     }
 
     private void addToComponentSpecificHandlers(Class<? extends Event> type, EventHandlerInfo handlerInfo, Class<? extends Component> c) {
@@ -261,6 +268,44 @@ public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventRece
                 }
             }
         }
+        invalidateHandlerTables();
+    }
+
+    private void invalidateHandlerTables() {
+        handlerTables.clear();
+        componentHandlerTables.clear();
+    }
+
+    private EventHandlerTable getHandlerTable(Class<? extends Event> eventType) {
+        EventHandlerTable table = handlerTables.get(eventType);
+        if (table == null) {
+            Set<EventHandlerInfo> handlers = Sets.newLinkedHashSet(generalHandlers.get(eventType));
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> specificHandlers = componentSpecificHandlers.get(eventType);
+            if (specificHandlers != null) {
+                handlers.addAll(specificHandlers.values());
+            }
+            EventHandlerInfo[] sortedHandlers = handlers.toArray(new EventHandlerInfo[0]);
+            Arrays.sort(sortedHandlers, priorityComparator);
+            table = new EventHandlerTable(sortedHandlers);
+            handlerTables.put(eventType, table);
+        }
+        return table;
+    }
+
+    private EventHandlerInfo[] getComponentHandlerTable(Class<? extends Event> eventType, Class<? extends Component> componentType) {
+        Map<Class<? extends Component>, EventHandlerInfo[]> tables = componentHandlerTables.computeIfAbsent(eventType, k -> Maps.newHashMap());
+        EventHandlerInfo[] table = tables.get(componentType);
+        if (table == null) {
+            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
+            if (handlers == null) {
+                table = new EventHandlerInfo[0];
+            } else {
+                table = handlers.get(componentType).toArray(new EventHandlerInfo[0]);
+                Arrays.sort(table, priorityComparator);
+            }
+            tables.put(componentType, table);
+        }
+        return table;
     }
 
     @Override
@@ -273,34 +318,37 @@ public void send(EntityRef entity, Event event) {
             }
             networkReplicate(entity, event);
 
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            selectedHandlers.sort(priorityComparator);
-
-            if (event instanceof ConsumableEvent) {
-                sendConsumableEvent(entity, event, selectedHandlers);
+            EventHandlerTable table = getHandlerTable(event.getClass());
+            if (table.usesComponentMasks()) {
+                sendEvent(entity, event, table, table.getComponentMask(entity));
             } else {
-                sendStandardEvent(entity, event, selectedHandlers);
+                sendEvent(entity, event, table.selectHandlers(entity));
             }
         }
     }
 
-    private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
-        for (EventHandlerInfo handler : selectedHandlers) {
+    /**
+     * Invokes the handlers of the table whose components were all present when the event was sent.
+     */
+    private void sendEvent(EntityRef entity, Event event, EventHandlerTable table, long componentMask) {
+        EventHandlerInfo[] handlers = table.getHandlers();
+        for (int i = 0; i < handlers.length; i++) {
             // Check isValid at each stage in case components were removed.
-            if (handler.isValidFor(entity)) {
-                handler.invoke(entity, event);
+            if (table.isSelected(i, componentMask) && handlers[i].isValidFor(entity)) {
+                handlers[i].invoke(entity, event);
+                if (event instanceof ConsumableEvent && ((ConsumableEvent) event).isConsumed()) {
+                    return;
+                }
             }
         }
     }
 
-    private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
-        ConsumableEvent consumableEvent = (ConsumableEvent) event;
+    private void sendEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
             if (handler.isValidFor(entity)) {
                 handler.invoke(entity, event);
-                if (consumableEvent.isConsumed()) {
+                if (event instanceof ConsumableEvent && ((ConsumableEvent) event).isConsumed()) {
                     return;
                 }
             }
@@ -374,37 +422,86 @@ public void send(EntityRef entity, Event event, Component component) {
             if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.RECORDING) {
                 eventCatcher.addEvent(new PendingEvent(entity, event, component));
             }
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                eventHandlers.sort(priorityComparator);
-                for (EventHandlerInfo eventHandler : eventHandlers) {
-                    if (eventHandler.isValidFor(entity)) {
-                        eventHandler.invoke(entity, event);
-                    }
+            for (EventHandlerInfo eventHandler : getComponentHandlerTable(event.getClass(), component.getClass())) {
+                if (eventHandler.isValidFor(entity)) {
+                    eventHandler.invoke(entity, event);
                 }
             }
         }
     }
 
-    private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
-        Set<EventHandlerInfo> result = Sets.newHashSet();
-        result.addAll(generalHandlers.get(eventType));
-        SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
-        if (handlers == null) {
-            return result;
+    /**
+     * The handlers of an event type, sorted by priority. As long as the handlers filter on at most 64 distinct
+     * components, the components of each handler are kept as a bit mask, so that the handlers for an entity can be
+     * selected by checking every component only once and without any allocation.
+     */
+    private static final class EventHandlerTable {
+        private final EventHandlerInfo[] handlers;
+        private final Class<? extends Component>[] components;
+        private final long[] requiredComponentMasks;
+
+        EventHandlerTable(EventHandlerInfo[] handlers) {
+            this.handlers = handlers;
+            List<Class<? extends Component>> componentList = Lists.newArrayList();
+            for (EventHandlerInfo handler : handlers) {
+                for (Class<? extends Component> component : handler.getFilterComponents()) {
+                    if (!componentList.contains(component)) {
+                        componentList.add(component);
+                    }
+                }
+            }
+            if (componentList.size() <= Long.SIZE) {
+                this.components = componentList.toArray(new Class[0]);
+                this.requiredComponentMasks = new long[handlers.length];
+                for (int i = 0; i < handlers.length; i++) {
+                    for (Class<? extends Component> component : handlers[i].getFilterComponents()) {
+                        requiredComponentMasks[i] |= 1L << componentList.indexOf(component);
+                    }
+                }
+            } else {
+                this.components = null;
+                this.requiredComponentMasks = null;
+            }
         }
 
-        for (Class<? extends Component> compClass : handlers.keySet()) {
-            if (entity.hasComponent(compClass)) {
-                for (EventHandlerInfo eventHandler : handlers.get(compClass)) {
-                    if (eventHandler.isValidFor(entity)) {
-                        result.add(eventHandler);
-                    }
+        EventHandlerInfo[] getHandlers() {
+            return handlers;
+        }
+
+        boolean usesComponentMasks() {
+            return requiredComponentMasks != null;
+        }
+
+        /**
+         * @return a mask with a bit set for each component of this table the entity has
+         */
+        long getComponentMask(EntityRef entity) {
+            long mask = 0;
+            for (int i = 0; i < components.length; i++) {
+                if (entity.hasComponent(components[i])) {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        }
+
+        boolean isSelected(int handlerIndex, long componentMask) {
+            long required = requiredComponentMasks[handlerIndex];
+            return (required & componentMask) == required;
+        }
+
+        /**
+         * Selects the handlers valid for the entity without component masks, for tables with too many components.
+         */
+        List<EventHandlerInfo> selectHandlers(EntityRef entity) {
+            List<EventHandlerInfo> result = Lists.newArrayList();
+            for (EventHandlerInfo handler : handlers) {
+                if (handler.isValidFor(entity)) {
+                    result.add(handler);
                 }
             }
+            return result;
         }
-        return result;
     }
 
     private static class EventHandlerPriorityComparator implements Comparator<EventHandlerInfo> {
@@ -423,6 +520,8 @@ private interface EventHandlerInfo {
         int getPriority();
 
         Object getHandler();
+
+        Collection<Class<? extends Component>> getFilterComponents();
     }
 
     private static class ReflectedEventHandlerInfo implements EventHandlerInfo {
@@ -478,6 +577,11 @@ public int getPriority() {
         public ComponentSystem getHandler() {
             return handler;
         }
+
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
     }
 
     private static class ByteCodeEventHandlerInfo implements EventHandlerInfo {
@@ -549,6 +653,11 @@ public int getPriority() {
         public ComponentSystem getHandler() {
             return handler;
         }
+
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
     }
 
     private static class ReceiverEventHandlerInfo<T extends Event> implements EventHandlerInfo {
@@ -605,5 +714,10 @@ public int hashCode() {
         public Object getHandler() {
             return receiver;
         }
+
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return Arrays.asList(components);
+        }
     }
 }
@@ -39,8 +39,12 @@
 import org.terasology.network.NetworkSystem;
 import org.terasology.persistence.StorageManager;
 import org.terasology.registry.In;
+import org.terasology.utilities.concurrency.WorkerPoolType;
+import org.terasology.utilities.concurrency.WorkerPools;
 import org.terasology.world.chunks.ChunkProvider;
 
+import java.util.Locale;
+
 /**
  * Commands to administer a remote server
  *
@@ -205,4 +209,29 @@ public String reloadChunk(@CommandParam("x") int x, @CommandParam("y") int y, @C
     public void purgeWorld() {
         chunkProvider.purgeWorld();
     }
+
+    @Command(shortDescription = "Resizes a worker thread pool",
+            helpText = "Sets the number of threads of the chunk_processing or chunk_meshing worker pool. "
+                    + "Use 0 to size the pool from the number of available processors",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String setWorkerThreads(@CommandParam("pool") String pool, @CommandParam("threads") int threads) {
+        WorkerPoolType type;
+        try {
+            type = WorkerPoolType.valueOf(pool.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("No such worker pool '" + pool + "'");
+        }
+        switch (type) {
+            case CHUNK_PROCESSING:
+                config.getSystem().setChunkProcessingThreads(threads);
+                break;
+            case CHUNK_MESHING:
+                config.getSystem().setChunkMeshingThreads(threads);
+                break;
+            default:
+                break;
+        }
+        WorkerPools.resize(type, threads);
+        return "Worker pool " + pool + " uses " + WorkerPools.get(type).getThreadCount() + " threads";
+    }
 }
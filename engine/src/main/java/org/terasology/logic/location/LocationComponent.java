@@ -16,6 +16,7 @@
 package org.terasology.logic.location;
 
 import com.google.common.collect.Lists;
+import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Quaternionfc;
 import org.joml.Vector3fc;
@@ -62,6 +63,19 @@ public final class LocationComponent implements Component, ReplicationCheck {
     @Replicate
     Quat4f lastRotation = new Quat4f(0, 0, 0, 1);
 
+    // World transform, computed when first needed and kept until this or one of the parents changes
+    private transient boolean worldTransformDirty = true;
+    private transient org.joml.Vector3f worldPosition = new org.joml.Vector3f();
+    private transient Quaternionf worldRotation = new Quaternionf();
+    private transient float worldScale = 1.0f;
+
+    // The local transform and parent the world transform was computed from
+    private transient org.joml.Vector3f computedPosition = new org.joml.Vector3f();
+    private transient Quaternionf computedRotation = new Quaternionf();
+    private transient float computedScale = 1.0f;
+    private transient EntityRef computedParent = EntityRef.NULL;
+    private transient LocationComponent computedParentLocation;
+
     public LocationComponent() {
     }
 
@@ -88,6 +102,7 @@ public Quat4f getLocalRotation() {
     public void setLocalRotation(Quat4f newQuat) {
         lastRotation.set(rotation);
         rotation.set(newQuat);
+        markWorldTransformDirty();
     }
 
     /**
@@ -98,6 +113,7 @@ public void setLocalRotation(Quat4f newQuat) {
     public void setLocalRotation(Quaternionfc rot) {
         lastRotation.set(rotation);
         rotation.set(JomlUtil.from(rot));
+        markWorldTransformDirty();
     }
 
 
@@ -118,6 +134,7 @@ public Vector3f getLocalPosition() {
     public void setLocalPosition(Vector3f pos) {
         lastPosition.set(position);
         position.set(pos);
+        markWorldTransformDirty();
     }
 
 
@@ -129,6 +146,7 @@ public void setLocalPosition(Vector3f pos) {
     public void setLocalPosition(Vector3fc pos) {
         lastPosition.set(position);
         position.set(JomlUtil.from(pos));
+        markWorldTransformDirty();
     }
 
     /**
@@ -160,6 +178,7 @@ public org.joml.Vector3f getLocalDirection(org.joml.Vector3f dest) {
      */
     public void setLocalScale(float value) {
         this.scale = value;
+        markWorldTransformDirty();
     }
 
     /**
@@ -188,7 +207,8 @@ public Vector3f getWorldPosition() {
      */
     @Deprecated
     public Vector3f getWorldPosition(Vector3f output) {
-        output.set(JomlUtil.from(getWorldPosition(new org.joml.Vector3f())));
+        updateWorldTransform();
+        output.set(worldPosition.x, worldPosition.y, worldPosition.z);
         return output;
     }
 
@@ -199,15 +219,19 @@ public Vector3f getWorldPosition(Vector3f output) {
      * @return dest
      */
     public org.joml.Vector3f getWorldPosition(org.joml.Vector3f dest) {
-        dest.set(JomlUtil.from(position));
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            dest.mul(parentLoc.scale);
-            dest.rotate(JomlUtil.from(parentLoc.getLocalRotation()));
-            dest.add(JomlUtil.from(parentLoc.position));
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
-        return dest;
+        updateWorldTransform();
+        return dest.set(worldPosition);
+    }
+
+    /**
+     * get the world transform, made of the world position, rotation and scale
+     *
+     * @param dest will hold the result
+     * @return dest
+     */
+    public Matrix4f getWorldTransform(Matrix4f dest) {
+        updateWorldTransform();
+        return dest.translationRotateScale(worldPosition, worldRotation, worldScale);
     }
 
     /**
@@ -239,7 +263,8 @@ public Vector3f getWorldDirection() {
 
 
     public org.joml.Vector3f getWorldDirection(org.joml.Vector3f dest) {
-        return dest.set(Direction.FORWARD.asVector3f()).rotate(JomlUtil.from(getWorldRotation()));
+        updateWorldTransform();
+        return dest.set(Direction.FORWARD.asVector3f()).rotate(worldRotation);
     }
 
     /**
@@ -257,7 +282,8 @@ public Quat4f getWorldRotation() {
      */
     @Deprecated
     public Quat4f getWorldRotation(Quat4f output) {
-        output.set(JomlUtil.from(getWorldRotation(new Quaternionf())));
+        updateWorldTransform();
+        output.set(worldRotation.x, worldRotation.y, worldRotation.z, worldRotation.w);
         return output;
     }
 
@@ -268,23 +294,13 @@ public Quat4f getWorldRotation(Quat4f output) {
      * @return dest
      */
     public Quaternionf getWorldRotation(Quaternionf dest) {
-        dest.set(JomlUtil.from(rotation));
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            dest.premul(JomlUtil.from(parentLoc.rotation));
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
-        return dest;
+        updateWorldTransform();
+        return dest.set(worldRotation);
     }
 
     public float getWorldScale() {
-        float result = scale;
-        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
-        while (parentLoc != null) {
-            result *= parentLoc.getLocalScale();
-            parentLoc = parentLoc.parent.getComponent(LocationComponent.class);
-        }
-        return result;
+        updateWorldTransform();
+        return worldScale;
     }
 
     /**
@@ -343,6 +359,7 @@ public void setWorldRotation(Quaternionfc value) {
 
     public void setWorldScale(float value) {
         this.scale = value;
+        markWorldTransformDirty();
         LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
         if (parentLoc != null) {
             this.scale /= parentLoc.getWorldScale();
@@ -357,6 +374,77 @@ public Collection<EntityRef> getChildren() {
         return children;
     }
 
+    /**
+     * Recomputes the world transform if it is out of date, after bringing the parents up to date first. Changes to the
+     * local transform of this component are noticed even if they were made through {@link #getLocalPosition()} or
+     * {@link #getLocalRotation()}, but such changes only reach the children once the component is saved.
+     */
+    void updateWorldTransform() {
+        LocationComponent parentLoc = parent.getComponent(LocationComponent.class);
+        if (!worldTransformDirty) {
+            // the parent's component may have been replaced by another instance, or removed
+            if (parentLoc == computedParentLocation && isComputedFromCurrentLocalTransform()) {
+                return;
+            }
+            markChildrenDirty();
+        }
+        computedPosition.set(position.x(), position.y(), position.z());
+        computedRotation.set(rotation.x, rotation.y, rotation.z, rotation.w);
+        computedScale = scale;
+        computedParent = parent;
+        computedParentLocation = parentLoc;
+
+        if (parentLoc != null) {
+            parentLoc.updateWorldTransform();
+            worldScale = parentLoc.worldScale * computedScale;
+            worldRotation.set(parentLoc.worldRotation).mul(computedRotation);
+            worldPosition.set(computedPosition).mul(parentLoc.worldScale).rotate(parentLoc.worldRotation)
+                    .add(parentLoc.worldPosition);
+        } else {
+            worldScale = computedScale;
+            worldRotation.set(computedRotation);
+            worldPosition.set(computedPosition);
+        }
+        worldTransformDirty = false;
+    }
+
+    /**
+     * Marks the world transform of this component and of all its descendants as out of date.
+     */
+    void markWorldTransformDirty() {
+        // the descendants of an out of date component are always out of date as well
+        if (!worldTransformDirty) {
+            worldTransformDirty = true;
+            markChildrenDirty();
+        }
+    }
+
+    /**
+     * Marks the world transform of this component and of all its descendants as out of date, even if this component is
+     * out of date already. Needed when this instance is saved or removed, as the descendants may have been computed from
+     * another instance.
+     */
+    void markHierarchyDirty() {
+        worldTransformDirty = true;
+        markChildrenDirty();
+    }
+
+    private void markChildrenDirty() {
+        for (EntityRef child : children) {
+            LocationComponent childLoc = child.getComponent(LocationComponent.class);
+            if (childLoc != null) {
+                childLoc.markWorldTransformDirty();
+            }
+        }
+    }
+
+    private boolean isComputedFromCurrentLocalTransform() {
+        return computedScale == scale && computedParent == parent
+                && computedPosition.x == position.x() && computedPosition.y == position.y() && computedPosition.z == position.z()
+                && computedRotation.x == rotation.x && computedRotation.y == rotation.y
+                && computedRotation.z == rotation.z && computedRotation.w == rotation.w;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
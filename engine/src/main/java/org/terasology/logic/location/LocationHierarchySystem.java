@@ -0,0 +1,84 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.logic.location;
+
+import com.google.common.collect.Sets;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnAddedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+
+import java.util.Set;
+
+/**
+ * Keeps the world transforms cached by the {@link LocationComponent}s up to date.
+ * <p>
+ * Saving a location marks its world transform and those of all its descendants as out of date. Once per update, the
+ * changed hierarchies are recomputed parent first, so reading a world transform later in the frame is a lookup instead
+ * of a walk up the parent chain. Whatever is read before that is recomputed on demand.
+ * <p>
+ * The saved or added component may be another instance than the one the children were computed from, so their world
+ * transforms are marked out of date whatever the state of the saved one. The same goes for a removed component, after
+ * which the children are treated as roots.
+ */
+@RegisterSystem
+public class LocationHierarchySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private Set<EntityRef> changedEntities = Sets.newLinkedHashSet();
+
+    @ReceiveEvent(components = {LocationComponent.class})
+    public void onLocationChanged(OnChangedComponent event, EntityRef entity) {
+        markChanged(entity);
+    }
+
+    @ReceiveEvent(components = {LocationComponent.class})
+    public void onLocationAdded(OnAddedComponent event, EntityRef entity) {
+        markChanged(entity);
+    }
+
+    @ReceiveEvent(components = {LocationComponent.class})
+    public void onLocationRemoved(BeforeRemoveComponent event, EntityRef entity) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        location.markHierarchyDirty();
+        changedEntities.remove(entity);
+    }
+
+    private void markChanged(EntityRef entity) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        location.markHierarchyDirty();
+        changedEntities.add(entity);
+    }
+
+    @Override
+    public void update(float delta) {
+        if (changedEntities.isEmpty()) {
+            return;
+        }
+        for (EntityRef entity : changedEntities) {
+            LocationComponent location = entity.getComponent(LocationComponent.class);
+            if (location != null) {
+                updateHierarchy(location);
+            }
+        }
+        changedEntities.clear();
+    }
+
+    @Override
+    public void shutdown() {
+        changedEntities.clear();
+    }
+
+    private static void updateHierarchy(LocationComponent location) {
+        location.updateWorldTransform();
+        for (EntityRef child : location.getChildren()) {
+            LocationComponent childLocation = child.getComponent(LocationComponent.class);
+            if (childLocation != null) {
+                updateHierarchy(childLocation);
+            }
+        }
+    }
+}
@@ -23,7 +23,9 @@
 import org.terasology.monitoring.impl.SingleThreadMonitorImpl;
 import org.terasology.monitoring.impl.ThreadActivityInternal;
 import org.terasology.monitoring.impl.ThreadMonitorEvent;
+import org.terasology.monitoring.impl.WorkerPoolMonitor;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +33,7 @@ public final class ThreadMonitor {
 
     private static final EventBus EVENT_BUS = new EventBus("ThreadMonitor");
     private static final Map<Thread, SingleThreadMonitor> THREAD_INFO_BY_ID = Maps.newConcurrentMap();
+    private static final List<WorkerPoolMonitor> WORKER_POOLS = Lists.newCopyOnWriteArrayList();
 
     private ThreadMonitor() {
     }
@@ -57,6 +60,19 @@ public static synchronized List<SingleThreadMonitor> getThreadMonitors(boolean a
         return getThreadMonitors(Lists.<SingleThreadMonitor>newArrayList(), aliveThreadsOnly);
     }
 
+    public static void registerWorkerPool(WorkerPoolMonitor workerPool) {
+        Preconditions.checkNotNull(workerPool, "The parameter 'workerPool' must not be null");
+        WORKER_POOLS.add(workerPool);
+    }
+
+    public static void unregisterWorkerPool(WorkerPoolMonitor workerPool) {
+        WORKER_POOLS.remove(workerPool);
+    }
+
+    public static List<WorkerPoolMonitor> getWorkerPoolMonitors() {
+        return Collections.unmodifiableList(WORKER_POOLS);
+    }
+
     public static void registerForEvents(Object object) {
         Preconditions.checkNotNull(object, "The parameter 'object' must not be null");
         EVENT_BUS.register(object);
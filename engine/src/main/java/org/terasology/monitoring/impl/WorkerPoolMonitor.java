@@ -0,0 +1,38 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.monitoring.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load statistics of a pool of worker threads.
+ */
+public interface WorkerPoolMonitor {
+
+    String getName();
+
+    /**
+     * @return the number of threads the pool is sized to
+     */
+    int getThreadCount();
+
+    /**
+     * @return the number of threads currently running a task
+     */
+    int getActiveCount();
+
+    /**
+     * @return the number of tasks waiting for a free thread
+     */
+    int getQueueDepth();
+
+    /**
+     * @return the thread time spent running tasks since the pool was created
+     */
+    long getBusyTime(TimeUnit unit);
+
+    /**
+     * @return the thread time spent waiting for tasks since the pool was created
+     */
+    long getIdleTime(TimeUnit unit);
+}
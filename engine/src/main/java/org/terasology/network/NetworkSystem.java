@@ -65,6 +65,10 @@ public interface NetworkSystem extends BlockRegistrationListener {
 
     int getOutgoingBytesDelta();
 
+    int getSentChunksDelta();
+
+    int getQueuedChunkCount();
+
     void forceDisconnect(Client client);
 
     void setContext(Context context);
@@ -0,0 +1,126 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.joml.Vector3i;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Encodes the chunks sent to clients on a background thread, and shares the encoded chunks between all clients.
+ * <p>
+ * The data of a chunk is copied on the main thread when it is first requested, so the encoding never sees a chunk that
+ * is being changed. An encoded chunk is dropped when one of its blocks changes, or when no client requested it for a
+ * while. All methods must be called from the main thread.
+ */
+class ChunkEncodingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkEncodingCache.class);
+
+    /**
+     * The number of network ticks an encoded chunk is kept without being requested.
+     */
+    private static final int EXPIRY_TICKS = 100;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("Chunk-Encoder-%d")
+            .setDaemon(true)
+            .build());
+    private final Map<Vector3i, Entry> entries = Maps.newHashMap();
+    private int tick;
+
+    /**
+     * Starts the encoding of the chunk, unless it is encoded or being encoded already.
+     */
+    void prepare(Vector3i pos, Chunk chunk) {
+        getEntry(pos, chunk);
+    }
+
+    /**
+     * @return the encoded chunk, or null if it is still being encoded
+     */
+    EntityData.ChunkStore getEncoded(Vector3i pos, Chunk chunk) {
+        Entry entry = getEntry(pos, chunk);
+        if (!entry.encoded.isDone()) {
+            return null;
+        }
+        try {
+            return entry.encoded.join();
+        } catch (CompletionException e) {
+            logger.error("Failed to encode chunk {}, encoding it on the main thread", pos, e.getCause());
+            EntityData.ChunkStore encoded = chunk.encode().build();
+            entry.encoded = CompletableFuture.completedFuture(encoded);
+            return encoded;
+        }
+    }
+
+    /**
+     * Drops the encoded chunk after a change of its blocks.
+     */
+    void invalidate(Vector3i pos) {
+        Entry entry = entries.remove(pos);
+        if (entry != null) {
+            entry.encoded.cancel(false);
+        }
+    }
+
+    /**
+     * Drops the encoded chunks nobody asked for recently. To be called once per network tick.
+     */
+    void update() {
+        tick++;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (tick - entry.lastRequestTick > EXPIRY_TICKS) {
+                entry.encoded.cancel(false);
+                iterator.remove();
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+        entries.clear();
+    }
+
+    private Entry getEntry(Vector3i pos, Chunk chunk) {
+        Entry entry = entries.get(pos);
+        if (entry == null || entry.chunk != chunk) {
+            if (entry != null) {
+                entry.encoded.cancel(false);
+            }
+            entry = new Entry(chunk, CompletableFuture.supplyAsync(chunk.copyForEncoding(), executor)
+                    .thenApply(EntityData.ChunkStore.Builder::build));
+            entries.put(new Vector3i(pos), entry);
+        }
+        entry.lastRequestTick = tick;
+        return entry;
+    }
+
+    private static final class Entry {
+        private final Chunk chunk;
+        private CompletableFuture<EntityData.ChunkStore> encoded;
+        private int lastRequestTick;
+
+        Entry(Chunk chunk, CompletableFuture<EntityData.ChunkStore> encoded) {
+            this.chunk = chunk;
+            this.encoded = encoded;
+        }
+    }
+}
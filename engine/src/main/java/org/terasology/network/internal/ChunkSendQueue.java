@@ -0,0 +1,101 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The chunks which are ready to be sent to a client, ordered by how soon the client needs them.
+ * <p>
+ * Chunks closer to the character of the client come first. Chunks behind the character count as twice as far away as
+ * the chunks it looks at, since the server does not know the actual view frustum of the client.
+ */
+class ChunkSendQueue {
+
+    /**
+     * Turning further than this (cosine of about 25 degrees) reorders the queue.
+     */
+    private static final float REORDER_DIRECTION_DOT = 0.9f;
+
+    private final Map<Vector3i, Chunk> chunks = Maps.newHashMap();
+    private final List<Vector3i> order = Lists.newArrayList();
+    private boolean orderDirty;
+
+    private final Vector3i center = new Vector3i();
+    private final Vector3f direction = new Vector3f();
+
+    void add(Vector3i pos, Chunk chunk) {
+        if (chunks.put(pos, chunk) == null) {
+            orderDirty = true;
+        }
+    }
+
+    boolean remove(Vector3i pos) {
+        if (chunks.remove(pos) != null) {
+            orderDirty = true;
+            return true;
+        }
+        return false;
+    }
+
+    Chunk get(Vector3i pos) {
+        return chunks.get(pos);
+    }
+
+    boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Updates the position and view direction of the character, which determine the order of the chunks.
+     *
+     * @param newDirection a normalized direction, or zero if it is unknown
+     */
+    void setViewer(Vector3ic newCenter, Vector3fc newDirection) {
+        if (!center.equals(newCenter)
+                || direction.dot(newDirection) < REORDER_DIRECTION_DOT && !direction.equals(newDirection)) {
+            center.set(newCenter);
+            direction.set(newDirection);
+            orderDirty = true;
+        }
+    }
+
+    /**
+     * @return the positions of the queued chunks, the most important first. Changes to the queue show up
+     *     in the next call, removed chunks stay in the list until then.
+     */
+    List<Vector3i> getOrder() {
+        if (orderDirty) {
+            order.clear();
+            order.addAll(chunks.keySet());
+            order.sort(Comparator.comparingDouble(this::getPriority));
+            orderDirty = false;
+        }
+        return order;
+    }
+
+    private float getPriority(Vector3ic pos) {
+        float x = pos.x() - center.x;
+        float y = pos.y() - center.y;
+        float z = pos.z() - center.z;
+        float distanceSquared = x * x + y * y + z * z;
+        if (x * direction.x + y * direction.y + z * direction.z < 0) {
+            return 2 * distanceSquared;
+        }
+        return distanceSquared;
+    }
+}
@@ -18,6 +18,7 @@
 import com.google.common.primitives.Bytes;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnknownFieldSet;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.MessageEvent;
@@ -43,6 +44,7 @@
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.List;
 
 /**
  * Authentication handler for the client end of the authentication handshake.
@@ -109,6 +111,7 @@ private void processHandshakeVerification(NetData.HandshakeVerification handshak
         }
 
         // And we're authenticated.
+        useCompression(handshakeVerification.getUnknownFields(), ctx);
         ctx.getPipeline().remove(this);
         channelAuthenticated(ctx);
     }
@@ -168,6 +171,7 @@ private void processNewIdentity(NetData.ProvisionIdentity provisionIdentity, Cha
             }
 
             // And we're authenticated.
+            useCompression(provisionIdentity.getUnknownFields(), ctx);
             ctx.getPipeline().remove(this);
             channelAuthenticated(ctx);
         } catch (InvalidProtocolBufferException e) {
@@ -177,6 +181,20 @@ private void processNewIdentity(NetData.ProvisionIdentity provisionIdentity, Cha
         }
     }
 
+    /**
+     * Switches to the compression chosen by the server. Servers which do not negotiate the compression keep using the
+     * zlib stream the pipeline starts with.
+     * @param serverFields The extension fields of the last handshake message of the server.
+     * @param ctx Channel Handler Context.
+     */
+    private void useCompression(UnknownFieldSet serverFields, ChannelHandlerContext ctx) {
+        List<NetworkCompression> chosen = NetworkCompression.fromHandshakeField(serverFields);
+        if (!chosen.isEmpty()) {
+            logger.info("Using {} compression", chosen.get(0));
+            ctx.getPipeline().replace(CompressionDecoder.NAME, CompressionDecoder.NAME, new CompressionDecoder(chosen.get(0)));
+        }
+    }
+
     /**
      * Creates a new builder on the channel and sets join status.
      * @param ctx Channel Handler Context.
@@ -237,6 +255,7 @@ private void sendCertificate(NetData.HandshakeHello helloMessage, ChannelHandler
                 .setRandom(ByteString.copyFrom(clientRandom))
                 .setCertificate(NetMessageUtil.convert(pubClientCert))
                 .setTimestamp(System.currentTimeMillis())
+                .setUnknownFields(NetworkCompression.toHandshakeField(NetworkCompression.values()))
                 .build();
 
         byte[] dataToSign = Bytes.concat(helloMessage.toByteArray(), clientHello.toByteArray());
@@ -265,7 +284,8 @@ private void requestIdentity(ChannelHandlerContext ctx) {
         ctx.getChannel().write(NetData.NetMessage.newBuilder()
                 .setNewIdentityRequest(NetData.NewIdentityRequest.newBuilder()
                         .setPreMasterSecret(ByteString.copyFrom(encryptedPreMasterSecret))
-                        .setRandom(ByteString.copyFrom(clientRandom)))
+                        .setRandom(ByteString.copyFrom(clientRandom))
+                        .setUnknownFields(NetworkCompression.toHandshakeField(NetworkCompression.values())))
                 .build());
         requestedCertificate = true;
     }
@@ -0,0 +1,95 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.oneone.OneToOneDecoder;
+import org.terasology.persistence.internal.Lz4ChunkCodec;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses the frames received from the server, which were compressed by a {@link CompressionEncoder} with the
+ * same {@link NetworkCompression}.
+ */
+public class CompressionDecoder extends OneToOneDecoder {
+
+    /**
+     * The name of the decompression handler in the pipeline.
+     */
+    public static final String NAME = "compressionDecoder";
+
+    /**
+     * The largest frame the client accepts, compressed or not.
+     */
+    public static final int MAX_FRAME_SIZE = 8388608;
+
+    private final NetworkCompression mode;
+    private final Lz4ChunkCodec lz4 = new Lz4ChunkCodec();
+    private final Inflater inflater = new Inflater();
+    private final byte[] inflateBuffer = new byte[8192];
+
+    public CompressionDecoder(NetworkCompression mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, Channel channel, Object msg) throws IOException {
+        if (!(msg instanceof ChannelBuffer)) {
+            return msg;
+        }
+        return decompress((ChannelBuffer) msg);
+    }
+
+    /**
+     * @throws IOException if the frame is corrupt
+     */
+    public ChannelBuffer decompress(ChannelBuffer frame) throws IOException {
+        byte flag = frame.readByte();
+        if (flag == CompressionEncoder.RAW) {
+            return frame;
+        }
+        if (flag == CompressionEncoder.RAW_RESET && mode == NetworkCompression.HIGH_RATIO) {
+            inflater.reset();
+            return frame;
+        }
+        if (flag != CompressionEncoder.COMPRESSED || mode == NetworkCompression.NONE) {
+            throw new IOException("Unexpected frame type " + flag + " for compression " + mode);
+        }
+        if (mode == NetworkCompression.FAST) {
+            int length = frame.readInt();
+            if (length < 0 || length > MAX_FRAME_SIZE) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            byte[] compressed = new byte[frame.readableBytes()];
+            frame.readBytes(compressed);
+            return ChannelBuffers.wrappedBuffer(lz4.decompress(compressed, 0, compressed.length, length));
+        }
+
+        byte[] compressed = new byte[frame.readableBytes()];
+        frame.readBytes(compressed);
+        inflater.setInput(compressed);
+        ChannelBuffer result = ChannelBuffers.dynamicBuffer(compressed.length * 4);
+        try {
+            int read;
+            do {
+                read = inflater.inflate(inflateBuffer);
+                result.writeBytes(inflateBuffer, 0, read);
+                if (result.readableBytes() > MAX_FRAME_SIZE) {
+                    throw new IOException("Frame exceeds " + MAX_FRAME_SIZE + " bytes");
+                }
+            } while (read > 0);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed frame", e);
+        }
+        if (!inflater.needsInput()) {
+            throw new IOException("Incomplete compressed frame");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+import org.terasology.persistence.internal.Lz4ChunkCodec;
+
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the frames sent to a client with the {@link NetworkCompression} negotiated for the connection.
+ * <p>
+ * Every frame starts with a byte telling whether it is compressed. Frames smaller than {@link #MIN_COMPRESSED_SIZE}
+ * are never compressed, as the compression would cost more time than it saves bytes. Frames that would not shrink are
+ * sent raw as well. As the deflate stream has already taken such a frame in, it is started over after it, which the
+ * frame tells the decoder with {@link #RAW_RESET}.
+ *
+ * @see CompressionDecoder
+ */
+public class CompressionEncoder extends OneToOneEncoder {
+
+    /**
+     * The name of the compression handler in the pipeline.
+     */
+    public static final String NAME = "compressionEncoder";
+
+    static final int MIN_COMPRESSED_SIZE = 128;
+    static final byte RAW = 0;
+    static final byte COMPRESSED = 1;
+    static final byte RAW_RESET = 2;
+
+    private final NetworkCompression mode;
+    private final Lz4ChunkCodec lz4 = new Lz4ChunkCodec();
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final byte[] deflateBuffer = new byte[8192];
+
+    public CompressionEncoder(NetworkCompression mode) {
+        this.mode = mode;
+    }
+
+    public NetworkCompression getMode() {
+        return mode;
+    }
+
+    @Override
+    protected Object encode(ChannelHandlerContext ctx, Channel channel, Object msg) {
+        if (!(msg instanceof ChannelBuffer)) {
+            return msg;
+        }
+        return compress((ChannelBuffer) msg);
+    }
+
+    /**
+     * Consumes the readable bytes of the frame.
+     *
+     * @return the frame to send
+     */
+    public synchronized ChannelBuffer compress(ChannelBuffer frame) {
+        int length = frame.readableBytes();
+        if (mode == NetworkCompression.NONE || length < MIN_COMPRESSED_SIZE) {
+            return ChannelBuffers.wrappedBuffer(ChannelBuffers.wrappedBuffer(new byte[]{RAW}), frame);
+        }
+        byte[] data = new byte[length];
+        frame.readBytes(data);
+        if (mode == NetworkCompression.FAST) {
+            byte[] compressed = lz4.compress(data);
+            if (compressed.length + Integer.BYTES >= length) {
+                return ChannelBuffers.wrappedBuffer(new byte[]{RAW}, data);
+            }
+            ChannelBuffer header = ChannelBuffers.buffer(1 + Integer.BYTES);
+            header.writeByte(COMPRESSED);
+            header.writeInt(length);
+            return ChannelBuffers.wrappedBuffer(header, ChannelBuffers.wrappedBuffer(compressed));
+        }
+
+        // the deflate stream continues over all frames, so a frame it took in can only be sent raw with a new stream
+        ChannelBuffer result = ChannelBuffers.dynamicBuffer(length / 2 + 16);
+        result.writeByte(COMPRESSED);
+        deflater.setInput(data);
+        int written;
+        do {
+            written = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, Deflater.SYNC_FLUSH);
+            result.writeBytes(deflateBuffer, 0, written);
+        } while (written == deflateBuffer.length);
+        if (result.readableBytes() > length) {
+            deflater.reset();
+            return ChannelBuffers.wrappedBuffer(new byte[]{RAW_RESET}, data);
+        }
+        return result;
+    }
+}
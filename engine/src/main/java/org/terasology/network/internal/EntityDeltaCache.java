@@ -0,0 +1,109 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.network.serialization.ServerComponentFieldCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Remembers the serialized entities sent to clients during a network tick, so that an entity which is sent to several
+ * clients is only serialized once for the owner of the entity and once for all other clients.
+ * <p>
+ * Update messages are only shared between clients with the same added, changed and removed components. Any change to
+ * the components of an entity drops its cached messages, as does the start of the next network tick.
+ */
+class EntityDeltaCache {
+
+    private final NetworkEntitySerializer entitySerializer;
+
+    private final TIntObjectMap<EntityData.PackedEntity> ownerInitial = new TIntObjectHashMap<>();
+    private final TIntObjectMap<EntityData.PackedEntity> otherInitial = new TIntObjectHashMap<>();
+    private final TIntObjectMap<List<CachedUpdate>> updates = new TIntObjectHashMap<>();
+
+    EntityDeltaCache(NetworkEntitySerializer entitySerializer) {
+        this.entitySerializer = entitySerializer;
+    }
+
+    /**
+     * @return the full entity, as sent when the entity becomes relevant to a client
+     */
+    EntityData.PackedEntity getInitial(int netId, EntityRef entity, boolean owner) {
+        TIntObjectMap<EntityData.PackedEntity> initial = owner ? ownerInitial : otherInitial;
+        EntityData.PackedEntity entityData = initial.get(netId);
+        if (entityData == null) {
+            entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owner, true)).build();
+            initial.put(netId, entityData);
+        }
+        return entityData;
+    }
+
+    /**
+     * @return the changes to the entity, or null if there is nothing to send
+     */
+    EntityData.PackedEntity getUpdate(int netId, EntityRef entity, boolean owner, Set<Class<? extends Component>> added,
+                                      Set<Class<? extends Component>> changed, Set<Class<? extends Component>> removed) {
+        List<CachedUpdate> entityUpdates = updates.get(netId);
+        if (entityUpdates == null) {
+            entityUpdates = Lists.newArrayListWithCapacity(2);
+            updates.put(netId, entityUpdates);
+        } else {
+            for (CachedUpdate update : entityUpdates) {
+                if (update.matches(owner, added, changed, removed)) {
+                    return update.entityData;
+                }
+            }
+        }
+        EntityData.PackedEntity entityData = entitySerializer.serialize(entity, added, changed, removed,
+                new ServerComponentFieldCheck(owner, false));
+        entityUpdates.add(new CachedUpdate(owner, added, changed, removed, entityData));
+        return entityData;
+    }
+
+    /**
+     * Drops the cached messages of an entity whose components changed.
+     */
+    void invalidate(int netId) {
+        ownerInitial.remove(netId);
+        otherInitial.remove(netId);
+        updates.remove(netId);
+    }
+
+    void clear() {
+        ownerInitial.clear();
+        otherInitial.clear();
+        updates.clear();
+    }
+
+    private static final class CachedUpdate {
+        private final boolean owner;
+        private final Set<Class<? extends Component>> added;
+        private final Set<Class<? extends Component>> changed;
+        private final Set<Class<? extends Component>> removed;
+        private final EntityData.PackedEntity entityData;
+
+        CachedUpdate(boolean owner, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                     Set<Class<? extends Component>> removed, EntityData.PackedEntity entityData) {
+            this.owner = owner;
+            this.added = ImmutableSet.copyOf(added);
+            this.changed = ImmutableSet.copyOf(changed);
+            this.removed = ImmutableSet.copyOf(removed);
+            this.entityData = entityData;
+        }
+
+        boolean matches(boolean isOwner, Set<Class<? extends Component>> otherAdded,
+                        Set<Class<? extends Component>> otherChanged, Set<Class<? extends Component>> otherRemoved) {
+            return owner == isOwner && added.equals(otherAdded) && changed.equals(otherChanged)
+                    && removed.equals(otherRemoved);
+        }
+    }
+}
@@ -19,7 +19,6 @@
 import com.google.common.base.Objects;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
@@ -72,7 +71,6 @@
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -84,6 +82,15 @@
 public class NetClient extends AbstractClient implements WorldChangeListener {
     private static final Logger logger = LoggerFactory.getLogger(NetClient.class);
     private static final float NET_TICK_RATE = 0.05f;
+    /**
+     * The number of chunks at the front of the send queue which are encoded ahead of time.
+     */
+    private static final int CHUNK_ENCODE_AHEAD = 16;
+    /**
+     * The number of ticks of chunk budget which can be saved up while the queued chunks are still being encoded. The
+     * budget drops back to a single tick whenever no chunks are queued, so an idle client does not get a burst.
+     */
+    private static final int MAX_SAVED_CHUNK_TICKS = 4;
 
     private Time time;
     private NetworkSystemImpl networkSystem;
@@ -108,9 +115,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private String preferredName = "Player";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
+    private int chunkByteBudget;
 
     private PublicIdentityCertificate identity;
 
@@ -120,7 +125,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
 
-    private Map<Vector3i, Chunk> readyChunks = Maps.newLinkedHashMap();
+    private ChunkSendQueue readyChunks = new ChunkSendQueue();
     private Set<Vector3i> invalidatedChunks = Sets.newLinkedHashSet();
 
 
@@ -132,6 +137,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private AtomicInteger receivedBytes = new AtomicInteger();
     private AtomicInteger sentMessages = new AtomicInteger();
     private AtomicInteger sentBytes = new AtomicInteger();
+    private int sentChunks;
     private Color color;
 
     /**
@@ -247,35 +253,53 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
         }
     }
 
+    /**
+     * Sends the most important ready chunks, as many as the share of the upstream bandwidth of this client allows.
+     * The chunks coming up next are encoded in the background meanwhile.
+     */
     private void sendNewChunks(NetData.NetMessage.Builder message) {
-        if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
-                LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
-                if (loc != null) {
-                    Vector3f target = loc.getWorldPosition(new Vector3f());
-                    if (target.isFinite()) {
-                        center.set(target, RoundingMode.HALF_UP); // use center as temporary variable
-                        ChunkMath.calcChunkPos(center, center); // update center to chunkPos
-                    }
-                }
-                Vector3i pos = null;
-                long distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    long chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
-                    }
-                }
-                Chunk chunk = readyChunks.remove(pos);
+        int bytesPerTick = (int) (networkSystem.getBandwidthPerClient() * 1000 / 8 * NET_TICK_RATE);
+        if (readyChunks.isEmpty()) {
+            chunkByteBudget = bytesPerTick;
+            return;
+        }
+        chunkByteBudget = Math.min(chunkByteBudget + bytesPerTick, MAX_SAVED_CHUNK_TICKS * bytesPerTick);
+
+        Vector3i center = new Vector3i();
+        Vector3f direction = new Vector3f();
+        LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+        if (loc != null) {
+            Vector3f target = loc.getWorldPosition(new Vector3f());
+            if (target.isFinite()) {
+                center.set(target, RoundingMode.HALF_UP); // use center as temporary variable
+                ChunkMath.calcChunkPos(center, center); // update center to chunkPos
+                loc.getWorldDirection(direction);
+            }
+        }
+        readyChunks.setViewer(center, direction);
+
+        ChunkEncodingCache encodingCache = networkSystem.getChunkEncodingCache();
+        int considered = 0;
+        for (Vector3i pos : readyChunks.getOrder()) {
+            Chunk chunk = readyChunks.get(pos);
+            if (chunk == null) {
+                continue;
+            }
+            if (considered++ == CHUNK_ENCODE_AHEAD) {
+                break;
+            }
+            if (chunkByteBudget <= 0) {
+                encodingCache.prepare(pos, chunk);
+                continue;
+            }
+            EntityData.ChunkStore encoded = encodingCache.getEncoded(pos, chunk);
+            if (encoded != null) {
+                readyChunks.remove(pos);
                 relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
+                message.addChunkInfo(encoded);
+                chunkByteBudget -= encoded.getSerializedSize();
+                sentChunks++;
             }
-        } else {
-            chunkSendCounter = 1.0f;
         }
     }
 
@@ -389,7 +413,7 @@ void send(NetData.NetMessage data) {
     public void onChunkRelevant(Vector3ic pos, Chunk chunk) {
         Vector3i result = new Vector3i(pos);
         invalidatedChunks.remove(result);
-        readyChunks.put(result, chunk);
+        readyChunks.add(result, chunk);
     }
 
     @Override
@@ -403,6 +427,7 @@ public void onChunkIrrelevant(Vector3ic pos) {
     @Override
     public void onBlockChanged(Vector3ic pos, Block newBlock, Block originalBlock) {
         org.joml.Vector3i chunkPos = ChunkMath.calcChunkPos(pos, new org.joml.Vector3i());
+        networkSystem.getChunkEncodingCache().invalidate(chunkPos);
         if (relevantChunks.contains(chunkPos)) {
             queuedOutgoingBlockChanges.add(NetData.BlockChangeMessage.newBuilder()
                 .setPos(NetMessageUtil.convert(pos))
@@ -414,6 +439,7 @@ public void onBlockChanged(Vector3ic pos, Block newBlock, Block originalBlock) {
     @Override
     public void onExtraDataChanged(int i, Vector3ic pos, int newData, int oldData) {
         org.joml.Vector3i chunkPos = ChunkMath.calcChunkPos(pos, new org.joml.Vector3i());
+        networkSystem.getChunkEncodingCache().invalidate(chunkPos);
         if (relevantChunks.contains(chunkPos)) {
             queuedOutgoingExtraDataChanges.add(NetData.ExtraDataChangeMessage.newBuilder()
                 .setIndex(i)
@@ -469,8 +495,8 @@ private void sendDirtyEntities(NetData.NetMessage.Builder message) {
                 logger.error("Sending non-existent entity update for netId {}", netId);
             }
             boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
+            EntityData.PackedEntity entityData = networkSystem.getEntityDeltaCache().getUpdate(netId, entity, isOwner,
+                    addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId));
             if (entityData != null) {
                 message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
             }
@@ -502,7 +528,7 @@ private void sendInitialEntities(NetData.NetMessage.Builder message) {
             }
             // Note: Send owner->server fields on initial create
             Client owner = networkSystem.getOwner(entity);
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owner == this, true)).build();
+            EntityData.PackedEntity entityData = networkSystem.getEntityDeltaCache().getInitial(netId, entity, owner == this);
             NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
             BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
             if (blockComponent != null) {
@@ -563,6 +589,22 @@ public NetMetricSource getMetrics() {
         return metricSource;
     }
 
+    /**
+     * @return the number of chunks sent since the last call
+     */
+    public int getSentChunksSinceLastCall() {
+        int result = sentChunks;
+        sentChunks = 0;
+        return result;
+    }
+
+    /**
+     * @return the number of chunks waiting to be sent
+     */
+    public int getQueuedChunkCount() {
+        return readyChunks.size();
+    }
+
     @Override
     public void setViewDistanceMode(ViewDistance distanceMode) {
         this.viewDistance = distanceMode;
@@ -0,0 +1,141 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.UnknownFieldSet;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The compression of the messages sent from the server to a client, negotiated during the handshake.
+ * <p>
+ * The client offers the modes it supports with its handshake, and the server answers with the chosen mode along with the
+ * verification or the new identity. Both are carried in the extension range of the handshake messages, so peers which
+ * do not know about the negotiation ignore them, and keep using the original zlib stream.
+ *
+ * @see CompressionEncoder
+ * @see CompressionDecoder
+ */
+public enum NetworkCompression {
+    /**
+     * No compression, for connections within the local network where the CPU time matters more than the bandwidth.
+     */
+    NONE(0, "none"),
+    /**
+     * Compresses each message on its own with LZ4.
+     */
+    FAST(1, "fast"),
+    /**
+     * Compresses all messages as one deflate stream, so that later messages refer back to earlier ones.
+     */
+    HIGH_RATIO(2, "high");
+
+    /**
+     * The extension field of the handshake messages which holds the offered or chosen modes.
+     */
+    static final int HANDSHAKE_FIELD = 5000;
+
+    private final int id;
+    private final String configName;
+
+    NetworkCompression(int id, String configName) {
+        this.id = id;
+        this.configName = configName;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the name of the mode in the network config
+     */
+    public String getConfigName() {
+        return configName;
+    }
+
+    /**
+     * @return the mode with the given id, or null if it is unknown
+     */
+    public static NetworkCompression forId(long id) {
+        for (NetworkCompression mode : values()) {
+            if (mode.id == id) {
+                return mode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the mode with the given config name, or {@link #FAST} if there is none
+     */
+    public static NetworkCompression forConfigName(String name) {
+        for (NetworkCompression mode : values()) {
+            if (mode.configName.equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        return FAST;
+    }
+
+    /**
+     * Picks the mode for a connection: no compression for clients within the local network, otherwise the preferred
+     * mode of the server if the client supports it.
+     *
+     * @return the chosen mode, or null if the client did not offer any mode
+     */
+    static NetworkCompression choose(Collection<NetworkCompression> offered, NetworkCompression preferred,
+                                     SocketAddress remoteAddress) {
+        if (offered.isEmpty()) {
+            return null;
+        }
+        if (offered.contains(NONE) && isLocalNetwork(remoteAddress)) {
+            return NONE;
+        }
+        if (offered.contains(preferred)) {
+            return preferred;
+        }
+        return offered.iterator().next();
+    }
+
+    /**
+     * @return the handshake extension with the given modes
+     */
+    static UnknownFieldSet toHandshakeField(NetworkCompression... modes) {
+        UnknownFieldSet.Field.Builder field = UnknownFieldSet.Field.newBuilder();
+        for (NetworkCompression mode : modes) {
+            field.addVarint(mode.id);
+        }
+        return UnknownFieldSet.newBuilder().addField(HANDSHAKE_FIELD, field.build()).build();
+    }
+
+    /**
+     * @return the known modes in the handshake extension, empty if the peer did not send any
+     */
+    static List<NetworkCompression> fromHandshakeField(UnknownFieldSet fields) {
+        List<NetworkCompression> modes = Lists.newArrayList();
+        if (fields.hasField(HANDSHAKE_FIELD)) {
+            for (long id : fields.getField(HANDSHAKE_FIELD).getVarintList()) {
+                NetworkCompression mode = forId(id);
+                if (mode != null) {
+                    modes.add(mode);
+                }
+            }
+        }
+        return modes;
+    }
+
+    private static boolean isLocalNetwork(SocketAddress remoteAddress) {
+        if (remoteAddress instanceof InetSocketAddress) {
+            InetAddress address = ((InetSocketAddress) remoteAddress).getAddress();
+            return address != null
+                    && (address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,252 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.iterator.TIntObjectIterator;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.ChunkMath;
+import org.terasology.network.ClientComponent;
+import org.terasology.network.NetworkComponent;
+
+import java.util.Map;
+
+/**
+ * Decides which of the {@link NetworkComponent.ReplicateMode#RELEVANT} entities are replicated to which client.
+ * <p>
+ * Entities with a location in the world are kept in a spatial index by chunk, and are relevant to the clients whose
+ * character is within their view distance of them. An entity becomes relevant once it is inside the view distance, and
+ * is only removed again once it is a chunk further away, so that entities near the border do not get sent over and
+ * over. Entities without a location in the world, owned by another entity or representing a client are relevant to
+ * every client.
+ * <p>
+ * Relevance changes are passed to the clients as initial and removed entities.
+ */
+class NetworkRelevanceManager {
+
+    /**
+     * The number of chunks an entity has to be beyond the view distance before it stops being relevant to a client.
+     */
+    private static final int LEAVE_DISTANCE = 1;
+
+    private final TIntObjectMap<EntityRef> entities = new TIntObjectHashMap<>();
+    private final TIntObjectMap<Vector3i> chunkByEntity = new TIntObjectHashMap<>();
+    private final Map<Vector3i, TIntSet> entitiesByChunk = Maps.newHashMap();
+    private final TIntSet changedEntities = new TIntHashSet();
+    private final Map<NetClient, TIntSet> relevantByClient = Maps.newLinkedHashMap();
+
+    private final Vector3f position = new Vector3f();
+    private final Vector3i clientChunk = new Vector3i();
+    private final Vector3i cell = new Vector3i();
+
+    void addClient(NetClient client) {
+        TIntSet relevant = new TIntHashSet();
+        relevantByClient.put(client, relevant);
+        TIntObjectIterator<EntityRef> iterator = entities.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            if (!chunkByEntity.containsKey(iterator.key())) {
+                relevant.add(iterator.key());
+                client.setNetInitial(iterator.key());
+            }
+        }
+    }
+
+    void removeClient(NetClient client) {
+        relevantByClient.remove(client);
+    }
+
+    void addEntity(int netId, EntityRef entity) {
+        entities.put(netId, entity);
+        Vector3i chunk = calcEntityChunk(entity);
+        if (chunk != null) {
+            addToChunk(netId, chunk);
+        }
+        for (Map.Entry<NetClient, TIntSet> entry : relevantByClient.entrySet()) {
+            NetClient client = entry.getKey();
+            if (chunk == null || (calcClientChunk(client) && isWithin(client, chunk, 0))) {
+                entry.getValue().add(netId);
+                client.setNetInitial(netId);
+            }
+        }
+    }
+
+    /**
+     * @return whether the entity is handled by the relevance manager
+     */
+    boolean removeEntity(int netId) {
+        if (entities.remove(netId) == null) {
+            return false;
+        }
+        removeFromChunk(netId);
+        changedEntities.remove(netId);
+        for (Map.Entry<NetClient, TIntSet> entry : relevantByClient.entrySet()) {
+            if (entry.getValue().remove(netId)) {
+                entry.getKey().setNetRemoved(netId);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Notes that the location or owner of the entity changed, to be processed by the next update.
+     */
+    void entityChanged(int netId) {
+        if (entities.containsKey(netId)) {
+            changedEntities.add(netId);
+        }
+    }
+
+    /**
+     * Moves the changed entities in the spatial index and updates the relevant entities of every client.
+     */
+    void update() {
+        TIntIterator changedIterator = changedEntities.iterator();
+        while (changedIterator.hasNext()) {
+            int netId = changedIterator.next();
+            Vector3i chunk = calcEntityChunk(entities.get(netId));
+            Vector3i oldChunk = chunkByEntity.get(netId);
+            if (chunk == null ? oldChunk != null : !chunk.equals(oldChunk)) {
+                removeFromChunk(netId);
+                if (chunk != null) {
+                    addToChunk(netId, chunk);
+                } else {
+                    makeRelevantToAllClients(netId);
+                }
+            }
+        }
+        changedEntities.clear();
+
+        for (Map.Entry<NetClient, TIntSet> entry : relevantByClient.entrySet()) {
+            updateClient(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void updateClient(NetClient client, TIntSet relevant) {
+        if (!calcClientChunk(client)) {
+            return;
+        }
+        TIntIterator iterator = relevant.iterator();
+        while (iterator.hasNext()) {
+            int netId = iterator.next();
+            Vector3i chunk = chunkByEntity.get(netId);
+            if (chunk != null && !isWithin(client, chunk, LEAVE_DISTANCE)) {
+                iterator.remove();
+                client.setNetRemoved(netId);
+            }
+        }
+
+        Vector3ic distance = client.getViewDistance().getChunkDistance();
+        int extentX = distance.x() / 2;
+        int extentY = distance.y() / 2;
+        int extentZ = distance.z() / 2;
+        if (entitiesByChunk.size() < (2 * extentX + 1) * (2 * extentY + 1) * (2 * extentZ + 1)) {
+            for (Map.Entry<Vector3i, TIntSet> chunkEntry : entitiesByChunk.entrySet()) {
+                if (isWithin(client, chunkEntry.getKey(), 0)) {
+                    addRelevant(client, relevant, chunkEntry.getValue());
+                }
+            }
+        } else {
+            int centerX = clientChunk.x;
+            int centerY = clientChunk.y;
+            int centerZ = clientChunk.z;
+            for (int x = centerX - extentX; x <= centerX + extentX; x++) {
+                for (int y = centerY - extentY; y <= centerY + extentY; y++) {
+                    for (int z = centerZ - extentZ; z <= centerZ + extentZ; z++) {
+                        TIntSet chunkEntities = entitiesByChunk.get(cell.set(x, y, z));
+                        if (chunkEntities != null) {
+                            addRelevant(client, relevant, chunkEntities);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void addRelevant(NetClient client, TIntSet relevant, TIntSet netIds) {
+        TIntIterator iterator = netIds.iterator();
+        while (iterator.hasNext()) {
+            int netId = iterator.next();
+            if (relevant.add(netId)) {
+                client.setNetInitial(netId);
+            }
+        }
+    }
+
+    private void makeRelevantToAllClients(int netId) {
+        for (Map.Entry<NetClient, TIntSet> entry : relevantByClient.entrySet()) {
+            if (entry.getValue().add(netId)) {
+                entry.getKey().setNetInitial(netId);
+            }
+        }
+    }
+
+    /**
+     * Only valid after {@link #calcClientChunk(NetClient)} was called for the client.
+     *
+     * @param leaveDistance the number of chunks to add to the view distance
+     */
+    private boolean isWithin(NetClient client, Vector3ic chunk, int leaveDistance) {
+        Vector3ic distance = client.getViewDistance().getChunkDistance();
+        return Math.abs(chunk.x() - clientChunk.x) <= distance.x() / 2 + leaveDistance
+                && Math.abs(chunk.y() - clientChunk.y) <= distance.y() / 2 + leaveDistance
+                && Math.abs(chunk.z() - clientChunk.z) <= distance.z() / 2 + leaveDistance;
+    }
+
+    private void addToChunk(int netId, Vector3i chunk) {
+        chunkByEntity.put(netId, chunk);
+        entitiesByChunk.computeIfAbsent(chunk, key -> new TIntHashSet()).add(netId);
+    }
+
+    private void removeFromChunk(int netId) {
+        Vector3i chunk = chunkByEntity.remove(netId);
+        if (chunk != null) {
+            TIntSet chunkEntities = entitiesByChunk.get(chunk);
+            chunkEntities.remove(netId);
+            if (chunkEntities.isEmpty()) {
+                entitiesByChunk.remove(chunk);
+            }
+        }
+    }
+
+    /**
+     * @return the chunk of the entity, or null if it is not placed in the world on its own
+     */
+    private Vector3i calcEntityChunk(EntityRef entity) {
+        if (entity.getOwner().exists() || entity.hasComponent(ClientComponent.class)) {
+            return null;
+        }
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location == null || !location.getWorldPosition(position).isFinite()) {
+            return null;
+        }
+        return ChunkMath.calcChunkPos(position, new Vector3i());
+    }
+
+    /**
+     * Stores the chunk of the character of the client in {@link #clientChunk}.
+     *
+     * @return false if the client has no character placed in the world yet
+     */
+    private boolean calcClientChunk(NetClient client) {
+        ClientComponent clientComponent = client.getEntity().getComponent(ClientComponent.class);
+        if (clientComponent == null) {
+            return false;
+        }
+        LocationComponent location = clientComponent.character.getComponent(LocationComponent.class);
+        if (location == null || !location.getWorldPosition(position).isFinite()) {
+            return false;
+        }
+        ChunkMath.calcChunkPos(position, clientChunk);
+        return true;
+    }
+}
@@ -58,6 +58,7 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.EventLibrary;
 import org.terasology.entitySystem.metadata.EventMetadata;
+import org.terasology.logic.location.LocationComponent;
 import org.terasology.module.Module;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.network.Client;
@@ -126,6 +127,8 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private EventLibrary eventLibrary;
     private EventSerializer eventSerializer;
     private NetworkEntitySerializer entitySerializer;
+    private EntityDeltaCache entityDeltaCache;
+    private ChunkEncodingCache chunkEncodingCache;
     private BlockManager blockManager;
     private OwnershipHelper ownershipHelper;
 
@@ -144,6 +147,7 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private int nextNetId = 1;
     private final Set<Client> clientList = Sets.newLinkedHashSet();
     private final Set<NetClient> netClientList = Sets.newLinkedHashSet();
+    private NetworkRelevanceManager relevanceManager = new NetworkRelevanceManager();
     private Map<EntityRef, Client> clientPlayerLookup = Maps.newHashMap();
     private Map<EntityRef, EntityRef> ownerLookup = Maps.newHashMap();
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
@@ -280,8 +284,14 @@ public void shutdown() {
         componentLibrary = null;
         eventSerializer = null;
         entitySerializer = null;
+        entityDeltaCache = null;
+        if (chunkEncodingCache != null) {
+            chunkEncodingCache.shutdown();
+            chunkEncodingCache = null;
+        }
         clientList.clear();
         netClientList.clear();
+        relevanceManager = new NetworkRelevanceManager();
         blockManager = null;
         ownerLookup.clear();
         ownedLookup.clear();
@@ -311,6 +321,15 @@ public void update() {
                     nextNetworkTick += NET_TICK_RATE;
                     netTick = true;
                 }
+                if (netTick && mode.isServer()) {
+                    entityDeltaCache.clear();
+                    if (chunkEncodingCache != null) {
+                        chunkEncodingCache.update();
+                    }
+                    PerformanceMonitor.startActivity("Network relevance");
+                    relevanceManager.update();
+                    PerformanceMonitor.endActivity();
+                }
                 PerformanceMonitor.startActivity("Client update");
                 for (Client client : clientList) {
                     client.update(netTick);
@@ -422,9 +441,11 @@ public void registerNetworkEntity(EntityRef entity) {
                         clientPlayer.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
+                case RELEVANT:
+                    relevanceManager.addEntity(netComponent.getNetworkId(), entity);
+                    break;
                 default:
                     for (NetClient client : netClientList) {
-                        // TODO: Relevance Check
                         client.setNetInitial(netComponent.getNetworkId());
                     }
                     break;
@@ -475,6 +496,7 @@ public void updateOwnership(EntityRef entity) {
             } else {
                 ownerLookup.remove(entity);
             }
+            relevanceManager.entityChanged(netComponent.getNetworkId());
         }
     }
 
@@ -508,7 +530,7 @@ public void unregisterNetworkEntity(EntityRef entity) {
             if (netComponent != null) {
                 logger.debug("Unregistering network entity: {} with netId {}", entity, netComponent.getNetworkId());
                 netIdToEntityId.remove(netComponent.getNetworkId());
-                if (mode.isServer()) {
+                if (mode.isServer() && !relevanceManager.removeEntity(netComponent.getNetworkId())) {
                     for (NetClient client : netClientList) {
                         client.setNetRemoved(netComponent.getNetworkId());
                     }
@@ -542,6 +564,7 @@ public void connectToEntitySystem(EngineEntityManager newEntityManager, EventLib
         eventSerializer = new EventSerializer(eventLibrary, typeHandlerLibrary);
         entitySerializer = new NetworkEntitySerializer(newEntityManager, entityManager.getComponentLibrary(), typeHandlerLibrary);
         entitySerializer.setComponentSerializeCheck(new NetComponentSerializeCheck());
+        entityDeltaCache = new EntityDeltaCache(entitySerializer);
 
         if (mode == NetworkMode.CLIENT) {
             entityManager.setEntityRefStrategy(new NetworkClientRefStrategy(this));
@@ -560,11 +583,15 @@ public void onEntityComponentAdded(EntityRef entity, Class<? extends Component>
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    entityDeltaCache.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.info("Component {} added to {}", component, entity);
                         client.setComponentAdded(netComp.getNetworkId(), component);
                     }
                 }
+                if (component == LocationComponent.class) {
+                    relevanceManager.entityChanged(netComp.getNetworkId());
+                }
             }
         }
         updatedOwnedEntities(entity, component, metadata);
@@ -577,11 +604,15 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
                 if (metadata.isReplicated()) {
+                    entityDeltaCache.invalidate(netComp.getNetworkId());
                     for (NetClient client : netClientList) {
                         logger.info("Component {} removed from {}", component, entity);
                         client.setComponentRemoved(netComp.getNetworkId(), component);
                     }
                 }
+                if (component == LocationComponent.class) {
+                    relevanceManager.entityChanged(netComp.getNetworkId());
+                }
             }
         }
         if (mode.isAuthority() && metadata.isReferenceOwner()) {
@@ -608,10 +639,14 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
                     if (metadata.isReplicated()) {
+                        entityDeltaCache.invalidate(netComp.getNetworkId());
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
                         }
                     }
+                    if (component == LocationComponent.class) {
+                        relevanceManager.entityChanged(netComp.getNetworkId());
+                    }
                     break;
                 case CLIENT:
                     if (server != null && metadata.isReplicatedFromOwner() && getOwnerEntity(entity).equals(server.getClientEntity())) {
@@ -722,6 +757,34 @@ public int getOutgoingBytesDelta() {
         }
     }
 
+    /**
+     * @return The number of chunks sent to clients since last request
+     */
+    @Override
+    public int getSentChunksDelta() {
+        int total = 0;
+        if (mode.isServer()) {
+            for (NetClient client : netClientList) {
+                total += client.getSentChunksSinceLastCall();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return The number of chunks waiting to be sent to clients
+     */
+    @Override
+    public int getQueuedChunkCount() {
+        int total = 0;
+        if (mode.isServer()) {
+            for (NetClient client : netClientList) {
+                total += client.getQueuedChunkCount();
+            }
+        }
+        return total;
+    }
+
     long getEntityId(int netId) {
         return netIdToEntityId.get(netId);
     }
@@ -786,6 +849,7 @@ private void processRemovedClient(Client client) {
             }
             NetClient netClient = (NetClient) client;
             netClientList.remove(netClient);
+            relevanceManager.removeClient(netClient);
         }
         clientList.remove(client);
         clientPlayerLookup.remove(client.getEntity());
@@ -826,13 +890,16 @@ private void processNewClient(NetClient client) {
                             client.setNetInitial(netComp.getNetworkId());
                         }
                         break;
+                    case RELEVANT:
+                        // sent by the relevance manager
+                        break;
                     default:
-                        // TODO: Relevance Check
                         client.setNetInitial(netComp.getNetworkId());
                         break;
                 }
             }
         }
+        relevanceManager.addClient(client);
     }
 
     private void connectClient(Client client) {
@@ -840,6 +907,17 @@ private void connectClient(Client client) {
         client.getEntity().send(new ConnectedEvent(entityStore));
     }
 
+    EntityDeltaCache getEntityDeltaCache() {
+        return entityDeltaCache;
+    }
+
+    ChunkEncodingCache getChunkEncodingCache() {
+        if (chunkEncodingCache == null) {
+            chunkEncodingCache = new ChunkEncodingCache();
+        }
+        return chunkEncodingCache;
+    }
+
     NetData.ServerInfoMessage getServerInfoMessage() {
         return getServerInfoMessage(null);
     }
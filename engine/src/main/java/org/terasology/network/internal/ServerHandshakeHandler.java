@@ -16,6 +16,7 @@
 package org.terasology.network.internal;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.MessageEvent;
@@ -105,9 +106,15 @@ private void processClientHandshake(NetData.HandshakeHello clientHello, NetData.
 
         logger.info("Sending server verification");
         byte[] serverSignature = config.getSecurity().getServerPrivateCertificate().sign(signatureData);
+        NetworkCompression compression = chooseCompression(clientHello.getUnknownFields(), ctx);
+        NetData.HandshakeVerification.Builder verification = NetData.HandshakeVerification.newBuilder()
+                .setSignature(ByteString.copyFrom(serverSignature));
+        if (compression != null) {
+            verification.setUnknownFields(NetworkCompression.toHandshakeField(compression));
+        }
         ctx.getChannel().write(NetData.NetMessage.newBuilder()
-                .setHandshakeVerification(NetData.HandshakeVerification.newBuilder()
-                        .setSignature(ByteString.copyFrom(serverSignature))).build());
+                .setHandshakeVerification(verification).build());
+        useCompression(compression, ctx);
 
         // Identity has been established, inform the server handler and withdraw from the pipeline
         ctx.getPipeline().remove(this);
@@ -140,10 +147,16 @@ private void processNewIdentityRequest(NetData.NewIdentityRequest newIdentityReq
                 return;
             }
 
+            NetworkCompression compression = chooseCompression(newIdentityRequest.getUnknownFields(), ctx);
+            NetData.ProvisionIdentity.Builder provisionIdentity = NetData.ProvisionIdentity.newBuilder()
+                    .setEncryptedCertificates(ByteString.copyFrom(encryptedCert));
+            if (compression != null) {
+                provisionIdentity.setUnknownFields(NetworkCompression.toHandshakeField(compression));
+            }
             ctx.getChannel().write(NetData.NetMessage.newBuilder()
-                    .setProvisionIdentity(NetData.ProvisionIdentity.newBuilder()
-                            .setEncryptedCertificates(ByteString.copyFrom(encryptedCert)))
+                    .setProvisionIdentity(provisionIdentity)
                     .build());
+            useCompression(compression, ctx);
 
             // Identity has been established, inform the server handler and withdraw from the pipeline
             ctx.getPipeline().remove(this);
@@ -153,4 +166,23 @@ private void processNewIdentityRequest(NetData.NewIdentityRequest newIdentityReq
             ctx.getChannel().close();
         }
     }
+
+    /**
+     * @return the compression for the connection, or null if the client does not negotiate the compression
+     */
+    private NetworkCompression chooseCompression(UnknownFieldSet clientFields, ChannelHandlerContext ctx) {
+        return NetworkCompression.choose(NetworkCompression.fromHandshakeField(clientFields),
+                NetworkCompression.forConfigName(config.getNetwork().getCompression()), ctx.getChannel().getRemoteAddress());
+    }
+
+    /**
+     * Switches the messages after the last handshake message to the negotiated compression. Clients which do not
+     * negotiate the compression keep the zlib stream the pipeline starts with.
+     */
+    private void useCompression(NetworkCompression compression, ChannelHandlerContext ctx) {
+        if (compression != null) {
+            logger.info("Using {} compression", compression);
+            ctx.getPipeline().replace(CompressionEncoder.NAME, CompressionEncoder.NAME, new CompressionEncoder(compression));
+        }
+    }
 }
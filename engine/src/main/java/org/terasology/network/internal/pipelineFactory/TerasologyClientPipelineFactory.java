@@ -27,6 +27,7 @@
 import org.terasology.network.internal.ClientConnectionHandler;
 import org.terasology.network.internal.ClientHandler;
 import org.terasology.network.internal.ClientHandshakeHandler;
+import org.terasology.network.internal.CompressionDecoder;
 import org.terasology.network.internal.JoinStatusImpl;
 import org.terasology.network.internal.MetricRecordingHandler;
 import org.terasology.network.internal.NetworkSystemImpl;
@@ -52,8 +53,9 @@ public ChannelPipeline getPipeline() throws Exception {
         ChannelPipeline p = pipeline();
         p.addLast(MetricRecordingHandler.NAME, new MetricRecordingHandler());
 
-        p.addLast("lengthFrameDecoder", new LengthFieldBasedFrameDecoder(8388608, 0, 3, 0, 3));
-        p.addLast("inflateDecoder", new ZlibDecoder());
+        p.addLast("lengthFrameDecoder", new LengthFieldBasedFrameDecoder(CompressionDecoder.MAX_FRAME_SIZE, 0, 3, 0, 3));
+        // replaced by the compression negotiated during the handshake
+        p.addLast(CompressionDecoder.NAME, new ZlibDecoder());
         p.addLast("frameDecoder", new ProtobufVarint32FrameDecoder());
         p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
 
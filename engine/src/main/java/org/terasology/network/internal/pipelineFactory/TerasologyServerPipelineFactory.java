@@ -24,6 +24,7 @@
 import org.jboss.netty.handler.codec.protobuf.ProtobufEncoder;
 import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
 import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import org.terasology.network.internal.CompressionEncoder;
 import org.terasology.network.internal.MetricRecordingHandler;
 import org.terasology.network.internal.NetworkSystemImpl;
 import org.terasology.network.internal.ServerConnectionHandler;
@@ -54,7 +55,8 @@ public ChannelPipeline getPipeline() throws Exception {
         p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
 
         p.addLast("frameLengthEncoder", new LengthFieldPrepender(3));
-        p.addLast("deflateEncoder", new ZlibEncoder());
+        // replaced by the compression negotiated during the handshake
+        p.addLast(CompressionEncoder.NAME, new ZlibEncoder());
         p.addLast("frameEncoder", new ProtobufVarint32LengthFieldPrepender());
         p.addLast("protobufEncoder", new ProtobufEncoder());
 
@@ -38,7 +38,6 @@
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileSystem;
@@ -47,7 +46,6 @@
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 
 /**
  * An abstract implementation of {@link StorageManager} that is able
@@ -66,20 +64,28 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final EngineEntityManager entityManager;
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
+    private final ChunkCodecs chunkCodecs;
+    private final RegionFiles regionFiles;
 
-    private boolean storeChunksInZips = true;
+    private ChunkStorageFormat chunkStorageFormat;
 
+    /**
+     * @param readOnly if true, region files will be opened for reading only
+     */
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  ChunkStorageFormat chunkStorageFormat, boolean readOnly) {
         this.entityManager = entityManager;
         this.environment = environment;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = chunkStorageFormat;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
         this.blockManager = blockManager;
         this.extraDataManager = extraDataManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
+        this.chunkCodecs = new ChunkCodecs(storagePathProvider.getChunkDictionaryPath());
+        this.regionFiles = new RegionFiles(storagePathProvider, readOnly);
     }
 
     @Override
@@ -108,12 +114,11 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
         byte[] chunkData = loadCompressedChunk(chunkPos);
         ChunkStore store = null;
         if (chunkData != null) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-            try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
+            try {
+                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(chunkCodecs.decode(chunkData));
                 store = new ChunkStoreInternal(storeData, entityManager, blockManager, extraDataManager);
             } catch (IOException e) {
-                logger.error("Failed to read existing saved chunk {}", chunkPos);
+                logger.error("Failed to read existing saved chunk {}", chunkPos, e);
             }
         }
         return store;
@@ -136,36 +141,67 @@ protected byte[] loadChunkZip(Vector3i chunkPos) {
         return chunkData;
     }
 
+    protected byte[] loadChunkFromRegion(Vector3i chunkPos) {
+        try {
+            return regionFiles.read(JomlUtil.from(chunkPos));
+        } catch (IOException e) {
+            logger.error("Failed to load chunk {} from region file", chunkPos, e);
+        }
+        return null;
+    }
+
+    protected byte[] loadChunkFile(Vector3i chunkPos) {
+        Path chunkPath = storagePathProvider.getChunkPath(JomlUtil.from(chunkPos));
+        if (Files.isRegularFile(chunkPath)) {
+            try {
+                return Files.readAllBytes(chunkPath);
+            } catch (IOException e) {
+                logger.error("Failed to load chunk {}", chunkPos, e);
+            }
+        }
+        return null;
+    }
+
     @Override
     public void update() {
     }
 
     public boolean isStoreChunksInZips() {
-        return storeChunksInZips;
+        return chunkStorageFormat == ChunkStorageFormat.ZIPS;
     }
 
     /**
      * For tests only
      */
     void setStoreChunksInZips(boolean storeChunksInZips) {
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = storeChunksInZips ? ChunkStorageFormat.ZIPS : ChunkStorageFormat.FILES;
+    }
+
+    public ChunkStorageFormat getChunkStorageFormat() {
+        return chunkStorageFormat;
+    }
+
+    /**
+     * For tests only
+     */
+    void setChunkStorageFormat(ChunkStorageFormat chunkStorageFormat) {
+        this.chunkStorageFormat = chunkStorageFormat;
     }
 
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
-        if (isStoreChunksInZips()) {
-            return loadChunkZip(chunkPos);
-        } else {
-            Path chunkPath = storagePathProvider.getChunkPath(JomlUtil.from(chunkPos));
-            if (Files.isRegularFile(chunkPath)) {
-                try {
-                    return Files.readAllBytes(chunkPath);
-                } catch (IOException e) {
-                    logger.error("Failed to load chunk {}", chunkPos, e);
+        switch (chunkStorageFormat) {
+            case REGIONS:
+                byte[] chunkData = loadChunkFromRegion(chunkPos);
+                if (chunkData == null) {
+                    // the save was not migrated yet, e.g. because it is opened read only
+                    chunkData = loadChunkZip(chunkPos);
                 }
-            }
+                return chunkData != null ? chunkData : loadChunkFile(chunkPos);
+            case ZIPS:
+                return loadChunkZip(chunkPos);
+            default:
+                return loadChunkFile(chunkPos);
         }
-
-        return null;
     }
 
     protected EntityData.PlayerStore loadPlayerStoreData(String playerId) {
@@ -229,4 +265,12 @@ protected EngineEntityManager getEntityManager() {
     protected PrefabSerializer getPrefabSerializer() {
         return prefabSerializer;
     }
+
+    protected ChunkCodecs getChunkCodecs() {
+        return chunkCodecs;
+    }
+
+    protected RegionFiles getRegionFiles() {
+        return regionFiles;
+    }
 }
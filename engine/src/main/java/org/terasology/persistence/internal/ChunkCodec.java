@@ -0,0 +1,34 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import java.io.IOException;
+
+/**
+ * Compresses the serialized {@link org.terasology.protobuf.EntityData.ChunkStore} of a chunk for storage.
+ * <p>
+ * Implementations must be thread safe, as chunks get compressed and decompressed by multiple threads.
+ *
+ * @see ChunkCodecs
+ */
+public interface ChunkCodec {
+
+    /**
+     * @return the id that gets written in front of data compressed by this codec. Must never change, as it is used
+     *         to pick the codec when reading a stored chunk.
+     */
+    byte getId();
+
+    /**
+     * @return the name used to select this codec in the config
+     */
+    String getName();
+
+    byte[] compress(byte[] data);
+
+    /**
+     * @param uncompressedLength the length of the data that was passed to {@link #compress(byte[])}
+     * @throws IOException if the data is corrupt or can not be decompressed by this codec
+     */
+    byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException;
+}
@@ -0,0 +1,107 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+/**
+ * Knows all {@link ChunkCodec}s of a save, and tags stored chunks with the codec that compressed them.
+ * <p>
+ * Chunks are stored as a header followed by the compressed data. The header consists of {@link #MAGIC}, the id of the
+ * codec and the uncompressed length as a big endian int. Chunks that start with the GZIP magic number instead were
+ * stored before codecs existed, or with {@link GzipChunkCodec}.
+ */
+public class ChunkCodecs {
+
+    public static final String DEFAULT_CODEC = Lz4ChunkCodec.NAME;
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkCodecs.class);
+    private static final byte[] MAGIC = {'T', 'C'};
+    private static final int HEADER_LENGTH = MAGIC.length + 1 + Integer.BYTES;
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final GzipChunkCodec gzipCodec = new GzipChunkCodec();
+    /**
+     * Indexed by codec id.
+     */
+    private final ChunkCodec[] codecs;
+    private volatile ChunkCodec writeCodec;
+
+    /**
+     * @param dictionaryFile the dictionary of the {@link DeflateChunkCodec}
+     */
+    public ChunkCodecs(Path dictionaryFile) {
+        codecs = new ChunkCodec[]{gzipCodec, new Lz4ChunkCodec(), new DeflateChunkCodec(Deflater.BEST_SPEED, dictionaryFile)};
+        writeCodec = getCodec(DEFAULT_CODEC);
+    }
+
+    public ChunkCodec getWriteCodec() {
+        return writeCodec;
+    }
+
+    /**
+     * Selects the codec for newly stored chunks. Null or unknown names select the {@link #DEFAULT_CODEC}.
+     */
+    public void setWriteCodec(String name) {
+        ChunkCodec codec = getCodec(name != null ? name : DEFAULT_CODEC);
+        if (codec == null) {
+            logger.warn("Unknown chunk codec '{}', using {}", name, DEFAULT_CODEC);
+            codec = getCodec(DEFAULT_CODEC);
+        }
+        writeCodec = codec;
+    }
+
+    public ChunkCodec getCodec(String name) {
+        for (ChunkCodec codec : codecs) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param data a serialized {@link org.terasology.protobuf.EntityData.ChunkStore}
+     */
+    public byte[] encode(byte[] data) {
+        ChunkCodec codec = writeCodec;
+        byte[] compressed = codec.compress(data);
+        if (codec == gzipCodec) {
+            return compressed;
+        }
+        byte[] result = new byte[HEADER_LENGTH + compressed.length];
+        result[0] = MAGIC[0];
+        result[1] = MAGIC[1];
+        result[2] = codec.getId();
+        result[3] = (byte) (data.length >>> 24);
+        result[4] = (byte) (data.length >>> 16);
+        result[5] = (byte) (data.length >>> 8);
+        result[6] = (byte) data.length;
+        System.arraycopy(compressed, 0, result, HEADER_LENGTH, compressed.length);
+        return result;
+    }
+
+    /**
+     * @return the serialized {@link org.terasology.protobuf.EntityData.ChunkStore}
+     * @throws IOException if the data is corrupt or was compressed by an unknown codec
+     */
+    public byte[] decode(byte[] data) throws IOException {
+        if (data.length >= 2 && ((data[0] & 0xFF) | (data[1] & 0xFF) << 8) == GZIP_MAGIC) {
+            return gzipCodec.decompress(data);
+        }
+        if (data.length < HEADER_LENGTH || data[0] != MAGIC[0] || data[1] != MAGIC[1]) {
+            throw new IOException("Unknown chunk format");
+        }
+        int id = data[2];
+        if (id < 0 || id >= codecs.length) {
+            throw new IOException("Unknown chunk codec " + id);
+        }
+        int uncompressedLength = (data[3] & 0xFF) << 24 | (data[4] & 0xFF) << 16 | (data[5] & 0xFF) << 8 | (data[6] & 0xFF);
+        return codecs[id].decompress(data, HEADER_LENGTH, data.length - HEADER_LENGTH, uncompressedLength);
+    }
+}
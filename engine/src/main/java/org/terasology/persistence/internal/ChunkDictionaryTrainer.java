@@ -0,0 +1,87 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a preset dictionary for {@link DeflateChunkCodec} from sample chunks.
+ * <p>
+ * Every sample is cut into short overlapping segments, and the segments that occur in the most samples are put into
+ * the dictionary. The most common segments are placed at the end, where zlib can reference them with the shortest
+ * distances.
+ */
+public final class ChunkDictionaryTrainer {
+
+    static final int SEGMENT_LENGTH = 24;
+    private static final int SEGMENT_STRIDE = 4;
+
+    private ChunkDictionaryTrainer() {
+    }
+
+    /**
+     * @param samples        uncompressed chunk stores
+     * @param dictionarySize the maximum size of the dictionary in bytes
+     */
+    public static byte[] train(List<byte[]> samples, int dictionarySize) {
+        Map<Long, Segment> segments = Maps.newHashMap();
+        for (int sampleIndex = 0; sampleIndex < samples.size(); sampleIndex++) {
+            byte[] sample = samples.get(sampleIndex);
+            for (int offset = 0; offset + SEGMENT_LENGTH <= sample.length; offset += SEGMENT_STRIDE) {
+                long hash = hash(sample, offset);
+                Segment segment = segments.get(hash);
+                if (segment == null) {
+                    segments.put(hash, new Segment(sample, offset, sampleIndex));
+                } else if (segment.lastSample != sampleIndex) {
+                    // count every segment once per sample, so it is rewarded for being common across chunks
+                    segment.lastSample = sampleIndex;
+                    segment.count++;
+                }
+            }
+        }
+
+        List<Segment> common = Lists.newArrayList();
+        for (Segment segment : segments.values()) {
+            if (segment.count > 1) {
+                common.add(segment);
+            }
+        }
+        common.sort(Comparator.comparingInt((Segment segment) -> segment.count).reversed());
+
+        int segmentCount = Math.min(common.size(), dictionarySize / SEGMENT_LENGTH);
+        byte[] dictionary = new byte[segmentCount * SEGMENT_LENGTH];
+        for (int i = 0; i < segmentCount; i++) {
+            Segment segment = common.get(i);
+            System.arraycopy(segment.sample, segment.offset, dictionary,
+                    dictionary.length - (i + 1) * SEGMENT_LENGTH, SEGMENT_LENGTH);
+        }
+        return dictionary;
+    }
+
+    private static long hash(byte[] data, int offset) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = offset; i < offset + SEGMENT_LENGTH; i++) {
+            hash ^= data[i];
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static final class Segment {
+        private final byte[] sample;
+        private final int offset;
+        private int lastSample;
+        private int count = 1;
+
+        Segment(byte[] sample, int offset, int sampleIndex) {
+            this.sample = sample;
+            this.offset = offset;
+            this.lastSample = sampleIndex;
+        }
+    }
+}
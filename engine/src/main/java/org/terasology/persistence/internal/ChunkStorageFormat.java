@@ -0,0 +1,23 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+/**
+ * The way chunks are laid out in the world directory of a save.
+ */
+public enum ChunkStorageFormat {
+    /**
+     * One file per chunk.
+     */
+    FILES,
+    /**
+     * One zip file per {@link StoragePathProvider#getChunkZipPosition} with one entry per chunk. Every save rewrites
+     * the zip files of all changed chunks.
+     */
+    ZIPS,
+    /**
+     * One {@link RegionFile} per {@link RegionFile#REGION_DIM}^3 chunks. Saves only write the changed chunks. Chunks
+     * stored in the other formats are still readable and get migrated when a save is opened for writing.
+     */
+    REGIONS
+}
@@ -22,6 +22,7 @@
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.chunks.internal.ChunkSerializer;
 
 /**
@@ -40,6 +41,9 @@ final class ChunkStoreInternal implements ChunkStore {
         this.entityManager = entityManager;
 
         this.chunk = ChunkSerializer.decode(chunkData, blockManager, extraDataManager);
+        if (chunk instanceof ChunkImpl) {
+            ((ChunkImpl) chunk).markSaved();
+        }
         this.entityStore = chunkData.getStore();
     }
 
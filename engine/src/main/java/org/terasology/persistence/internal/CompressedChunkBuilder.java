@@ -20,11 +20,8 @@
 import org.terasology.protobuf.EntityData;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Provides an easy to get a compressed version of a chunk. Either the chunk most have a snapshot of it's state
@@ -37,6 +34,7 @@ public class CompressedChunkBuilder {
     private boolean viaSnapshot;
     private byte[] result;
     private Set<EntityRef> storedEntities;
+    private ChunkCodecs chunkCodecs;
 
     /**
      *
@@ -44,16 +42,18 @@ public class CompressedChunkBuilder {
      * @param chunkUnloaded if true the chunk data will be used directly.  If deactivate is false then the chunk will be
      *                      but in snapshot mode so that concurrent modifications (and possibly future unload) is
      *                      possible.
+     * @param chunkCodecs   used to compress the chunk
      */
     public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk,
                                   Collection<EntityRef> entitiesToSave,
-                                  boolean chunkUnloaded) {
+                                  boolean chunkUnloaded, ChunkCodecs chunkCodecs) {
         EntityStorer storer = new EntityStorer(entityManager);
         entitiesToSave.stream().filter(EntityRef::isPersistent).forEach(storer::store);
         storedEntities = storer.getStoredEntities();
         this.entityStore = storer.finaliseStore();
 
         this.chunk = chunk;
+        this.chunkCodecs = chunkCodecs;
         this.viaSnapshot = !chunkUnloaded;
         if (viaSnapshot) {
             this.chunk.createSnapshot();
@@ -65,10 +65,13 @@ public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk
      * @param entityStore encoded entities to be stored.
      * @param chunk       chunk for which {@link ChunkImpl#createSnapshot()} has been called.
      * @param viaSnapshot specifies if the previously taken snapshot will be encoded or if
+     * @param chunkCodecs used to compress the chunk
      */
-    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot) {
+    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot,
+                                  ChunkCodecs chunkCodecs) {
         this.entityStore = entityStore;
         this.chunk = chunk;
+        this.chunkCodecs = chunkCodecs;
         this.viaSnapshot = viaSnapshot;
     }
 
@@ -83,20 +86,19 @@ public synchronized byte[] buildEncodedChunk() {
             }
             encoded.setStore(entityStore);
             EntityData.ChunkStore store = encoded.build();
-            result = compressChunkStore(store);
+            result = chunkCodecs.encode(store.toByteArray());
         }
         return result;
     }
 
-    private byte[] compressChunkStore(EntityData.ChunkStore store) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            store.writeTo(gzipOut);
-        } catch (IOException e) {
-            // as no real IO is involved this should not happen
-            throw new RuntimeException(e);
+    /**
+     * @return the estimated number of bytes this builder keeps alive until the save transaction is done
+     */
+    public synchronized int getEstimatedMemoryConsumptionInBytes() {
+        if (result != null) {
+            return result.length;
         }
-        return baos.toByteArray();
+        return chunk.getEstimatedMemoryConsumptionInBytes();
     }
 
     public Set<EntityRef> getStoredEntities() {
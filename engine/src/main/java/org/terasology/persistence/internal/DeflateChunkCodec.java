@@ -0,0 +1,161 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses chunks with zlib, using a preset dictionary that is shared by all chunks of a save.
+ * <p>
+ * Chunks of a world repeat the same protobuf structure and many of the same block runs, which a single chunk is too
+ * small to learn. A dictionary trained from the first chunks that get compressed makes the following chunks a lot
+ * smaller. Until enough chunks were sampled, chunks are compressed without a dictionary. The dictionary is written
+ * once and never changes, as zlib only records its checksum in the compressed data.
+ *
+ * @see ChunkDictionaryTrainer
+ */
+public class DeflateChunkCodec implements ChunkCodec {
+
+    public static final String NAME = "deflate";
+    static final byte ID = 2;
+
+    private static final Logger logger = LoggerFactory.getLogger(DeflateChunkCodec.class);
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int TRAINING_SAMPLES = 128;
+
+    private final int level;
+    private final Path dictionaryFile;
+    private volatile byte[] dictionary;
+    private volatile int dictionaryId;
+    private final List<byte[]> trainingSamples = Lists.newArrayList();
+
+    /**
+     * @param dictionaryFile the file the dictionary gets loaded from, or stored to once it is trained. If null, no
+     *                       dictionary will be used.
+     */
+    public DeflateChunkCodec(int level, Path dictionaryFile) {
+        this.level = level;
+        this.dictionaryFile = dictionaryFile;
+        if (dictionaryFile != null && Files.isRegularFile(dictionaryFile)) {
+            try {
+                setDictionary(Files.readAllBytes(dictionaryFile));
+            } catch (IOException e) {
+                logger.error("Failed to read chunk dictionary {}", dictionaryFile, e);
+            }
+        }
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * @return the dictionary in use, or null if none is trained yet
+     */
+    public byte[] getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        byte[] currentDictionary = dictionary;
+        if (currentDictionary == null && dictionaryFile != null) {
+            sample(data);
+            currentDictionary = dictionary;
+        }
+        Deflater deflater = new Deflater(level);
+        try {
+            if (currentDictionary != null) {
+                deflater.setDictionary(currentDictionary);
+            }
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, data.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        byte[] result = new byte[uncompressedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            int resultLength = inflater.inflate(result);
+            if (inflater.needsDictionary()) {
+                if (dictionary == null || (int) inflater.getAdler() != dictionaryId) {
+                    throw new IOException("Chunk was compressed with an unknown dictionary");
+                }
+                inflater.setDictionary(dictionary);
+                resultLength += inflater.inflate(result, resultLength, uncompressedLength - resultLength);
+            }
+            if (resultLength != uncompressedLength || !inflater.finished()) {
+                throw new IOException("Expected " + uncompressedLength + " bytes but got " + resultLength);
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private synchronized void sample(byte[] data) {
+        if (dictionary != null) {
+            return;
+        }
+        trainingSamples.add(data);
+        if (trainingSamples.size() < TRAINING_SAMPLES) {
+            return;
+        }
+        byte[] trained = ChunkDictionaryTrainer.train(trainingSamples, DICTIONARY_SIZE);
+        trainingSamples.clear();
+        try {
+            Path tempFile = dictionaryFile.resolveSibling(dictionaryFile.getFileName() + ".tmp");
+            Files.createDirectories(dictionaryFile.getParent());
+            Files.write(tempFile, trained);
+            Files.move(tempFile, dictionaryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // chunks compressed with a dictionary that is not stored could not be read again
+            logger.error("Failed to store chunk dictionary {}, trying again later", dictionaryFile, e);
+            return;
+        }
+        setDictionary(trained);
+        logger.info("Trained a chunk dictionary of {} bytes", trained.length);
+    }
+
+    private void setDictionary(byte[] newDictionary) {
+        Adler32 adler = new Adler32();
+        adler.update(newDictionary);
+        dictionaryId = (int) adler.getValue();
+        dictionary = newDictionary;
+    }
+}
@@ -0,0 +1,64 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The GZIP compression that was used for all chunks before {@link ChunkCodec}s were introduced.
+ * <p>
+ * Data compressed by this codec is written without a {@link ChunkCodecs} header, so that saves stay readable by older
+ * versions.
+ */
+public class GzipChunkCodec implements ChunkCodec {
+
+    public static final String NAME = "gzip";
+    static final byte ID = 0;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+            gzipOut.write(data);
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new RuntimeException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        byte[] result = new byte[uncompressedLength];
+        try (InputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+            ByteStreams.readFully(gzipIn, result);
+        }
+        return result;
+    }
+
+    /**
+     * Decompresses data of unknown uncompressed length, as found in chunks stored without a header.
+     */
+    byte[] decompress(byte[] data) throws IOException {
+        try (InputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return ByteStreams.toByteArray(gzipIn);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A pure Java implementation of the LZ4 block format.
+ * <p>
+ * It compresses worse than {@link GzipChunkCodec}, but both compression and decompression are several times faster,
+ * which matters when many chunks are saved or loaded at once.
+ */
+public class Lz4ChunkCodec implements ChunkCodec {
+
+    public static final String NAME = "lz4";
+    static final byte ID = 1;
+
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_LOG = 14;
+    private static final int MAX_OFFSET = 0xFFFF;
+    /**
+     * The last bytes of a block are always literals.
+     */
+    private static final int LAST_LITERALS = 5;
+    /**
+     * No match may start within the last bytes of a block.
+     */
+    private static final int MATCH_FIND_LIMIT = 12;
+    private static final int SKIP_TRIGGER = 6;
+    private static final int RUN_MASK = 0xF;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] src) {
+        int length = src.length;
+        byte[] dst = new byte[length + length / 255 + 16];
+        // positions are stored plus one, so that 0 marks an empty slot
+        int[] hashTable = new int[1 << HASH_LOG];
+        int anchor = 0;
+        int ip = 0;
+        int op = 0;
+        int matchFindLimit = length - MATCH_FIND_LIMIT;
+        int matchLengthLimit = length - LAST_LITERALS;
+
+        while (ip < matchFindLimit) {
+            int sequence = readInt(src, ip);
+            int hash = hash(sequence);
+            int ref = hashTable[hash] - 1;
+            hashTable[hash] = ip + 1;
+            if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                // step faster through data that does not compress
+                ip += 1 + ((ip - anchor) >>> SKIP_TRIGGER);
+                continue;
+            }
+
+            while (ip > anchor && ref > 0 && src[ip - 1] == src[ref - 1]) {
+                ip--;
+                ref--;
+            }
+            int matchLength = MIN_MATCH;
+            while (ip + matchLength < matchLengthLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                matchLength++;
+            }
+
+            op = writeLiterals(src, anchor, ip - anchor, matchLength - MIN_MATCH, dst, op);
+            int offset = ip - ref;
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> 8);
+            op = writeLength(matchLength - MIN_MATCH, dst, op);
+
+            ip += matchLength;
+            anchor = ip;
+        }
+        op = writeLiterals(src, anchor, length - anchor, 0, dst, op);
+        return Arrays.copyOf(dst, op);
+    }
+
+    @Override
+    public byte[] decompress(byte[] src, int offset, int length, int uncompressedLength) throws IOException {
+        byte[] dst = new byte[uncompressedLength];
+        int ip = offset;
+        int end = offset + length;
+        int op = 0;
+        try {
+            while (ip < end) {
+                int token = src[ip++] & 0xFF;
+
+                int literalLength = token >>> 4;
+                if (literalLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literalLength += b;
+                    } while (b == 0xFF);
+                }
+                if (ip + literalLength > end || op + literalLength > uncompressedLength) {
+                    throw new IOException("Literals exceed the block");
+                }
+                System.arraycopy(src, ip, dst, op, literalLength);
+                ip += literalLength;
+                op += literalLength;
+                if (ip == end) {
+                    break;
+                }
+
+                int matchOffset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+                ip += 2;
+                int ref = op - matchOffset;
+                if (matchOffset == 0 || ref < 0) {
+                    throw new IOException("Invalid match offset " + matchOffset);
+                }
+                int matchLength = token & RUN_MASK;
+                if (matchLength == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 0xFF);
+                }
+                matchLength += MIN_MATCH;
+                if (op + matchLength > uncompressedLength) {
+                    throw new IOException("Match exceeds the block");
+                }
+                if (matchOffset >= matchLength) {
+                    System.arraycopy(dst, ref, dst, op, matchLength);
+                    op += matchLength;
+                } else {
+                    // overlapping match, repeats the last matchOffset bytes
+                    for (int i = 0; i < matchLength; i++) {
+                        dst[op++] = dst[ref++];
+                    }
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated block", e);
+        }
+        if (op != uncompressedLength) {
+            throw new IOException("Expected " + uncompressedLength + " bytes but got " + op);
+        }
+        return dst;
+    }
+
+    private static int writeLiterals(byte[] src, int start, int literalLength, int matchLengthToken, byte[] dst, int op) {
+        int token = Math.min(literalLength, RUN_MASK) << 4 | Math.min(matchLengthToken, RUN_MASK);
+        dst[op++] = (byte) token;
+        op = writeLength(literalLength, dst, op);
+        System.arraycopy(src, start, dst, op, literalLength);
+        return op + literalLength;
+    }
+
+    /**
+     * Writes the bytes that follow the token if the length does not fit into it.
+     */
+    private static int writeLength(int length, byte[] dst, int op) {
+        if (length >= RUN_MASK) {
+            int remaining = length - RUN_MASK;
+            while (remaining >= 0xFF) {
+                dst[op++] = (byte) 0xFF;
+                remaining -= 0xFF;
+            }
+            dst[op++] = (byte) remaining;
+        }
+        return op;
+    }
+
+    private static int readInt(byte[] src, int index) {
+        return (src[index] & 0xFF) | (src[index + 1] & 0xFF) << 8 | (src[index + 2] & 0xFF) << 16 | src[index + 3] << 24;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
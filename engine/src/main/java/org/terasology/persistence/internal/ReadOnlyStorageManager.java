@@ -16,6 +16,8 @@
 
 package org.terasology.persistence.internal;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.module.ModuleEnvironment;
@@ -34,19 +36,35 @@
  */
 public final class ReadOnlyStorageManager extends AbstractStorageManager {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReadOnlyStorageManager.class);
+
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
-        this(savePath, environment, entityManager, blockManager, extraDataManager, true);
+        this(savePath, environment, entityManager, blockManager, extraDataManager, ChunkStorageFormat.REGIONS);
     }
 
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
-        super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, extraDataManager,
+                storeChunksInZips ? ChunkStorageFormat.ZIPS : ChunkStorageFormat.FILES);
+    }
+
+    /**
+     * @param chunkStorageFormat {@link ChunkStorageFormat#REGIONS} reads chunks of all formats
+     */
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                                  ChunkStorageFormat chunkStorageFormat) {
+        super(savePath, environment, entityManager, blockManager, extraDataManager, chunkStorageFormat, true);
     }
 
     @Override
     public void finishSavingAndShutdown() {
-        // don't care
+        try {
+            getRegionFiles().close();
+        } catch (IOException e) {
+            logger.error("Failed to close region files", e);
+        }
     }
 
     @Override
@@ -17,9 +17,13 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.math.IntMath;
+import gnu.trove.procedure.TLongProcedure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.config.UniverseConfig;
 import org.terasology.engine.ComponentSystemManager;
 import org.terasology.engine.Time;
@@ -36,6 +40,8 @@
 import org.terasology.game.Game;
 import org.terasology.game.GameManifest;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.JomlUtil;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.module.Module;
@@ -60,18 +66,20 @@
 import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkProvider;
-import org.terasology.world.chunks.ManagedChunk;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.internal.WorldInfo;
 
 import java.io.IOException;
+import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -79,6 +87,7 @@
 
 public final class ReadWriteStorageManager extends AbstractStorageManager implements EntityDestroySubscriber, EntityChangeSubscriber, DelayedEntityRefFactory {
     private static final Logger logger = LoggerFactory.getLogger(ReadWriteStorageManager.class);
+    private static final int MAX_OWNER_DEPTH = 16;
 
     private final TaskMaster<Task> saveThreadManager;
     private final SaveTransactionHelper saveTransactionHelper;
@@ -96,6 +105,10 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
     private final Lock worldDirectoryReadLock = worldDirectoryLock.readLock();
     private final Lock worldDirectoryWriteLock = worldDirectoryLock.writeLock();
     private SaveTransaction saveTransaction;
+    /**
+     * The change counts of the loaded chunks in {@link #saveTransaction}, to mark them as saved once it is written.
+     */
+    private final Map<ChunkImpl, Integer> savingChunkChangeCounts = Maps.newHashMap();
     private Config config;
 
     /**
@@ -103,6 +116,11 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
      */
     private Long nextAutoSave;
     private boolean saveRequested;
+    /**
+     * Number of transactions left of the incremental auto save that is in progress, or 0 if none is.
+     */
+    private int remainingIncrementalSaves;
+    private final SaveMetrics saveMetrics = new SaveMetrics();
     private ConcurrentMap<Vector3i, CompressedChunkBuilder> unloadedAndUnsavedChunkMap = Maps.newConcurrentMap();
     private ConcurrentMap<Vector3i, CompressedChunkBuilder> unloadedAndSavingChunkMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndUnsavedPlayerMap = Maps.newConcurrentMap();
@@ -124,14 +142,24 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
             , ExtraBlockDataManager extraDataManager, RecordAndReplaySerializer recordAndReplaySerializer,
                                    RecordAndReplayUtils recordAndReplayUtils, RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
         this(savePath, environment, entityManager, blockManager, extraDataManager,
-            true, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+            getConfiguredChunkStorageFormat(), recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
     }
 
     ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                    BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips,
                                    RecordAndReplaySerializer recordAndReplaySerializer, RecordAndReplayUtils recordAndReplayUtils,
                             RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
-        super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, extraDataManager,
+                storeChunksInZips ? ChunkStorageFormat.ZIPS : ChunkStorageFormat.FILES,
+                recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+    }
+
+    ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                            BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                            ChunkStorageFormat chunkStorageFormat, RecordAndReplaySerializer recordAndReplaySerializer,
+                            RecordAndReplayUtils recordAndReplayUtils,
+                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) throws IOException {
+        super(savePath, environment, entityManager, blockManager, extraDataManager, chunkStorageFormat, false);
 
         entityManager.subscribeForDestruction(this);
         entityManager.subscribeForChanges(this);
@@ -141,6 +169,7 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
         this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
+        getChunkCodecs().setWriteCodec(config.getSystem().getChunkCodec());
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
                 .createCopyUsingCopyStrategy(EntityRef.class, new DelayedEntityRefCopyStrategy(this));
         this.entitySetDeltaRecorder = new EntitySetDeltaRecorder(this.entityRefReplacingComponentLibrary);
@@ -150,6 +179,11 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
 
     }
 
+    private static ChunkStorageFormat getConfiguredChunkStorageFormat() {
+        ChunkStorageFormat format = CoreRegistry.get(Config.class).getSystem().getChunkStorageFormat();
+        return format != null ? format : ChunkStorageFormat.REGIONS;
+    }
+
     private static EngineEntityManager createPrivateEntityManager(ComponentLibrary componentLibrary) {
         PojoEntityManager pojoEntityManager = new PojoEntityManager();
         pojoEntityManager.setComponentLibrary(componentLibrary);
@@ -164,6 +198,11 @@ public void finishSavingAndShutdown() {
         }
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        try {
+            getRegionFiles().close();
+        } catch (IOException e) {
+            logger.error("Failed to close region files", e);
+        }
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -172,8 +211,13 @@ private void checkSaveTransactionAndClearUpIfItIsDone() {
             if (result != null) {
                 Throwable t = saveTransaction.getResult().getCatchedThrowable();
                 if (t != null) {
+                    // the chunks keep their unsaved changes
+                    savingChunkChangeCounts.clear();
                     throw new RuntimeException("Saving failed", t);
                 }
+                savingChunkChangeCounts.forEach(ChunkImpl::markSaved);
+                savingChunkChangeCounts.clear();
+                saveMetrics.recordWrite(saveTransaction.getDurationMs(), saveTransaction.getWrittenChunkBytes());
                 saveTransaction = null;
             }
             unloadedAndSavingChunkMap.clear();
@@ -213,8 +257,14 @@ protected EntityData.PlayerStore loadPlayerStoreData(String playerId) {
         }
     }
 
-    private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBuilder,
-                                            ChunkProvider chunkProvider) {
+    /**
+     * @param incremental if true, only loaded chunks that must be stored together with the global store and at most
+     *                    {@link SystemConfig#getChunksPerIncrementalSave()} other loaded chunks with changed blocks get
+     *                    added. Otherwise all loaded chunks get added.
+     * @return the number of loaded chunks with changed blocks that were left for a later transaction
+     */
+    private int addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBuilder,
+                                           ChunkProvider chunkProvider, boolean incremental) {
         unloadedAndSavingChunkMap.clear();
         /*
          * New entries might be added concurrently. By using putAll + clear to transfer entries we might loose new
@@ -228,16 +278,79 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
             unsavedEntryIterator.remove();
         }
 
-        chunkProvider.getAllChunks().stream().filter(ManagedChunk::isReady).forEach(chunk -> {
-            // If there is a newer undisposed version of the chunk,we don't need to save the disposed version:
-            unloadedAndSavingChunkMap.remove(chunk.getPosition());
+        Set<Vector3i> chunksWithChangedEntities = incremental ? getChunksWithChangedEntities() : Collections.emptySet();
+        int chunkBudget = Math.max(1, config.getSystem().getChunksPerIncrementalSave());
+        int deferredChunks = 0;
+        for (Chunk chunk : chunkProvider.getAllChunks()) {
+            if (!chunk.isReady()) {
+                continue;
+            }
+            Vector3i chunkPos = chunk.getPosition();
             ChunkImpl chunkImpl = (ChunkImpl) chunk;  // this storage manager can only work with ChunkImpls
-            saveTransactionBuilder.addLoadedChunk(chunk.getPosition(), chunkImpl);
-        });
+            // If there is a newer undisposed version of the chunk,we don't need to save the disposed version:
+            boolean replacesUnloadedChunk = unloadedAndSavingChunkMap.remove(chunkPos) != null;
+            boolean addChunk = !incremental || replacesUnloadedChunk || chunksWithChangedEntities.contains(chunkPos);
+            if (!addChunk && chunkImpl.hasUnsavedChanges()) {
+                if (chunkBudget > 0) {
+                    chunkBudget--;
+                    addChunk = true;
+                } else {
+                    deferredChunks++;
+                }
+            }
+            if (addChunk) {
+                savingChunkChangeCounts.put(chunkImpl, chunkImpl.getChangeCount());
+                saveTransactionBuilder.addLoadedChunk(chunkPos, chunkImpl);
+            } else {
+                saveTransactionBuilder.addSkippedChunk(chunkPos);
+            }
+        }
 
         for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : unloadedAndSavingChunkMap.entrySet()) {
             saveTransactionBuilder.addUnloadedChunk(entry.getKey(), entry.getValue());
         }
+        return deferredChunks;
+    }
+
+    /**
+     * Chunks store the persistent entities located within them. A chunk that contained or contains an entity which
+     * changed since the last save, or whose owner is such an entity, must therefore be part of the same transaction as
+     * the global store, or the entity would end up twice or not at all in the save.
+     * <br><br>
+     * Must only be called while no save transaction is running, as it reads the last saved state from the private
+     * entity manager.
+     *
+     * @return the positions of these chunks
+     */
+    private Set<Vector3i> getChunksWithChangedEntities() {
+        Set<Vector3i> chunkPositions = Sets.newHashSet();
+        TLongProcedure addChunksOfEntity = entityId -> {
+            if (privateEntityManager.isActiveEntity(entityId)) {
+                addChunkOfRootOwner(privateEntityManager.getEntity(entityId), chunkPositions);
+            }
+            addChunkOfRootOwner(getEntityManager().getEntity(entityId), chunkPositions);
+            return true;
+        };
+        entitySetDeltaRecorder.getEntityDeltas().forEachKey(addChunksOfEntity);
+        entitySetDeltaRecorder.getDestroyedEntities().forEach(addChunksOfEntity);
+        entitySetDeltaRecorder.getDeactivatedEntities().forEach(addChunksOfEntity);
+        return chunkPositions;
+    }
+
+    private static void addChunkOfRootOwner(EntityRef entity, Set<Vector3i> chunkPositions) {
+        EntityRef root = entity;
+        for (int depth = 0; depth < MAX_OWNER_DEPTH && root.getOwner().exists(); depth++) {
+            root = root.getOwner();
+        }
+        if (!root.exists() || !root.isPersistent()) {
+            return;
+        }
+        LocationComponent location = root.getComponent(LocationComponent.class);
+        if (location != null) {
+            Vector3f pos = location.getWorldPosition();
+            chunkPositions.add(JomlUtil.from(ChunkMath.calcChunkPos((int) pos.x, (int) pos.y, (int) pos.z,
+                    new org.joml.Vector3i())));
+        }
     }
 
     @Override
@@ -262,20 +375,30 @@ private void waitForCompletionOfPreviousSave() {
         checkSaveTransactionAndClearUpIfItIsDone();
     }
 
-    private SaveTransaction createSaveTransaction() {
+    /**
+     * @param incremental whether loaded chunks without changes get skipped and the number of loaded chunks with
+     *                    changes is limited, see {@link #addChunksToSaveTransaction}.
+     */
+    private SaveTransaction createSaveTransaction(boolean incremental) {
+        long startTime = System.currentTimeMillis();
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock,
+                entitySetDeltaRecorder, getChunkStorageFormat(), getStoragePathProvider(), getChunkCodecs(),
+                getRegionFiles(), worldDirectoryWriteLock,
                 recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
 
-        addChunksToSaveTransaction(saveTransactionBuilder, chunkProvider);
+        int deferredChunks = addChunksToSaveTransaction(saveTransactionBuilder, chunkProvider, incremental);
         addPlayersToSaveTransaction(saveTransactionBuilder, networkSystem);
         addGlobalStoreBuilderToSaveTransaction(saveTransactionBuilder);
         addGameManifestToSaveTransaction(saveTransactionBuilder);
 
-        return saveTransactionBuilder.build();
+        SaveTransaction transaction = saveTransactionBuilder.build();
+        saveMetrics.recordSnapshot(System.currentTimeMillis() - startTime,
+                saveTransactionBuilder.getEstimatedChunkMemoryConsumptionInBytes(),
+                saveTransactionBuilder.getChunkCount(), deferredChunks);
+        return transaction;
     }
 
 
@@ -328,7 +451,7 @@ public void deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
         ChunkImpl chunkImpl = (ChunkImpl) chunk; // storage manager only works with ChunkImpl
         unloadedAndUnsavedChunkMap.put(chunk.getPosition(), new CompressedChunkBuilder(getEntityManager(), chunkImpl,
-                entitiesOfChunk, true));
+                entitiesOfChunk, true, getChunkCodecs()));
 
         entitiesOfChunk.forEach(this::deactivateOrDestroyEntityRecursive);
     }
@@ -393,7 +516,7 @@ public void update() {
         checkSaveTransactionAndClearUpIfItIsDone();
         if (saveRequested) {
             startSaving();
-        } else if (isSavingNecessary()) {
+        } else if (remainingIncrementalSaves > 0 || isSavingNecessary()) {
             startAutoSaving();
         }
 
@@ -413,7 +536,8 @@ private void startSaving() {
         }
 
         saveRequested = false;
-        saveTransaction = createSaveTransaction();
+        remainingIncrementalSaves = 0;
+        saveTransaction = createSaveTransaction(false);
         saveThreadManager.offer(saveTransaction);
 
         if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.NOT_ACTIVATED) {
@@ -428,7 +552,13 @@ private void startSaving() {
         logger.info("Saving - Snapshot created: Writing phase starts");
     }
 
+    /**
+     * Starts an auto save. With incremental saving enabled, loaded chunks with changes get spread over several smaller
+     * transactions, which get started one after the other by {@link #update()}. Each of them is a complete save that
+     * is merged on its own, so a crash in between leaves a consistent save behind.
+     */
     private void startAutoSaving() {
+        boolean incremental = config.getSystem().isIncrementalSaving();
         logger.info("Auto Saving - Creating game snapshot");
         PerformanceMonitor.startActivity("Auto Saving");
         ComponentSystemManager componentSystemManager = CoreRegistry.get(ComponentSystemManager.class);
@@ -436,17 +566,30 @@ private void startAutoSaving() {
             sys.preAutoSave();
         }
 
-        saveTransaction = createSaveTransaction();
+        saveTransaction = createSaveTransaction(incremental);
         saveThreadManager.offer(saveTransaction);
 
         for (ComponentSystem sys : componentSystemManager.getAllSystems()) {
             sys.postAutoSave();
         }
 
-        scheduleNextAutoSave();
+        int deferredChunks = saveMetrics.getPendingChunks();
+        if (deferredChunks == 0) {
+            remainingIncrementalSaves = 0;
+        } else if (remainingIncrementalSaves == 0) {
+            // chunks that keep changing would otherwise prevent the incremental save from ever finishing
+            int chunksPerSave = Math.max(1, config.getSystem().getChunksPerIncrementalSave());
+            remainingIncrementalSaves = IntMath.divide(deferredChunks, chunksPerSave, RoundingMode.CEILING);
+        } else {
+            remainingIncrementalSaves--;
+        }
+        if (remainingIncrementalSaves == 0) {
+            scheduleNextAutoSave();
+        }
         PerformanceMonitor.endActivity();
         entitySetDeltaRecorder = new EntitySetDeltaRecorder(this.entityRefReplacingComponentLibrary);
-        logger.info("Auto Saving - Snapshot created: Writing phase starts");
+        logger.info("Auto Saving - Snapshot of {} chunks created in {} ms, {} changed chunks left: Writing phase starts",
+                saveMetrics.getLastChunkCount(), saveMetrics.getLastSnapshotTimeMs(), deferredChunks);
     }
 
     private boolean isSavingNecessary() {
@@ -480,6 +623,10 @@ private void saveGamePreviewImage() {
         }
     }
 
+    public SaveMetrics getSaveMetrics() {
+        return saveMetrics;
+    }
+
     @Override
     public boolean isSaving() {
         return saveTransaction != null && saveTransaction.getResult() == null;
@@ -488,8 +635,12 @@ public boolean isSaving() {
     @Override
     public void checkAndRepairSaveIfNecessary() throws IOException {
         saveTransactionHelper.cleanupSaveTransactionDirectory();
+        boolean regions = getChunkStorageFormat() == ChunkStorageFormat.REGIONS;
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
-            saveTransactionHelper.mergeChanges();
+            saveTransactionHelper.mergeChanges(regions ? getRegionFiles() : null);
+        }
+        if (regions) {
+            getRegionFiles().migrate();
         }
     }
 
@@ -503,6 +654,7 @@ public void deleteWorld() {
         unloadedAndSavingPlayerMap.clear();
 
         try {
+            getRegionFiles().close();
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
         } catch (IOException e) {
             logger.error("Failed to purge chunks", e);
@@ -0,0 +1,193 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Stores the compressed chunks of a cube of {@link #REGION_DIM}^3 chunk positions in a single file.
+ * <p>
+ * The file is divided into sectors of {@link #SECTOR_SIZE} bytes. The first sectors hold the header, a table with the
+ * first sector and the length in bytes of every chunk, which is memory mapped. The chunks follow in the remaining
+ * sectors. A chunk that still fits into its sectors is overwritten in place, otherwise it is moved to the first free
+ * range of sectors that is large enough, which may be at the end of the file.
+ * <p>
+ * Chunks are written in place, so a write that gets interrupted can corrupt the previous version of that chunk. The
+ * save transaction keeps the chunks of a save as separate files until they were written and flushed, so an
+ * interrupted write gets repeated on the next start.
+ */
+public class RegionFile implements Closeable {
+
+    public static final int REGION_DIM = 16;
+    public static final int SECTOR_SIZE = 4096;
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionFile.class);
+    private static final int ENTRY_SIZE = 2 * Integer.BYTES;
+    private static final int HEADER_SIZE = REGION_DIM * REGION_DIM * REGION_DIM * ENTRY_SIZE;
+    private static final int HEADER_SECTORS = HEADER_SIZE / SECTOR_SIZE;
+
+    private final Path path;
+    private final boolean readOnly;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final BitSet usedSectors = new BitSet();
+
+    /**
+     * Opens the region file at the given path, and creates it if it does not exist and readOnly is false.
+     */
+    public RegionFile(Path path, boolean readOnly) throws IOException {
+        this.path = path;
+        this.readOnly = readOnly;
+        if (readOnly) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } else {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        }
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                if (readOnly) {
+                    throw new IOException("Region file " + path + " is truncated");
+                }
+                channel.write(ByteBuffer.allocate((int) (HEADER_SIZE - size)), size);
+                size = HEADER_SIZE;
+            }
+            header = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            usedSectors.set(0, HEADER_SECTORS);
+            readAllocation(size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readAllocation(long fileSize) {
+        for (int index = 0; index < HEADER_SIZE / ENTRY_SIZE; index++) {
+            int sector = getSector(index);
+            if (sector == 0) {
+                continue;
+            }
+            int length = getLength(index);
+            int sectors = getSectorCount(length);
+            if (sector < HEADER_SECTORS || length < 0 || (long) sector * SECTOR_SIZE + length > fileSize
+                    || usedSectors.get(sector, sector + sectors).cardinality() != 0) {
+                logger.warn("Dropping chunk {} with invalid location from region file {}", index, path);
+                if (!readOnly) {
+                    setEntry(index, 0, 0);
+                }
+                continue;
+            }
+            usedSectors.set(sector, sector + sectors);
+        }
+    }
+
+    /**
+     * @return the index of the given chunk position within its region
+     */
+    public static int getIndex(Vector3ic chunkPos) {
+        int x = Math.floorMod(chunkPos.x(), REGION_DIM);
+        int y = Math.floorMod(chunkPos.y(), REGION_DIM);
+        int z = Math.floorMod(chunkPos.z(), REGION_DIM);
+        return (y * REGION_DIM + z) * REGION_DIM + x;
+    }
+
+    /**
+     * @return the stored chunk, or null if the chunk is not stored in this region
+     */
+    public synchronized byte[] read(int index) throws IOException {
+        int sector = getSector(index);
+        if (sector == 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(getLength(index));
+        long position = (long) sector * SECTOR_SIZE;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Chunk " + index + " exceeds region file " + path);
+            }
+        }
+        return buffer.array();
+    }
+
+    public synchronized void write(int index, byte[] data) throws IOException {
+        int sectors = getSectorCount(data.length);
+        int sector = getSector(index);
+        int oldSectors = sector != 0 ? getSectorCount(getLength(index)) : 0;
+        if (sectors > oldSectors) {
+            if (sector != 0) {
+                usedSectors.clear(sector, sector + oldSectors);
+            }
+            sector = allocate(sectors);
+        } else if (sectors < oldSectors) {
+            usedSectors.clear(sector + sectors, sector + oldSectors);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = (long) sector * SECTOR_SIZE;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        setEntry(index, sector, data.length);
+    }
+
+    /**
+     * Writes all changes to the storage device.
+     */
+    public synchronized void flush() throws IOException {
+        if (readOnly) {
+            return;
+        }
+        channel.force(false);
+        header.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return the first sector of a free range of the given length, marked as used
+     */
+    private int allocate(int sectors) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int end = usedSectors.nextSetBit(start);
+            if (end < 0 || end - start >= sectors) {
+                break;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+        usedSectors.set(start, start + sectors);
+        return start;
+    }
+
+    private int getSector(int index) {
+        return header.getInt(index * ENTRY_SIZE);
+    }
+
+    private int getLength(int index) {
+        return header.getInt(index * ENTRY_SIZE + Integer.BYTES);
+    }
+
+    private void setEntry(int index, int sector, int length) {
+        header.putInt(index * ENTRY_SIZE, sector);
+        header.putInt(index * ENTRY_SIZE + Integer.BYTES, length);
+    }
+
+    private static int getSectorCount(int length) {
+        return Math.max(1, (length + SECTOR_SIZE - 1) / SECTOR_SIZE);
+    }
+}
@@ -0,0 +1,169 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gives access to the {@link RegionFile}s of a world, and keeps the recently used ones open.
+ */
+public class RegionFiles implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionFiles.class);
+    private static final int MAX_OPEN_FILES = 64;
+
+    private final StoragePathProvider storagePathProvider;
+    private final boolean readOnly;
+    private final Map<Vector3ic, RegionFile> openFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    public RegionFiles(StoragePathProvider storagePathProvider, boolean readOnly) {
+        this.storagePathProvider = storagePathProvider;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * @return the stored chunk, or null if there is none
+     */
+    public synchronized byte[] read(Vector3ic chunkPos) throws IOException {
+        RegionFile regionFile = getRegionFile(storagePathProvider.getRegionPosition(chunkPos), false);
+        if (regionFile == null) {
+            return null;
+        }
+        return regionFile.read(RegionFile.getIndex(chunkPos));
+    }
+
+    /**
+     * Changes are not guaranteed to be on the storage device before {@link #flush()} got called.
+     */
+    public synchronized void write(Vector3ic chunkPos, byte[] data) throws IOException {
+        getRegionFile(storagePathProvider.getRegionPosition(chunkPos), true).write(RegionFile.getIndex(chunkPos), data);
+    }
+
+    public synchronized void flush() throws IOException {
+        for (RegionFile regionFile : openFiles.values()) {
+            regionFile.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (RegionFile regionFile : openFiles.values()) {
+            regionFile.close();
+        }
+        openFiles.clear();
+    }
+
+    /**
+     * Moves all chunks that are stored in chunk zips or single chunk files into region files. If the migration gets
+     * interrupted, it continues with the remaining files when called again.
+     *
+     * @return the number of migrated chunks
+     */
+    public synchronized int migrate() throws IOException {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return 0;
+        }
+        int migrated = 0;
+        try (DirectoryStream<Path> chunkZips = Files.newDirectoryStream(worldPath, "*.chunks.zip")) {
+            for (Path chunkZipPath : chunkZips) {
+                try (FileSystem chunkZip = FileSystems.newFileSystem(chunkZipPath, (ClassLoader) null)) {
+                    for (Path root : chunkZip.getRootDirectories()) {
+                        try (DirectoryStream<Path> chunks = Files.newDirectoryStream(root)) {
+                            for (Path chunkPath : chunks) {
+                                migrated += migrateChunk(chunkPath);
+                            }
+                        }
+                    }
+                }
+                // the zip may only be deleted once its chunks are safely stored in the regions
+                flush();
+                Files.delete(chunkZipPath);
+            }
+        }
+        try (DirectoryStream<Path> chunks = Files.newDirectoryStream(worldPath, "*.chunk")) {
+            for (Path chunkPath : chunks) {
+                migrated += migrateChunk(chunkPath);
+            }
+        }
+        flush();
+        try (DirectoryStream<Path> chunks = Files.newDirectoryStream(worldPath, "*.chunk")) {
+            for (Path chunkPath : chunks) {
+                Files.delete(chunkPath);
+            }
+        }
+        if (migrated > 0) {
+            logger.info("Migrated {} chunks to region files", migrated);
+        }
+        return migrated;
+    }
+
+    /**
+     * Writes the chunks of a save transaction into the region files and deletes the chunk files once the regions
+     * were flushed.
+     */
+    public synchronized void mergeChunkFiles(Path directory) throws IOException {
+        try (DirectoryStream<Path> chunks = Files.newDirectoryStream(directory, "*.chunk")) {
+            for (Path chunkPath : chunks) {
+                migrateChunk(chunkPath);
+            }
+        }
+        flush();
+        try (DirectoryStream<Path> chunks = Files.newDirectoryStream(directory, "*.chunk")) {
+            for (Path chunkPath : chunks) {
+                Files.delete(chunkPath);
+            }
+        }
+    }
+
+    private int migrateChunk(Path chunkPath) throws IOException {
+        Vector3i chunkPos = storagePathProvider.getChunkPositionFromFilename(chunkPath.getFileName().toString());
+        if (chunkPos == null) {
+            logger.warn("Skipping unexpected file {}", chunkPath);
+            return 0;
+        }
+        write(chunkPos, Files.readAllBytes(chunkPath));
+        return 1;
+    }
+
+    private RegionFile getRegionFile(Vector3ic regionPos, boolean create) throws IOException {
+        RegionFile regionFile = openFiles.get(regionPos);
+        if (regionFile == null) {
+            Path path = storagePathProvider.getRegionPath(regionPos);
+            if (!create && !Files.isRegularFile(path)) {
+                return null;
+            }
+            if (create) {
+                Files.createDirectories(path.getParent());
+            }
+            regionFile = new RegionFile(path, readOnly);
+            openFiles.put(new Vector3i(regionPos), regionFile);
+            closeEldestFiles();
+        }
+        return regionFile;
+    }
+
+    private void closeEldestFiles() throws IOException {
+        Iterator<RegionFile> iterator = openFiles.values().iterator();
+        while (openFiles.size() > MAX_OPEN_FILES) {
+            RegionFile eldest = iterator.next();
+            eldest.flush();
+            eldest.close();
+            iterator.remove();
+        }
+    }
+}
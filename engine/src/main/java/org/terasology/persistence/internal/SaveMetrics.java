@@ -0,0 +1,103 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+/**
+ * Statistics about the save transactions of a {@link ReadWriteStorageManager}.
+ * <p>
+ * The snapshot values are measured on the main thread when a transaction gets created, the write values on the saving
+ * thread once it is done. All values are updated from the main thread.
+ */
+public final class SaveMetrics {
+
+    private int transactionCount;
+    private long lastSnapshotTimeMs;
+    private long maxSnapshotTimeMs;
+    private long lastSnapshotMemory;
+    private long maxSnapshotMemory;
+    private int lastChunkCount;
+    private long lastWriteTimeMs;
+    private long maxWriteTimeMs;
+    private long lastWrittenChunkBytes;
+    private long totalWrittenChunkBytes;
+    private int pendingChunks;
+
+    void recordSnapshot(long timeMs, long memory, int chunkCount, int remainingChunks) {
+        lastSnapshotTimeMs = timeMs;
+        maxSnapshotTimeMs = Math.max(maxSnapshotTimeMs, timeMs);
+        lastSnapshotMemory = memory;
+        maxSnapshotMemory = Math.max(maxSnapshotMemory, memory);
+        lastChunkCount = chunkCount;
+        pendingChunks = remainingChunks;
+    }
+
+    void recordWrite(long timeMs, long writtenChunkBytes) {
+        transactionCount++;
+        lastWriteTimeMs = timeMs;
+        maxWriteTimeMs = Math.max(maxWriteTimeMs, timeMs);
+        lastWrittenChunkBytes = writtenChunkBytes;
+        totalWrittenChunkBytes += writtenChunkBytes;
+    }
+
+    /**
+     * @return the number of save transactions that finished successfully
+     */
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * @return the time the main thread spent creating the snapshot of the last transaction
+     */
+    public long getLastSnapshotTimeMs() {
+        return lastSnapshotTimeMs;
+    }
+
+    public long getMaxSnapshotTimeMs() {
+        return maxSnapshotTimeMs;
+    }
+
+    /**
+     * @return the estimated number of bytes of chunk data the last transaction kept alive until it was written
+     */
+    public long getLastSnapshotMemory() {
+        return lastSnapshotMemory;
+    }
+
+    public long getMaxSnapshotMemory() {
+        return maxSnapshotMemory;
+    }
+
+    /**
+     * @return the number of chunks written by the last transaction
+     */
+    public int getLastChunkCount() {
+        return lastChunkCount;
+    }
+
+    /**
+     * @return the time the saving thread spent writing and merging the last finished transaction
+     */
+    public long getLastWriteTimeMs() {
+        return lastWriteTimeMs;
+    }
+
+    public long getMaxWriteTimeMs() {
+        return maxWriteTimeMs;
+    }
+
+    public long getLastWrittenChunkBytes() {
+        return lastWrittenChunkBytes;
+    }
+
+    public long getTotalWrittenChunkBytes() {
+        return totalWrittenChunkBytes;
+    }
+
+    /**
+     * @return the number of loaded chunks with changes that are left for the next transactions of an incremental save
+     */
+    public int getPendingChunks() {
+        return pendingChunks;
+    }
+}
@@ -26,6 +26,7 @@
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.OwnershipHelper;
 import org.terasology.game.GameManifest;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.ChunkMath;
@@ -81,6 +82,7 @@ public class SaveTransaction extends AbstractTask {
     private final Map<String, PlayerStoreBuilder> loadedPlayers;
     private final Map<Vector3i, CompressedChunkBuilder> unloadedChunks;
     private final Map<Vector3i, ChunkImpl> loadedChunks;
+    private final Set<Vector3i> skippedChunks;
     private final GlobalStoreBuilder globalStoreBuilder;
 
     // processed data:
@@ -88,13 +90,18 @@ public class SaveTransaction extends AbstractTask {
     private Map<String, EntityData.PlayerStore> allPlayers;
     private Map<Vector3i, CompressedChunkBuilder> allChunks;
 
+    // statistics, published by the volatile write of the result:
+    private long writtenChunkBytes;
+    private long durationMs;
 
     // Save parameters:
-    private final boolean storeChunksInZips;
+    private final ChunkStorageFormat chunkStorageFormat;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
     private final SaveTransactionHelper saveTransactionHelper;
+    private final ChunkCodecs chunkCodecs;
+    private final RegionFiles regionFiles;
 
     //Record and Replay
     private RecordAndReplaySerializer recordAndReplaySerializer;
@@ -106,8 +113,10 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
                            Map<String, EntityData.PlayerStore> unloadedPlayers,
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
                            Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock,
+                           Set<Vector3i> skippedChunks, GameManifest gameManifest,
+                           ChunkStorageFormat chunkStorageFormat, StoragePathProvider storagePathProvider,
+                           ChunkCodecs chunkCodecs,
+                           RegionFiles regionFiles, Lock worldDirectoryWriteLock,
                            RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
@@ -117,11 +126,14 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
         this.loadedPlayers = loadedPlayers;
         this.unloadedChunks = unloadedChunks;
         this.loadedChunks = loadedChunks;
+        this.skippedChunks = skippedChunks;
         this.globalStoreBuilder = globalStoreBuilder;
         this.gameManifest = gameManifest;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = chunkStorageFormat;
         this.storagePathProvider = storagePathProvider;
         this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.chunkCodecs = chunkCodecs;
+        this.regionFiles = regionFiles;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
@@ -139,6 +151,7 @@ public void run() {
         if (isReplay()) {
             return;
         }
+        long startTime = System.currentTimeMillis();
         try {
             if (Files.exists(storagePathProvider.getUnmergedChangesPath())) {
                 // should not happen, as initialization should clean it up
@@ -155,6 +168,7 @@ public void run() {
             saveGameManifest();
             perpareChangesForMerge();
             mergeChanges();
+            durationMs = System.currentTimeMillis() - startTime;
             result = SaveTransactionResult.createSuccessResult();
             logger.info("Save game finished");
             saveRecordingData();
@@ -230,10 +244,31 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
             ChunkImpl chunk = chunkEntry.getValue();
             unsavedEntities.removeAll(entitiesToStore);
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
-                    entitiesToStore, false);
+                    entitiesToStore, false, chunkCodecs);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
         }
+
+        /*
+         * The entities of skipped chunks did not change since the chunk was stored the last time, so they are still
+         * in the chunk's existing store and must not end up in the global store as well.
+         */
+        OwnershipHelper ownershipHelper = new OwnershipHelper(privateEntityManager.getComponentLibrary());
+        for (Vector3i chunkPos : skippedChunks) {
+            Collection<EntityRef> entitiesInChunk = chunkPosToEntitiesMap.get(chunkPos);
+            if (entitiesInChunk != null) {
+                entitiesInChunk.forEach(entity -> removeWithOwnedEntities(entity, unsavedEntities, ownershipHelper));
+            }
+        }
+    }
+
+    private void removeWithOwnedEntities(EntityRef entity, Set<EntityRef> unsavedEntities,
+                                         OwnershipHelper ownershipHelper) {
+        if (unsavedEntities.remove(entity)) {
+            for (EntityRef ownedEntity : ownershipHelper.listOwnedEntities(entity)) {
+                removeWithOwnedEntities(ownedEntity, unsavedEntities, ownershipHelper);
+            }
+        }
     }
 
     /**
@@ -402,7 +437,7 @@ private void writeGlobalStore() throws IOException {
     private void writeChunkStores() throws IOException {
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
+        if (chunkStorageFormat == ChunkStorageFormat.ZIPS) {
             Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
@@ -417,6 +452,7 @@ private void writeChunkStores() throws IOException {
                 Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
                 CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
                 byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
+                writtenChunkBytes += compressedChunk.length;
                 try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
                     bos.write(compressedChunk);
                 }
@@ -445,10 +481,12 @@ public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
                 zip.close();
             }
         } else {
+            // chunks stored in regions get written into the region files when the changes are merged
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
                 CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
                 byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
+                writtenChunkBytes += compressedChunk.length;
                 Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
                 try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
                     out.write(compressedChunk);
@@ -465,6 +503,21 @@ public SaveTransactionResult getResult() {
         return result;
     }
 
+    /**
+     * @return the number of chunk bytes written, valid once {@link #getResult()} returns a result
+     */
+    public long getWrittenChunkBytes() {
+        return writtenChunkBytes;
+    }
+
+    /**
+     * @return the time in ms it took to write and merge the transaction, valid once {@link #getResult()} returns a
+     * successful result
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+
     private void saveGameManifest() {
         try {
             Path path = storagePathProvider.getGameManifestTempPath();
@@ -477,7 +530,7 @@ private void saveGameManifest() {
     private void mergeChanges() throws IOException {
         worldDirectoryWriteLock.lock();
         try {
-            saveTransactionHelper.mergeChanges();
+            saveTransactionHelper.mergeChanges(chunkStorageFormat == ChunkStorageFormat.REGIONS ? regionFiles : null);
         } finally {
             worldDirectoryWriteLock.unlock();
         }
@@ -16,6 +16,7 @@
 package org.terasology.persistence.internal;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.joml.Vector3i;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.game.GameManifest;
@@ -27,6 +28,7 @@
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -41,23 +43,29 @@ class SaveTransactionBuilder {
     private Map<String, PlayerStoreBuilder> loadedPlayers = Maps.newHashMap();
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
     private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
+    private Set<Vector3i> skippedChunks = Sets.newHashSet();
     private GlobalStoreBuilder globalStoreBuilder;
-    private final boolean storeChunksInZips;
+    private final ChunkStorageFormat chunkStorageFormat;
     private final StoragePathProvider storagePathProvider;
+    private final ChunkCodecs chunkCodecs;
+    private final RegionFiles regionFiles;
     private GameManifest gameManifest;
     private RecordAndReplaySerializer recordAndReplaySerializer;
     private RecordAndReplayUtils recordAndReplayUtils;
     private RecordAndReplayCurrentStatus recordAndReplayCurrentStatus;
 
     SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
-                           Lock worldDirectoryWriteLock, RecordAndReplaySerializer recordAndReplaySerializer,
+                           ChunkStorageFormat chunkStorageFormat, StoragePathProvider storagePathProvider,
+                           ChunkCodecs chunkCodecs, RegionFiles regionFiles, Lock worldDirectoryWriteLock,
+                           RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageFormat = chunkStorageFormat;
         this.storagePathProvider = storagePathProvider;
+        this.chunkCodecs = chunkCodecs;
+        this.regionFiles = regionFiles;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
@@ -85,10 +93,38 @@ void addLoadedChunk(final org.terasology.math.geom.Vector3i chunkPosition, final
         loadedChunks.put(JomlUtil.from(chunkPosition), chunk);
     }
 
+    /**
+     * Adds a loaded chunk that is not part of this transaction, because it or the entities within it did not change
+     * since it was stored the last time, or because it is left for a later transaction of an incremental save. The
+     * persistent entities within it stay in the chunk's existing store instead of being written to the global store.
+     */
+    void addSkippedChunk(final org.terasology.math.geom.Vector3i chunkPosition) {
+        skippedChunks.add(JomlUtil.from(chunkPosition));
+    }
+
+    int getChunkCount() {
+        return unloadedChunks.size() + loadedChunks.size();
+    }
+
+    /**
+     * @return the estimated number of bytes of chunk data the transaction keeps alive until it is done
+     */
+    long getEstimatedChunkMemoryConsumptionInBytes() {
+        long bytes = 0;
+        for (CompressedChunkBuilder builder : unloadedChunks.values()) {
+            bytes += builder.getEstimatedMemoryConsumptionInBytes();
+        }
+        for (ChunkImpl chunk : loadedChunks.values()) {
+            bytes += chunk.getEstimatedMemoryConsumptionInBytes();
+        }
+        return bytes;
+    }
+
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+                unloadedChunks, loadedChunks, skippedChunks, gameManifest, chunkStorageFormat, storagePathProvider,
+                chunkCodecs, regionFiles, worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils,
+                recordAndReplayCurrentStatus);
 
     }
 
@@ -67,9 +67,25 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
      * The write lock for the save directory should be acquired before this method gets called.
      */
     public void mergeChanges() throws IOException {
+        mergeChanges(null);
+    }
+
+    /**
+     * Like {@link #mergeChanges()}, but chunk files get written into the given region files instead of being moved.
+     *
+     * @param regionFiles the region files of the save, or null if chunks are not stored in regions
+     */
+    public void mergeChanges(RegionFiles regionFiles) throws IOException {
         final Path sourceDirectory = storagePathProvider.getUnmergedChangesPath();
         final Path targetDirectory = storagePathProvider.getStoragePathDirectory();
 
+        if (regionFiles != null) {
+            Path chunkDirectory = sourceDirectory.resolve(targetDirectory.relativize(storagePathProvider.getWorldPath()));
+            if (Files.isDirectory(chunkDirectory)) {
+                regionFiles.mergeChunkFiles(chunkDirectory);
+            }
+        }
+
         Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<Path>() {
             boolean atomicNotPossibleLogged;
 
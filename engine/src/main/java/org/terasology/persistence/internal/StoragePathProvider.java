@@ -32,6 +32,7 @@ public class StoragePathProvider {
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
+    private static final String CHUNK_DICTIONARY = "chunks.dict";
     private static final int CHUNK_ZIP_DIM = 32;
 
     private final Path storagePathDirectory;
@@ -130,6 +131,32 @@ public Vector3i getChunkZipPosition(Vector3ic chunkPos) {
         return result;
     }
 
+    /**
+     * @return the position of the chunk from a file name returned by {@link #getChunkFilename}, or null if it is no
+     *         such file name
+     */
+    public Vector3i getChunkPositionFromFilename(String filename) {
+        String[] parts = filename.split("\\.");
+        if (parts.length != 4 || !parts[3].equals("chunk")) {
+            return null;
+        }
+        try {
+            return new Vector3i(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Vector3i getRegionPosition(Vector3ic chunkPos) {
+        return new Vector3i(Math.floorDiv(chunkPos.x(), RegionFile.REGION_DIM),
+                Math.floorDiv(chunkPos.y(), RegionFile.REGION_DIM),
+                Math.floorDiv(chunkPos.z(), RegionFile.REGION_DIM));
+    }
+
+    public Path getRegionPath(Vector3ic regionPos) {
+        return worldPath.resolve(String.format("%d.%d.%d.region", regionPos.x(), regionPos.y(), regionPos.z()));
+    }
+
     public Path getChunkPath(Vector3ic chunkPos) {
         return worldPath.resolve(getChunkFilename(chunkPos));
     }
@@ -143,6 +170,10 @@ public Path getGameManifestTempPath() {
         return unfinishedSaveTransactionPath.resolve(GameManifest.DEFAULT_FILE_NAME);
     }
 
+    public Path getChunkDictionaryPath() {
+        return storagePathDirectory.resolve(CHUNK_DICTIONARY);
+    }
+
     public Path getUnfinishedSaveTransactionPath() {
         return unfinishedSaveTransactionPath;
     }
@@ -0,0 +1,287 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.logic;
+
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.BaseVector3f;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.rendering.assets.animation.MeshAnimation;
+import org.terasology.rendering.assets.animation.MeshAnimationFrame;
+import org.terasology.rendering.assets.skeletalmesh.Bone;
+import org.terasology.rendering.assets.skeletalmesh.SkeletalMesh;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The current pose of a skeletal mesh, kept apart from the bone entities.
+ * <p>
+ * The local transforms of the bones are stored as structure of arrays, indexed by the index of the bone in the mesh.
+ * The frames to blend are chosen on the main thread with {@link #setFrames}, while {@link #sample()} only touches the
+ * pose itself and may run on any thread. The bone entities are only updated by {@link #writeObservedBones()}, for the
+ * bones something else is attached to.
+ */
+final class SkeletonPose {
+
+    private final SkeletalMesh mesh;
+    private final Map<String, EntityRef> boneEntityMap;
+    private final int boneCount;
+    private final int[] parents;
+    /* Bone indices, each parent before its children */
+    private final int[] order;
+    private final int[] childBoneCounts;
+    private final EntityRef[] boneEntities;
+
+    private final float[] positions;
+    private final float[] rotations;
+    private final float[] scales;
+
+    private final Matrix4f[] objectTransforms;
+    private final Matrix4f[] inverseBindMatrices;
+    private final org.terasology.math.geom.Matrix4f[] skinningTransforms;
+    private final List<org.terasology.math.geom.Matrix4f> skinningTransformList;
+    private final boolean[] observed;
+
+    private MeshAnimation mappedAnimation;
+    private int[] animationBones = new int[0];
+    private MeshAnimationFrame frameA;
+    private MeshAnimationFrame frameB;
+    private float interpolation;
+
+    private final Quaternionf rotationA = new Quaternionf();
+    private final Quaternionf rotationB = new Quaternionf();
+    private final Matrix4f localTransform = new Matrix4f();
+
+    SkeletonPose(SkeletalMesh mesh, Map<String, EntityRef> boneEntityMap) {
+        this.mesh = mesh;
+        this.boneEntityMap = boneEntityMap;
+        int count = 0;
+        for (Bone bone : mesh.getBones()) {
+            count = Math.max(count, bone.getIndex() + 1);
+        }
+        boneCount = count;
+        parents = new int[boneCount];
+        childBoneCounts = new int[boneCount];
+        boneEntities = new EntityRef[boneCount];
+        positions = new float[3 * boneCount];
+        rotations = new float[4 * boneCount];
+        scales = new float[boneCount];
+        objectTransforms = new Matrix4f[boneCount];
+        inverseBindMatrices = new Matrix4f[boneCount];
+        skinningTransforms = new org.terasology.math.geom.Matrix4f[boneCount];
+        observed = new boolean[boneCount];
+
+        Arrays.fill(parents, -1);
+        Arrays.fill(boneEntities, EntityRef.NULL);
+        Deque<Bone> roots = new ArrayDeque<>();
+        for (Bone bone : mesh.getBones()) {
+            int index = bone.getIndex();
+            parents[index] = bone.getParentIndex();
+            childBoneCounts[index] = bone.getChildren().size();
+            if (boneEntityMap != null && boneEntityMap.containsKey(bone.getName())) {
+                boneEntities[index] = boneEntityMap.get(bone.getName());
+            }
+            BaseVector3f position = bone.getLocalPosition();
+            positions[3 * index] = position.x();
+            positions[3 * index + 1] = position.y();
+            positions[3 * index + 2] = position.z();
+            Quat4f rotation = bone.getLocalRotation();
+            rotations[4 * index] = rotation.x;
+            rotations[4 * index + 1] = rotation.y;
+            rotations[4 * index + 2] = rotation.z;
+            rotations[4 * index + 3] = rotation.w;
+            scales[index] = bone.getLocalScale().x();
+            objectTransforms[index] = new Matrix4f();
+            inverseBindMatrices[index] = set(new Matrix4f(), bone.getInverseBindMatrix());
+            skinningTransforms[index] = new org.terasology.math.geom.Matrix4f(org.terasology.math.geom.Matrix4f.IDENTITY);
+            if (bone.getParent() == null) {
+                roots.add(bone);
+            }
+        }
+        for (int i = 0; i < boneCount; i++) {
+            if (objectTransforms[i] == null) {
+                // an index no bone uses, left at the identity
+                objectTransforms[i] = new Matrix4f();
+                inverseBindMatrices[i] = new Matrix4f();
+                skinningTransforms[i] = new org.terasology.math.geom.Matrix4f(org.terasology.math.geom.Matrix4f.IDENTITY);
+                rotations[4 * i + 3] = 1;
+                scales[i] = 1;
+            }
+        }
+        skinningTransformList = Arrays.asList(skinningTransforms);
+
+        order = new int[mesh.getBones().size()];
+        int ordered = 0;
+        while (!roots.isEmpty()) {
+            Bone bone = roots.poll();
+            order[ordered++] = bone.getIndex();
+            roots.addAll(bone.getChildren());
+        }
+        updateTransforms();
+    }
+
+    /**
+     * @return whether the pose was made for the mesh and bone entities of the skeleton
+     */
+    boolean isPoseOf(SkeletalMeshComponent skeleton) {
+        return skeleton.mesh == mesh && skeleton.boneEntities == boneEntityMap;
+    }
+
+    /**
+     * Chooses the frames the next call of {@link #sample()} blends between.
+     */
+    void setFrames(MeshAnimation animation, MeshAnimationFrame from, MeshAnimationFrame to, float interpolationValue) {
+        if (animation != mappedAnimation) {
+            animationBones = new int[animation.getBoneCount()];
+            for (int i = 0; i < animationBones.length; i++) {
+                Bone bone = mesh.getBone(animation.getBoneName(i));
+                animationBones[i] = bone != null ? bone.getIndex() : -1;
+            }
+            mappedAnimation = animation;
+        }
+        frameA = from;
+        frameB = to;
+        interpolation = interpolationValue;
+    }
+
+    /**
+     * Blends the chosen frames into the local transforms of the bones and updates the skinning transforms.
+     */
+    void sample() {
+        if (frameA != null) {
+            for (int i = 0; i < animationBones.length; i++) {
+                int bone = animationBones[i];
+                if (bone != -1) {
+                    sampleBone(i, bone);
+                }
+            }
+            frameA = null;
+            frameB = null;
+        }
+        updateTransforms();
+    }
+
+    private void sampleBone(int animationBone, int bone) {
+        BaseVector3f positionA = frameA.getPosition(animationBone);
+        BaseVector3f positionB = frameB.getPosition(animationBone);
+        positions[3 * bone] = lerp(positionA.x(), positionB.x(), interpolation);
+        positions[3 * bone + 1] = lerp(positionA.y(), positionB.y(), interpolation);
+        positions[3 * bone + 2] = lerp(positionA.z(), positionB.z(), interpolation);
+
+        Quat4f a = frameA.getRotation(animationBone);
+        Quat4f b = frameB.getRotation(animationBone);
+        rotationA.set(a.x, a.y, a.z, a.w).slerp(rotationB.set(b.x, b.y, b.z, b.w), interpolation).normalize();
+        rotations[4 * bone] = rotationA.x;
+        rotations[4 * bone + 1] = rotationA.y;
+        rotations[4 * bone + 2] = rotationA.z;
+        rotations[4 * bone + 3] = rotationA.w;
+
+        scales[bone] = lerp(frameA.getBoneScale(animationBone).x(), frameB.getBoneScale(animationBone).x(), interpolation);
+    }
+
+    private void updateTransforms() {
+        for (int bone : order) {
+            localTransform.translationRotateScale(positions[3 * bone], positions[3 * bone + 1], positions[3 * bone + 2],
+                    rotations[4 * bone], rotations[4 * bone + 1], rotations[4 * bone + 2], rotations[4 * bone + 3],
+                    scales[bone], scales[bone], scales[bone]);
+            int parent = parents[bone];
+            if (parent != -1) {
+                objectTransforms[parent].mul(localTransform, objectTransforms[bone]);
+            } else {
+                objectTransforms[bone].set(localTransform);
+            }
+            objectTransforms[bone].mul(inverseBindMatrices[bone], localTransform);
+            set(skinningTransforms[bone], localTransform);
+        }
+    }
+
+    /**
+     * Copies the local transforms of the bones that have something other than their child bones attached, and of
+     * their parents, to the bone entities. Must be called on the main thread.
+     */
+    void writeObservedBones() {
+        boolean anyObserved = false;
+        for (int bone = 0; bone < boneCount; bone++) {
+            LocationComponent location = boneEntities[bone].getComponent(LocationComponent.class);
+            observed[bone] = location != null && location.getChildren().size() > childBoneCounts[bone];
+            anyObserved |= observed[bone];
+        }
+        if (!anyObserved) {
+            return;
+        }
+        for (int bone = 0; bone < boneCount; bone++) {
+            if (observed[bone]) {
+                for (int parent = parents[bone]; parent != -1 && !observed[parent]; parent = parents[parent]) {
+                    observed[parent] = true;
+                }
+            }
+        }
+        Vector3f position = new Vector3f();
+        Quaternionf rotation = new Quaternionf();
+        for (int bone = 0; bone < boneCount; bone++) {
+            if (observed[bone]) {
+                LocationComponent location = boneEntities[bone].getComponent(LocationComponent.class);
+                if (location != null) {
+                    location.setLocalPosition(position.set(positions[3 * bone], positions[3 * bone + 1], positions[3 * bone + 2]));
+                    location.setLocalRotation(rotation.set(rotations[4 * bone], rotations[4 * bone + 1],
+                            rotations[4 * bone + 2], rotations[4 * bone + 3]));
+                    location.setLocalScale(scales[bone]);
+                    boneEntities[bone].saveComponent(location);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the transforms to skin the mesh with, indexed by bone
+     */
+    List<org.terasology.math.geom.Matrix4f> getSkinningTransforms() {
+        return skinningTransformList;
+    }
+
+    /**
+     * @return the position of the bone relative to the skeleton's entity
+     */
+    Vector3f getObjectPosition(int bone, Vector3f dest) {
+        return objectTransforms[bone].getTranslation(dest);
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+
+    // TeraMath names the elements of a matrix by row and column, JOML by column and row
+
+    private static void set(org.terasology.math.geom.Matrix4f dest, Matrix4f source) {
+        dest.m00 = source.m00();
+        dest.m01 = source.m10();
+        dest.m02 = source.m20();
+        dest.m03 = source.m30();
+        dest.m10 = source.m01();
+        dest.m11 = source.m11();
+        dest.m12 = source.m21();
+        dest.m13 = source.m31();
+        dest.m20 = source.m02();
+        dest.m21 = source.m12();
+        dest.m22 = source.m22();
+        dest.m23 = source.m32();
+        dest.m30 = source.m03();
+        dest.m31 = source.m13();
+        dest.m32 = source.m23();
+        dest.m33 = source.m33();
+    }
+
+    private static Matrix4f set(Matrix4f dest, org.terasology.math.geom.Matrix4f source) {
+        return dest.set(source.getM00(), source.getM10(), source.getM20(), source.getM30(),
+                source.getM01(), source.getM11(), source.getM21(), source.getM31(),
+                source.getM02(), source.getM12(), source.getM22(), source.getM32(),
+                source.getM03(), source.getM13(), source.getM23(), source.getM33());
+    }
+}
@@ -16,14 +16,14 @@
 
 package org.terasology.rendering.logic;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
@@ -36,8 +36,6 @@
 import org.terasology.math.AABB;
 import org.terasology.math.JomlUtil;
 import org.terasology.math.MatrixUtils;
-import org.terasology.math.geom.BaseQuat4f;
-import org.terasology.math.geom.BaseVector3f;
 import org.terasology.math.geom.Matrix4f;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
@@ -51,9 +49,10 @@
 import org.terasology.utilities.Assets;
 
 import java.nio.FloatBuffer;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.RecursiveAction;
 
 import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
 import static org.lwjgl.opengl.GL11.glBegin;
@@ -65,12 +64,14 @@
 import static org.lwjgl.opengl.GL11.glVertex3f;
 
 /**
+ * Animates and renders skeletal meshes.
+ * <p>
+ * The poses of the skeletons are sampled in parallel once per update, see {@link SkeletonPose}. The bone entities only
+ * follow the animation where something is attached to them.
  */
 @RegisterSystem(RegisterMode.CLIENT)
 public class SkeletonRenderer extends BaseComponentSystem implements RenderSystem, UpdateSubscriberSystem {
 
-    private static final Logger logger = LoggerFactory.getLogger(SkeletonRenderer.class);
-
     @In
     private EntityManager entityManager;
 
@@ -82,6 +83,9 @@ public class SkeletonRenderer extends BaseComponentSystem implements RenderSyste
 
     private Random random = new Random();
 
+    private Map<EntityRef, SkeletonPose> poses = Maps.newHashMap();
+    private List<SkeletonPose> posesToSample = Lists.newArrayList();
+
     @ReceiveEvent(components = {SkeletalMeshComponent.class, LocationComponent.class})
     public void newSkeleton(OnActivatedComponent event, EntityRef entity) {
         SkeletalMeshComponent skeleton = entity.getComponent(SkeletalMeshComponent.class);
@@ -117,11 +121,38 @@ public void newSkeleton(OnActivatedComponent event, EntityRef entity) {
         entity.saveComponent(skeleton);
     }
 
+    @ReceiveEvent(components = {SkeletalMeshComponent.class})
+    public void removeSkeleton(BeforeDeactivateComponent event, EntityRef entity) {
+        poses.remove(entity);
+    }
+
     @Override
     public void update(float delta) {
         for (EntityRef entity : entityManager.getEntitiesWith(SkeletalMeshComponent.class, LocationComponent.class)) {
             updateSkeletalMeshOfEntity(entity, delta);
         }
+        if (!posesToSample.isEmpty()) {
+            new SampleTask(posesToSample, 0, posesToSample.size()).invoke();
+            for (SkeletonPose pose : posesToSample) {
+                pose.writeObservedBones();
+            }
+            posesToSample.clear();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        poses.clear();
+        posesToSample.clear();
+    }
+
+    private SkeletonPose getPose(EntityRef entity, SkeletalMeshComponent skeletalMeshComp) {
+        SkeletonPose pose = poses.get(entity);
+        if (pose == null || !pose.isPoseOf(skeletalMeshComp)) {
+            pose = new SkeletonPose(skeletalMeshComp.mesh, skeletalMeshComp.boneEntities);
+            poses.put(entity, pose);
+        }
+        return pose;
     }
 
     private void updateSkeletalMeshOfEntity(EntityRef entity, float delta) {
@@ -157,7 +188,7 @@ private void updateSkeletalMeshOfEntity(EntityRef entity, float delta) {
                 MeshAnimation finishedAnimation = skeletalMeshComp.animation;
                 skeletalMeshComp.animationTime = animationDuration;
                 MeshAnimationFrame frame = skeletalMeshComp.animation.getFrame(skeletalMeshComp.animation.getFrameCount() - 1);
-                updateSkeleton(skeletalMeshComp, frame, frame, 1.0f);
+                updateSkeleton(entity, skeletalMeshComp, frame, frame, 1.0f);
                 // Set animation to null so that AnimEndEvent fires only once
                 skeletalMeshComp.animation = null;
                 entity.saveComponent(skeletalMeshComp);
@@ -181,7 +212,7 @@ private void updateSkeletalMeshOfEntity(EntityRef entity, float delta) {
         }
         MeshAnimationFrame frameA = skeletalMeshComp.animation.getFrame(frameAId);
         MeshAnimationFrame frameB = skeletalMeshComp.animation.getFrame(frameBId);
-        updateSkeleton(skeletalMeshComp, frameA, frameB, framePos - frameAId);
+        updateSkeleton(entity, skeletalMeshComp, frameA, frameB, framePos - frameAId);
         entity.saveComponent(skeletalMeshComp);
     }
 
@@ -202,25 +233,11 @@ private static MeshAnimation randomAnimationData(SkeletalMeshComponent skeletalM
         return animationPool.get(random.nextInt(animationPool.size()));
     }
 
-    private void updateSkeleton(SkeletalMeshComponent skeletalMeshComp, MeshAnimationFrame frameA, MeshAnimationFrame frameB, float interpolationVal) {
-        for (int i = 0; i < skeletalMeshComp.animation.getBoneCount(); ++i) {
-            String boneName = skeletalMeshComp.animation.getBoneName(i);
-            Bone bone = skeletalMeshComp.mesh.getBone(boneName);
-            EntityRef boneEntity = skeletalMeshComp.boneEntities.get(boneName);
-            if (boneEntity == null || bone == null) {
-                continue;
-            }
-            LocationComponent boneLoc = boneEntity.getComponent(LocationComponent.class);
-            if (boneLoc != null) {
-                Vector3f newPos = BaseVector3f.lerp(frameA.getPosition(i), frameB.getPosition(i), interpolationVal);
-                boneLoc.setLocalPosition(newPos);
-                Quat4f newRot =  BaseQuat4f.interpolate(frameA.getRotation(i), frameB.getRotation(i), interpolationVal);
-                newRot.normalize();
-                boneLoc.setLocalRotation(newRot);
-                boneLoc.setLocalScale(BaseVector3f.lerp(frameA.getBoneScale(i), frameB.getBoneScale(i), interpolationVal).x);
-                boneEntity.saveComponent(boneLoc);
-            }
-        }
+    private void updateSkeleton(EntityRef entity, SkeletalMeshComponent skeletalMeshComp, MeshAnimationFrame frameA,
+                                MeshAnimationFrame frameB, float interpolationVal) {
+        SkeletonPose pose = getPose(entity, skeletalMeshComp);
+        pose.setFrames(skeletalMeshComp.animation, frameA, frameB, interpolationVal);
+        posesToSample.add(pose);
     }
 
     @Override
@@ -285,26 +302,9 @@ public void renderOpaque() {
             skeletalMesh.material.setFloat("sunlight", worldRenderer.getMainLightIntensityAt(worldPos), true);
             skeletalMesh.material.setFloat("blockLight", worldRenderer.getBlockLightIntensityAt(worldPos), true);
 
-            Matrix4f[] boneTransforms = new Matrix4f[skeletalMesh.mesh.getBones().size()];
-            for (Bone bone : skeletalMesh.mesh.getBones()) {
-                EntityRef boneEntity = skeletalMesh.boneEntities.get(bone.getName());
-                if (boneEntity == null) {
-                    boneEntity = EntityRef.NULL;
-                }
-                LocationComponent boneLocation = boneEntity.getComponent(LocationComponent.class);
-                if (boneLocation != null) {
-                    Matrix4f boneTransform = new Matrix4f(Matrix4f.IDENTITY);
-                    boneLocation.getRelativeTransform(boneTransform, entity);
-                    boneTransform.mul(bone.getInverseBindMatrix());
-                    boneTransforms[bone.getIndex()] = boneTransform;
-                } else {
-                    logger.warn("Unable to resolve bone \"{}\"", bone.getName());
-                    boneTransforms[bone.getIndex()] = new Matrix4f(Matrix4f.IDENTITY);
-
-                }
-            }
+            SkeletonPose pose = getPose(entity, skeletalMesh);
             ((OpenGLSkeletalMesh) skeletalMesh.mesh).setScaleTranslate(skeletalMesh.scale, skeletalMesh.translate);
-            ((OpenGLSkeletalMesh) skeletalMesh.mesh).render(Arrays.asList(boneTransforms));
+            ((OpenGLSkeletalMesh) skeletalMesh.mesh).render(pose.getSkinningTransforms());
         }
     }
 
@@ -322,6 +322,7 @@ public void renderOverlay() {
             material.setFloat("blockLight", 1.0f, true);
             material.setMatrix4("projectionMatrix", worldRenderer.getActiveCamera().getProjectionMatrix());
             Vector3f worldPos = new Vector3f();
+            org.joml.Matrix4f worldTransform = new org.joml.Matrix4f();
 
             FloatBuffer tempMatrixBuffer44 = BufferUtils.createFloatBuffer(16);
             FloatBuffer tempMatrixBuffer33 = BufferUtils.createFloatBuffer(12);
@@ -346,9 +347,11 @@ public void renderOverlay() {
                 MatrixUtils.matrixToFloatBuffer(MatrixUtils.calcNormalMatrix(modelViewMatrix), tempMatrixBuffer33);
                 material.setMatrix3("normalMatrix", tempMatrixBuffer33, true);
 
+                SkeletonPose pose = getPose(entity, meshComp);
+                location.getWorldTransform(worldTransform);
                 for (Bone bone : meshComp.mesh.getBones()) {
                     if (bone.getParentIndex() != -1) {
-                        renderBone(meshComp.boneEntities.get(bone.getName()));
+                        renderBone(pose, worldTransform, bone.getIndex(), bone.getParentIndex());
                     }
                 }
             }
@@ -381,20 +384,42 @@ private void renderBoneOrientation(EntityRef boneEntity) {
         glPopMatrix();
     }
 
-    private void renderBone(EntityRef boneEntity) {
-        LocationComponent loc = boneEntity.getComponent(LocationComponent.class);
-        if (loc == null) {
-            return;
+    private void renderBone(SkeletonPose pose, org.joml.Matrix4f worldTransform, int bone, int parentBone) {
+        org.joml.Vector3f worldPosA = worldTransform.transformPosition(pose.getObjectPosition(bone, new org.joml.Vector3f()));
+        org.joml.Vector3f worldPosB = worldTransform.transformPosition(pose.getObjectPosition(parentBone, new org.joml.Vector3f()));
+
+        glBegin(GL11.GL_LINES);
+        glVertex3f(worldPosA.x, worldPosA.y, worldPosA.z);
+        glVertex3f(worldPosB.x, worldPosB.y, worldPosB.z);
+        glEnd();
+    }
+
+    /**
+     * Samples the poses of a range of skeletons, splitting the range between the threads of the fork join pool.
+     */
+    private static final class SampleTask extends RecursiveAction {
+        private static final int POSES_PER_TASK = 8;
+
+        private final List<SkeletonPose> poses;
+        private final int from;
+        private final int to;
+
+        private SampleTask(List<SkeletonPose> poses, int from, int to) {
+            this.poses = poses;
+            this.from = from;
+            this.to = to;
         }
-        LocationComponent parentLoc = loc.getParent().getComponent(LocationComponent.class);
-        if (parentLoc != null) {
-            Vector3f worldPosA = loc.getWorldPosition();
-            Vector3f worldPosB = parentLoc.getWorldPosition();
-
-            glBegin(GL11.GL_LINES);
-            glVertex3f(worldPosA.x, worldPosA.y, worldPosA.z);
-            glVertex3f(worldPosB.x, worldPosB.y, worldPosB.z);
-            glEnd();
+
+        @Override
+        protected void compute() {
+            if (to - from <= POSES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    poses.get(i).sample();
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SampleTask(poses, from, middle), new SampleTask(poses, middle, to));
+            }
         }
     }
 }
@@ -52,6 +52,9 @@ public void initialise() {
         register(new SpikesMode());
         register(new AllocationsMode());
         register(new RunningThreadsMode());
+        register(new SavingMode());
+        register(new WorldGenerationMode());
+        register(new NetworkStatsMode());
         register(new WorldRendererMode());
         register(new RenderingExecTimeMeansMode("\n- Rendering - Execution Time: Running Means - Sorted Alphabetically -"));
         currentMode = defaultMode;
@@ -51,6 +51,9 @@ public String getMetrics() {
             builder.append(String.format("In Bytes: %d%n", networkSystem.getIncomingBytesDelta()));
             builder.append(String.format("Out Msg: %d%n", networkSystem.getOutgoingMessagesDelta()));
             builder.append(String.format("Out Bytes: %d%n", networkSystem.getOutgoingBytesDelta()));
+            int sentChunks = networkSystem.getSentChunksDelta();
+            builder.append(String.format("Chunks sent: %d (%.1f/s)%n", sentChunks, sentChunks * 1000f / timeDifference));
+            builder.append(String.format("Chunks queued: %d%n", networkSystem.getQueuedChunkCount()));
             if (lastTime != 0) {
                 // ignore the first update as it will not have useful data
                 lastMetric = builder.toString();
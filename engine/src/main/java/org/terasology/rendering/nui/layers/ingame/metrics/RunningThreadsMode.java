@@ -19,6 +19,8 @@
 import org.terasology.monitoring.ThreadMonitor;
 import org.terasology.monitoring.impl.SingleThreadMonitor;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  */
 final class RunningThreadsMode extends MetricsMode {
@@ -38,6 +40,11 @@ public String getMetrics() {
             builder.append(threads.getLastTask());
             builder.append("\n");
         });
+        ThreadMonitor.getWorkerPoolMonitors().forEach(pool -> {
+            builder.append(String.format("%s pool - %d/%d threads busy, %d queued, busy %ds, idle %ds\n",
+                    pool.getName(), pool.getActiveCount(), pool.getThreadCount(), pool.getQueueDepth(),
+                    pool.getBusyTime(TimeUnit.SECONDS), pool.getIdleTime(TimeUnit.SECONDS)));
+        });
         return builder.toString();
     }
 
@@ -0,0 +1,57 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.nui.layers.ingame.metrics;
+
+import org.terasology.persistence.StorageManager;
+import org.terasology.persistence.internal.ReadWriteStorageManager;
+import org.terasology.persistence.internal.SaveMetrics;
+import org.terasology.registry.CoreRegistry;
+
+/**
+ * Shows the latency and snapshot size of the save transactions.
+ */
+final class SavingMode extends MetricsMode {
+
+    SavingMode() {
+        super("\n- Saving -");
+    }
+
+    @Override
+    public String getMetrics() {
+        SaveMetrics metrics = getSaveMetrics();
+        if (metrics == null) {
+            return getName();
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append(getName());
+        builder.append("\n");
+        builder.append(String.format("Transactions: %d%n", metrics.getTransactionCount()));
+        builder.append(String.format("Snapshot: %d ms (max %d ms), %d chunks%n",
+                metrics.getLastSnapshotTimeMs(), metrics.getMaxSnapshotTimeMs(), metrics.getLastChunkCount()));
+        builder.append(String.format("Snapshot memory: %d KiB (max %d KiB)%n",
+                metrics.getLastSnapshotMemory() / 1024, metrics.getMaxSnapshotMemory() / 1024));
+        builder.append(String.format("Write: %d ms (max %d ms), %d KiB of chunks%n",
+                metrics.getLastWriteTimeMs(), metrics.getMaxWriteTimeMs(), metrics.getLastWrittenChunkBytes() / 1024));
+        builder.append(String.format("Chunks written: %d KiB total, %d changed chunks pending%n",
+                metrics.getTotalWrittenChunkBytes() / 1024, metrics.getPendingChunks()));
+        return builder.toString();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return getSaveMetrics() != null;
+    }
+
+    @Override
+    public boolean isPerformanceManagerMode() {
+        return false;
+    }
+
+    private static SaveMetrics getSaveMetrics() {
+        StorageManager storageManager = CoreRegistry.get(StorageManager.class);
+        if (storageManager instanceof ReadWriteStorageManager) {
+            return ((ReadWriteStorageManager) storageManager).getSaveMetrics();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.nui.layers.ingame.metrics;
+
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.generation.ColumnFacetCache;
+import org.terasology.world.generation.World;
+import org.terasology.world.generation.WorldImpl;
+import org.terasology.world.generator.WorldGenerator;
+
+/**
+ * Shows how often the chunks of a column could share their 2D facets.
+ */
+final class WorldGenerationMode extends MetricsMode {
+
+    WorldGenerationMode() {
+        super("\n- World Generation -");
+    }
+
+    @Override
+    public String getMetrics() {
+        ColumnFacetCache cache = getColumnFacetCache();
+        if (cache == null) {
+            return getName();
+        }
+        long hits = cache.getHitCount();
+        long requests = hits + cache.getMissCount();
+        StringBuilder builder = new StringBuilder();
+        builder.append(getName());
+        builder.append("\n");
+        builder.append(String.format("Column provider outputs: %d cached, %d evicted%n", cache.size(), cache.getEvictionCount()));
+        builder.append(String.format("Hits: %d of %d (%.1f%%)%n", hits, requests, requests == 0 ? 0 : 100.0 * hits / requests));
+        builder.append(String.format("Generation per miss: %.2f ms%n", cache.getAverageLoadPenalty() / 1000000));
+        return builder.toString();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return getColumnFacetCache() != null;
+    }
+
+    @Override
+    public boolean isPerformanceManagerMode() {
+        return false;
+    }
+
+    private static ColumnFacetCache getColumnFacetCache() {
+        WorldGenerator worldGenerator = CoreRegistry.get(WorldGenerator.class);
+        if (worldGenerator != null) {
+            World world = worldGenerator.getWorld();
+            if (world instanceof WorldImpl) {
+                return ((WorldImpl) world).getColumnFacetCache();
+            }
+        }
+        return null;
+    }
+}
@@ -27,6 +27,7 @@ public class LoadingScreen extends CoreScreenLayer {
 
     private UILabel messageLabel;
     private UILoadBar fillBar;
+    private UILabel timingsLabel;
 
     @In
     private TranslationSystem translationSystem;
@@ -35,6 +36,7 @@ public class LoadingScreen extends CoreScreenLayer {
     public void initialise() {
         messageLabel = find("statusLabel", UILabel.class);
         fillBar = find("progressBar", UILoadBar.class);
+        timingsLabel = find("timingsLabel", UILabel.class);
     }
 
     public void updateStatus(String message, float v) {
@@ -46,6 +48,15 @@ public void updateStatus(String message, float v) {
         }
     }
 
+    /**
+     * @param timings the time spent on each step of the loading so far, one step per line
+     */
+    public void updateTimings(String timings) {
+        if (timingsLabel != null) {
+            timingsLabel.setText(translationSystem.translate(timings));
+        }
+    }
+
     @Override
     protected boolean isEscapeToCloseAllowed() {
         return false;
@@ -117,11 +117,21 @@ public enum RenderPhase {
     private int timeToGenerateOptimizedBuffers;
 
     private GLBufferPool bufferPool;
+    private VertexElementsPool vertexElementsPool;
 
     public ChunkMesh(GLBufferPool bufferPool) {
+        this(bufferPool, null);
+    }
+
+    /**
+     * @param vertexElementsPool provides the vertex data to build the mesh into, and takes it back once the mesh was
+     *                           uploaded or disposed
+     */
+    ChunkMesh(GLBufferPool bufferPool, VertexElementsPool vertexElementsPool) {
         this.bufferPool = bufferPool;
+        this.vertexElementsPool = vertexElementsPool;
         for (RenderType type : RenderType.values()) {
-            vertexElements.put(type, new VertexElements());
+            vertexElements.put(type, vertexElementsPool != null ? vertexElementsPool.acquire(type) : new VertexElements());
         }
     }
 
@@ -151,7 +161,7 @@ public boolean generateVBOs() {
                 }
 
                 // Free unused space on the heap
-                vertexElements = null;
+                releaseVertexElements();
                 // Calculate the final amount of triangles
                 triangleCount = (vertexCount[0] + vertexCount[1] + vertexCount[2] + vertexCount[3]) / 3;
             } finally {
@@ -182,6 +192,15 @@ private void generateVBO(RenderType type) {
 
     }
 
+    private void releaseVertexElements() {
+        if (vertexElementsPool != null) {
+            for (Map.Entry<RenderType, VertexElements> entry : vertexElements.entrySet()) {
+                vertexElementsPool.release(entry.getKey(), entry.getValue());
+            }
+        }
+        vertexElements = null;
+    }
+
     private void renderVbo(int id) {
         if (lock.tryLock()) {
             try {
@@ -310,7 +329,9 @@ public void dispose() {
                 }
 
                 disposed = true;
-                vertexElements = null;
+                if (vertexElements != null) {
+                    releaseVertexElements();
+                }
             }
         } finally {
             lock.unlock();
@@ -387,5 +408,19 @@ public static class VertexElements {
             flags = new TIntArrayList();
             frames = new TIntArrayList();
         }
+
+        /**
+         * Empties the lists for the next mesh, keeping their capacity and the final buffers.
+         */
+        void reset() {
+            vertexCount = 0;
+            normals.resetQuick();
+            vertices.resetQuick();
+            tex.resetQuick();
+            color.resetQuick();
+            indices.resetQuick();
+            flags.resetQuick();
+            frames.resetQuick();
+        }
     }
 }
@@ -16,18 +16,17 @@
 package org.terasology.rendering.primitives;
 
 import com.google.common.base.Stopwatch;
-import gnu.trove.iterator.TIntIterator;
 import org.lwjgl.BufferUtils;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
 import org.terasology.math.Direction;
 import org.terasology.math.TeraMath;
-import org.terasology.math.geom.Vector3f;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.rendering.RenderMath;
 import org.terasology.world.ChunkView;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.ChunkConstants;
 
+import java.nio.IntBuffer;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -36,9 +35,14 @@
  */
 public final class ChunkTessellator {
 
+    // The offsets of the four samples around a vertex, in the two axes along the face
+    private static final float[] SAMPLE_OFFSETS_A = {0.1f, 0.1f, -0.1f, -0.1f};
+    private static final float[] SAMPLE_OFFSETS_B = {0.1f, -0.1f, -0.1f, 0.1f};
+
     private static int statVertexArrayUpdateCount;
 
     private GLBufferPool bufferPool;
+    private VertexElementsPool vertexElementsPool = new VertexElementsPool();
 
     public ChunkTessellator(GLBufferPool bufferPool) {
         this.bufferPool = bufferPool;
@@ -46,7 +50,7 @@ public ChunkTessellator(GLBufferPool bufferPool) {
 
     public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalOffset) {
         PerformanceMonitor.startActivity("GenerateMesh");
-        ChunkMesh mesh = new ChunkMesh(bufferPool);
+        ChunkMesh mesh = new ChunkMesh(bufferPool, vertexElementsPool);
 
         final Stopwatch watch = Stopwatch.createStarted();
 
@@ -77,10 +81,11 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
     private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.startActivity("OptimizeBuffers");
 
+        float[] lighting = new float[3];
         for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
             ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
             // Vertices double to account for light info
-            elements.finalVertices = BufferUtils.createIntBuffer(
+            elements.finalVertices = reuseOrAllocate(elements.finalVertices,
                     elements.vertices.size() + /* POSITION */
                     elements.tex.size() + /* TEX0.xy (texture coords) */
                     elements.flags.size() + /* TEX0.z (flags) */
@@ -91,15 +96,14 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
             );
 
             for (int i = 0; i < elements.vertexCount; i++) {
-                Vector3f vertexPos = new Vector3f(
-                        elements.vertices.get(i * 3),
-                        elements.vertices.get(i * 3 + 1),
-                        elements.vertices.get(i * 3 + 2));
+                float x = elements.vertices.get(i * 3);
+                float y = elements.vertices.get(i * 3 + 1);
+                float z = elements.vertices.get(i * 3 + 2);
 
                 /* POSITION */
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.x));
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.y));
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.z));
+                elements.finalVertices.put(Float.floatToIntBits(x));
+                elements.finalVertices.put(Float.floatToIntBits(y));
+                elements.finalVertices.put(Float.floatToIntBits(z));
 
                 /* UV0 - TEX DATA 0.xy */
                 elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(i * 2)));
@@ -107,18 +111,19 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
 
                 /* FLAGS - TEX DATA 0.z */
                 elements.finalVertices.put(Float.floatToIntBits(elements.flags.get(i)));
-                
+
                 /* ANIMATION FRAME COUNT - TEX DATA 0.w*/
                 elements.finalVertices.put(Float.floatToIntBits(elements.frames.get(i)));
 
-                float[] result = new float[3];
-                Vector3f normal = new Vector3f(elements.normals.get(i * 3), elements.normals.get(i * 3 + 1), elements.normals.get(i * 3 + 2));
-                calcLightingValuesForVertexPos(chunkView, vertexPos, result, normal);
+                float normalX = elements.normals.get(i * 3);
+                float normalY = elements.normals.get(i * 3 + 1);
+                float normalZ = elements.normals.get(i * 3 + 2);
+                calcLightingValuesForVertexPos(chunkView, x, y, z, normalX, normalY, normalZ, lighting);
 
                 /* LIGHTING DATA / TEX DATA 1 */
-                elements.finalVertices.put(Float.floatToIntBits(result[0]));
-                elements.finalVertices.put(Float.floatToIntBits(result[1]));
-                elements.finalVertices.put(Float.floatToIntBits(result[2]));
+                elements.finalVertices.put(Float.floatToIntBits(lighting[0]));
+                elements.finalVertices.put(Float.floatToIntBits(lighting[1]));
+                elements.finalVertices.put(Float.floatToIntBits(lighting[2]));
 
                 /* PACKED COLOR */
                 final int packedColor = RenderMath.packColor(
@@ -129,15 +134,15 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
                 elements.finalVertices.put(packedColor);
 
                 /* NORMALS */
-                elements.finalVertices.put(Float.floatToIntBits(normal.x));
-                elements.finalVertices.put(Float.floatToIntBits(normal.y));
-                elements.finalVertices.put(Float.floatToIntBits(normal.z));
+                elements.finalVertices.put(Float.floatToIntBits(normalX));
+                elements.finalVertices.put(Float.floatToIntBits(normalY));
+                elements.finalVertices.put(Float.floatToIntBits(normalZ));
             }
 
-            elements.finalIndices = BufferUtils.createIntBuffer(elements.indices.size());
-            TIntIterator indexIterator = elements.indices.iterator();
-            while (indexIterator.hasNext()) {
-                elements.finalIndices.put(indexIterator.next());
+            int indexCount = elements.indices.size();
+            elements.finalIndices = reuseOrAllocate(elements.finalIndices, indexCount);
+            for (int i = 0; i < indexCount; i++) {
+                elements.finalIndices.put(elements.indices.get(i));
             }
 
             elements.finalVertices.flip();
@@ -146,83 +151,73 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.endActivity();
     }
 
-    private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
-        PerformanceMonitor.startActivity("calcLighting");
-        float[] lights = new float[8];
-        float[] blockLights = new float[8];
-        Block[] blocks = new Block[4];
-
-        PerformanceMonitor.startActivity("gatherLightInfo");
-        Direction dir = Direction.inDirection(normal);
-        switch (dir) {
-            case LEFT:
-            case RIGHT:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y + 0.1f), (vertexPos.z + 0.1f));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y + 0.1f), (vertexPos.z - 0.1f));
-                blocks[2] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-                blocks[3] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-                break;
-            case FORWARD:
-            case BACKWARD:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[2] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[3] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.1f), (vertexPos.z + 0.8f * normal.z));
-                break;
-            default:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z + 0.1f));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z - 0.1f));
-                blocks[2] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z - 0.1f));
-                blocks[3] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z + 0.1f));
+    /**
+     * @return the given buffer, cleared, if it can hold the given number of ints, otherwise a new direct buffer
+     */
+    private static IntBuffer reuseOrAllocate(IntBuffer buffer, int size) {
+        if (buffer == null || buffer.capacity() < size) {
+            // Leave some room, so that the buffer can be reused for slightly larger meshes as well
+            return BufferUtils.createIntBuffer(size + size / 4);
         }
+        buffer.clear();
+        return buffer;
+    }
 
-        lights[0] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-        lights[1] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        lights[2] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        lights[3] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-
-        lights[4] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-        lights[5] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        lights[6] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        lights[7] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-
-        blockLights[0] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-        blockLights[1] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        blockLights[2] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        blockLights[3] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-
-        blockLights[4] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-        blockLights[5] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        blockLights[6] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        blockLights[7] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-        PerformanceMonitor.endActivity();
+    /**
+     * Calculates the sunlight, block light and ambient occlusion of a vertex from the blocks around it.
+     *
+     * @param output receives the three values
+     */
+    private void calcLightingValuesForVertexPos(ChunkView chunkView, float x, float y, float z,
+                                                float normalX, float normalY, float normalZ, float[] output) {
+        int occCounter = 0;
+        int occCounterBillboard = 0;
+        Direction dir = Direction.inDirection(normalX, normalY, normalZ);
+        for (int i = 0; i < 4; i++) {
+            float offsetA = SAMPLE_OFFSETS_A[i];
+            float offsetB = SAMPLE_OFFSETS_B[i];
+            Block block;
+            switch (dir) {
+                case LEFT:
+                case RIGHT:
+                    block = chunkView.getBlock((x + 0.8f * normalX), (y + offsetA), (z + offsetB));
+                    break;
+                case FORWARD:
+                case BACKWARD:
+                    block = chunkView.getBlock((x + offsetA), (y + offsetB), (z + 0.8f * normalZ));
+                    break;
+                default:
+                    block = chunkView.getBlock((x + offsetA), (y + 0.8f * normalY), (z + offsetB));
+            }
+
+            if (block.isShadowCasting() && !block.isTranslucent()) {
+                occCounter++;
+            } else if (block.isShadowCasting()) {
+                occCounterBillboard++;
+            }
+        }
 
         float resultLight = 0;
         float resultBlockLight = 0;
         int counterLight = 0;
         int counterBlockLight = 0;
 
-        int occCounter = 0;
-        int occCounterBillboard = 0;
-        for (int i = 0; i < 8; i++) {
-            if (lights[i] > 0) {
-                resultLight += lights[i];
+        // Four samples above the vertex, then four below it
+        for (int j = 0; j < 8; j++) {
+            float offsetX = SAMPLE_OFFSETS_A[j % 4];
+            float offsetY = j < 4 ? 0.8f : -0.1f;
+            float offsetZ = SAMPLE_OFFSETS_B[j % 4];
+
+            byte light = chunkView.getSunlight((x + offsetX), (y + offsetY), (z + offsetZ));
+            if (light > 0) {
+                resultLight += light;
                 counterLight++;
             }
-            if (blockLights[i] > 0) {
-                resultBlockLight += blockLights[i];
+            byte blockLight = chunkView.getLight((x + offsetX), (y + offsetY), (z + offsetZ));
+            if (blockLight > 0) {
+                resultBlockLight += blockLight;
                 counterBlockLight++;
             }
-
-            if (i < 4) {
-                Block b = blocks[i];
-
-                if (b.isShadowCasting() && !b.isTranslucent()) {
-                    occCounter++;
-                } else if (b.isShadowCasting()) {
-                    occCounterBillboard++;
-                }
-            }
         }
 
         double resultAmbientOcclusion = (TeraMath.pow(0.40, occCounter) + TeraMath.pow(0.80, occCounterBillboard)) / 2.0;
@@ -240,7 +235,6 @@ private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertex
         }
 
         output[2] = (float) resultAmbientOcclusion;
-        PerformanceMonitor.endActivity();
     }
 
     public static int getVertexArrayUpdateCount() {
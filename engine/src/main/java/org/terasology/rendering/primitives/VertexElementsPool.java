@@ -0,0 +1,43 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps the vertex data of chunk meshes which were uploaded or disposed, so that the next meshes are built into the
+ * already grown lists and direct buffers instead of allocating new ones.
+ * <p>
+ * Meshes are tessellated on worker threads and uploaded on the main thread, so the pool is thread safe. Only a few
+ * instances per render type are kept, which bounds the memory held by the pool.
+ */
+final class VertexElementsPool {
+
+    private static final int MAX_POOLED_PER_TYPE = 8;
+
+    private final Map<ChunkMesh.RenderType, BlockingQueue<ChunkMesh.VertexElements>> pooled =
+            Maps.newEnumMap(ChunkMesh.RenderType.class);
+
+    VertexElementsPool() {
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            pooled.put(type, new ArrayBlockingQueue<>(MAX_POOLED_PER_TYPE));
+        }
+    }
+
+    ChunkMesh.VertexElements acquire(ChunkMesh.RenderType type) {
+        ChunkMesh.VertexElements elements = pooled.get(type).poll();
+        return elements != null ? elements : new ChunkMesh.VertexElements();
+    }
+
+    /**
+     * @param elements vertex data which is not referenced by its mesh anymore
+     */
+    void release(ChunkMesh.RenderType type, ChunkMesh.VertexElements elements) {
+        elements.reset();
+        pooled.get(type).offer(elements);
+    }
+}
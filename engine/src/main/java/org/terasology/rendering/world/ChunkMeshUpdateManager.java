@@ -27,6 +27,8 @@
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkTessellator;
 import org.terasology.utilities.concurrency.TaskMaster;
+import org.terasology.utilities.concurrency.WorkerPoolType;
+import org.terasology.utilities.concurrency.WorkerPools;
 import org.terasology.world.ChunkView;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.chunks.Chunk;
@@ -48,8 +50,6 @@
  *
  */
 public final class ChunkMeshUpdateManager {
-    private static final int NUM_TASK_THREADS = 8;
-
     private static final Logger logger = LoggerFactory.getLogger(ChunkMeshUpdateManager.class);
 
     /* CHUNK UPDATES */
@@ -73,7 +73,8 @@ public ChunkMeshUpdateManager(ChunkTessellator tessellator, WorldProvider worldP
         this.tessellator = tessellator;
         this.worldProvider = worldProvider;
 
-        chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater", NUM_TASK_THREADS, new ChunkUpdaterComparator());
+        chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater",
+                WorkerPools.get(WorkerPoolType.CHUNK_MESHING), new ChunkUpdaterComparator());
     }
 
     /**
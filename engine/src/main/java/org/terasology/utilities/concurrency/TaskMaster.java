@@ -53,6 +53,10 @@
  * }
  * </pre>
  *
+ * <p>
+ * TaskMasters created with a {@link WorkerPool} own no threads. Every queued task schedules one run on the pool, which
+ * picks the highest priority task at the time a thread becomes available.
+ *
  * @see Task
  * @see #createFIFOTaskMaster(String, int)
  * @see #createPriorityTaskMaster(String, int, int)
@@ -62,13 +66,15 @@
 
     private final BlockingQueue<T> taskQueue;
     private ExecutorService executorService;
+    private final WorkerPool workerPool;
     private final int threads;
-    private boolean running;
+    private volatile boolean running;
     private final String name;
 
     private TaskMaster(String name, int threads, BlockingQueue<T> queue) {
         this.name = name;
         this.threads = threads;
+        this.workerPool = null;
         if (threads <= 0) {
             throw new IllegalArgumentException("Must have at least one thread.");
         }
@@ -76,6 +82,14 @@ private TaskMaster(String name, int threads, BlockingQueue<T> queue) {
         restart();
     }
 
+    private TaskMaster(String name, WorkerPool workerPool, BlockingQueue<T> queue) {
+        this.name = name;
+        this.threads = 0;
+        this.workerPool = workerPool;
+        taskQueue = queue;
+        restart();
+    }
+
     /**
      * Creates a FIFO taskmaster which simply reads from a task queue in order
      */
@@ -99,6 +113,14 @@ public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(Str
         return new TaskMaster<>(name, threads, new DynamicPriorityBlockingQueue<>(comparator));
     }
 
+    /**
+     * Creates a dynamically prioritized taskmaster which runs its tasks on a shared {@link WorkerPool} instead of
+     * its own threads.
+     */
+    public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(String name, WorkerPool workerPool, Comparator<T> comparator) {
+        return new TaskMaster<>(name, workerPool, new DynamicPriorityBlockingQueue<>(comparator));
+    }
+
     /**
      * Offers a task to this task master. This does not block, but may fail if the queue is full.
      *
@@ -106,7 +128,11 @@ public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(Str
      * @return Whether the task was successfully added to the queue.
      */
     public boolean offer(T task) {
-        return taskQueue.offer(task);
+        if (taskQueue.offer(task)) {
+            scheduleOnWorkerPool();
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -116,12 +142,37 @@ public boolean offer(T task) {
      */
     public void put(T task) throws InterruptedException {
         taskQueue.put(task);
+        scheduleOnWorkerPool();
+    }
+
+    private void scheduleOnWorkerPool() {
+        if (workerPool != null) {
+            workerPool.execute(this::runNextTask);
+        }
+    }
+
+    private void runNextTask() {
+        if (!running) {
+            return;
+        }
+        T task = taskQueue.poll();
+        if (task != null) {
+            TaskProcessor.runTask(task);
+        }
     }
 
     public void shutdown(T shutdownTask, boolean awaitComplete) {
         if (!shutdownTask.isTerminateSignal()) {
             throw new IllegalArgumentException("Expected task to provide terminate signal");
         }
+        if (workerPool != null) {
+            if (awaitComplete) {
+                awaitEmptyQueue();
+            }
+            running = false;
+            taskQueue.drainTo(Lists.newArrayList());
+            return;
+        }
         if (!awaitComplete) {
             taskQueue.drainTo(Lists.newArrayList());
         }
@@ -148,8 +199,25 @@ public void shutdown(T shutdownTask, boolean awaitComplete) {
         running = false;
     }
 
+    private void awaitEmptyQueue() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        try {
+            while (!taskQueue.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted awaiting task completion");
+            Thread.currentThread().interrupt();
+        }
+        if (!taskQueue.isEmpty()) {
+            logger.warn("Timed out awaiting task completion");
+        }
+    }
+
     public void restart() {
-        if (!running) {
+        if (workerPool != null) {
+            running = true;
+        } else if (!running) {
             executorService = Executors.newFixedThreadPool(threads);
             for (int i = 0; i < threads; ++i) {
                 executorService.execute(new TaskProcessor<>(name + "-" + i, taskQueue));
@@ -169,6 +237,6 @@ public void restart() {
      * @return the {@link ExecutorService} used by this instance
      */
     public ExecutorService getExecutorService() {
-        return executorService;
+        return workerPool != null ? workerPool : executorService;
     }
 }
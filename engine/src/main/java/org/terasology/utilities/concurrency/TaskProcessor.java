@@ -46,24 +46,34 @@ public void run() {
         while (running) {
             try {
                 T task = queue.take();
-                try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
-                    task.run();
-                }
-                if (task.isTerminateSignal()) {
+                if (runTask(task) && task.isTerminateSignal()) {
                     running = false;
                 }
             } catch (InterruptedException e) {
                 ThreadMonitor.addError(e);
                 logger.error("Thread interrupted", e);
-            } catch (RuntimeException e) {
-                ThreadMonitor.addError(e);
-                logger.error("Error in thread {}", Thread.currentThread().getName(), e);
-            } catch (Error e) {
-                GameThread.asynch(() -> {
-                    throw e;  // re-throw on game thread to terminate the entire application
-                });
             }
         }
         logger.debug("Thread shutdown safely");
     }
+
+    /**
+     * Runs a single task on the current thread, reporting errors to the {@link ThreadMonitor}.
+     *
+     * @return whether the task completed without an exception
+     */
+    static boolean runTask(Task task) {
+        try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
+            task.run();
+            return true;
+        } catch (RuntimeException e) {
+            ThreadMonitor.addError(e);
+            logger.error("Error in thread {}", Thread.currentThread().getName(), e);
+        } catch (Error e) {
+            GameThread.asynch(() -> {
+                throw e;  // re-throw on game thread to terminate the entire application
+            });
+        }
+        return false;
+    }
 }
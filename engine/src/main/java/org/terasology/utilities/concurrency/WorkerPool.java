@@ -0,0 +1,114 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.utilities.concurrency;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.monitoring.impl.WorkerPoolMonitor;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size, resizable pool of daemon worker threads which keeps track of the time its threads spend busy and idle.
+ * <p>
+ * Use {@link WorkerPools#get(WorkerPoolType)} to obtain the shared pool of a given type.
+ */
+public class WorkerPool extends ThreadPoolExecutor implements WorkerPoolMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerPool.class);
+
+    private final String name;
+    private final int threadPriority;
+    private final AtomicInteger threadIndex = new AtomicInteger();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final ThreadLocal<long[]> taskStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    private long capacityNanos;
+    private long lastResize;
+
+    public WorkerPool(String name, int threads, int threadPriority) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        this.name = name;
+        this.threadPriority = threadPriority;
+        this.lastResize = System.nanoTime();
+        setThreadFactory(this::newThread);
+        setRejectedExecutionHandler(this::rejectTask);
+    }
+
+    /**
+     * Changes the number of threads. Running tasks are not interrupted, surplus threads end after their current task.
+     *
+     * @param threads the new number of threads, at least one
+     */
+    public synchronized void resize(int threads) {
+        Preconditions.checkArgument(threads > 0, "Must have at least one thread.");
+        if (threads == getCorePoolSize()) {
+            return;
+        }
+        long now = System.nanoTime();
+        capacityNanos += (now - lastResize) * getCorePoolSize();
+        lastResize = now;
+        if (threads > getMaximumPoolSize()) {
+            setMaximumPoolSize(threads);
+            setCorePoolSize(threads);
+        } else {
+            setCorePoolSize(threads);
+            setMaximumPoolSize(threads);
+        }
+        logger.info("Resized worker pool {} to {} threads", name, threads);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getThreadCount() {
+        return getCorePoolSize();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    @Override
+    public long getBusyTime(TimeUnit unit) {
+        return unit.convert(busyNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized long getIdleTime(TimeUnit unit) {
+        long capacity = capacityNanos + (System.nanoTime() - lastResize) * getCorePoolSize();
+        return unit.convert(Math.max(0, capacity - busyNanos.get()), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        super.beforeExecute(thread, runnable);
+        taskStart.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    protected void afterExecute(Runnable runnable, Throwable throwable) {
+        busyNanos.addAndGet(System.nanoTime() - taskStart.get()[0]);
+        super.afterExecute(runnable, throwable);
+    }
+
+    private Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        thread.setPriority(threadPriority);
+        thread.setName(name + "-" + threadIndex.getAndIncrement());
+        return thread;
+    }
+
+    private void rejectTask(Runnable runnable, ThreadPoolExecutor executor) {
+        logger.error("Cannot run {} because worker pool {} is shut down", runnable, name);
+    }
+}
@@ -0,0 +1,46 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.utilities.concurrency;
+
+/**
+ * Priority classes of the shared {@link WorkerPools}. Each type gets its own pool of threads, sized from the number
+ * of available processors unless the size is configured explicitly.
+ */
+public enum WorkerPoolType {
+    /**
+     * Chunk generation, loading and lighting. Leaves one core for the main thread.
+     */
+    CHUNK_PROCESSING("Chunk-Processing", Thread.NORM_PRIORITY, 1, 1),
+    /**
+     * Chunk mesh tessellation. Uses half of the cores, with low priority, so that it does not starve rendering.
+     */
+    CHUNK_MESHING("Chunk-Updater", Thread.MIN_PRIORITY, 0, 2);
+
+    private final String threadName;
+    private final int threadPriority;
+    private final int reservedProcessors;
+    private final int processorsPerThread;
+
+    WorkerPoolType(String threadName, int threadPriority, int reservedProcessors, int processorsPerThread) {
+        this.threadName = threadName;
+        this.threadPriority = threadPriority;
+        this.reservedProcessors = reservedProcessors;
+        this.processorsPerThread = processorsPerThread;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public int getThreadPriority() {
+        return threadPriority;
+    }
+
+    /**
+     * @param availableProcessors number of processors available to the JVM
+     * @return number of threads to use when no size is configured
+     */
+    public int getDefaultThreads(int availableProcessors) {
+        return Math.max(1, (availableProcessors - reservedProcessors) / processorsPerThread);
+    }
+}
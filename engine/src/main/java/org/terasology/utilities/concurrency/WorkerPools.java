@@ -0,0 +1,82 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.utilities.concurrency;
+
+import com.google.common.collect.Maps;
+import org.terasology.config.SystemConfig;
+import org.terasology.monitoring.ThreadMonitor;
+
+import java.util.Map;
+
+/**
+ * Holds the worker pools shared by the engine, one per {@link WorkerPoolType}.
+ * <p>
+ * Pools are created on first use. They are sized from the number of available processors, unless a size is configured
+ * in the {@link SystemConfig}. Pools can be resized at any time, and are registered with the {@link ThreadMonitor}.
+ */
+public final class WorkerPools {
+
+    private static final Map<WorkerPoolType, WorkerPool> POOLS = Maps.newEnumMap(WorkerPoolType.class);
+    private static final Map<WorkerPoolType, Integer> CONFIGURED_THREADS = Maps.newEnumMap(WorkerPoolType.class);
+
+    private WorkerPools() {
+    }
+
+    /**
+     * Applies the thread counts from the system config. A thread count of zero or less means the pool is sized from
+     * the number of available processors.
+     */
+    public static void configure(SystemConfig config) {
+        resize(WorkerPoolType.CHUNK_PROCESSING, config.getChunkProcessingThreads());
+        resize(WorkerPoolType.CHUNK_MESHING, config.getChunkMeshingThreads());
+    }
+
+    /**
+     * @return the shared worker pool of the given type, creating it if needed
+     */
+    public static synchronized WorkerPool get(WorkerPoolType type) {
+        WorkerPool pool = POOLS.get(type);
+        if (pool == null || pool.isShutdown()) {
+            pool = new WorkerPool(type.getThreadName(), getThreads(type), type.getThreadPriority());
+            POOLS.put(type, pool);
+            ThreadMonitor.registerWorkerPool(pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Changes the number of threads of the pool of the given type.
+     *
+     * @param threads the new number of threads, or zero to size the pool from the number of available processors
+     */
+    public static synchronized void resize(WorkerPoolType type, int threads) {
+        if (threads > 0) {
+            CONFIGURED_THREADS.put(type, threads);
+        } else {
+            CONFIGURED_THREADS.remove(type);
+        }
+        WorkerPool pool = POOLS.get(type);
+        if (pool != null) {
+            pool.resize(getThreads(type));
+        }
+    }
+
+    /**
+     * Shuts all pools down. Pools obtained afterwards are newly created.
+     */
+    public static synchronized void shutdown() {
+        for (WorkerPool pool : POOLS.values()) {
+            pool.shutdownNow();
+            ThreadMonitor.unregisterWorkerPool(pool);
+        }
+        POOLS.clear();
+    }
+
+    private static int getThreads(WorkerPoolType type) {
+        Integer configured = CONFIGURED_THREADS.get(type);
+        if (configured != null) {
+            return configured;
+        }
+        return type.getDefaultThreads(Runtime.getRuntime().availableProcessors());
+    }
+}
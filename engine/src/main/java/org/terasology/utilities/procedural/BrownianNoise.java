@@ -16,6 +16,10 @@
 
 package org.terasology.utilities.procedural;
 
+import com.google.common.base.Preconditions;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -107,6 +111,66 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Computes the area octave by octave through the batch method of the base noise. The values only differ from
+     * sampling each position on its own by float rounding, as the scale of each octave is applied to the positions at once.
+     */
+    @Override
+    public void noise(Rect2i area, float scaleX, float scaleY, float[] out) {
+        int size = area.sizeX() * area.sizeY();
+        Preconditions.checkArgument(out.length >= size, "The output array is smaller than the area");
+        float[] octave = new float[size];
+        float octaveScaleX = scaleX;
+        float octaveScaleY = scaleY;
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(area, octaveScaleX, octaveScaleY, octave);
+            addOctave(octave, spectralWeights[i], out, size, i == 0);
+
+            octaveScaleX *= (float) getLacunarity();
+            octaveScaleY *= (float) getLacunarity();
+        }
+        for (int j = 0; j < size; j++) {
+            out[j] *= scale;
+        }
+    }
+
+    /**
+     * Computes the region octave by octave through the batch method of the base noise. The values only differ from
+     * sampling each position on its own by float rounding, as the scale of each octave is applied to the positions at once.
+     */
+    @Override
+    public void noise(Region3i region, float scaleX, float scaleY, float scaleZ, float[] out) {
+        int size = region.sizeX() * region.sizeY() * region.sizeZ();
+        Preconditions.checkArgument(out.length >= size, "The output array is smaller than the region");
+        float[] octave = new float[size];
+        float octaveScaleX = scaleX;
+        float octaveScaleY = scaleY;
+        float octaveScaleZ = scaleZ;
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(region, octaveScaleX, octaveScaleY, octaveScaleZ, octave);
+            addOctave(octave, spectralWeights[i], out, size, i == 0);
+
+            octaveScaleX *= (float) getLacunarity();
+            octaveScaleY *= (float) getLacunarity();
+            octaveScaleZ *= (float) getLacunarity();
+        }
+        for (int j = 0; j < size; j++) {
+            out[j] *= scale;
+        }
+    }
+
+    private static void addOctave(float[] octave, float weight, float[] out, int size, boolean first) {
+        if (first) {
+            for (int j = 0; j < size; j++) {
+                out[j] = octave[j] * weight;
+            }
+        } else {
+            for (int j = 0; j < size; j++) {
+                out[j] += octave[j] * weight;
+            }
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
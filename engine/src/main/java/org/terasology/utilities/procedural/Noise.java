@@ -16,6 +16,10 @@
 
 package org.terasology.utilities.procedural;
 
+import com.google.common.base.Preconditions;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * Provides or generates noise
  *
@@ -59,4 +63,70 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Computes the noise values of a whole area, which is usually faster than calling {@link #noise(float, float)} for
+     * each position. The value at (x, y) is the noise at (x * scaleX, y * scaleY) and is stored at the index
+     * {@code (x - area.minX()) + area.sizeX() * (y - area.minY())}.
+     *
+     * @param area the positions to sample
+     * @param scaleX the factor applied to the x positions
+     * @param scaleY the factor applied to the y positions
+     * @param out receives the noise values, at least as large as the area
+     */
+    default void noise(Rect2i area, float scaleX, float scaleY, float[] out) {
+        Preconditions.checkArgument(out.length >= area.sizeX() * area.sizeY(), "The output array is smaller than the area");
+        int index = 0;
+        for (int y = area.minY(); y <= area.maxY(); y++) {
+            float sampleY = y * scaleY;
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                out[index++] = noise(x * scaleX, sampleY);
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values at the positions of a whole area.
+     *
+     * @see #noise(Rect2i, float, float, float[])
+     */
+    default void noise(Rect2i area, float[] out) {
+        noise(area, 1, 1, out);
+    }
+
+    /**
+     * Computes the noise values of a whole region, which is usually faster than calling
+     * {@link #noise(float, float, float)} for each position. The value at (x, y, z) is the noise at
+     * (x * scaleX, y * scaleY, z * scaleZ) and is stored at the index
+     * {@code (x - region.minX()) + region.sizeX() * ((y - region.minY()) + region.sizeY() * (z - region.minZ()))}.
+     *
+     * @param region the positions to sample
+     * @param scaleX the factor applied to the x positions
+     * @param scaleY the factor applied to the y positions
+     * @param scaleZ the factor applied to the z positions
+     * @param out receives the noise values, at least as large as the region
+     */
+    default void noise(Region3i region, float scaleX, float scaleY, float scaleZ, float[] out) {
+        Preconditions.checkArgument(out.length >= region.sizeX() * region.sizeY() * region.sizeZ(),
+                "The output array is smaller than the region");
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            float sampleZ = z * scaleZ;
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                float sampleY = y * scaleY;
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    out[index++] = noise(x * scaleX, sampleY, sampleZ);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values at the positions of a whole region.
+     *
+     * @see #noise(Region3i, float, float, float, float[])
+     */
+    default void noise(Region3i region, float[] out) {
+        noise(region, 1, 1, 1, out);
+    }
 }
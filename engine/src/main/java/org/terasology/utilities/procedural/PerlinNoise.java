@@ -15,7 +15,10 @@
  */
 package org.terasology.utilities.procedural;
 
+import com.google.common.base.Preconditions;
+import org.terasology.math.Region3i;
 import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Rect2i;
 import org.terasology.utilities.random.FastRandom;
 
 /**
@@ -83,17 +86,67 @@ public PerlinNoise(long seed, int gridDim) {
      */
     @Override
     public float noise(float posX, float posY, float posZ) {
-        int xInt = Math.floorMod(TeraMath.floorToInt(posX), permCount);
-        int yInt = Math.floorMod(TeraMath.floorToInt(posY), permCount);
-        int zInt = Math.floorMod(TeraMath.floorToInt(posZ), permCount);
-
-        float x = posX - TeraMath.fastFloor(posX);
         float y = posY - TeraMath.fastFloor(posY);
         float z = posZ - TeraMath.fastFloor(posZ);
+        return noise(posX, wrap(posY), y, TeraMath.fadePerlin(y), wrap(posZ), z, TeraMath.fadePerlin(z));
+    }
+
+    /**
+     * Computes the lattice values of each row once, with the same results as sampling each position on its own.
+     */
+    @Override
+    public void noise(Rect2i area, float scaleX, float scaleY, float[] out) {
+        Preconditions.checkArgument(out.length >= area.sizeX() * area.sizeY(), "The output array is smaller than the area");
+        int index = 0;
+        for (int row = area.minY(); row <= area.maxY(); row++) {
+            float posY = row * scaleY;
+            float y = posY - TeraMath.fastFloor(posY);
+            int yInt = wrap(posY);
+            float v = TeraMath.fadePerlin(y);
+            for (int column = area.minX(); column <= area.maxX(); column++) {
+                out[index++] = noise(column * scaleX, yInt, y, v, 0, 0, 0);
+            }
+        }
+    }
+
+    /**
+     * Computes the lattice values of each row once, with the same results as sampling each position on its own.
+     */
+    @Override
+    public void noise(Region3i region, float scaleX, float scaleY, float scaleZ, float[] out) {
+        Preconditions.checkArgument(out.length >= region.sizeX() * region.sizeY() * region.sizeZ(),
+                "The output array is smaller than the region");
+        int index = 0;
+        for (int layer = region.minZ(); layer <= region.maxZ(); layer++) {
+            float posZ = layer * scaleZ;
+            float z = posZ - TeraMath.fastFloor(posZ);
+            int zInt = wrap(posZ);
+            float w = TeraMath.fadePerlin(z);
+            for (int row = region.minY(); row <= region.maxY(); row++) {
+                float posY = row * scaleY;
+                float y = posY - TeraMath.fastFloor(posY);
+                int yInt = wrap(posY);
+                float v = TeraMath.fadePerlin(y);
+                for (int column = region.minX(); column <= region.maxX(); column++) {
+                    out[index++] = noise(column * scaleX, yInt, y, v, zInt, z, w);
+                }
+            }
+        }
+    }
 
+    private int wrap(float pos) {
+        return Math.floorMod(TeraMath.floorToInt(pos), permCount);
+    }
+
+    /**
+     * @param yInt the lattice row of the position, wrapped into the permutations
+     * @param y the offset of the position within the lattice row
+     * @param v the faded offset within the lattice row
+     */
+    private float noise(float posX, int yInt, float y, float v, int zInt, float z, float w) {
+        int xInt = wrap(posX);
+        float x = posX - TeraMath.fastFloor(posX);
         float u = TeraMath.fadePerlin(x);
-        float v = TeraMath.fadePerlin(y);
-        float w = TeraMath.fadePerlin(z);
         int a = noisePermutations[xInt] + yInt;
         int aa = noisePermutations[a] + zInt;
         int ab = noisePermutations[(a + 1)] + zInt;
@@ -15,7 +15,10 @@
  */
 package org.terasology.utilities.procedural;
 
+import com.google.common.base.Preconditions;
+import org.terasology.math.Region3i;
 import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Rect2i;
 import org.terasology.utilities.random.FastRandom;
 
 /**
@@ -45,10 +48,10 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
      */
     public static final float TILEABLE1DMAGICNUMBER = 0.5773502691896258f;
 
-    private static Grad[] grad3 = {
-            new Grad(1, 1, 0), new Grad(-1, 1, 0), new Grad(1, -1, 0), new Grad(-1, -1, 0),
-            new Grad(1, 0, 1), new Grad(-1, 0, 1), new Grad(1, 0, -1), new Grad(-1, 0, -1),
-            new Grad(0, 1, 1), new Grad(0, -1, 1), new Grad(0, 1, -1), new Grad(0, -1, -1)};
+    // the components of the 12 gradients used for 2D and 3D noise
+    private static final float[] GRAD3_X = {1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0};
+    private static final float[] GRAD3_Y = {1, 1, -1, -1, 0, 0, 0, 0, 1, -1, 1, -1};
+    private static final float[] GRAD3_Z = {0, 0, 0, 0, 1, 1, -1, -1, 1, 1, -1, -1};
 
     private static Grad[] grad4 = {
             new Grad(0, 1, 1, 1), new Grad(0, 1, 1, -1), new Grad(0, 1, -1, 1), new Grad(0, 1, -1, -1),
@@ -69,8 +72,13 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
     private static final float G4 = (5.0f - (float) Math.sqrt(5.0f)) / 20.0f;
 
     private final short[] perm;
-    private final short[] permMod12;
     private final int permCount;
+    private final int permMask;
+    // the gradient for each permutation index, so sampling looks up plain floats instead of following references
+    private final float[] permGradX;
+    private final float[] permGradY;
+    private final float[] permGradZ;
+
     /**
      * Initialize permutations with a given seed and grid dimension.
      *
@@ -92,9 +100,9 @@ public SimplexNoise(long seed, int gridDim) {
         FastRandom rand = new FastRandom(seed);
 
         permCount = gridDim;
+        permMask = (gridDim & (gridDim - 1)) == 0 ? gridDim - 1 : -1;
 
         perm = new short[permCount * 2];
-        permMod12 = new short[permCount * 2];
         short[] p = new short[permCount];
 
         // Initialize with all values [0..(permCount-1)]
@@ -111,18 +119,31 @@ public SimplexNoise(long seed, int gridDim) {
             p[j] = swap;
         }
 
+        permGradX = new float[permCount * 2];
+        permGradY = new float[permCount * 2];
+        permGradZ = new float[permCount * 2];
         for (int i = 0; i < permCount * 2; i++) {
             perm[i] = p[i % permCount];
-            permMod12[i] = (short) (perm[i] % 12);
+            int gradient = perm[i] % 12;
+            permGradX[i] = GRAD3_X[gradient];
+            permGradY[i] = GRAD3_Y[gradient];
+            permGradZ[i] = GRAD3_Z[gradient];
         }
     }
 
-    private static float dot(Grad g, float x, float y) {
-        return g.x * x + g.y * y;
+    private float dot(int permIndex, float x, float y) {
+        return permGradX[permIndex] * x + permGradY[permIndex] * y;
+    }
+
+    private float dot(int permIndex, float x, float y, float z) {
+        return permGradX[permIndex] * x + permGradY[permIndex] * y + permGradZ[permIndex] * z;
     }
 
-    private static float dot(Grad g, float x, float y, float z) {
-        return g.x * x + g.y * y + g.z * z;
+    /**
+     * @return the given lattice coordinate wrapped into the permutation table
+     */
+    private int wrap(int coordinate) {
+        return permMask >= 0 ? coordinate & permMask : Math.floorMod(coordinate, permCount);
     }
 
     private static float dot(Grad g, float x, float y, float z, float w) {
@@ -138,6 +159,25 @@ private static float dot(Grad g, float x, float y, float z, float w) {
      */
     @Override
     public float noise(float xin, float yin) {
+        return simplex(xin, yin);
+    }
+
+    /**
+     * Computes the noise row by row, with the same results as sampling each position on its own.
+     */
+    @Override
+    public void noise(Rect2i area, float scaleX, float scaleY, float[] out) {
+        Preconditions.checkArgument(out.length >= area.sizeX() * area.sizeY(), "The output array is smaller than the area");
+        int index = 0;
+        for (int y = area.minY(); y <= area.maxY(); y++) {
+            float yin = y * scaleY;
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                out[index++] = simplex(x * scaleX, yin);
+            }
+        }
+    }
+
+    private float simplex(float xin, float yin) {
         float n0;
         float n1;
         float n2; // Noise contributions from the three corners
@@ -173,11 +213,11 @@ public float noise(float xin, float yin) {
         float y2 = y0 - 1.0f + 2.0f * G2;
 
         // Work out the hashed gradient indices of the three simplex corners
-        int ii = Math.floorMod(i, permCount);
-        int jj = Math.floorMod(j, permCount);
-        int gi0 = permMod12[ii + perm[jj]];
-        int gi1 = permMod12[ii + i1 + perm[jj + j1]];
-        int gi2 = permMod12[ii + 1 + perm[jj + 1]];
+        int ii = wrap(i);
+        int jj = wrap(j);
+        int gi0 = ii + perm[jj];
+        int gi1 = ii + i1 + perm[jj + j1];
+        int gi2 = ii + 1 + perm[jj + 1];
 
         // Calculate the contribution from the three corners
         float t0 = 0.5f - x0 * x0 - y0 * y0;
@@ -185,21 +225,21 @@ public float noise(float xin, float yin) {
             n0 = 0.0f;
         } else {
             t0 *= t0;
-            n0 = t0 * t0 * dot(grad3[gi0], x0, y0); // (x,y) of grad3 used for 2D gradient
+            n0 = t0 * t0 * dot(gi0, x0, y0); // (x,y) of grad3 used for 2D gradient
         }
         float t1 = 0.5f - x1 * x1 - y1 * y1;
         if (t1 < 0) {
             n1 = 0.0f;
         } else {
             t1 *= t1;
-            n1 = t1 * t1 * dot(grad3[gi1], x1, y1);
+            n1 = t1 * t1 * dot(gi1, x1, y1);
         }
         float t2 = 0.5f - x2 * x2 - y2 * y2;
         if (t2 < 0) {
             n2 = 0.0f;
         } else {
             t2 *= t2;
-            n2 = t2 * t2 * dot(grad3[gi2], x2, y2);
+            n2 = t2 * t2 * dot(gi2, x2, y2);
         }
 
         // Add contributions from each corner to get the final noise value.
@@ -217,6 +257,29 @@ public float noise(float xin, float yin) {
      */
     @Override
     public float noise(float xin, float yin, float zin) {
+        return simplex(xin, yin, zin);
+    }
+
+    /**
+     * Computes the noise row by row, with the same results as sampling each position on its own.
+     */
+    @Override
+    public void noise(Region3i region, float scaleX, float scaleY, float scaleZ, float[] out) {
+        Preconditions.checkArgument(out.length >= region.sizeX() * region.sizeY() * region.sizeZ(),
+                "The output array is smaller than the region");
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            float zin = z * scaleZ;
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                float yin = y * scaleY;
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    out[index++] = simplex(x * scaleX, yin, zin);
+                }
+            }
+        }
+    }
+
+    private float simplex(float xin, float yin, float zin) {
         float n0;
         float n1;
         float n2;
@@ -307,13 +370,13 @@ public float noise(float xin, float yin, float zin) {
         float z3 = z0 - 1.0f + 3.0f * G3;
 
         // Work out the hashed gradient indices of the four simplex corners
-        int ii = Math.floorMod(i, permCount);
-        int jj = Math.floorMod(j, permCount);
-        int kk = Math.floorMod(k, permCount);
-        int gi0 = permMod12[ii + perm[jj + perm[kk]]];
-        int gi1 = permMod12[ii + i1 + perm[jj + j1 + perm[kk + k1]]];
-        int gi2 = permMod12[ii + i2 + perm[jj + j2 + perm[kk + k2]]];
-        int gi3 = permMod12[ii + 1 + perm[jj + 1 + perm[kk + 1]]];
+        int ii = wrap(i);
+        int jj = wrap(j);
+        int kk = wrap(k);
+        int gi0 = ii + perm[jj + perm[kk]];
+        int gi1 = ii + i1 + perm[jj + j1 + perm[kk + k1]];
+        int gi2 = ii + i2 + perm[jj + j2 + perm[kk + k2]];
+        int gi3 = ii + 1 + perm[jj + 1 + perm[kk + 1]];
 
         // Calculate the contribution from the four corners
         float t0 = 0.6f - x0 * x0 - y0 * y0 - z0 * z0;
@@ -321,28 +384,28 @@ public float noise(float xin, float yin, float zin) {
             n0 = 0.0f;
         } else {
             t0 *= t0;
-            n0 = t0 * t0 * dot(grad3[gi0], x0, y0, z0);
+            n0 = t0 * t0 * dot(gi0, x0, y0, z0);
         }
         float t1 = 0.6f - x1 * x1 - y1 * y1 - z1 * z1;
         if (t1 < 0) {
             n1 = 0.0f;
         } else {
             t1 *= t1;
-            n1 = t1 * t1 * dot(grad3[gi1], x1, y1, z1);
+            n1 = t1 * t1 * dot(gi1, x1, y1, z1);
         }
         float t2 = 0.6f - x2 * x2 - y2 * y2 - z2 * z2;
         if (t2 < 0) {
             n2 = 0.0f;
         } else {
             t2 *= t2;
-            n2 = t2 * t2 * dot(grad3[gi2], x2, y2, z2);
+            n2 = t2 * t2 * dot(gi2, x2, y2, z2);
         }
         float t3 = 0.6f - x3 * x3 - y3 * y3 - z3 * z3;
         if (t3 < 0) {
             n3 = 0.0f;
         } else {
             t3 *= t3;
-            n3 = t3 * t3 * dot(grad3[gi3], x3, y3, z3);
+            n3 = t3 * t3 * dot(gi3, x3, y3, z3);
         }
 
         // Add contributions from each corner to get the final noise value.
@@ -535,12 +598,6 @@ private static class Grad {
         float z;
         float w;
 
-        Grad(float x, float y, float z) {
-            this.x = x;
-            this.y = y;
-            this.z = z;
-        }
-
         Grad(float x, float y, float z, float w) {
             this.x = x;
             this.y = y;
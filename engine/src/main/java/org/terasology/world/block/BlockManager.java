@@ -63,6 +63,11 @@ public abstract class BlockManager {
      */
     public abstract Block getBlock(short id);
 
+    /**
+     * @return An immutable snapshot of the currently registered blocks, for fast lookups by id
+     */
+    public abstract BlockPalette getBlockPalette();
+
     /**
      * @return A collection of registered (in use) block uris
      */
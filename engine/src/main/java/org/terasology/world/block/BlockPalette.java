@@ -0,0 +1,59 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.block;
+
+import java.util.Collection;
+
+/**
+ * An immutable snapshot of the registered blocks, indexed directly by block id.
+ * <p>
+ * Looking up a block in the palette is a plain array access, so loops over many voxels (tessellation, lighting,
+ * generation) should fetch the palette once and use it for all their lookups. Blocks registered after the snapshot
+ * was taken are not part of it: callers that may run into such ids should fall back to
+ * {@link BlockManager#getBlock(short)} when {@link #get(short)} returns null.
+ */
+public final class BlockPalette {
+
+    private static final BlockPalette EMPTY = new BlockPalette(new Block[0]);
+
+    private final Block[] blocksById;
+
+    private BlockPalette(Block[] blocksById) {
+        this.blocksById = blocksById;
+    }
+
+    public static BlockPalette empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param blocks the blocks of the palette, each stored at the index of its id
+     */
+    public static BlockPalette of(Collection<Block> blocks) {
+        int size = 0;
+        for (Block block : blocks) {
+            size = Math.max(size, (block.getId() & 0xFFFF) + 1);
+        }
+        Block[] blocksById = new Block[size];
+        for (Block block : blocks) {
+            blocksById[block.getId() & 0xFFFF] = block;
+        }
+        return new BlockPalette(blocksById);
+    }
+
+    /**
+     * @param id the id of the block, as stored in the chunks
+     * @return the block with the given id, or null if there is no such block in this palette
+     */
+    public Block get(short id) {
+        int index = id & 0xFFFF;
+        return index < blocksById.length ? blocksById[index] : null;
+    }
+
+    /**
+     * @return one more than the highest id in this palette
+     */
+    public int size() {
+        return blocksById.length;
+    }
+}
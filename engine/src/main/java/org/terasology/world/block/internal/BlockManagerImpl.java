@@ -31,6 +31,7 @@
 import org.terasology.assets.management.AssetManager;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPalette;
 import org.terasology.world.block.BlockUri;
 import org.terasology.world.block.BlockUriParseException;
 import org.terasology.world.block.family.BlockFamily;
@@ -189,6 +190,7 @@ protected void registerFamily(BlockFamily family) {
             for (Block block : family.getBlocks()) {
                 registerBlock(block, newState);
             }
+            newState.palette = BlockPalette.of(newState.blocksById.valueCollection());
             registeredBlockInfo.set(newState);
         } finally {
             lock.unlock();
@@ -327,13 +329,18 @@ public Block getBlock(BlockUri uri) {
 
     @Override
     public Block getBlock(short id) {
-        Block result = registeredBlockInfo.get().blocksById.get(id);
+        Block result = registeredBlockInfo.get().palette.get(id);
         if (result == null) {
             return getAirBlock();
         }
         return result;
     }
 
+    @Override
+    public BlockPalette getBlockPalette() {
+        return registeredBlockInfo.get().palette;
+    }
+
     @Override
     public Collection<BlockUri> listRegisteredBlockUris() {
         return Collections.unmodifiableCollection(registeredBlockInfo.get().registeredFamilyByUri.keySet());
@@ -361,12 +368,14 @@ private static class RegisteredState {
         private final Map<BlockUri, Block> blocksByUri;
         private final TShortObjectMap<Block> blocksById;
         private final TObjectShortMap<BlockUri> idByUri;
+        private BlockPalette palette;
 
         RegisteredState() {
             this.registeredFamilyByUri = Maps.newHashMap();
             this.blocksByUri = Maps.newHashMap();
             this.blocksById = new TShortObjectHashMap<>();
             this.idByUri = new TObjectShortHashMap<>();
+            this.palette = BlockPalette.empty();
         }
 
         RegisteredState(RegisteredState oldState) {
@@ -374,6 +383,7 @@ private static class RegisteredState {
             this.blocksByUri = Maps.newHashMap(oldState.blocksByUri);
             this.blocksById = new TShortObjectHashMap<>(oldState.blocksById);
             this.idByUri = new TObjectShortHashMap<>(oldState.idByUri);
+            this.palette = oldState.palette;
         }
     }
 }
@@ -18,6 +18,8 @@
 import org.terasology.module.sandbox.API;
 import org.terasology.protobuf.EntityData;
 
+import java.util.function.Supplier;
+
 /**
  */
 @API
@@ -39,4 +41,11 @@ public interface ManagedChunk extends CoreChunk {
 
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
+
+    /**
+     * Copies the data of the chunk, so that it can be encoded on another thread while the chunk keeps changing.
+     *
+     * @return encodes the copied data when called
+     */
+    Supplier<EntityData.ChunkStore.Builder> copyForEncoding();
 }
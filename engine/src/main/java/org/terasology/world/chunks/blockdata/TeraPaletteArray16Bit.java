@@ -0,0 +1,472 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * TeraPaletteArray16Bit implements an array with elements of 16 bit size that stores each element as an index into a
+ * palette of the distinct values, bit-packed into longs.
+ * <p>
+ * An index takes 1, 2, 4 or 8 bits, as few as the size of the palette allows, so an element never spans two longs. When
+ * a value is set that doesn't fit into the palette any more, the indices are repacked with twice as many bits. Beyond
+ * {@link #MAX_PALETTE_SIZE} distinct values the palette is dropped and the values are packed with 16 bits each.
+ * <p>
+ * Chunks mostly contain a handful of distinct blocks, so their block data takes an eighth or less of the memory of a
+ * {@link TeraDenseArray16Bit}, even when its layers are not uniform enough for a {@link TeraSparseArray16Bit}.
+ * <p>
+ * Reading is safe while another thread sets values, like it is for the dense arrays: a reader may see a value from
+ * before the change, but never an inconsistent state.
+ */
+public class TeraPaletteArray16Bit extends TeraArray {
+
+    public static final int MAX_PALETTE_SIZE = 256;
+
+    private static final int DIRECT_BITS = 16;
+
+    private Storage storage;
+    private int paletteSize;
+
+    public TeraPaletteArray16Bit() {
+        super();
+    }
+
+    public TeraPaletteArray16Bit(int sizeX, int sizeY, int sizeZ) {
+        super(sizeX, sizeY, sizeZ, true);
+    }
+
+    /**
+     * Packs the values of a dense array, which are ordered like the positions of tera arrays.
+     */
+    public TeraPaletteArray16Bit(int sizeX, int sizeY, int sizeZ, short[] data) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkNotNull(data);
+        Preconditions.checkArgument(data.length == getSizeXYZ(), "The length of parameter 'data' has to be " + getSizeXYZ() + " but is " + data.length);
+        short[] palette = distinctValues(data);
+        paletteSize = palette.length;
+        if (paletteSize > MAX_PALETTE_SIZE) {
+            storage = new Storage(getSizeXYZ(), DIRECT_BITS, null);
+            for (int i = 0; i < data.length; i++) {
+                storage.setIndex(i, data[i] & 0xFFFF);
+            }
+        } else {
+            storage = new Storage(getSizeXYZ(), bitsFor(paletteSize), Arrays.copyOf(palette, 1 << bitsFor(paletteSize)));
+            short last = palette[0];
+            int lastIndex = 0;
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] != last) {
+                    last = data[i];
+                    lastIndex = Arrays.binarySearch(palette, last);
+                }
+                storage.setIndex(i, lastIndex);
+            }
+        }
+    }
+
+    /**
+     * Creates an array that holds the given value everywhere and has room in its palette for the other values, so they
+     * can be set without repacking.
+     *
+     * @param palette the values that will be set, the first of which the array is filled with
+     */
+    public TeraPaletteArray16Bit(int sizeX, int sizeY, int sizeZ, short[] palette, int paletteSize) {
+        super(sizeX, sizeY, sizeZ, false);
+        Preconditions.checkArgument(paletteSize > 0 && paletteSize <= palette.length, "Parameter 'paletteSize' is out of range");
+        if (paletteSize > MAX_PALETTE_SIZE) {
+            storage = new Storage(getSizeXYZ(), DIRECT_BITS, null);
+            this.paletteSize = MAX_PALETTE_SIZE + 1;
+            fill(0, getSizeXYZ(), palette[0]);
+        } else {
+            storage = new Storage(getSizeXYZ(), bitsFor(paletteSize), Arrays.copyOf(palette, 1 << bitsFor(paletteSize)));
+            this.paletteSize = paletteSize;
+        }
+    }
+
+    private TeraPaletteArray16Bit(int sizeX, int sizeY, int sizeZ, Storage storage, int paletteSize) {
+        super(sizeX, sizeY, sizeZ, false);
+        this.storage = storage;
+        this.paletteSize = paletteSize;
+    }
+
+    public TeraPaletteArray16Bit(TeraArray in) {
+        super(Preconditions.checkNotNull(in).getSizeX(), in.getSizeY(), in.getSizeZ(), true);
+        for (int y = 0; y < getSizeY(); y++) {
+            for (int z = 0; z < getSizeZ(); z++) {
+                for (int x = 0; x < getSizeX(); x++) {
+                    set(x, y, z, in.get(x, y, z));
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the distinct values, but stops counting once there are more than the limit.
+     *
+     * @return the number of distinct values, or {@code limit + 1} if there are more
+     */
+    public static int countDistinctValues(short[] data, int limit) {
+        long[] seen = new long[(1 << 16) / Long.SIZE];
+        int count = 0;
+        for (short value : data) {
+            int bit = value & 0xFFFF;
+            if ((seen[bit >>> 6] & (1L << bit)) == 0) {
+                seen[bit >>> 6] |= 1L << bit;
+                if (++count > limit) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the memory an array of the given size with the given number of distinct values takes
+     */
+    public static int estimateMemoryConsumptionInBytes(int size, int distinctValues) {
+        if (distinctValues > MAX_PALETTE_SIZE) {
+            return 72 + wordCount(size, DIRECT_BITS) * 8;
+        }
+        int bits = bitsFor(distinctValues);
+        return 88 + wordCount(size, bits) * 8 + (1 << bits) * 2;
+    }
+
+    @Override
+    protected void initialize() {
+        storage = new Storage(getSizeXYZ(), 1, new short[2]);
+        paletteSize = 1;
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public TeraArray copy() {
+        return new TeraPaletteArray16Bit(getSizeX(), getSizeY(), getSizeZ(), storage.copy(), paletteSize);
+    }
+
+    /**
+     * Tera arrays are deflated once their content is complete, so this drops the values of the palette that are not
+     * used anymore, if that allows for fewer bits per element.
+     */
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        Storage current = storage;
+        boolean[] used = new boolean[current.palette != null ? paletteSize : 1 << DIRECT_BITS];
+        int usedCount = 0;
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            int index = current.getIndex(i);
+            if (!used[index]) {
+                used[index] = true;
+                usedCount++;
+            }
+        }
+        int bits = usedCount > MAX_PALETTE_SIZE ? DIRECT_BITS : bitsFor(usedCount);
+        if (bits >= current.bits) {
+            return null;
+        }
+        short[] palette = new short[1 << bits];
+        int[] remapped = new int[used.length];
+        int size = 0;
+        for (int index = 0; index < used.length; index++) {
+            if (used[index]) {
+                palette[size] = current.palette != null ? current.palette[index] : (short) index;
+                remapped[index] = size++;
+            }
+        }
+        Storage deflated = new Storage(getSizeXYZ(), bits, palette);
+        for (int i = 0; i < getSizeXYZ(); i++) {
+            deflated.setIndex(i, remapped[current.getIndex(i)]);
+        }
+        return new TeraPaletteArray16Bit(getSizeX(), getSizeY(), getSizeZ(), deflated, size);
+    }
+
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        if (storage == null) {
+            return 8;
+        }
+        return 24 + storage.getEstimatedMemoryConsumptionInBytes();
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 16;
+    }
+
+    /**
+     * @return the number of bits each element takes
+     */
+    public int getBitsPerElement() {
+        return storage.bits;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        return storage.get(pos(x, y, z));
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        int pos = pos(x, y, z);
+        Storage current = storage;
+        int old = current.get(pos);
+        if (old != (short) value) {
+            indexedStorage(value).setIndex(pos, indexOf(value));
+        }
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int pos = pos(x, y, z);
+        if (storage.get(pos) == expected) {
+            set(x, y, z, value);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the elements with positions from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive. Positions are
+     * ordered by x first, then z, then y, which is the order run length encodings of chunks use.
+     */
+    public void fill(int fromIndex, int toIndex, int value) {
+        Preconditions.checkPositionIndexes(fromIndex, toIndex, getSizeXYZ());
+        if (fromIndex == toIndex) {
+            return;
+        }
+        Storage current = indexedStorage(value);
+        int index = indexOf(value);
+        for (int i = fromIndex; i < toIndex; i++) {
+            current.setIndex(i, index);
+        }
+    }
+
+    /**
+     * Makes sure the value has an index in the palette, repacking the elements with more bits if the palette is full.
+     *
+     * @return the storage to set the index of the value in
+     */
+    private Storage indexedStorage(int value) {
+        Storage current = storage;
+        if (current.palette == null || indexOf(value) >= 0) {
+            return current;
+        }
+        if (paletteSize == current.palette.length) {
+            int bits = paletteSize == MAX_PALETTE_SIZE ? DIRECT_BITS : current.bits * 2;
+            Storage repacked = new Storage(getSizeXYZ(), bits, bits == DIRECT_BITS ? null : Arrays.copyOf(current.palette, 1 << bits));
+            for (int i = 0; i < getSizeXYZ(); i++) {
+                repacked.setIndex(i, bits == DIRECT_BITS ? current.get(i) & 0xFFFF : current.getIndex(i));
+            }
+            // published at once, so readers see either the old or the new elements
+            storage = repacked;
+            if (bits == DIRECT_BITS) {
+                paletteSize = MAX_PALETTE_SIZE + 1;
+                return repacked;
+            }
+            current = repacked;
+        }
+        current.palette[paletteSize++] = (short) value;
+        return current;
+    }
+
+    /**
+     * @return the index of the value in the palette, the value itself if there is no palette, or -1 if the palette
+     *         doesn't contain the value
+     */
+    private int indexOf(int value) {
+        short[] palette = storage.palette;
+        if (palette == null) {
+            return value & 0xFFFF;
+        }
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == (short) value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static short[] distinctValues(short[] data) {
+        long[] seen = new long[(1 << 16) / Long.SIZE];
+        int count = 0;
+        for (short value : data) {
+            int bit = value & 0xFFFF;
+            if ((seen[bit >>> 6] & (1L << bit)) == 0) {
+                seen[bit >>> 6] |= 1L << bit;
+                count++;
+            }
+        }
+        // ordered as signed shorts, for the binary search
+        short[] values = new short[count];
+        int index = 0;
+        for (int bit = 0; bit < 1 << 16; bit++) {
+            if ((seen[bit >>> 6] & (1L << bit)) != 0) {
+                values[index++] = (short) bit;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private static int bitsFor(int paletteSize) {
+        int bits = 1;
+        while (1 << bits < paletteSize) {
+            bits *= 2;
+        }
+        return bits;
+    }
+
+    private static int wordCount(int size, int bits) {
+        int perWord = Long.SIZE / bits;
+        return (size + perWord - 1) / perWord;
+    }
+
+    /**
+     * The packed indices and the palette they point into. The fields are final, so a storage replaced by a repacked one
+     * is safely visible to other threads, as the storages of the dense arrays are.
+     */
+    private static final class Storage {
+        private final int bits;
+        private final int bitsShift;
+        private final int elementMask;
+        private final int elementsShift;
+        private final int elementsMask;
+        private final long[] words;
+        private final short[] palette;
+
+        private Storage(int size, int bits, short[] palette) {
+            this(bits, new long[wordCount(size, bits)], palette);
+        }
+
+        private Storage(int bits, long[] words, short[] palette) {
+            this.bits = bits;
+            this.bitsShift = Integer.numberOfTrailingZeros(bits);
+            this.elementMask = (1 << bits) - 1;
+            this.elementsShift = 6 - bitsShift;
+            this.elementsMask = (1 << elementsShift) - 1;
+            this.words = words;
+            this.palette = palette;
+        }
+
+        private int get(int pos) {
+            int index = getIndex(pos);
+            return palette != null ? palette[index] : (short) index;
+        }
+
+        private int getIndex(int pos) {
+            return (int) (words[pos >>> elementsShift] >>> ((pos & elementsMask) << bitsShift)) & elementMask;
+        }
+
+        private void setIndex(int pos, int index) {
+            int word = pos >>> elementsShift;
+            int shift = (pos & elementsMask) << bitsShift;
+            words[word] = words[word] & ~((long) elementMask << shift) | ((long) index << shift);
+        }
+
+        private Storage copy() {
+            return new Storage(bits, words.clone(), palette != null ? palette.clone() : null);
+        }
+
+        private int getEstimatedMemoryConsumptionInBytes() {
+            return 32 + 16 + words.length * 8 + (palette != null ? 16 + palette.length * 2 : 0);
+        }
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraPaletteArray16Bit> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraPaletteArray16Bit.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraPaletteArray16Bit array) {
+            final Storage storage = array.storage;
+            if (storage == null) {
+                return 4;
+            }
+            return 4 + 4 + (storage.palette != null ? storage.palette.length * 2 : 0) + 4 + storage.words.length * 8;
+        }
+
+        @Override
+        protected void internalSerialize(TeraPaletteArray16Bit array, ByteBuffer buffer) {
+            final Storage storage = array.storage;
+            if (storage == null) {
+                buffer.putInt(0);
+                return;
+            }
+            buffer.putInt(storage.bits);
+            if (storage.palette != null) {
+                buffer.putInt(array.paletteSize);
+                final ShortBuffer sbuffer = buffer.asShortBuffer();
+                sbuffer.put(storage.palette);
+                buffer.position(buffer.position() + storage.palette.length * 2);
+            } else {
+                buffer.putInt(0);
+            }
+            buffer.putInt(storage.words.length);
+            final LongBuffer lbuffer = buffer.asLongBuffer();
+            lbuffer.put(storage.words);
+            buffer.position(buffer.position() + storage.words.length * 8);
+        }
+
+        @Override
+        protected TeraPaletteArray16Bit internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int bits = buffer.getInt();
+            if (bits == 0) {
+                return new TeraPaletteArray16Bit(sizeX, sizeY, sizeZ);
+            }
+            Preconditions.checkArgument(bits == 1 || bits == 2 || bits == 4 || bits == 8 || bits == DIRECT_BITS,
+                    "Unsupported number of bits per element: " + bits);
+            int paletteSize = buffer.getInt();
+            short[] palette = null;
+            if (bits != DIRECT_BITS) {
+                palette = new short[1 << bits];
+                Preconditions.checkArgument(paletteSize > 0 && paletteSize <= palette.length, "Unexpected palette size: " + paletteSize);
+                final ShortBuffer sbuffer = buffer.asShortBuffer();
+                sbuffer.get(palette);
+                buffer.position(buffer.position() + palette.length * 2);
+            } else {
+                paletteSize = MAX_PALETTE_SIZE + 1;
+            }
+            final long[] words = new long[buffer.getInt()];
+            Preconditions.checkArgument(words.length == wordCount(sizeX * sizeY * sizeZ, bits), "Unexpected number of words: " + words.length);
+            final LongBuffer lbuffer = buffer.asLongBuffer();
+            lbuffer.get(words);
+            buffer.position(buffer.position() + words.length * 8);
+            return new TeraPaletteArray16Bit(sizeX, sizeY, sizeZ, new Storage(bits, words, palette), paletteSize);
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraPaletteArray16Bit> {
+
+        @Override
+        public Class<TeraPaletteArray16Bit> getArrayClass() {
+            return TeraPaletteArray16Bit.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraPaletteArray16Bit create() {
+            return new TeraPaletteArray16Bit();
+        }
+
+        @Override
+        public TeraPaletteArray16Bit create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraPaletteArray16Bit(sizeX, sizeY, sizeZ);
+        }
+    }
+}
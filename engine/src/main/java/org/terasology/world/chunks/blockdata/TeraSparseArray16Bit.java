@@ -87,13 +87,20 @@ public int getEstimatedMemoryConsumptionInBytes() {
         if (inflated == null) {
             return 10;
         }
-        int result = 10 + (getSizeY() * 2) + (getSizeY() * 4);
+        int inflatedRows = 0;
         for (int i = 0; i < getSizeY(); i++) {
             if (inflated[i] != null) {
-                result += 12 + (getSizeXZ() * 2);
+                inflatedRows++;
             }
         }
-        return result;
+        return estimateMemoryConsumptionInBytes(getSizeXZ(), getSizeY(), inflatedRows);
+    }
+
+    /**
+     * @return the memory an array with the given number of rows that are not uniform takes
+     */
+    public static int estimateMemoryConsumptionInBytes(int rowSize, int sizeY, int inflatedRows) {
+        return 10 + (sizeY * 2) + (sizeY * 4) + inflatedRows * (12 + (rowSize * 2));
     }
 
     @Override
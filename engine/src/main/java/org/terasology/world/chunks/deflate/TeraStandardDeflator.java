@@ -17,12 +17,15 @@
 package org.terasology.world.chunks.deflate;
 
 import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray4Bit;
 import org.terasology.world.chunks.blockdata.TeraSparseArray8Bit;
 
 /**
  * TeraStandardDeflator implements a simple deflation algorithm for 4, 8 and 16-bit dense and sparse arrays.<br>
+ * Dense 16-bit arrays with few distinct values are packed into a {@link TeraPaletteArray16Bit} instead, if that takes
+ * less memory than the sparse array.<br>
  * <b>NOTE:</b> Currently it is optimized for chunks of size 16x256x16 blocks.<br>
  * TODO: Implement deflation for sparse arrays.
  *
@@ -59,9 +62,9 @@ public class TeraStandardDeflator extends TeraVisitingDeflator {
      */
 
     // TODO dynamically calculate DEFLATE_MINIMUM_*, they only work for chunks with dimension 16x256x16
-    protected static final int DEFLATE_MINIMUM_16BIT = 8;
-    protected static final int DEFLATE_MINIMUM_8BIT = 16;
-    protected static final int DEFLATE_MINIMUM_4BIT = 31;
+    public static final int DEFLATE_MINIMUM_16BIT = 8;
+    public static final int DEFLATE_MINIMUM_8BIT = 16;
+    public static final int DEFLATE_MINIMUM_4BIT = 31;
 
     public TeraStandardDeflator() {
     }
@@ -103,10 +106,18 @@ public TeraArray deflateDenseArray16Bit(short[] data, int rowSize, int sizeX, in
                 return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, first);
             }
         }
+        TeraArray result = null;
+        int resultSize = (data.length * 2) + 16;
         if (packed > DEFLATE_MINIMUM_16BIT) {
-            return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, inflated, deflated);
+            result = new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, inflated, deflated);
+            resultSize = result.getEstimatedMemoryConsumptionInBytes();
         }
-        return null;
+        int distinct = TeraPaletteArray16Bit.countDistinctValues(data, TeraPaletteArray16Bit.MAX_PALETTE_SIZE);
+        if (distinct <= TeraPaletteArray16Bit.MAX_PALETTE_SIZE
+                && TeraPaletteArray16Bit.estimateMemoryConsumptionInBytes(data.length, distinct) < resultSize) {
+            result = new TeraPaletteArray16Bit(sizeX, sizeY, sizeZ, data);
+        }
+        return result;
     }
 
     @Override
@@ -18,6 +18,7 @@
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPalette;
 import org.terasology.world.chunks.ChunkBlockIterator;
 import org.terasology.world.chunks.blockdata.TeraArray;
 
@@ -35,9 +36,11 @@ public class ChunkBlockIteratorImpl implements ChunkBlockIterator {
     private Block block;
 
     private final BlockManager blockManager;
+    private final BlockPalette blockPalette;
 
     public ChunkBlockIteratorImpl(BlockManager blockManager, Vector3i worldOffset, TeraArray data) {
         this.blockManager = blockManager;
+        this.blockPalette = blockManager.getBlockPalette();
         this.worldOffset = worldOffset;
         this.endPos = new Vector3i(data.getSizeX(), data.getSizeY(), data.getSizeZ());
         this.data = data;
@@ -58,7 +61,11 @@ public boolean next() {
             }
         }
         blockPos.set(pos.x + worldOffset.x, pos.y + worldOffset.y, pos.z + worldOffset.z);
-        block = blockManager.getBlock((short) data.get(pos.x, pos.y, pos.z));
+        short id = (short) data.get(pos.x, pos.y, pos.z);
+        block = blockPalette.get(id);
+        if (block == null) {
+            block = blockManager.getBlock(id);
+        }
         return true;
     }
 
@@ -30,6 +30,7 @@
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPalette;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkBlockIterator;
 import org.terasology.world.chunks.ChunkConstants;
@@ -41,6 +42,7 @@
 import org.terasology.world.chunks.deflate.TeraStandardDeflator;
 
 import java.text.DecimalFormat;
+import java.util.function.Supplier;
 
 /**
  * Chunks are the basic components of the world. Each chunk contains a fixed amount of blocks
@@ -60,6 +62,8 @@ public class ChunkImpl implements Chunk {
     private final Vector3i chunkPos = new Vector3i();
 
     private BlockManager blockManager;
+    // Refreshed whenever it misses an id, as blocks may get registered after the chunk was created
+    private BlockPalette blockPalette = BlockPalette.empty();
 
     private TeraArray sunlightData;
     private TeraArray sunlightRegenData;
@@ -76,6 +80,9 @@ public class ChunkImpl implements Chunk {
     private boolean disposed;
     private boolean ready;
     private volatile boolean dirty;
+    /* Counts the changes of blocks and extra data, which are made by one thread at a time */
+    private volatile int changeCount;
+    private volatile int savedChangeCount = -1;
     private boolean animated;
 
     // Rendering
@@ -127,6 +134,37 @@ public void setDirty(boolean dirty) {
         this.dirty = dirty;
     }
 
+    /**
+     * @return true if blocks or extra data changed since the state last marked as stored, or if no state of this chunk
+     * was marked as stored yet.
+     */
+    public boolean hasUnsavedChanges() {
+        return changeCount != savedChangeCount;
+    }
+
+    /**
+     * @return the number of changes made to the blocks and extra data, to identify the current state of the chunk in
+     * {@link #markSaved(int)}
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Marks the current state of the chunk as stored, e.g. because it was loaded from a save.
+     */
+    public void markSaved() {
+        savedChangeCount = changeCount;
+    }
+
+    /**
+     * Marks the state of the chunk with the given {@link #getChangeCount() change count} as stored, e.g. because the
+     * save transaction it got added to was written. Changes made after that state still count as unsaved.
+     */
+    public void markSaved(int savedState) {
+        savedChangeCount = savedState;
+    }
+
     @Override
     public int getEstimatedMemoryConsumptionInBytes() {
         int extraDataSize = 0;
@@ -143,19 +181,28 @@ public int getEstimatedMemoryConsumptionInBytes() {
     @Override
     public final Block getBlock(BaseVector3i pos) {
         short id = (short) blockData.get(pos.x(), pos.y(), pos.z());
-        return blockManager.getBlock(id);
+        return getBlockById(id);
     }
 
     @Override
     public Block getBlock(Vector3ic pos) {
         short id = (short) blockData.get(pos.x(), pos.y(), pos.z());
-        return blockManager.getBlock(id);
+        return getBlockById(id);
     }
 
     @Override
     public final Block getBlock(int x, int y, int z) {
         short id = (short) blockData.get(x, y, z);
-        return blockManager.getBlock(id);
+        return getBlockById(id);
+    }
+
+    private Block getBlockById(short id) {
+        Block block = blockPalette.get(id);
+        if (block == null) {
+            blockPalette = blockManager.getBlockPalette();
+            block = blockManager.getBlock(id);
+        }
+        return block;
     }
 
     // This could be made to check for and clear extraData fields as appropriate,
@@ -167,7 +214,10 @@ public Block setBlock(int x, int y, int z, Block block) {
             blockData = blockData.copy();
         }
         int oldValue = blockData.set(x, y, z, block.getId());
-        return blockManager.getBlock((short) oldValue);
+        if (oldValue != block.getId()) {
+            changeCount++;
+        }
+        return getBlockById((short) oldValue);
     }
 
     @Override
@@ -264,6 +314,7 @@ public void setExtraData(int index, int x, int y, int z, int value) {
             extraData[index] = extraData[index].copy();
         }
         extraData[index].set(x, y, z, value);
+        changeCount++;
     }
 
     @Override
@@ -581,6 +632,17 @@ public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData);
     }
 
+    @Override
+    public Supplier<EntityData.ChunkStore.Builder> copyForEncoding() {
+        Vector3i pos = new Vector3i(chunkPos);
+        TeraArray blockDataCopy = blockData.copy();
+        TeraArray[] extraDataCopy = new TeraArray[extraData.length];
+        for (int i = 0; i < extraData.length; i++) {
+            extraDataCopy[i] = extraData[i].copy();
+        }
+        return () -> ChunkSerializer.encode(pos, blockDataCopy, extraDataCopy);
+    }
+
     /**
      * Calling this method results in a (cheap) snapshot to be taken of the current state of the chunk.
      * This snapshot can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot()}.
@@ -28,6 +28,11 @@
 import org.terasology.world.chunks.blockdata.TeraArray;
 import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraPaletteArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraSparseArray16Bit;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import java.util.Arrays;
 
 /**
  */
@@ -47,6 +52,12 @@ public static EntityData.ChunkStore.Builder encode(Vector3i pos, TeraArray block
         return b;
     }
 
+    /**
+     * Decodes the chunk without inflating its data first: the block data gets the representation the
+     * {@link TeraStandardDeflator} would pick for it, and the extra data stays sparse where it is empty.
+     * <p>
+     * This may be called from any thread.
+     */
     public static Chunk decode(EntityData.ChunkStore message, BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
         Preconditions.checkNotNull(message, "The parameter 'message' must not be null");
         if (!message.hasX() || !message.hasY() || !message.hasZ()) {
@@ -57,7 +68,7 @@ public static Chunk decode(EntityData.ChunkStore message, BlockManager blockMana
             throw new IllegalArgumentException("Ill-formed protobuf message. Missing block data.");
         }
 
-        final TeraArray blockData = runLengthDecode(message.getBlockData());
+        final TeraArray blockData = decodeBlockData(message.getBlockData());
         final TeraArray[] extraData = extraDataManager.makeDataArrays(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
         for (int i = 0; i < extraData.length; i++) {
             runLengthDecode(message.getExtraData(i), extraData[i]);
@@ -119,18 +130,118 @@ private static EntityData.RunLengthEncoding8 runLengthEncode8(TeraArray array) {
         return builder.build();
     }
 
-    private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
+    /**
+     * Decodes the runs layer by layer. Layers covered by a single run are stored as one value of a sparse array, so only
+     * the mixed layers get a row of their own, unless there are too few uniform layers to be worth it. If the chunk has
+     * few distinct blocks and a palette array takes less memory, the runs are packed into one of those instead.
+     */
+    private static TeraArray decodeBlockData(EntityData.RunLengthEncoding16 data) {
         Preconditions.checkState(data.getValuesCount() == data.getRunLengthsCount(), "Expected same number of values as runs");
-        short[] decodedData = new short[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z];
-        int index = 0;
-        for (int pos = 0; pos < data.getValuesCount(); ++pos) {
-            int length = data.getRunLengths(pos);
-            short value = (short) data.getValues(pos);
-            for (int i = 0; i < length; ++i) {
-                decodedData[index++] = value;
+        final int sizeY = ChunkConstants.SIZE_Y;
+        final int layerSize = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z;
+        final short[] layerValues = new short[sizeY];
+        final boolean[] mixedLayers = new boolean[sizeY];
+        int mixedCount = 0;
+        int start = 0;
+        for (int run = 0; run < data.getRunLengthsCount(); ++run) {
+            int end = start + data.getRunLengths(run);
+            Preconditions.checkArgument(end >= start && end <= sizeY * layerSize, "Run lengths exceed the chunk size");
+            if (end > start) {
+                for (int y = start / layerSize; y <= (end - 1) / layerSize; ++y) {
+                    if (start > y * layerSize || end < (y + 1) * layerSize) {
+                        if (!mixedLayers[y]) {
+                            mixedLayers[y] = true;
+                            mixedCount++;
+                        }
+                    } else {
+                        layerValues[y] = (short) data.getValues(run);
+                    }
+                }
+            }
+            start = end;
+        }
+
+        int packed = sizeY - mixedCount;
+        if (packed == sizeY && isUniform(layerValues)) {
+            return new TeraSparseArray16Bit(ChunkConstants.SIZE_X, sizeY, ChunkConstants.SIZE_Z, layerValues[0]);
+        }
+        int sparseSize = packed > TeraStandardDeflator.DEFLATE_MINIMUM_16BIT
+                ? TeraSparseArray16Bit.estimateMemoryConsumptionInBytes(layerSize, sizeY, mixedCount)
+                : 16 + sizeY * layerSize * 2;
+        final short[] palette = distinctValues(data, start < sizeY * layerSize);
+        if (palette.length <= TeraPaletteArray16Bit.MAX_PALETTE_SIZE
+                && TeraPaletteArray16Bit.estimateMemoryConsumptionInBytes(sizeY * layerSize, palette.length) < sparseSize) {
+            final TeraPaletteArray16Bit paletteData = new TeraPaletteArray16Bit(ChunkConstants.SIZE_X, sizeY, ChunkConstants.SIZE_Z,
+                    palette, palette.length);
+            start = 0;
+            for (int run = 0; run < data.getRunLengthsCount(); ++run) {
+                int end = start + data.getRunLengths(run);
+                paletteData.fill(start, end, data.getValues(run));
+                start = end;
             }
+            return paletteData;
         }
-        return new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
+        if (packed > TeraStandardDeflator.DEFLATE_MINIMUM_16BIT) {
+            final short[][] inflated = new short[sizeY][];
+            for (int y = 0; y < sizeY; ++y) {
+                if (mixedLayers[y]) {
+                    inflated[y] = new short[layerSize];
+                }
+            }
+            start = 0;
+            for (int run = 0; run < data.getRunLengthsCount(); ++run) {
+                int end = start + data.getRunLengths(run);
+                short value = (short) data.getValues(run);
+                for (int y = start / layerSize; y < sizeY && y * layerSize < end; ++y) {
+                    if (inflated[y] != null) {
+                        int layerStart = y * layerSize;
+                        Arrays.fill(inflated[y], Math.max(start, layerStart) - layerStart,
+                                Math.min(end, layerStart + layerSize) - layerStart, value);
+                    }
+                }
+                start = end;
+            }
+            return new TeraSparseArray16Bit(ChunkConstants.SIZE_X, sizeY, ChunkConstants.SIZE_Z, inflated, layerValues);
+        }
+        final short[] decodedData = new short[sizeY * layerSize];
+        start = 0;
+        for (int run = 0; run < data.getRunLengthsCount(); ++run) {
+            int end = start + data.getRunLengths(run);
+            Arrays.fill(decodedData, start, end, (short) data.getValues(run));
+            start = end;
+        }
+        return new TeraDenseArray16Bit(ChunkConstants.SIZE_X, sizeY, ChunkConstants.SIZE_Z, decodedData);
+    }
+
+    /**
+     * @param withZero whether the runs leave out the zeros at the end of the chunk
+     * @return the values of the runs in the order they appear, but at most one more than a palette can hold
+     */
+    private static short[] distinctValues(EntityData.RunLengthEncoding16 data, boolean withZero) {
+        final long[] seen = new long[(1 << 16) / Long.SIZE];
+        final short[] values = new short[TeraPaletteArray16Bit.MAX_PALETTE_SIZE + 1];
+        int count = 0;
+        if (withZero) {
+            seen[0] = 1L;
+            values[count++] = 0;
+        }
+        for (int run = 0; run < data.getValuesCount() && count < values.length; ++run) {
+            int value = data.getValues(run) & 0xFFFF;
+            if ((seen[value >>> 6] & (1L << value)) == 0) {
+                seen[value >>> 6] |= 1L << value;
+                values[count++] = (short) value;
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private static boolean isUniform(short[] values) {
+        for (int i = 1; i < values.length; ++i) {
+            if (values[i] != values[0]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
@@ -153,25 +264,21 @@ private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
      * Generic w.r.t. TeraArray subclasses, allowing the data to be used for any type of TeraArray.
      */
     private static void runLengthDecode(EntityData.RunLengthEncoding16 data, TeraArray array) {
-        int index = 0;
-        int count = 0;
-        int value = 0;
-        outer:
-        for (int y = 0; y < array.getSizeY(); ++y) {
-            for (int z = 0; z < array.getSizeZ(); ++z) {
-                for (int x = 0; x < array.getSizeX(); ++x) {
-                    if (count == 0) {
-                        if (index >= data.getRunLengthsCount()) {
-                            break outer;
-                        }
-                        count = data.getRunLengths(index);
-                        value = data.getValues(index);
-                        index++;
-                    }
-                    count--;
-                    array.set(x, y, z, value);
+        final int sizeX = array.getSizeX();
+        final int layerSize = sizeX * array.getSizeZ();
+        final int size = layerSize * array.getSizeY();
+        int start = 0;
+        for (int run = 0; run < data.getRunLengthsCount() && start < size; ++run) {
+            int end = Math.min(size, start + data.getRunLengths(run));
+            int value = data.getValues(run);
+            // the arrays start out empty, so runs of zeros don't need to touch them
+            if (value != 0) {
+                for (int i = start; i < end; ++i) {
+                    int inLayer = i % layerSize;
+                    array.set(inLayer % sizeX, i / layerSize, inLayer / sizeX, value);
                 }
             }
+            start = end;
         }
     }
 }
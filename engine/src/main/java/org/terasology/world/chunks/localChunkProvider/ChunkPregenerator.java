@@ -0,0 +1,308 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityStore;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.math.JomlUtil;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.persistence.StorageManager;
+import org.terasology.utilities.concurrency.WorkerPoolType;
+import org.terasology.utilities.concurrency.WorkerPools;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.pipeline.ChunkProcessingPipeline;
+import org.terasology.world.chunks.pipeline.stages.ChunkTaskProvider;
+import org.terasology.world.generation.impl.EntityBufferImpl;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Generates all chunks of a region without a player, and stores them through the {@link StorageManager}.
+ * <p>
+ * Chunks run through their own {@link ChunkProcessingPipeline} on the shared chunk processing pool. Lighting is not
+ * calculated, because it is calculated again when a stored chunk gets loaded. Finished chunks are handed to the
+ * storage manager and disposed right away, and a save is started after every {@link #CHUNKS_PER_SAVE} chunks, so
+ * memory stays bounded by the number of chunks in flight plus one batch of unsaved chunks.
+ * <p>
+ * The number of chunks that are stored on disk is written to a progress file after every save, so an interrupted run
+ * over the same region continues where it stopped. A chunk that fails to generate is logged and counted as done, it is
+ * generated the usual way once it is first loaded.
+ * <p>
+ * {@link #update()} must be called from the main thread.
+ */
+public class ChunkPregenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkPregenerator.class);
+    private static final int CHUNKS_PER_SAVE = 1024;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 4;
+    private static final long REPORT_INTERVAL_MS = 10_000;
+
+    private final Region3i region;
+    private final Path progressFile;
+    private final StorageManager storageManager;
+    private final WorldGenerator generator;
+    private final BlockManager blockManager;
+    private final ExtraBlockDataManager extraDataManager;
+    private final EntityManager entityManager;
+    private final Predicate<Vector3i> skipChunk;
+
+    private final ChunkProcessingPipeline pipeline;
+    private final BlockingQueue<Chunk> finishedChunks = Queues.newLinkedBlockingQueue();
+    private final BlockingQueue<Vector3i> failedChunks = Queues.newLinkedBlockingQueue();
+    private final Map<Vector3i, List<EntityStore>> generatedEntities = Maps.newConcurrentMap();
+    private final Set<Vector3i> storedChunks = Sets.newConcurrentHashSet();
+    private final BitSet completed;
+    private final int total;
+
+    private int nextIndex;
+    private int completedWatermark;
+    private int inFlight;
+    private int unsavedChunks;
+    private int savingWatermark = -1;
+    private int generatedChunks;
+    private int failedChunkCount;
+    private final long startTime = System.currentTimeMillis();
+    private long lastReport = startTime;
+
+    /**
+     * @param skipChunk chunks which are handled by the chunk provider already, e.g. because they are loaded
+     */
+    public ChunkPregenerator(Region3i region, Path progressFile, StorageManager storageManager,
+                             WorldGenerator generator, BlockManager blockManager,
+                             ExtraBlockDataManager extraDataManager, EntityManager entityManager,
+                             Predicate<Vector3i> skipChunk) {
+        this.region = region;
+        this.progressFile = progressFile;
+        this.storageManager = storageManager;
+        this.generator = generator;
+        this.blockManager = blockManager;
+        this.extraDataManager = extraDataManager;
+        this.entityManager = entityManager;
+        this.skipChunk = skipChunk;
+        this.total = region.sizeX() * region.sizeY() * region.sizeZ();
+        this.completed = new BitSet(total);
+
+        pipeline = new ChunkProcessingPipeline(pos -> null, (o1, o2) -> 0);
+        pipeline.addStage(ChunkTaskProvider.create("Chunk deflate", (Chunk chunk) -> {
+                    try {
+                        chunk.deflate();
+                    } catch (RuntimeException e) {
+                        logger.warn("Failed to deflate chunk {}, storing it as it is", chunk.getPosition(), e);
+                    }
+                }))
+                .addStage(ChunkTaskProvider.create("Chunk pregenerated", (Chunk chunk) -> {
+                    finishedChunks.add(chunk);
+                }));
+
+        nextIndex = loadProgress();
+        completedWatermark = nextIndex;
+        completed.set(0, nextIndex);
+        if (nextIndex > 0) {
+            logger.info("Resuming pregeneration of {} at chunk {} of {}", region, nextIndex, total);
+        }
+    }
+
+    /**
+     * Stores finished chunks, submits new chunks and starts saves. Must be called from the main thread.
+     */
+    public void update() {
+        storeFinishedChunks();
+
+        if (savingWatermark >= 0 && !storageManager.isSaving()) {
+            writeProgress(savingWatermark);
+            savingWatermark = -1;
+        }
+        if (savingWatermark < 0 && (unsavedChunks >= CHUNKS_PER_SAVE || (isGenerated() && unsavedChunks > 0))) {
+            savingWatermark = completedWatermark;
+            unsavedChunks = 0;
+            storageManager.waitForCompletionOfPreviousSaveAndStartSaving();
+        }
+
+        int maxInFlight = WorkerPools.get(WorkerPoolType.CHUNK_PROCESSING).getThreadCount() * CHUNKS_IN_FLIGHT_PER_THREAD;
+        while (nextIndex < total && inFlight < maxInFlight && unsavedChunks + inFlight < CHUNKS_PER_SAVE) {
+            submit(nextIndex++);
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastReport >= REPORT_INTERVAL_MS) {
+            lastReport = now;
+            logger.info(getStatus());
+        }
+    }
+
+    /**
+     * @return true if all chunks are generated and stored on disk
+     */
+    public boolean isDone() {
+        return isGenerated() && unsavedChunks == 0 && savingWatermark < 0;
+    }
+
+    public void cancel() {
+        pipeline.shutdown();
+        finishedChunks.clear();
+        failedChunks.clear();
+        generatedEntities.clear();
+    }
+
+    public String getStatus() {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        return String.format("Pregeneration of %s: %d of %d chunks done, %.1f chunks/s, %d in flight, %d failed",
+                region, completedWatermark, total, generatedChunks * 1000f / elapsed, inFlight, failedChunkCount);
+    }
+
+    private boolean isGenerated() {
+        return completedWatermark == total;
+    }
+
+    private void submit(int index) {
+        Vector3i pos = positionOf(index);
+        if (skipChunk.test(pos)) {
+            markCompleted(index);
+            return;
+        }
+        inFlight++;
+        pipeline.invokeGeneratorTask(JomlUtil.from(pos), () -> {
+            try {
+                ChunkStore chunkStore = storageManager.loadChunkStore(pos);
+                if (chunkStore != null) {
+                    storedChunks.add(pos);
+                    return chunkStore.getChunk();
+                }
+                Chunk chunk = new ChunkImpl(pos, blockManager, extraDataManager);
+                EntityBufferImpl buffer = new EntityBufferImpl();
+                generator.createChunk(chunk, buffer);
+                generatedEntities.put(pos, buffer.getAll());
+                return chunk;
+            } catch (RuntimeException e) {
+                logger.error("Failed to pregenerate chunk {}, skipping it", pos, e);
+                failedChunks.add(pos);
+                throw e;
+            }
+        });
+    }
+
+    private void storeFinishedChunks() {
+        List<Chunk> chunks = Lists.newArrayListWithExpectedSize(finishedChunks.size());
+        finishedChunks.drainTo(chunks);
+        for (Chunk chunk : chunks) {
+            Vector3i pos = chunk.getPosition();
+            if (!storedChunks.remove(pos)) {
+                List<EntityStore> entities = generatedEntities.remove(pos);
+                if (entities != null) {
+                    entities.forEach(this::createEntity);
+                }
+                storageManager.deactivateChunk(chunk);
+                unsavedChunks++;
+                generatedChunks++;
+            }
+            chunk.dispose();
+            inFlight--;
+            markCompleted(indexOf(pos));
+        }
+
+        List<Vector3i> failed = Lists.newArrayListWithExpectedSize(failedChunks.size());
+        failedChunks.drainTo(failed);
+        for (Vector3i pos : failed) {
+            // the pipeline keeps a chunk whose generation failed until it is told to stop
+            pipeline.stopProcessingAt(JomlUtil.from(pos));
+            storedChunks.remove(pos);
+            generatedEntities.remove(pos);
+            failedChunkCount++;
+            inFlight--;
+            markCompleted(indexOf(pos));
+        }
+    }
+
+    private void createEntity(EntityStore store) {
+        Prefab prefab = store.getPrefab();
+        EntityRef entity = prefab != null ? entityManager.create(prefab) : entityManager.create();
+        for (Component component : store.iterateComponents()) {
+            entity.addComponent(component);
+        }
+    }
+
+    private void markCompleted(int index) {
+        completed.set(index);
+        completedWatermark = completed.nextClearBit(completedWatermark);
+    }
+
+    private Vector3i positionOf(int index) {
+        int x = index % region.sizeX();
+        int z = (index / region.sizeX()) % region.sizeZ();
+        int y = index / (region.sizeX() * region.sizeZ());
+        return new Vector3i(region.minX() + x, region.minY() + y, region.minZ() + z);
+    }
+
+    private int indexOf(Vector3i pos) {
+        return ((pos.y - region.minY()) * region.sizeZ() + (pos.z - region.minZ())) * region.sizeX()
+                + (pos.x - region.minX());
+    }
+
+    private int loadProgress() {
+        if (!Files.isRegularFile(progressFile)) {
+            return 0;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(progressFile, StandardCharsets.UTF_8)) {
+            Progress progress = new Gson().fromJson(reader, Progress.class);
+            if (progress != null && region.min().equals(progress.min) && region.max().equals(progress.max)) {
+                return Math.min(progress.completed, total);
+            }
+            logger.info("Progress file {} belongs to another region, starting from scratch", progressFile);
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Failed to read pregeneration progress from {}", progressFile, e);
+        }
+        return 0;
+    }
+
+    private void writeProgress(int completedChunks) {
+        Progress progress = new Progress();
+        progress.min = region.min();
+        progress.max = region.max();
+        progress.completed = completedChunks;
+        try (BufferedWriter writer = Files.newBufferedWriter(progressFile, StandardCharsets.UTF_8)) {
+            new Gson().toJson(progress, writer);
+        } catch (IOException e) {
+            logger.error("Failed to write pregeneration progress to {}", progressFile, e);
+        }
+        logger.info("Pregeneration of {}: {} of {} chunks saved after {} s", region, completedChunks, total,
+                TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - startTime));
+    }
+
+    /**
+     * Contents of the progress file. All chunks of the region before index {@code completed} are stored on disk.
+     */
+    private static class Progress {
+        private Vector3i min;
+        private Vector3i max;
+        private int completed;
+    }
+}
@@ -101,6 +101,7 @@ public class LocalChunkProvider implements ChunkProvider {
     private final WorldGenerator generator;
     private final BlockManager blockManager;
     private final ExtraBlockDataManager extraDataManager;
+    private final LightMerger lightMerger = new LightMerger();
     private ChunkProcessingPipeline loadingPipeline;
     private TaskMaster<ChunkUnloadRequest> unloadRequestTaskMaster;
     private EntityRef worldEntity = EntityRef.NULL;
@@ -446,7 +447,7 @@ public void purgeWorld() {
                 .addStage(ChunkTaskProvider.createMulti("Light merging",
                         chunks -> {
                             Chunk[] localchunks = chunks.toArray(new Chunk[0]);
-                            return new LightMerger().merge(localchunks);
+                            return lightMerger.merge(localchunks);
                         },
                         pos -> StreamSupport.stream(BlockRegionIterable.region(new BlockRegion(
                                 pos.x() - 1, pos.y() - 1, pos.z() - 1,
@@ -487,7 +488,7 @@ public void setRelevanceSystem(RelevanceSystem relevanceSystem) {
                 .addStage(ChunkTaskProvider.createMulti("Light merging",
                         chunks -> {
                             Chunk[] localchunks = chunks.toArray(new Chunk[0]);
-                            return new LightMerger().merge(localchunks);
+                            return lightMerger.merge(localchunks);
                         },
                         pos -> StreamSupport.stream(BlockRegionIterable.region(new BlockRegion(
                                 pos.x() - 1, pos.y() - 1, pos.z() - 1,
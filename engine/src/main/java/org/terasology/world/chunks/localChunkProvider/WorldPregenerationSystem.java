@@ -0,0 +1,121 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.paths.PathManager;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.game.Game;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.logic.permission.PermissionManager;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.StorageManager;
+import org.terasology.registry.In;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.nio.file.Path;
+
+/**
+ * Provides console commands to generate and store a region of the world ahead of time, e.g. on a headless server
+ * before players join.
+ *
+ * @see ChunkPregenerator
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class WorldPregenerationSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldPregenerationSystem.class);
+    private static final String PROGRESS_FILE = "pregeneration.json";
+
+    @In
+    private StorageManager storageManager;
+    @In
+    private WorldGenerator worldGenerator;
+    @In
+    private BlockManager blockManager;
+    @In
+    private ExtraBlockDataManager extraDataManager;
+    @In
+    private EntityManager entityManager;
+    @In
+    private ChunkProvider chunkProvider;
+    @In
+    private RelevanceSystem relevanceSystem;
+    @In
+    private Game game;
+
+    private ChunkPregenerator pregenerator;
+
+    @Override
+    public void update(float delta) {
+        if (pregenerator == null) {
+            return;
+        }
+        pregenerator.update();
+        if (pregenerator.isDone()) {
+            logger.info(pregenerator.getStatus());
+            pregenerator.cancel();
+            pregenerator = null;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (pregenerator != null) {
+            pregenerator.cancel();
+            pregenerator = null;
+        }
+    }
+
+    @Command(shortDescription = "Generate and store all chunks of a region",
+            helpText = "Generates every chunk between the two given chunk positions (inclusive) and stores it, " +
+                    "without the need for a player nearby. An interrupted run continues when started again with " +
+                    "the same region.",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String pregenerateWorld(@CommandParam("minChunkX") int minX, @CommandParam("minChunkY") int minY,
+                                   @CommandParam("minChunkZ") int minZ, @CommandParam("maxChunkX") int maxX,
+                                   @CommandParam("maxChunkY") int maxY, @CommandParam("maxChunkZ") int maxZ) {
+        if (pregenerator != null) {
+            return "Pregeneration is running already: " + pregenerator.getStatus();
+        }
+        Region3i region = Region3i.createBounded(new Vector3i(minX, minY, minZ), new Vector3i(maxX, maxY, maxZ));
+        Path progressFile = PathManager.getInstance().getSavePath(game.getName()).resolve(PROGRESS_FILE);
+        pregenerator = new ChunkPregenerator(region, progressFile, storageManager, worldGenerator, blockManager,
+                extraDataManager, entityManager,
+                pos -> relevanceSystem.isChunkInRegions(pos) || chunkProvider.getChunk(pos) != null);
+        return "Started pregeneration of " + region;
+    }
+
+    @Command(shortDescription = "Show the progress of the world pregeneration", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String pregenerationStatus() {
+        if (pregenerator == null) {
+            return "No pregeneration is running";
+        }
+        return pregenerator.getStatus();
+    }
+
+    @Command(shortDescription = "Stop the world pregeneration",
+            helpText = "Stops the pregeneration. Chunks which were saved already are kept, and the next run over " +
+                    "the same region continues from there.",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String cancelPregeneration() {
+        if (pregenerator == null) {
+            return "No pregeneration is running";
+        }
+        String status = pregenerator.getStatus();
+        pregenerator.cancel();
+        pregenerator = null;
+        return "Stopped. " + status;
+    }
+}
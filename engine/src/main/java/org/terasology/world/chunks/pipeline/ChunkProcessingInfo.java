@@ -21,6 +21,7 @@ public final class ChunkProcessingInfo {
 
     private Future<Chunk> currentFuture;
     private org.terasology.world.chunks.pipeline.stages.ChunkTask chunkTask;
+    private Vector3ic blockedOn;
 
     public ChunkProcessingInfo(Vector3ic position, SettableFuture<Chunk> externalFuture) {
         this.position = position;
@@ -67,6 +68,17 @@ public void setChunkTask(org.terasology.world.chunks.pipeline.stages.ChunkTask c
         this.chunkTask = chunkTask;
     }
 
+    /**
+     * Position of required chunk which this chunk is waiting for, or null if this chunk is not waiting.
+     */
+    Vector3ic getBlockedOn() {
+        return blockedOn;
+    }
+
+    void setBlockedOn(Vector3ic blockedOn) {
+        this.blockedOn = blockedOn;
+    }
+
     boolean hasNextStage(List<ChunkTaskProvider> stages) {
         if (chunkTaskProvider == null) {
             return true;
@@ -97,5 +109,6 @@ ChunkTask makeChunkTask() {
     void resetTaskState() {
         currentFuture = null;
         chunkTask = null;
+        blockedOn = null;
     }
 }
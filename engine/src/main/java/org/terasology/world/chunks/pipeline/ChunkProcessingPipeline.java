@@ -6,6 +6,7 @@
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.SettableFuture;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
@@ -13,6 +14,8 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
+import org.terasology.utilities.concurrency.WorkerPoolType;
+import org.terasology.utilities.concurrency.WorkerPools;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.pipeline.stages.ChunkTask;
 import org.terasology.world.chunks.pipeline.stages.ChunkTaskProvider;
@@ -21,61 +24,56 @@
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.RunnableFuture;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Manages execution of chunk processing.
  * <p>
  * {@link Chunk}s will processing on stages {@link ChunkProcessingPipeline#addStage}
+ * <p>
+ * ChunkTasks which cannot run yet because a required chunk has not reached the required stage are parked on that
+ * chunk's position. They are only re-checked when a chunk at that position moves to the next stage or finishes
+ * processing, so the cost of a stage change does not depend on the number of chunks in flight.
  */
 public class ChunkProcessingPipeline {
 
-    private static final int NUM_TASK_THREADS = 8;
     private static final Logger logger = LoggerFactory.getLogger(ChunkProcessingPipeline.class);
 
     private final List<ChunkTaskProvider> stages = Lists.newArrayList();
     private final Thread reactor;
-    private final ExecutorCompletionService<Chunk> chunkProcessor;
-    private final ThreadPoolExecutor executor;
-    private int threadIndex;
+    private final BlockingQueue<PositionFuture<Chunk>> completedTasks;
+    private final Executor executor;
+    private volatile boolean running = true;
 
     private final Function<Vector3ic, Chunk> chunkProvider;
     private final Map<Vector3ic, ChunkProcessingInfo> chunkProcessingInfoMap = Maps.newConcurrentMap();
+    private final Map<Vector3ic, Set<ChunkProcessingInfo>> dependents = Maps.newConcurrentMap();
 
     /**
      * Create ChunkProcessingPipeline.
      */
     public ChunkProcessingPipeline(Function<Vector3ic, Chunk> chunkProvider, Comparator<Future<Chunk>> comparable) {
+        this(chunkProvider, comparable, WorkerPools.get(WorkerPoolType.CHUNK_PROCESSING));
+    }
+
+    /**
+     * Create ChunkProcessingPipeline running its ChunkTasks on given executor.
+     */
+    public ChunkProcessingPipeline(Function<Vector3ic, Chunk> chunkProvider, Comparator<Future<Chunk>> comparable,
+                                   Executor executor) {
         this.chunkProvider = chunkProvider;
+        this.executor = executor;
 
-        executor = new ThreadPoolExecutor(
-                NUM_TASK_THREADS,
-                NUM_TASK_THREADS, 0L,
-                TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(),
-                this::threadFactory,
-                this::rejectQueueHandler) {
-            @Override
-            protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
-                RunnableFuture<T> newTaskFor = super.newTaskFor(callable);
-                return new PositionFuture<>(newTaskFor, ((PositionalCallable) callable).getPosition());
-            }
-        };
-        chunkProcessor = new ExecutorCompletionService<>(executor,
-                new PriorityBlockingQueue<>(800, comparable));
+        completedTasks = new PriorityBlockingQueue<>(800, comparable);
         reactor = new Thread(this::chunkTaskHandler);
         reactor.setDaemon(true);
         reactor.setName("Chunk-Processing-Reactor");
@@ -87,17 +85,18 @@ protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
      */
     private void chunkTaskHandler() {
         try {
-            while (!executor.isTerminated()) {
-                PositionFuture<Chunk> future = (PositionFuture<Chunk>) chunkProcessor.take();
+            while (running) {
+                PositionFuture<Chunk> future = completedTasks.take();
                 ChunkProcessingInfo chunkProcessingInfo = chunkProcessingInfoMap.get(future.getPosition());
-                if (chunkProcessingInfo == null) {
+                if (chunkProcessingInfo == null || future.isCancelled()) {
                     continue; // chunk processing was cancelled.
                 }
                 onStageDone(future, chunkProcessingInfo);
             }
         } catch (InterruptedException e) {
-            logger.error("Reactor thread was interrupted", e);
-            reactor.interrupt();
+            if (running) {
+                logger.error("Reactor thread was interrupted", e);
+            }
         }
     }
 
@@ -110,12 +109,13 @@ private void onStageDone(PositionFuture<Chunk> future, ChunkProcessingInfo chunk
             if (chunkProcessingInfo.hasNextStage(stages)) {
                 chunkProcessingInfo.nextStage(stages);
                 chunkProcessingInfo.makeChunkTask();
+                processChunkTask(chunkProcessingInfo);
             } else {
                 // haven't next stage
                 chunkProcessingInfo.endProcessing();
                 cleanup(chunkProcessingInfo);
             }
-            processChunkTasks();
+            wakeDependents(chunkProcessingInfo.getPosition());
 
         } catch (ExecutionException e) {
             String stageName =
@@ -130,19 +130,69 @@ private void onStageDone(PositionFuture<Chunk> future, ChunkProcessingInfo chunk
         }
     }
 
-    private void processChunkTasks() {
-        chunkProcessingInfoMap.values().stream()
-                .filter(chunkProcessingInfo -> chunkProcessingInfo.getChunkTask() != null && chunkProcessingInfo.getCurrentFuture() == null)
-                .forEach(chunkProcessingInfo -> {
-                    ChunkTask chunkTask = chunkProcessingInfo.getChunkTask();
-                    Set<Chunk> providedChunks = chunkTask.getRequirements().stream()
-                            .map(pos -> getChunkBy(chunkProcessingInfo.getChunkTaskProvider(), pos))
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toSet());
-                    if (providedChunks.size() == chunkTask.getRequirements().size()) {
-                        chunkProcessingInfo.setCurrentFuture(runTask(chunkTask, providedChunks));
-                    }
-                });
+    /**
+     * Run ChunkTask of chunk if all requirements are satisfied. Otherwise park it on the first missing requirement.
+     *
+     * @param chunkProcessingInfo chunk with created and not running ChunkTask
+     */
+    private void processChunkTask(ChunkProcessingInfo chunkProcessingInfo) {
+        ChunkTask chunkTask = chunkProcessingInfo.getChunkTask();
+        Set<Vector3ic> requirements = chunkTask.getRequirements();
+        Set<Chunk> providedChunks = Sets.newLinkedHashSetWithExpectedSize(requirements.size());
+        for (Vector3ic requirement : requirements) {
+            Chunk chunk = getChunkBy(chunkProcessingInfo.getChunkTaskProvider(), requirement);
+            if (chunk == null) {
+                waitFor(requirement, chunkProcessingInfo);
+                return;
+            }
+            providedChunks.add(chunk);
+        }
+        chunkProcessingInfo.setCurrentFuture(runTask(chunkTask, providedChunks));
+    }
+
+    /**
+     * Park chunk until chunk at position will change stage.
+     *
+     * @param position required position
+     * @param chunkProcessingInfo waiting chunk
+     */
+    private void waitFor(Vector3ic position, ChunkProcessingInfo chunkProcessingInfo) {
+        chunkProcessingInfo.setBlockedOn(position);
+        dependents.compute(position, (pos, waiting) -> {
+            Set<ChunkProcessingInfo> result = waiting == null ? Sets.newIdentityHashSet() : waiting;
+            result.add(chunkProcessingInfo);
+            return result;
+        });
+    }
+
+    /**
+     * Re-check only chunks which are waiting for chunk at position.
+     *
+     * @param position position of chunk which changed stage
+     */
+    private void wakeDependents(Vector3ic position) {
+        Set<ChunkProcessingInfo> waiting = dependents.remove(position);
+        if (waiting == null) {
+            return;
+        }
+        for (ChunkProcessingInfo dependent : waiting) {
+            dependent.setBlockedOn(null);
+            if (chunkProcessingInfoMap.get(dependent.getPosition()) == dependent
+                    && dependent.getChunkTask() != null
+                    && dependent.getCurrentFuture() == null) {
+                processChunkTask(dependent);
+            }
+        }
+    }
+
+    private void stopWaiting(ChunkProcessingInfo chunkProcessingInfo) {
+        Vector3ic blockedOn = chunkProcessingInfo.getBlockedOn();
+        if (blockedOn != null) {
+            dependents.computeIfPresent(blockedOn, (pos, waiting) -> {
+                waiting.remove(chunkProcessingInfo);
+                return waiting.isEmpty() ? null : waiting;
+            });
+        }
     }
 
     private Chunk getChunkBy(ChunkTaskProvider requiredStage, Vector3ic position) {
@@ -161,22 +211,23 @@ private Chunk getChunkBy(ChunkTaskProvider requiredStage, Vector3ic position) {
     }
 
     private Future<Chunk> runTask(ChunkTask task, Set<Chunk> chunks) {
-        return chunkProcessor.submit(new PositionalCallable(() -> {
+        return submit(() -> {
             try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
                 return task.apply(chunks);
             }
-        }, task.getPosition()));
+        }, task.getPosition());
     }
 
-    private Thread threadFactory(Runnable runnable) {
-        Thread thread = new Thread(runnable);
-        thread.setDaemon(true);
-        thread.setName("Chunk-Processing-" + threadIndex++);
-        return thread;
-    }
-
-    private void rejectQueueHandler(Runnable runnable, ThreadPoolExecutor threadPoolExecutor) {
-        logger.error("Cannot run {}  because queue is full", runnable);
+    /**
+     * Run callable on executor and pass it to reactor thread when done.
+     */
+    private Future<Chunk> submit(Callable<Chunk> callable, Vector3ic position) {
+        PositionFuture<Chunk> future = new PositionFuture<>(new FutureTask<>(callable), position);
+        executor.execute(() -> {
+            future.run();
+            completedTasks.add(future);
+        });
+        return future;
     }
 
     /**
@@ -207,8 +258,7 @@ public Future<Chunk> invokeGeneratorTask(Vector3i position, Supplier<Chunk> gene
             SettableFuture<Chunk> exitFuture = SettableFuture.create();
             chunkProcessingInfo = new ChunkProcessingInfo(position, exitFuture);
             chunkProcessingInfoMap.put(position, chunkProcessingInfo);
-            chunkProcessingInfo.setCurrentFuture(chunkProcessor.submit(new PositionalCallable(generatorTask::get,
-                    position)));
+            chunkProcessingInfo.setCurrentFuture(submit(generatorTask::get, position));
             return exitFuture;
         }
     }
@@ -224,17 +274,19 @@ public Future<Chunk> invokePipeline(Chunk chunk) {
     }
 
     public void shutdown() {
-        executor.shutdown();
+        running = false;
+        reactor.interrupt();
 
         chunkProcessingInfoMap.keySet().forEach(this::stopProcessingAt);
         chunkProcessingInfoMap.clear();
-        executor.getQueue().clear();
+        dependents.clear();
+        completedTasks.clear();
     }
 
     public void restart() {
         chunkProcessingInfoMap.clear();
-        executor.getQueue().clear();
-        chunkProcessingInfoMap.keySet().forEach(this::stopProcessingAt);
+        dependents.clear();
+        completedTasks.clear();
     }
 
     /**
@@ -245,6 +297,7 @@ public void restart() {
     public void stopProcessingAt(Vector3ic pos) {
         ChunkProcessingInfo removed = chunkProcessingInfoMap.remove(pos);
         removed.getExternalFuture().cancel(true);
+        stopWaiting(removed);
 
         Future<Chunk> currentFuture = removed.getCurrentFuture();
         if (currentFuture != null) {
@@ -284,26 +337,4 @@ public boolean isPositionProcessing(Vector3ic pos) {
     public List<Vector3ic> getProcessingPosition() {
         return new LinkedList<>(chunkProcessingInfoMap.keySet());
     }
-
-    /**
-     * Dummy callable for passthru position for {@link java.util.concurrent.ThreadPoolExecutor}#newTaskFor
-     */
-    private static final class PositionalCallable implements Callable<Chunk> {
-        private final Callable<Chunk> callable;
-        private final Vector3ic position;
-
-        private PositionalCallable(Callable<Chunk> callable, Vector3ic position) {
-            this.callable = callable;
-            this.position = position;
-        }
-
-        public Vector3ic getPosition() {
-            return position;
-        }
-
-        @Override
-        public Chunk call() throws Exception {
-            return callable.call();
-        }
-    }
 }
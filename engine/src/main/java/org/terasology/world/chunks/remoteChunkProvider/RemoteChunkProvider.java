@@ -16,14 +16,17 @@
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.protobuf.EntityData;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.BlockRegion;
 import org.terasology.world.block.BlockRegionIterable;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.world.chunks.event.BeforeChunkUnload;
 import org.terasology.world.chunks.event.OnChunkLoaded;
+import org.terasology.world.chunks.internal.ChunkSerializer;
 import org.terasology.world.chunks.pipeline.ChunkProcessingPipeline;
 import org.terasology.world.chunks.pipeline.PositionFuture;
 import org.terasology.world.chunks.pipeline.stages.ChunkTaskProvider;
@@ -58,12 +61,15 @@ public class RemoteChunkProvider implements ChunkProvider {
     private final BlockingQueue<Vector3i> invalidateChunks = Queues.newLinkedBlockingQueue();
     private final Map<Vector3i, Chunk> chunkCache = Maps.newHashMap();
     private final BlockManager blockManager;
+    private final ExtraBlockDataManager extraDataManager;
+    private final LightMerger lightMerger = new LightMerger();
     private final ChunkProcessingPipeline loadingPipeline;
     private EntityRef worldEntity = EntityRef.NULL;
     private ChunkReadyListener listener;
 
-    public RemoteChunkProvider(BlockManager blockManager, LocalPlayer localPlayer) {
+    public RemoteChunkProvider(BlockManager blockManager, ExtraBlockDataManager extraDataManager, LocalPlayer localPlayer) {
         this.blockManager = blockManager;
+        this.extraDataManager = extraDataManager;
         loadingPipeline = new ChunkProcessingPipeline(this::getChunk,
                 new LocalPlayerRelativeChunkComparator(localPlayer));
 
@@ -74,7 +80,7 @@ public RemoteChunkProvider(BlockManager blockManager, LocalPlayer localPlayer) {
                 .addStage(ChunkTaskProvider.createMulti("Light merging",
                         chunks -> {
                             Chunk[] localchunks = chunks.toArray(new Chunk[0]);
-                            return new LightMerger().merge(localchunks);
+                            return lightMerger.merge(localchunks);
                         },
                         pos -> StreamSupport.stream(BlockRegionIterable.region(new BlockRegion(
                                 pos.x() - 1, pos.y() - 1, pos.z() - 1,
@@ -105,6 +111,14 @@ public void receiveChunk(final Chunk chunk) {
         loadingPipeline.invokePipeline(chunk);
     }
 
+    /**
+     * Decodes the received chunk on the threads of the loading pipeline, so the main thread only queues it.
+     */
+    public void receiveChunk(final EntityData.ChunkStore chunkInfo) {
+        org.joml.Vector3i pos = new org.joml.Vector3i(chunkInfo.getX(), chunkInfo.getY(), chunkInfo.getZ());
+        loadingPipeline.invokeGeneratorTask(pos, () -> ChunkSerializer.decode(chunkInfo, blockManager, extraDataManager));
+    }
+
     public void invalidateChunks(Vector3i pos) {
         invalidateChunks.offer(pos);
     }
@@ -0,0 +1,201 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.generation;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.terasology.math.Region3i;
+import org.terasology.world.generation.facets.base.BaseSparseFacet2D;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Shares the 2D facets of a world between the chunks of a column, so the chunks stacked on top of each other don't
+ * generate the same surface facets again.
+ * <p>
+ * Only facets which are computed purely from other 2D facets get cached: a facet type qualifies if it is a
+ * {@link WorldFacet2D} and each provider in its chain produces, updates and requires nothing else. Sparse 2D facets
+ * are left out, as they usually record what lies within the height of the generated region. Cached facets are shared
+ * between chunks and threads, so they must not be modified once their chain has been processed.
+ * <p>
+ * The cache is thread-safe, holds the outputs of at most a fixed number of provider runs and evicts the least recently
+ * used ones first.
+ */
+public final class ColumnFacetCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
+    private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final Set<Class<? extends WorldFacet>> cachedFacets = Sets.newHashSet();
+    private final Set<FacetProvider> cachedProviders = Sets.newHashSet();
+    private final Cache<ColumnKey, Map<Class<? extends WorldFacet>, WorldFacet>> cache;
+
+    public ColumnFacetCache(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                            Map<Class<? extends WorldFacet>, Border3D> borders, int maximumSize) {
+        this.facetProviderChains = facetProviderChains;
+        this.borders = borders;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+
+        for (Class<? extends WorldFacet> facet : facetProviderChains.keySet()) {
+            if (isColumnFacet(facet) && facetProviderChains.get(facet).stream().allMatch(ColumnFacetCache::usesColumnFacetsOnly)) {
+                cachedFacets.add(facet);
+            }
+        }
+        for (FacetProvider provider : facetProviderChains.values()) {
+            Set<Class<? extends WorldFacet>> outputs = getOutputs(provider);
+            if (!outputs.isEmpty() && cachedFacets.containsAll(outputs)) {
+                cachedProviders.add(provider);
+            }
+        }
+    }
+
+    /**
+     * @return whether the outputs of the provider are taken from the cache instead of running it for every region
+     */
+    public boolean isCached(FacetProvider provider) {
+        return cachedProviders.contains(provider);
+    }
+
+    public boolean isCached(Class<? extends WorldFacet> facet) {
+        return cachedFacets.contains(facet);
+    }
+
+    /**
+     * Sets the facets produced and updated by the provider for the region, computing them if no other region of the same
+     * column needed them recently.
+     */
+    void process(FacetProvider provider, RegionImpl region) {
+        for (Map.Entry<Class<? extends WorldFacet>, WorldFacet> entry : get(region.getRegion(), provider).entrySet()) {
+            setFacet(region, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private Map<Class<? extends WorldFacet>, WorldFacet> get(Region3i region, FacetProvider provider) {
+        try {
+            return cache.get(new ColumnKey(region, provider), () -> generate(region, provider));
+        } catch (ExecutionException e) {
+            throw new UncheckedExecutionException(e.getCause());
+        }
+    }
+
+    /**
+     * Runs the chains of all outputs of the provider in a single region, so the provider itself is processed only once.
+     * The region is not shared with the requesting one, so loading the outputs of one provider never waits for another.
+     */
+    private Map<Class<? extends WorldFacet>, WorldFacet> generate(Region3i region, FacetProvider provider) {
+        RegionImpl columnRegion = new RegionImpl(region, facetProviderChains, borders);
+        Map<Class<? extends WorldFacet>, WorldFacet> facets = Maps.newHashMap();
+        for (Class<? extends WorldFacet> facet : getOutputs(provider)) {
+            facets.put(facet, columnRegion.getFacet(facet));
+        }
+        return facets;
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * @return the average time it took to generate the outputs of a provider which were not cached, in nanoseconds
+     */
+    public double getAverageLoadPenalty() {
+        return cache.stats().averageLoadPenalty();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private static <T extends WorldFacet> void setFacet(RegionImpl region, Class<T> type, WorldFacet facet) {
+        region.setRegionFacet(type, type.cast(facet));
+    }
+
+    private static boolean isColumnFacet(Class<? extends WorldFacet> facet) {
+        return WorldFacet2D.class.isAssignableFrom(facet) && !BaseSparseFacet2D.class.isAssignableFrom(facet);
+    }
+
+    private static boolean usesColumnFacetsOnly(FacetProvider provider) {
+        Requires requires = provider.getClass().getAnnotation(Requires.class);
+        if (requires != null) {
+            for (Facet facet : requires.value()) {
+                if (!isColumnFacet(facet.value())) {
+                    return false;
+                }
+            }
+        }
+        return getOutputs(provider).stream().allMatch(ColumnFacetCache::isColumnFacet);
+    }
+
+    private static Set<Class<? extends WorldFacet>> getOutputs(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> outputs = Sets.newHashSet();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            outputs.addAll(Arrays.asList(produces.value()));
+        }
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (updates != null) {
+            for (Facet facet : updates.value()) {
+                outputs.add(facet.value());
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Identifies the outputs of a provider by the horizontal extent of the region they were generated for.
+     */
+    private static final class ColumnKey {
+        private final int minX;
+        private final int minZ;
+        private final int sizeX;
+        private final int sizeZ;
+        private final FacetProvider provider;
+
+        private ColumnKey(Region3i region, FacetProvider provider) {
+            this.minX = region.minX();
+            this.minZ = region.minZ();
+            this.sizeX = region.sizeX();
+            this.sizeZ = region.sizeZ();
+            this.provider = provider;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof ColumnKey) {
+                ColumnKey other = (ColumnKey) obj;
+                return minX == other.minX && minZ == other.minZ && sizeX == other.sizeX && sizeZ == other.sizeZ
+                        && provider == other.provider;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(minX, minZ, sizeX, sizeZ, System.identityHashCode(provider));
+        }
+    }
+}
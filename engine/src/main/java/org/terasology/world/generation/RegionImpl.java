@@ -30,15 +30,25 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final ColumnFacetCache columnFacetCache;
 
     private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null);
+    }
+
+    /**
+     * @param columnFacetCache provides the 2D facets shared by the column of the region, may be null
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                      Map<Class<? extends WorldFacet>, Border3D> borders, ColumnFacetCache columnFacetCache) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.columnFacetCache = columnFacetCache;
     }
 
     @Override
@@ -46,7 +56,11 @@ public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
             facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
-                provider.process(this);
+                if (columnFacetCache != null && columnFacetCache.isCached(provider)) {
+                    columnFacetCache.process(provider, this);
+                } else {
+                    provider.process(this);
+                }
                 processedProviders.add(provider);
             });
             facet = generatingFacets.get(dataType);
@@ -34,6 +34,7 @@ public class WorldImpl implements World {
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
+    private final ColumnFacetCache columnFacetCache;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      List<WorldRasterizer> worldRasterizers,
@@ -45,6 +46,7 @@ public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetP
         this.entityProviders = entityProviders;
         this.borders = borders;
         this.seaLevel = seaLevel;
+        this.columnFacetCache = new ColumnFacetCache(facetProviderChains, borders, ColumnFacetCache.DEFAULT_MAXIMUM_SIZE);
     }
 
     @Override
@@ -59,7 +61,8 @@ public int getSeaLevel() {
 
     @Override
     public void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer) {
-        Region chunkRegion = getWorldData(chunk.getRegion());
+        // unlike previews, chunks share the 2D facets of their column
+        Region chunkRegion = new RegionImpl(chunk.getRegion(), facetProviderChains, borders, columnFacetCache);
         for (WorldRasterizer rasterizer : worldRasterizers) {
             rasterizer.generateChunk(chunk, chunkRegion);
         }
@@ -68,6 +71,10 @@ public void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer) {
         }
     }
 
+    public ColumnFacetCache getColumnFacetCache() {
+        return columnFacetCache;
+    }
+
     @Override
     public Set<Class<? extends WorldFacet>> getAllFacets() {
         return Sets.newHashSet(facetProviderChains.keySet());
@@ -75,6 +82,8 @@ public Set<Class<? extends WorldFacet>> getAllFacets() {
 
     @Override
     public void initialize() {
+        columnFacetCache.clear();
+
         // throw them all in a set to remove duplicates
         Collection<FacetProvider> facetProviders = new LinkedHashSet<>(facetProviderChains.values());
 
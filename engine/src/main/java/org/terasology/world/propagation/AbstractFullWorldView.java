@@ -25,10 +25,14 @@
 
 /**
  * A base world view implementation sitting on ChunkProvider.
+ * <p>
+ * The positional methods taking ints look chunks up through a reused position, so a view must only be used by one
+ * thread at a time.
  */
 public abstract class AbstractFullWorldView implements PropagatorWorldView {
 
     private ChunkProvider chunkProvider;
+    private final Vector3i chunkPos = new Vector3i();
 
     public AbstractFullWorldView(ChunkProvider chunkProvider) {
         this.chunkProvider = chunkProvider;
@@ -37,19 +41,30 @@ public AbstractFullWorldView(ChunkProvider chunkProvider) {
     /**
      * Get's the chunk for a given position
      *
-     * @param pos The position in the world
+     * @param x The x position in the world
+     * @param y The y position in the world
+     * @param z The z position in the world
      * @return The chunk for that position
      */
-    private Chunk getChunk(Vector3i pos) {
+    private Chunk getChunk(int x, int y, int z) {
+        return getChunkAt(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+    }
 
-        return chunkProvider.getChunk(ChunkMath.calcChunkPos(pos));
+    private Chunk getChunkAt(int chunkX, int chunkY, int chunkZ) {
+        chunkPos.set(chunkX, chunkY, chunkZ);
+        return chunkProvider.getChunk(chunkPos);
     }
 
     @Override
     public byte getValueAt(Vector3i pos) {
-        LitChunk chunk = getChunk(pos);
+        return getValueAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getValueAt(int x, int y, int z) {
+        LitChunk chunk = getChunk(x, y, z);
         if (chunk != null) {
-            return getValueAt(chunk, ChunkMath.calcRelativeBlockPos(pos.x, pos.y, pos.z));
+            return getValueAt(chunk, ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return UNAVAILABLE;
     }
@@ -63,13 +78,30 @@ public byte getValueAt(Vector3i pos) {
      */
     protected abstract byte getValueAt(LitChunk chunk, Vector3i pos);
 
+    /**
+     * Equivalent to {@link #getValueAt(LitChunk, Vector3i)}, which subclasses should override to avoid allocating the
+     * position.
+     */
+    protected byte getValueAt(LitChunk chunk, int x, int y, int z) {
+        return getValueAt(chunk, new Vector3i(x, y, z));
+    }
+
     @Override
     public void setValueAt(Vector3i pos, byte value) {
-        setValueAt(getChunk(pos), ChunkMath.calcRelativeBlockPos(pos.x, pos.y, pos.z), value);
-        for (Vector3i affectedChunkPos : ChunkMath.getChunkRegionAroundWorldPos(pos, 1)) {
-            Chunk dirtiedChunk = chunkProvider.getChunk(affectedChunkPos);
-            if (dirtiedChunk != null) {
-                dirtiedChunk.setDirty(true);
+        setValueAt(pos.x, pos.y, pos.z, value);
+    }
+
+    @Override
+    public void setValueAt(int x, int y, int z, byte value) {
+        setValueAt(getChunk(x, y, z), ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z), value);
+        for (int chunkX = ChunkMath.calcChunkPosX(x - 1); chunkX <= ChunkMath.calcChunkPosX(x + 1); chunkX++) {
+            for (int chunkY = ChunkMath.calcChunkPosY(y - 1); chunkY <= ChunkMath.calcChunkPosY(y + 1); chunkY++) {
+                for (int chunkZ = ChunkMath.calcChunkPosZ(z - 1); chunkZ <= ChunkMath.calcChunkPosZ(z + 1); chunkZ++) {
+                    Chunk dirtiedChunk = getChunkAt(chunkX, chunkY, chunkZ);
+                    if (dirtiedChunk != null) {
+                        dirtiedChunk.setDirty(true);
+                    }
+                }
             }
         }
     }
@@ -83,11 +115,24 @@ public void setValueAt(Vector3i pos, byte value) {
      */
     protected abstract void setValueAt(LitChunk chunk, Vector3i pos, byte value);
 
+    /**
+     * Equivalent to {@link #setValueAt(LitChunk, Vector3i, byte)}, which subclasses should override to avoid
+     * allocating the position.
+     */
+    protected void setValueAt(LitChunk chunk, int x, int y, int z, byte value) {
+        setValueAt(chunk, new Vector3i(x, y, z), value);
+    }
+
     @Override
     public Block getBlockAt(Vector3i pos) {
-        CoreChunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPos(pos));
+        return getBlockAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Block getBlockAt(int x, int y, int z) {
+        CoreChunk chunk = getChunk(x, y, z);
         if (chunk != null) {
-            return chunk.getBlock(ChunkMath.calcRelativeBlockPos(pos));
+            return chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return null;
     }
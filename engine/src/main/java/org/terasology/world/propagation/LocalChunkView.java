@@ -8,7 +8,6 @@
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
-import org.terasology.world.chunks.ChunkConstants;
 
 /**
  * Provides a simple view over some chunks using a propagation rule.
@@ -30,42 +29,58 @@ public LocalChunkView(Chunk[] chunks, PropagationRules rules) {
     /**
      * Gets the index of the chunk in {@link #chunks}
      *
-     * @param blockPos The position of the block in world coordinates
+     * @param x The x position of the block in world coordinates
+     * @param y The y position of the block in world coordinates
+     * @param z The z position of the block in world coordinates
      * @return The index of the chunk in the array
      */
-    private int chunkIndexOf(Vector3i blockPos) {
-        return ChunkMath.calcChunkPos(blockPos.x, ChunkConstants.POWER_X) - topLeft.x
-                + 3 * (ChunkMath.calcChunkPos(blockPos.y, ChunkConstants.POWER_Y) - topLeft.y
-                + 3 * (ChunkMath.calcChunkPos(blockPos.z, ChunkConstants.POWER_Z) - topLeft.z));
+    private int chunkIndexOf(int x, int y, int z) {
+        return ChunkMath.calcChunkPosX(x) - topLeft.x
+                + 3 * (ChunkMath.calcChunkPosY(y) - topLeft.y
+                + 3 * (ChunkMath.calcChunkPosZ(z) - topLeft.z));
     }
 
     @Override
     public byte getValueAt(Vector3i pos) {
-        int index = chunkIndexOf(pos);
+        return getValueAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public byte getValueAt(int x, int y, int z) {
+        int index = chunkIndexOf(x, y, z);
         if (index < 0) {
             return UNAVAILABLE;
         }
         Chunk chunk = chunks[index];
         if (chunk != null) {
-            return rules.getValue(chunk, ChunkMath.calcRelativeBlockPos(pos));
+            return rules.getValue(chunk, ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return UNAVAILABLE;
     }
 
     @Override
     public void setValueAt(Vector3i pos, byte value) {
-        Chunk chunk = chunks[chunkIndexOf(pos)];
+        setValueAt(pos.x, pos.y, pos.z, value);
+    }
+
+    @Override
+    public void setValueAt(int x, int y, int z, byte value) {
+        Chunk chunk = chunks[chunkIndexOf(x, y, z)];
         if (chunk != null) {
-            rules.setValue(chunk, ChunkMath.calcRelativeBlockPos(pos), value);
+            rules.setValue(chunk, ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z), value);
         }
     }
 
     @Override
     public Block getBlockAt(Vector3i pos) {
-        int index = chunkIndexOf(pos);
-        Chunk chunk = chunks[index];
+        return getBlockAt(pos.x, pos.y, pos.z);
+    }
+
+    @Override
+    public Block getBlockAt(int x, int y, int z) {
+        Chunk chunk = chunks[chunkIndexOf(x, y, z)];
         if (chunk != null) {
-            return chunk.getBlock(ChunkMath.calcRelativeBlockPos(pos));
+            return chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return null;
     }
@@ -0,0 +1,194 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.propagation;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.procedure.TObjectProcedure;
+import org.terasology.math.ChunkMath;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+/**
+ * A first in, first out queue of block positions that holds each position at most once, like an insertion ordered set,
+ * without allocating anything per position.
+ * <p>
+ * Positions are packed into longs with 21 bits per axis, see {@link #pack(int, int, int)}. Which positions are queued
+ * is tracked in one bitmap per chunk. The bitmaps are taken from a pool that can be shared by several queues, and are
+ * given back as soon as the queue runs empty.
+ */
+final class PositionQueue {
+
+    private static final int AXIS_BITS = 21;
+    private static final long AXIS_MASK = (1L << AXIS_BITS) - 1;
+    private static final int BITMAP_LENGTH = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z / Long.SIZE;
+    /* Never the key of a chunk, as packing leaves the sign bit clear */
+    private static final long NO_CHUNK = Long.MIN_VALUE;
+
+    private final Deque<long[]> bitmapPool;
+    private final TLongObjectMap<long[]> bitmaps = new TLongObjectHashMap<>();
+    private final TObjectProcedure<long[]> releaseBitmap;
+
+    private long[] positions = new long[64];
+    private int head;
+    private int tail;
+    private int size;
+
+    private long lastChunk = NO_CHUNK;
+    private long[] lastBitmap;
+
+    /**
+     * @param bitmapPool the unused bitmaps, all of them cleared
+     */
+    PositionQueue(Deque<long[]> bitmapPool) {
+        this.bitmapPool = bitmapPool;
+        this.releaseBitmap = bitmap -> {
+            bitmapPool.push(bitmap);
+            return true;
+        };
+    }
+
+    static long pack(int x, int y, int z) {
+        return ((x & AXIS_MASK) << (2 * AXIS_BITS)) | ((y & AXIS_MASK) << AXIS_BITS) | (z & AXIS_MASK);
+    }
+
+    static int unpackX(long position) {
+        return (int) (position << (Long.SIZE - 3 * AXIS_BITS) >> (Long.SIZE - AXIS_BITS));
+    }
+
+    static int unpackY(long position) {
+        return (int) (position << (Long.SIZE - 2 * AXIS_BITS) >> (Long.SIZE - AXIS_BITS));
+    }
+
+    static int unpackZ(long position) {
+        return (int) (position << (Long.SIZE - AXIS_BITS) >> (Long.SIZE - AXIS_BITS));
+    }
+
+    /**
+     * Adds the position to the end of the queue, unless it is queued already.
+     *
+     * @return whether the position was added
+     */
+    boolean add(int x, int y, int z) {
+        long[] bitmap = getBitmap(x, y, z, true);
+        int index = bitIndex(x, y, z);
+        long bit = 1L << index;
+        if ((bitmap[index >>> 6] & bit) != 0) {
+            return false;
+        }
+        bitmap[index >>> 6] |= bit;
+
+        if (tail == positions.length) {
+            if (head >= positions.length / 2) {
+                System.arraycopy(positions, head, positions, 0, tail - head);
+                tail -= head;
+                head = 0;
+            } else {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+        }
+        positions[tail++] = pack(x, y, z);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return whether the position was queued
+     */
+    boolean remove(int x, int y, int z) {
+        long[] bitmap = getBitmap(x, y, z, false);
+        if (bitmap == null || !clearBit(bitmap, bitIndex(x, y, z))) {
+            return false;
+        }
+        // the entry stays in the array and is skipped by poll
+        if (--size == 0) {
+            reset();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the position at the head of the queue.
+     *
+     * @return the packed position
+     * @throws NoSuchElementException if the queue is empty
+     */
+    long poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        while (true) {
+            long position = positions[head++];
+            int x = unpackX(position);
+            int y = unpackY(position);
+            int z = unpackZ(position);
+            if (clearBit(getBitmap(x, y, z, false), bitIndex(x, y, z))) {
+                if (--size == 0) {
+                    reset();
+                }
+                return position;
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        while (size > 0) {
+            poll();
+        }
+    }
+
+    /**
+     * Gives the bitmaps, which are all cleared once the queue is empty, back to the pool.
+     */
+    private void reset() {
+        head = 0;
+        tail = 0;
+        bitmaps.forEachValue(releaseBitmap);
+        bitmaps.clear();
+        lastChunk = NO_CHUNK;
+        lastBitmap = null;
+    }
+
+    private long[] getBitmap(int x, int y, int z, boolean create) {
+        long chunk = pack(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+        if (chunk == lastChunk) {
+            return lastBitmap;
+        }
+        long[] bitmap = bitmaps.get(chunk);
+        if (bitmap == null) {
+            if (!create) {
+                return null;
+            }
+            bitmap = bitmapPool.isEmpty() ? new long[BITMAP_LENGTH] : bitmapPool.pop();
+            bitmaps.put(chunk, bitmap);
+        }
+        lastChunk = chunk;
+        lastBitmap = bitmap;
+        return bitmap;
+    }
+
+    private static boolean clearBit(long[] bitmap, int index) {
+        long bit = 1L << index;
+        if ((bitmap[index >>> 6] & bit) == 0) {
+            return false;
+        }
+        bitmap[index >>> 6] &= ~bit;
+        return true;
+    }
+
+    private static int bitIndex(int x, int y, int z) {
+        return ChunkMath.calcBlockPosX(x)
+                + ChunkConstants.SIZE_X * (ChunkMath.calcBlockPosZ(z) + ChunkConstants.SIZE_Z * ChunkMath.calcBlockPosY(y));
+    }
+}
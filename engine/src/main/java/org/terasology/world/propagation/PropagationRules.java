@@ -105,4 +105,17 @@ public interface PropagationRules {
      * @param value The value to set to
      */
     void setValue(LitChunk chunk, Vector3i pos, byte value);
+
+    /**
+     * See {@link #setValue(LitChunk, Vector3i, byte)}
+     *
+     * @param chunk The chunk the position is in
+     * @param x     The x position
+     * @param y     The y position
+     * @param z     The z position
+     * @param value The value to set to
+     */
+    default void setValue(LitChunk chunk, int x, int y, int z, byte value) {
+        setValue(chunk, new Vector3i(x, y, z), value);
+    }
 }
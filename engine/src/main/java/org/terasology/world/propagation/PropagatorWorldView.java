@@ -40,4 +40,24 @@ public interface PropagatorWorldView {
      */
     Block getBlockAt(Vector3i pos);
 
+    /**
+     * Equivalent to {@link #getValueAt(Vector3i)}, for callers stepping through many positions without allocating them.
+     */
+    default byte getValueAt(int x, int y, int z) {
+        return getValueAt(new Vector3i(x, y, z));
+    }
+
+    /**
+     * Equivalent to {@link #setValueAt(Vector3i, byte)}
+     */
+    default void setValueAt(int x, int y, int z, byte value) {
+        setValueAt(new Vector3i(x, y, z), value);
+    }
+
+    /**
+     * Equivalent to {@link #getBlockAt(Vector3i)}
+     */
+    default Block getBlockAt(int x, int y, int z) {
+        return getBlockAt(new Vector3i(x, y, z));
+    }
 }
@@ -16,7 +16,6 @@
 package org.terasology.world.propagation;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.joml.Vector3ic;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.JomlUtil;
@@ -28,27 +27,35 @@
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.LitChunk;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
  * Works for a single given propagation ruleset
+ * <p>
+ * Positions are queued as packed coordinates and visited through the int based methods of the world view, so
+ * propagating a change doesn't allocate anything per block.
  */
 public class StandardBatchPropagator implements BatchPropagator {
 
     private static final byte NO_VALUE = 0;
+    private static final Side[] SIDES = Side.values();
 
     private PropagationRules rules;
     private PropagatorWorldView world;
 
     /* Queues are stored in reverse order. Ie, strongest light is 0. */
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
 
     private Map<Side, Vector3i> chunkEdgeDeltas = Maps.newEnumMap(Side.class);
 
+    /* Passed to the rules, which take positions as vectors */
+    private final Vector3i rulesPos = new Vector3i();
+
     public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world) {
         this.world = world;
         this.rules = rules;
@@ -73,11 +80,12 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
             chunkEdgeDeltas.put(side, delta);
         }
 
-        increaseQueues = new Set[rules.getMaxValue()];
-        reduceQueues = new Set[rules.getMaxValue()];
+        Deque<long[]> bitmapPool = new ArrayDeque<>();
+        increaseQueues = new PositionQueue[rules.getMaxValue()];
+        reduceQueues = new PositionQueue[rules.getMaxValue()];
         for (int i = 0; i < rules.getMaxValue(); ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue(bitmapPool);
+            reduceQueues[i] = new PositionQueue(bitmapPool);
         }
 
     }
@@ -104,83 +112,97 @@ public void process(Iterable<BlockChange> blockChanges) {
      * @param blockChange The change that was made
      */
     private void reviewChange(BlockChange blockChange) {
-        Vector3i blockChangePosition = JomlUtil.from(blockChange.getPosition());
-        byte newValue = rules.getFixedValue(blockChange.getTo(), blockChangePosition);
-        byte existingValue = world.getValueAt(blockChangePosition);
+        Vector3ic position = blockChange.getPosition();
+        int x = position.x();
+        int y = position.y();
+        int z = position.z();
+        byte newValue = getFixedValue(blockChange.getTo(), x, y, z);
+        byte existingValue = world.getValueAt(x, y, z);
 
         /* Handle if the block has an higher fixed value */
         if (newValue > existingValue) {
-            increase(blockChangePosition, newValue);
+            increase(x, y, z, newValue);
         }
 
         /* Handle if the block has a lower fixed value */
-        byte oldValue = rules.getFixedValue(blockChange.getFrom(), blockChangePosition);
+        byte oldValue = getFixedValue(blockChange.getFrom(), x, y, z);
         if (newValue < oldValue) {
-            reduce(blockChangePosition, oldValue);
+            reduce(x, y, z, oldValue);
         }
 
         /* Process propagation out to other blocks */
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             PropagationComparison comparison = rules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), side);
+            Vector3i dir = side.getVector3i();
+            int adjX = x + dir.x;
+            int adjY = y + dir.y;
+            int adjZ = z + dir.z;
 
             if (comparison.isRestricting() && existingValue > 0) {
                 /* If the propagation of the new value is going to be lower/reduced */
-                reduce(blockChangePosition, existingValue);
-                Vector3i adjPos = side.getAdjacentPos(blockChangePosition);
-                byte adjValue = world.getValueAt(adjPos);
+                reduce(x, y, z, existingValue);
+                byte adjValue = world.getValueAt(adjX, adjY, adjZ);
                 if (adjValue == rules.propagateValue(existingValue, side, blockChange.getFrom())) {
-                    reduce(adjPos, adjValue);
+                    reduce(adjX, adjY, adjZ, adjValue);
                 }
 
             } else if (comparison.isPermitting()) {
                 /* If the propagation of the new value is going to be more allowing */
                 if (existingValue > 0) {
                     /* Spread this potentially higher value out */
-                    queueSpreadValue(blockChangePosition, existingValue);
+                    queueSpreadValue(x, y, z, existingValue);
                 }
                 /* Spread it out to the block on the side */
-                Vector3i adjPos = side.getAdjacentPos(blockChangePosition);
-                byte adjValue = world.getValueAt(adjPos);
+                byte adjValue = world.getValueAt(adjX, adjY, adjZ);
                 if (adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(adjX, adjY, adjZ, adjValue);
                 }
             }
         }
     }
 
+    private byte getFixedValue(Block block, int x, int y, int z) {
+        rulesPos.set(x, y, z);
+        return rules.getFixedValue(block, rulesPos);
+    }
 
     /**
      * Reset a position to only it's fixed values
      *
-     * @param pos      The position to reset
+     * @param x        The x position to reset
+     * @param y        The y position to reset
+     * @param z        The z position to reset
      * @param oldValue The value present before reset
      */
-    private void purge(Vector3i pos, byte oldValue) {
-        increaseQueues[rules.getMaxValue() - oldValue].remove(pos);
+    private void purge(int x, int y, int z, byte oldValue) {
+        increaseQueues[rules.getMaxValue() - oldValue].remove(x, y, z);
 
         /* Clear the value and re-propagate it if it's a positive value */
-        Block block = world.getBlockAt(pos);
-        byte fixedValue = rules.getFixedValue(block, pos);
+        Block block = world.getBlockAt(x, y, z);
+        byte fixedValue = getFixedValue(block, x, y, z);
         if (fixedValue > 0) {
-            increase(pos, fixedValue);
+            increase(x, y, z, fixedValue);
         } else {
-            world.setValueAt(pos, NO_VALUE);
+            world.setValueAt(x, y, z, NO_VALUE);
         }
 
 
-        for (Side side : Side.getAllSides()) {
+        for (Side side : SIDES) {
             /* Handle this value being reset to the default by updating sides as needed */
             byte expectedValue = rules.propagateValue(oldValue, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                Vector3i dir = side.getVector3i();
+                int adjX = x + dir.x;
+                int adjY = y + dir.y;
+                int adjZ = z + dir.z;
+                byte adjValue = world.getValueAt(adjX, adjY, adjZ);
                 if (adjValue == expectedValue) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(adjX, adjY, adjZ);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        reduce(adjPos, expectedValue);
+                        reduce(adjX, adjY, adjZ, expectedValue);
                     }
                 } else if (adjValue > 0) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(adjX, adjY, adjZ, adjValue);
                 }
             }
         }
@@ -194,14 +216,11 @@ private void processReduction() {
         for (int depth = 0; depth < rules.getMaxValue(); depth++) {
             byte oldValue = (byte) (rules.getMaxValue() - depth);
 
-            while (!reduceQueues[depth].isEmpty()) {
-                Set<Vector3i> toProcess = reduceQueues[depth];
-                reduceQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
-
-                /* This step will add any new reductions to to the `reduceQueues` set */
-                for (Vector3i pos : toProcess) {
-                    purge(pos, oldValue);
-                }
+            /* This step will add any new reductions to to the `reduceQueues` */
+            PositionQueue queue = reduceQueues[depth];
+            while (!queue.isEmpty()) {
+                long pos = queue.poll();
+                purge(PositionQueue.unpackX(pos), PositionQueue.unpackY(pos), PositionQueue.unpackZ(pos), oldValue);
             }
         }
     }
@@ -214,14 +233,11 @@ private void processIncrease() {
         for (int depth = 0; depth < rules.getMaxValue() - 1; depth++) {
             byte value = (byte) (rules.getMaxValue() - depth);
 
-            while (!increaseQueues[depth].isEmpty()) {
-                Set<Vector3i> toProcess = increaseQueues[depth];
-                increaseQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
-
-                /* This step will add any new values to `increaseQueues` */
-                for (Vector3i pos : toProcess) {
-                    push(pos, value);
-                }
+            /* This step will add any new values to `increaseQueues` */
+            PositionQueue queue = increaseQueues[depth];
+            while (!queue.isEmpty()) {
+                long pos = queue.poll();
+                push(PositionQueue.unpackX(pos), PositionQueue.unpackY(pos), PositionQueue.unpackZ(pos), value);
             }
         }
 
@@ -233,23 +249,28 @@ private void processIncrease() {
      * If the value spreading into a block is larger than the current value there, set it and queue it for propagating again
      * If the value is smaller than the current value, do nothing
      *
-     * @param pos   The initial position
+     * @param x     The initial x position
+     * @param y     The initial y position
+     * @param z     The initial z position
      * @param value The value to propagate
      */
-    private void push(Vector3i pos, byte value) {
-        Block block = world.getBlockAt(pos);
-        for (Side side : Side.getAllSides()) {
+    private void push(int x, int y, int z, byte value) {
+        Block block = world.getBlockAt(x, y, z);
+        for (Side side : SIDES) {
             byte propagatedValue = rules.propagateValue(value, side, block);
 
             if (rules.canSpreadOutOf(block, side)) {
-                Vector3i adjPos = side.getAdjacentPos(pos);
-                byte adjValue = world.getValueAt(adjPos);
+                Vector3i dir = side.getVector3i();
+                int adjX = x + dir.x;
+                int adjY = y + dir.y;
+                int adjZ = z + dir.z;
+                byte adjValue = world.getValueAt(adjX, adjY, adjZ);
 
                 if (adjValue < propagatedValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(adjX, adjY, adjZ);
 
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        increase(adjPos, propagatedValue);
+                        increase(adjX, adjY, adjZ, propagatedValue);
                     }
                 }
             }
@@ -262,23 +283,21 @@ private void push(Vector3i pos, byte value) {
      * <p>
      * Queues up this new higher value to be propagated out
      *
-     * @param position The position to set at
-     * @param value    The value to set the position to
+     * @param value The value to set the position to
      */
-    private void increase(Vector3i position, byte value) {
-        world.setValueAt(position, value);
-        queueSpreadValue(position, value);
+    private void increase(int x, int y, int z, byte value) {
+        world.setValueAt(x, y, z, value);
+        queueSpreadValue(x, y, z, value);
     }
 
     /**
      * Set the value at the position as having been lowered to a smaller value
      *
-     * @param position The position to set at
      * @param oldValue The original value at the position
      */
-    private void reduce(Vector3i position, byte oldValue) {
+    private void reduce(int x, int y, int z, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[rules.getMaxValue() - oldValue].add(position);
+            reduceQueues[rules.getMaxValue() - oldValue].add(x, y, z);
         }
     }
 
@@ -286,12 +305,11 @@ private void reduce(Vector3i position, byte oldValue) {
      * Queues up a propagation from a given position.
      * Propagation is placed into a queue for the given level.
      *
-     * @param position The position to propagate form
-     * @param value    The value to propagate out
+     * @param value The value to propagate out
      */
-    private void queueSpreadValue(Vector3i position, byte value) {
+    private void queueSpreadValue(int x, int y, int z, byte value) {
         if (value > 1) {
-            increaseQueues[rules.getMaxValue() - value].add(position);
+            increaseQueues[rules.getMaxValue() - value].add(x, y, z);
         }
     }
 
@@ -299,7 +317,7 @@ private void queueSpreadValue(Vector3i position, byte value) {
      * Clears all the queues and cleans up the object
      */
     private void cleanUp() {
-        for (Set<Vector3i> queue : increaseQueues) {
+        for (PositionQueue queue : increaseQueues) {
             queue.clear();
         }
     }
@@ -337,17 +355,19 @@ private void propagateDepth(LitChunk adjChunk, Side side, boolean propagateExter
             }
         }
 
+        Vector3i dir = side.getVector3i();
+        Vector3i edgeDelta = chunkEdgeDeltas.get(side);
         for (Vector3ic pos : BlockRegionIterable.region(edgeRegion).build()) {
-            int depthIndex = indexProvider.getIndexFor(JomlUtil.from(pos));
+            int depthIndex = indexProvider.getIndexFor(pos.x(), pos.y(), pos.z());
             int adjacentDepth = adjDepth[depthIndex];
             for (int i = adjacentDepth; i < depths[depthIndex]; ++i) {
-                adjPos.set(side.getVector3i());
-                adjPos.mul(i + 1);
-                adjPos.add(JomlUtil.from(pos));
-                adjPos.add(chunkEdgeDeltas.get(side));
+                adjPos.set(pos.x() + dir.x * (i + 1) + edgeDelta.x,
+                        pos.y() + dir.y * (i + 1) + edgeDelta.y,
+                        pos.z() + dir.z * (i + 1) + edgeDelta.z);
                 byte value = rules.getValue(adjChunk, adjPos);
                 if (value > 1) {
-                    queueSpreadValue(adjChunk.chunkToWorldPosition(adjPos), value);
+                    queueSpreadValue(adjChunk.chunkToWorldPositionX(adjPos.x), adjChunk.chunkToWorldPositionY(adjPos.y),
+                            adjChunk.chunkToWorldPositionZ(adjPos.z), value);
                 }
             }
         }
@@ -401,11 +421,6 @@ private IndexProvider createIndexProvider(Side side) {
             case TOP:
             case BOTTOM:
                 return new IndexProvider() {
-                    @Override
-                    public int getIndexFor(Vector3i pos) {
-                        return pos.x + ChunkConstants.SIZE_X * pos.z;
-                    }
-
                     @Override
                     public int getIndexFor(int x, int y, int z) {
                         return x + ChunkConstants.SIZE_X * z;
@@ -414,11 +429,6 @@ public int getIndexFor(int x, int y, int z) {
             case LEFT:
             case RIGHT:
                 return new IndexProvider() {
-                    @Override
-                    public int getIndexFor(Vector3i pos) {
-                        return pos.y + ChunkConstants.SIZE_Y * pos.z;
-                    }
-
                     @Override
                     public int getIndexFor(int x, int y, int z) {
                         return y + ChunkConstants.SIZE_Y * z;
@@ -426,11 +436,6 @@ public int getIndexFor(int x, int y, int z) {
                 };
             default:
                 return new IndexProvider() {
-                    @Override
-                    public int getIndexFor(Vector3i pos) {
-                        return pos.x + ChunkConstants.SIZE_X * pos.y;
-                    }
-
                     @Override
                     public int getIndexFor(int x, int y, int z) {
                         return x + ChunkConstants.SIZE_X * y;
@@ -441,22 +446,20 @@ public int getIndexFor(int x, int y, int z) {
 
     @Override
     public void propagateFrom(Vector3i pos, Block block) {
-        queueSpreadValue(pos, rules.getFixedValue(block, pos));
+        queueSpreadValue(pos.x, pos.y, pos.z, rules.getFixedValue(block, pos));
     }
 
     @Override
     public void propagateFrom(Vector3i pos, byte value) {
-        queueSpreadValue(pos, value);
+        queueSpreadValue(pos.x, pos.y, pos.z, value);
     }
 
     @Override
     public void regenerate(Vector3i pos, byte value) {
-        reduce(pos, value);
+        reduce(pos.x, pos.y, pos.z, value);
     }
 
     private interface IndexProvider {
-        int getIndexFor(Vector3i pos);
-
         int getIndexFor(int x, int y, int z);
     }
 }
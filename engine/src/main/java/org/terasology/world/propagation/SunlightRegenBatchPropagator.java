@@ -15,17 +15,17 @@
  */
 package org.terasology.world.propagation;
 
-import com.google.common.collect.Sets;
+import org.joml.Vector3ic;
 import org.terasology.math.ChunkMath;
-import org.terasology.math.JomlUtil;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.LitChunk;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Set;
+import java.util.Deque;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -38,8 +38,11 @@ public class SunlightRegenBatchPropagator implements BatchPropagator {
     private PropagatorWorldView sunlightWorld;
     private BatchPropagator sunlightPropagator;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+
+    /* Handed to the sunlight propagator, which doesn't keep it */
+    private final Vector3i sunlightPos = new Vector3i();
 
     public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorldView regenWorld, BatchPropagator sunlightPropagator, PropagatorWorldView sunlightWorld) {
         this.regenRules = regenRules;
@@ -47,11 +50,12 @@ public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorld
         this.sunlightPropagator = sunlightPropagator;
         this.sunlightWorld = sunlightWorld;
 
-        increaseQueues = new Set[regenRules.getMaxValue() + 1];
-        reduceQueues = new Set[regenRules.getMaxValue() + 1];
+        Deque<long[]> bitmapPool = new ArrayDeque<>();
+        increaseQueues = new PositionQueue[regenRules.getMaxValue() + 1];
+        reduceQueues = new PositionQueue[regenRules.getMaxValue() + 1];
         for (int i = 0; i < regenRules.getMaxValue() + 1; ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue(bitmapPool);
+            reduceQueues[i] = new PositionQueue(bitmapPool);
         }
     }
 
@@ -78,59 +82,66 @@ private void reviewChange(BlockChange blockChange) {
 
     private void reviewChangeToBottom(BlockChange blockChange) {
         PropagationComparison comparison = regenRules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), Side.BOTTOM);
-        Vector3i blockChangePosition = JomlUtil.from(blockChange.getPosition());
+        Vector3ic blockChangePosition = blockChange.getPosition();
+        int x = blockChangePosition.x();
+        int y = blockChangePosition.y();
+        int z = blockChangePosition.z();
         if (comparison.isPermitting()) {
-            byte existingValue = regenWorld.getValueAt(blockChangePosition);
-            queueSpreadRegen(blockChangePosition, existingValue);
+            byte existingValue = regenWorld.getValueAt(x, y, z);
+            queueSpreadRegen(x, y, z, existingValue);
         } else if (comparison.isRestricting()) {
-            Vector3i adjPos = Side.BOTTOM.getAdjacentPos(blockChangePosition);
-            byte existingValue = regenWorld.getValueAt(adjPos);
-            reduce(adjPos, existingValue);
+            byte existingValue = regenWorld.getValueAt(x, y - 1, z);
+            reduce(x, y - 1, z, existingValue);
         }
     }
 
     private void reviewChangeToTop(BlockChange blockChange) {
         PropagationComparison comparison = regenRules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), Side.TOP);
-        Vector3i blockChangePosition = JomlUtil.from(blockChange.getPosition());
+        Vector3ic blockChangePosition = blockChange.getPosition();
+        int x = blockChangePosition.x();
+        int y = blockChangePosition.y();
+        int z = blockChangePosition.z();
         if (comparison.isPermitting()) {
-            Vector3i adjPos = Side.TOP.getAdjacentPos(blockChangePosition);
-            byte adjValue = regenWorld.getValueAt(adjPos);
+            byte adjValue = regenWorld.getValueAt(x, y + 1, z);
             if (adjValue != PropagatorWorldView.UNAVAILABLE) {
-                queueSpreadRegen(adjPos, adjValue);
+                queueSpreadRegen(x, y + 1, z, adjValue);
             }
         } else if (comparison.isRestricting()) {
-            byte existingValue = regenWorld.getValueAt(blockChangePosition);
-            reduce(blockChangePosition, existingValue);
+            byte existingValue = regenWorld.getValueAt(x, y, z);
+            reduce(x, y, z, existingValue);
         }
     }
 
-    private void queueSpreadRegen(Vector3i position, byte value) {
-        increaseQueues[value].add(position);
+    private void queueSpreadRegen(int x, int y, int z, byte value) {
+        increaseQueues[value].add(x, y, z);
     }
 
     private void processRegenReduction() {
         for (byte depth = 0; depth <= regenRules.getMaxValue(); depth++) {
-            Set<Vector3i> toProcess = reduceQueues[depth];
+            PositionQueue toProcess = reduceQueues[depth];
 
-            toProcess.forEach(this::purge);
-            toProcess.clear();
+            while (!toProcess.isEmpty()) {
+                long pos = toProcess.poll();
+                purge(PositionQueue.unpackX(pos), PositionQueue.unpackY(pos), PositionQueue.unpackZ(pos));
+            }
         }
     }
 
-    private void purge(Vector3i pos) {
-        int expectedValue = regenWorld.getValueAt(pos);
+    private void purge(int x, int y, int z) {
+        int expectedValue = regenWorld.getValueAt(x, y, z);
         if (expectedValue != 0) {
-            Vector3i position = new Vector3i(pos);
+            int posY = y;
             for (byte i = 0; i <= ChunkConstants.MAX_SUNLIGHT_REGEN; ++i) {
-                if (regenWorld.getValueAt(position) == expectedValue) {
-                    regenWorld.setValueAt(position, i);
+                if (regenWorld.getValueAt(x, posY, z) == expectedValue) {
+                    regenWorld.setValueAt(x, posY, z, i);
                     if (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD > 0) {
-                        sunlightPropagator.regenerate(new Vector3i(position), (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
+                        sunlightPos.set(x, posY, z);
+                        sunlightPropagator.regenerate(sunlightPos, (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
                     }
                 } else {
                     break;
                 }
-                position.y--;
+                posY--;
                 if (expectedValue < ChunkConstants.MAX_SUNLIGHT_REGEN) {
                     expectedValue++;
                 }
@@ -140,34 +151,35 @@ private void purge(Vector3i pos) {
 
     private void processRegenIncrease() {
         for (byte depth = regenRules.getMaxValue(); depth >= 0; depth--) {
-            Set<Vector3i> toProcess = increaseQueues[depth];
+            PositionQueue toProcess = increaseQueues[depth];
 
-            for (Vector3i pos : toProcess) {
-                push(pos, depth);
+            while (!toProcess.isEmpty()) {
+                long pos = toProcess.poll();
+                push(PositionQueue.unpackX(pos), PositionQueue.unpackY(pos), PositionQueue.unpackZ(pos), depth);
             }
-            toProcess.clear();
         }
     }
 
-    private void push(Vector3i pos, byte value) {
+    private void push(int x, int y, int z, byte value) {
         byte regenValue = value;
-        Block block = regenWorld.getBlockAt(pos);
-        Vector3i position = new Vector3i(pos);
+        Block block = regenWorld.getBlockAt(x, y, z);
+        int posY = y;
         while (regenRules.canSpreadOutOf(block, Side.BOTTOM)) {
             regenValue = regenRules.propagateValue(regenValue, Side.BOTTOM, block);
-            position.y -= 1;
-            byte adjValue = regenWorld.getValueAt(position);
+            posY -= 1;
+            byte adjValue = regenWorld.getValueAt(x, posY, z);
             if (adjValue < regenValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                block = regenWorld.getBlockAt(position);
+                block = regenWorld.getBlockAt(x, posY, z);
                 if (regenRules.canSpreadInto(block, Side.TOP)) {
-                    regenWorld.setValueAt(position, regenValue);
-                    reduceQueues[adjValue].remove(position);
+                    regenWorld.setValueAt(x, posY, z, regenValue);
+                    reduceQueues[adjValue].remove(x, posY, z);
                     byte sunlightValue = (byte) (regenValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD);
                     if (sunlightValue > 0) {
-                        byte prevValue = sunlightWorld.getValueAt(position);
+                        byte prevValue = sunlightWorld.getValueAt(x, posY, z);
                         if (prevValue < sunlightValue) {
-                            sunlightWorld.setValueAt(position, sunlightValue);
-                            sunlightPropagator.propagateFrom(new Vector3i(position), sunlightValue);
+                            sunlightWorld.setValueAt(x, posY, z, sunlightValue);
+                            sunlightPos.set(x, posY, z);
+                            sunlightPropagator.propagateFrom(sunlightPos, sunlightValue);
                         }
                     }
                 } else {
@@ -182,9 +194,9 @@ private void push(Vector3i pos, byte value) {
     private void cleanUp() {
     }
 
-    private void reduce(Vector3i position, byte oldValue) {
+    private void reduce(int x, int y, int z, byte oldValue) {
         if (oldValue > 0) {
-            reduceQueues[oldValue].add(position);
+            reduceQueues[oldValue].add(x, y, z);
         }
     }
 
@@ -229,8 +241,9 @@ private void markForPropagation(LitChunk toChunk, int[] depth, int[] startingReg
                     int strength = Math.min(start + initialDepth - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD + 1, ChunkConstants.MAX_SUNLIGHT);
 
                     for (int i = initialDepth; i <= finalDepth; ++i) {
-                        sunlightPropagator.propagateFrom(toChunk.chunkToWorldPosition(x, ChunkConstants.SIZE_Y - i - 1, z),
-                                (byte) (strength));
+                        sunlightPos.set(toChunk.chunkToWorldPositionX(x), toChunk.chunkToWorldPositionY(ChunkConstants.SIZE_Y - i - 1),
+                                toChunk.chunkToWorldPositionZ(z));
+                        sunlightPropagator.propagateFrom(sunlightPos, (byte) (strength));
                         if (strength < ChunkConstants.MAX_SUNLIGHT) {
                             strength++;
                         }
@@ -239,7 +252,9 @@ private void markForPropagation(LitChunk toChunk, int[] depth, int[] startingReg
                     int initialDepth = Math.max(adjDepths[depthIndex], ChunkConstants.SUNLIGHT_REGEN_THRESHOLD - start);
                     byte strength = (byte) Math.min(ChunkConstants.MAX_SUNLIGHT, start + initialDepth - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD + 1);
                     for (int i = initialDepth; i <= depth[depthIndex]; ++i) {
-                        sunlightPropagator.propagateFrom(toChunk.chunkToWorldPosition(x, ChunkConstants.SIZE_Y - i - 1, z), strength);
+                        sunlightPos.set(toChunk.chunkToWorldPositionX(x), toChunk.chunkToWorldPositionY(ChunkConstants.SIZE_Y - i - 1),
+                                toChunk.chunkToWorldPositionZ(z));
+                        sunlightPropagator.propagateFrom(sunlightPos, strength);
                         if (strength < ChunkConstants.MAX_SUNLIGHT) {
                             strength++;
                         }
@@ -256,7 +271,7 @@ private void propagateSweep(LitChunk fromChunk, LitChunk toChunk, int[] depth, i
         for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
             for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
                 int depthIndex = x + ChunkConstants.SIZE_X * z;
-                startingRegen[depthIndex] = regenRules.getValue(fromChunk, new Vector3i(x, 0, z));
+                startingRegen[depthIndex] = regenRules.getValue(fromChunk, x, 0, z);
                 byte expectedValue = (byte) Math.min(startingRegen[depthIndex] + 1, ChunkConstants.MAX_SUNLIGHT_REGEN);
                 Block fromBlock = fromChunk.getBlock(x, 0, z);
                 Block toBlock = toChunk.getBlock(x, ChunkConstants.SIZE_Y - 1, z);
@@ -16,6 +16,8 @@
 
 package org.terasology.world.propagation.light;
 
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.block.Block;
@@ -26,42 +28,65 @@
 import org.terasology.world.propagation.SingleChunkView;
 import org.terasology.world.propagation.StandardBatchPropagator;
 
+import java.util.concurrent.RecursiveTask;
+
 /**
  * For doing an initial lighting sweep during chunk generation - bound to the chunk and assumed blank slate
  * Sets up the values for the subsequent stages of propagation
+ * <p>
+ * The columns of the chunk are independent until the light spreads sideways, so the sunlight regeneration, the fixed
+ * sunlight and the luminous blocks are found in parallel, in slabs of columns forked into the common fork-join pool.
+ * Spreading the light from there is done by the calling thread.
  */
 public final class InternalLightProcessor {
 
+    /* Width of the slabs of columns processed by a single task, 4 tasks per chunk */
+    private static final int SLAB_SIZE_X = ChunkConstants.SIZE_X / 4;
+
     private static final PropagationRules LIGHT_RULES = new LightPropagationRules();
     private static final PropagationRules SUNLIGHT_REGEN_RULES = new SunlightRegenPropagationRules();
 
     private InternalLightProcessor() {
     }
 
+    /**
+     * Lights a chunk that has no lighting yet.
+     * <p>
+     * The columns are lit concurrently, so the light data of the chunk must support writes to different positions from
+     * several threads. This holds for the dense arrays of a chunk that was just created or reactivated.
+     *
+     * @param chunk The chunk to light
+     */
     public static void generateInternalLighting(LitChunk chunk) {
-        populateSunlightRegen(chunk);
-        populateSunlight(chunk);
-        populateLight(chunk);
+        populate(chunk, new ColumnTask(chunk, 0, ChunkConstants.SIZE_X).invoke());
+    }
+
+    /**
+     * Lights a chunk that has no lighting yet, processing all of its columns in the calling thread.
+     *
+     * @param chunk The chunk to light
+     */
+    public static void generateInternalLightingSequentially(LitChunk chunk) {
+        populate(chunk, new ColumnTask(chunk, 0, ChunkConstants.SIZE_X).computeSlab());
+    }
+
+    private static void populate(LitChunk chunk, Seeds seeds) {
+        populateSunlight(chunk, seeds.sunlight);
+        populateLight(chunk, seeds.light);
     }
 
     /**
      * Propagate out light from the initial luminous blocks
      *
      * @param chunk The chunk to populate through
+     * @param sources The luminous blocks, which are lit already
      */
-    private static void populateLight(LitChunk chunk) {
-        BatchPropagator lightPropagator = new StandardBatchPropagator(LIGHT_RULES, new SingleChunkView(LIGHT_RULES, chunk));
-        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
-            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
-                for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
-                    Block block = chunk.getBlock(x, y, z);
-                    if (block.getLuminance() > 0) {
-                        chunk.setLight(x, y, z, block.getLuminance());
-                        lightPropagator.propagateFrom(new Vector3i(x, y, z), block.getLuminance());
-                    }
-                }
-            }
+    private static void populateLight(LitChunk chunk, TIntList sources) {
+        if (sources.isEmpty()) {
+            return;
         }
+        BatchPropagator lightPropagator = new StandardBatchPropagator(LIGHT_RULES, new SingleChunkView(LIGHT_RULES, chunk));
+        propagateFrom(lightPropagator, sources, chunk::getLight);
         lightPropagator.process();
     }
 
@@ -69,52 +94,144 @@ private static void populateLight(LitChunk chunk) {
      * Propagate the initial sunlight values out
      *
      * @param chunk The chunk to set in
+     * @param sources The blocks lit by the sun, which are lit already
      */
-    private static void populateSunlight(LitChunk chunk) {
+    private static void populateSunlight(LitChunk chunk, TIntList sources) {
+        if (sources.isEmpty()) {
+            return;
+        }
         PropagationRules sunlightRules = new SunlightPropagationRules(chunk);
         BatchPropagator lightPropagator = new StandardBatchPropagator(sunlightRules, new SingleChunkView(sunlightRules, chunk));
+        propagateFrom(lightPropagator, sources, chunk::getSunlight);
+        lightPropagator.process();
+    }
 
-        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
-            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
-                /* Start at the bottom of the chunk and then move up until the max sunlight level */
-                for (int y = 0; y < ChunkConstants.MAX_SUNLIGHT; y++) {
-                    Vector3i pos = new Vector3i(x, y, z);
-                    Block block = chunk.getBlock(x, y, z);
-                    byte light = sunlightRules.getFixedValue(block, pos);
-                    if (light > 0) {
-                        chunk.setSunlight(x, y, z, light);
-                        lightPropagator.propagateFrom(pos, light);
-                    }
-                }
-            }
+    private static void propagateFrom(BatchPropagator propagator, TIntList sources, LightGetter light) {
+        for (int i = 0; i < sources.size(); i++) {
+            int index = sources.get(i);
+            int x = unpackX(index);
+            int y = unpackY(index);
+            int z = unpackZ(index);
+            propagator.propagateFrom(new Vector3i(x, y, z), light.get(x, y, z));
         }
-        lightPropagator.process();
     }
 
     /**
-     * Sets the initial values for the sunlight regeneration
+     * Sets the initial values for the sunlight regeneration of a column, from the top down, and lights the blocks of
+     * the column that get a fixed amount of sunlight.
      *
-     * @param chunk The chunk to populate the regeneration values through
+     * @param sunlightSources Receives the blocks that got sunlight
      */
-    private static void populateSunlightRegen(LitChunk chunk) {
+    private static void populateColumn(LitChunk chunk, int x, int z, TIntList sunlightSources) {
         int top = ChunkConstants.SIZE_Y - 1;
-        /* Scan through each column in the chunk & propagate light from the top down */
-        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
-            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
-                byte regen = 0;
-                Block lastBlock = chunk.getBlock(x, top, z);
-                for (int y = top - 1; y >= 0; y--) {
-                    Block block = chunk.getBlock(x, y, z);
-                    /* If the regeneration can propagate down into this block */
-                    if (SUNLIGHT_REGEN_RULES.canSpreadOutOf(lastBlock, Side.BOTTOM) && SUNLIGHT_REGEN_RULES.canSpreadInto(block, Side.TOP)) {
-                        regen = SUNLIGHT_REGEN_RULES.propagateValue(regen, Side.BOTTOM, lastBlock);
-                        chunk.setSunlightRegen(x, y, z, regen);
-                    } else {
-                        regen = 0;
-                    }
-                    lastBlock = block;
+        byte regen = 0;
+        Block lastBlock = chunk.getBlock(x, top, z);
+        for (int y = top - 1; y >= 0; y--) {
+            Block block = chunk.getBlock(x, y, z);
+            /* If the regeneration can propagate down into this block */
+            if (SUNLIGHT_REGEN_RULES.canSpreadOutOf(lastBlock, Side.BOTTOM) && SUNLIGHT_REGEN_RULES.canSpreadInto(block, Side.TOP)) {
+                regen = SUNLIGHT_REGEN_RULES.propagateValue(regen, Side.BOTTOM, lastBlock);
+                chunk.setSunlightRegen(x, y, z, regen);
+            } else {
+                regen = 0;
+            }
+            lastBlock = block;
+        }
+
+        /* Start at the bottom of the chunk and then move up until the max sunlight level, as the fixed value of the
+           sunlight rules does */
+        for (int y = 0; y < ChunkConstants.MAX_SUNLIGHT; y++) {
+            int light = chunk.getSunlightRegen(x, y, z) - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD;
+            if (light > 0) {
+                chunk.setSunlight(x, y, z, (byte) light);
+                sunlightSources.add(pack(x, y, z));
+            }
+        }
+    }
+
+    /**
+     * @param lightSources Receives the luminous blocks, which get lit
+     */
+    private static void populateColumnLight(LitChunk chunk, int x, int z, TIntList lightSources) {
+        for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+            Block block = chunk.getBlock(x, y, z);
+            if (block.getLuminance() > 0) {
+                chunk.setLight(x, y, z, block.getLuminance());
+                lightSources.add(pack(x, y, z));
+            }
+        }
+    }
+
+    private static int pack(int x, int y, int z) {
+        return (x * ChunkConstants.SIZE_Z + z) * ChunkConstants.SIZE_Y + y;
+    }
+
+    private static int unpackX(int index) {
+        return index / (ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z);
+    }
+
+    private static int unpackY(int index) {
+        return index % ChunkConstants.SIZE_Y;
+    }
+
+    private static int unpackZ(int index) {
+        return index / ChunkConstants.SIZE_Y % ChunkConstants.SIZE_Z;
+    }
+
+    @FunctionalInterface
+    private interface LightGetter {
+        byte get(int x, int y, int z);
+    }
+
+    /**
+     * The blocks the light spreads from, in the order the columns were visited.
+     */
+    private static final class Seeds {
+        private final TIntList sunlight = new TIntArrayList();
+        private final TIntList light = new TIntArrayList();
+
+        private Seeds append(Seeds other) {
+            sunlight.addAll(other.sunlight);
+            light.addAll(other.light);
+            return this;
+        }
+    }
+
+    /**
+     * Lights the columns within a range of x, splitting it in halves until they are at most {@link #SLAB_SIZE_X} wide.
+     */
+    private static final class ColumnTask extends RecursiveTask<Seeds> {
+        private final LitChunk chunk;
+        private final int minX;
+        private final int maxX;
+
+        private ColumnTask(LitChunk chunk, int minX, int maxX) {
+            this.chunk = chunk;
+            this.minX = minX;
+            this.maxX = maxX;
+        }
+
+        @Override
+        protected Seeds compute() {
+            if (maxX - minX <= SLAB_SIZE_X) {
+                return computeSlab();
+            }
+            int middleX = (minX + maxX) >>> 1;
+            ColumnTask upper = new ColumnTask(chunk, middleX, maxX);
+            upper.fork();
+            Seeds lower = new ColumnTask(chunk, minX, middleX).compute();
+            return lower.append(upper.join());
+        }
+
+        private Seeds computeSlab() {
+            Seeds seeds = new Seeds();
+            for (int x = minX; x < maxX; x++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    populateColumn(chunk, x, z, seeds.sunlight);
+                    populateColumnLight(chunk, x, z, seeds.light);
                 }
             }
+            return seeds;
         }
     }
 }
@@ -16,12 +16,13 @@
 import org.terasology.world.propagation.SunlightRegenBatchPropagator;
 
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * Merging light in chunks
+ * <p>
+ * A merger holds no state between merges, so a single one can be shared by all the threads of a chunk pipeline.
  */
 public class LightMerger {
     private static final int CENTER_INDEX = 13;
@@ -57,9 +58,7 @@ public Chunk merge(Chunk[] localChunks) {
         Preconditions.checkArgument(Arrays.stream(localChunks).noneMatch(Objects::isNull), "Parameter [localChunks] " +
                 "must not contains nulls");
 
-        Arrays.sort(localChunks, Comparator.<Chunk>comparingInt(c -> c.getPosition(new Vector3i()).x)
-                .thenComparingInt(c -> c.getPosition(new Vector3i()).y)
-                .thenComparing(c -> c.getPosition(new Vector3i()).z));
+        arrange(localChunks);
         Chunk chunk = localChunks[CENTER_INDEX];
 
         List<BatchPropagator> propagators = Lists.newArrayList();
@@ -96,4 +95,29 @@ public Chunk merge(Chunk[] localChunks) {
         chunk.deflateSunlight();
         return chunk;
     }
+
+    /**
+     * Orders the chunks by their position, x first, like the indices of {@link #indexOf(Side)}. The chunks are placed
+     * by their offset from the lowest position, which is cheaper than sorting them.
+     *
+     * @throws IllegalArgumentException if the chunks don't form a cube of 3x3x3 chunks
+     */
+    private static void arrange(Chunk[] localChunks) {
+        Vector3i pos = new Vector3i();
+        Vector3i min = new Vector3i(Integer.MAX_VALUE);
+        for (Chunk chunk : localChunks) {
+            min.min(chunk.getPosition(pos));
+        }
+        Chunk[] arranged = new Chunk[LOCAL_CHUNKS_ARRAY_LENGTH];
+        for (Chunk chunk : localChunks) {
+            chunk.getPosition(pos).sub(min);
+            Preconditions.checkArgument(pos.x < LOCAL_CHUNKS_SIDE_LENGTH && pos.y < LOCAL_CHUNKS_SIDE_LENGTH
+                    && pos.z < LOCAL_CHUNKS_SIDE_LENGTH, "Parameter [localChunks] must be a 3x3x3 cube of chunks");
+            int index = (pos.x * LOCAL_CHUNKS_SIDE_LENGTH + pos.y) * LOCAL_CHUNKS_SIDE_LENGTH + pos.z;
+            Preconditions.checkArgument(arranged[index] == null, "Parameter [localChunks] must not contain a "
+                    + "position twice");
+            arranged[index] = chunk;
+        }
+        System.arraycopy(arranged, 0, localChunks, 0, LOCAL_CHUNKS_ARRAY_LENGTH);
+    }
 }
@@ -72,5 +72,10 @@ public void setValue(LitChunk chunk, Vector3i pos, byte value) {
         chunk.setLight(pos, value);
     }
 
+    @Override
+    public void setValue(LitChunk chunk, int x, int y, int z, byte value) {
+        chunk.setLight(x, y, z, value);
+    }
+
 
 }
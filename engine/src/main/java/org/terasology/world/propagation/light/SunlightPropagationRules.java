@@ -45,7 +45,7 @@ public SunlightPropagationRules(LitChunk chunk) {
      */
     @Override
     public byte getFixedValue(Block block, Vector3i pos) {
-        byte lightVal = (byte) (regenWorldView.getValueAt(pos) - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD);
+        byte lightVal = (byte) (regenWorldView.getValueAt(pos.x, pos.y, pos.z) - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD);
         return (lightVal > 0) ? lightVal : 0;
     }
 
@@ -84,4 +84,9 @@ public void setValue(LitChunk chunk, Vector3i pos, byte value) {
         chunk.setSunlight(pos, value);
     }
 
+    @Override
+    public void setValue(LitChunk chunk, int x, int y, int z, byte value) {
+        chunk.setSunlight(x, y, z, value);
+    }
+
 }
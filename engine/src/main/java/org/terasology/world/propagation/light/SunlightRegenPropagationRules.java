@@ -76,6 +76,11 @@ public void setValue(LitChunk chunk, Vector3i pos, byte value) {
         chunk.setSunlightRegen(pos, value);
     }
 
+    @Override
+    public void setValue(LitChunk chunk, int x, int y, int z, byte value) {
+        chunk.setSunlightRegen(x, y, z, value);
+    }
+
     /**
      * In all non-vertical sides the propagation is unchanged
      * <p>
@@ -41,4 +41,14 @@ protected void setValueAt(LitChunk chunk, Vector3i pos, byte value) {
         chunk.setSunlight(pos, value);
     }
 
+    @Override
+    protected byte getValueAt(LitChunk chunk, int x, int y, int z) {
+        return chunk.getSunlight(x, y, z);
+    }
+
+    @Override
+    protected void setValueAt(LitChunk chunk, int x, int y, int z, byte value) {
+        chunk.setSunlight(x, y, z, value);
+    }
+
 }